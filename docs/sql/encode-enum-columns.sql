@@ -0,0 +1,34 @@
+-- Converts the status, priority and role columns of an existing PostgreSQL database from enum names to the
+-- smallint codes defined by CodedEnum, and adds the priority indexes of the tasks table.
+-- The schema is otherwise created by Hibernate; run this once, before starting the new version, on a database
+-- that is kept between restarts. Unknown values fail the conversion and roll back the whole script.
+
+BEGIN;
+
+ALTER TABLE tasks DROP CONSTRAINT IF EXISTS tasks_status_check;
+ALTER TABLE tasks DROP CONSTRAINT IF EXISTS tasks_priority_check;
+ALTER TABLE users DROP CONSTRAINT IF EXISTS users_role_check;
+
+ALTER TABLE tasks
+    ALTER COLUMN status TYPE smallint USING CASE status
+        WHEN 'TODO' THEN 1
+        WHEN 'IN_PROGRESS' THEN 2
+        WHEN 'DONE' THEN 3
+    END,
+    ALTER COLUMN priority TYPE smallint USING CASE priority
+        WHEN 'LOW' THEN 1
+        WHEN 'MEDIUM' THEN 2
+        WHEN 'HIGH' THEN 3
+    END;
+
+ALTER TABLE users
+    ALTER COLUMN role TYPE smallint USING CASE role
+        WHEN 'ADMIN' THEN 1
+        WHEN 'MANAGER' THEN 2
+        WHEN 'USER' THEN 3
+    END;
+
+CREATE INDEX IF NOT EXISTS idx_tasks_priority ON tasks (priority, id);
+CREATE INDEX IF NOT EXISTS idx_tasks_project_priority ON tasks (project_id, priority, id);
+
+COMMIT;
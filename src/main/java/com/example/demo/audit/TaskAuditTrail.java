@@ -0,0 +1,277 @@
+package com.example.demo.audit;
+
+import com.example.demo.cache.AfterCommit;
+import com.example.demo.model.entity.TaskAudit;
+import com.example.demo.repository.TaskAuditRepository;
+import com.example.demo.shard.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Records field changes of tasks in the {@code task_audit} table without adding the inserts to the write itself.
+ * The service layer passes the changes it makes; once the transaction commits they are put on a queue of
+ * {@code app.audit.queue-capacity} entries, and a background thread inserts them in batches of up to
+ * {@code app.audit.batch-size} rows, one transaction per shard.
+ * <p>
+ * When the queue is full, for example while the database rejects the inserts, writers wait up to
+ * {@code app.audit.enqueue-timeout} for space and then drop the changes with an error.
+ * Changes still queued at shutdown are written before the application stops, and changes committed after the writer
+ * has stopped are written on the committing thread, in a single attempt that logs the changes it fails to write.
+ */
+@Component
+public class TaskAuditTrail implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(TaskAuditTrail.class);
+
+    private static final long STOP_TIMEOUT_MILLIS = 10_000;
+
+    /**
+     * A change waiting to be written. Entities are only created when writing, so a failed batch can be retried
+     * without the IDs assigned by the failed attempt.
+     */
+    private record Change(Long taskId, String field, String oldValue, String newValue, Long changedBy,
+                          LocalDateTime changedAt) {
+    }
+
+    private final BlockingQueue<Change> queue;
+    private final TaskAuditRepository taskAuditRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final int batchSize;
+    private final Duration enqueueTimeout;
+    private final Duration retryDelay;
+
+    private final Counter written;
+    private final Counter dropped;
+    private final Timer flushes;
+
+    private final Thread writer = new Thread(this::writeChanges, "task-audit-writer");
+    private volatile boolean running;
+    private volatile boolean writerStopped;
+
+    public TaskAuditTrail(TaskAuditRepository taskAuditRepository,
+                          PlatformTransactionManager transactionManager,
+                          ShardRouter shardRouter,
+                          @Value("${app.audit.queue-capacity}") int queueCapacity,
+                          @Value("${app.audit.batch-size}") int batchSize,
+                          @Value("${app.audit.enqueue-timeout}") Duration enqueueTimeout,
+                          @Value("${app.audit.retry-delay}") Duration retryDelay,
+                          MeterRegistry meterRegistry) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.taskAuditRepository = taskAuditRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+        this.batchSize = batchSize;
+        this.enqueueTimeout = enqueueTimeout;
+        this.retryDelay = retryDelay;
+        this.written = Counter.builder("audit.changes.written").register(meterRegistry);
+        this.dropped = Counter.builder("audit.changes.dropped")
+                .description("Changes lost because the queue stayed full")
+                .register(meterRegistry);
+        this.flushes = Timer.builder("audit.flushes").register(meterRegistry);
+        Gauge.builder("audit.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        writer.setDaemon(true);
+    }
+
+    /**
+     * Record the fields that differ between two snapshots of a task.
+     *
+     * @param before the task before the change
+     * @param after the task after the change
+     * @param changedBy the ID of the user making the change
+     */
+    public void recordChanges(TaskSnapshot before, TaskSnapshot after, Long changedBy) {
+        LocalDateTime changedAt = LocalDateTime.now();
+        List<Change> changes = new ArrayList<>();
+        addChange(changes, before.id(), "title", before.title(), after.title(), changedBy, changedAt);
+        addChange(changes, before.id(), "description", before.description(), after.description(), changedBy, changedAt);
+        addChange(changes, before.id(), "status", before.status(), after.status(), changedBy, changedAt);
+        addChange(changes, before.id(), "dueDate", before.dueDate(), after.dueDate(), changedBy, changedAt);
+        addChange(changes, before.id(), "priority", before.priority(), after.priority(), changedBy, changedAt);
+        addChange(changes, before.id(), "assignedUserId", before.assignedUserId(), after.assignedUserId(),
+                changedBy, changedAt);
+        enqueueAfterCommit(changes);
+    }
+
+    /**
+     * Record a change of a single field of a task.
+     *
+     * @param taskId the ID of the task
+     * @param field the name of the field
+     * @param oldValue the value before the change
+     * @param newValue the value after the change
+     * @param changedBy the ID of the user making the change
+     */
+    public void recordChange(Long taskId, String field, Object oldValue, Object newValue, Long changedBy) {
+        List<Change> changes = new ArrayList<>(1);
+        addChange(changes, taskId, field, oldValue, newValue, changedBy, LocalDateTime.now());
+        enqueueAfterCommit(changes);
+    }
+
+    private static void addChange(List<Change> changes, Long taskId, String field, Object oldValue, Object newValue,
+                                  Long changedBy, LocalDateTime changedAt) {
+        if (!Objects.equals(oldValue, newValue)) {
+            changes.add(new Change(taskId, field, Objects.toString(oldValue, null), Objects.toString(newValue, null),
+                    changedBy, changedAt));
+        }
+    }
+
+    private void enqueueAfterCommit(List<Change> changes) {
+        if (!changes.isEmpty()) {
+            AfterCommit.run(() -> enqueue(changes));
+        }
+    }
+
+    private void enqueue(List<Change> changes) {
+        try {
+            for (Change change : changes) {
+                if (!queue.offer(change, enqueueTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                    drop(change, "queue full");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerStopped) {
+            // Changes committed after the writer stopped are written on the committing thread
+            writeRemaining();
+        }
+    }
+
+    private void drop(Change change, String reason) {
+        dropped.increment();
+        logger.error("Audit {}, dropped change of {} on task {} by user {} from {} to {} at {}", reason,
+                change.field(), change.taskId(), change.changedBy(), change.oldValue(), change.newValue(),
+                change.changedAt());
+    }
+
+    private void writeChanges() {
+        List<Change> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Change first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeWithRetry(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+        // Changes enqueued from here on are written by their own threads, see enqueue()
+        writerStopped = true;
+        writeRemaining();
+    }
+
+    /**
+     * Write the queued changes in a single attempt once the writer has stopped, logging those that fail.
+     */
+    private void writeRemaining() {
+        List<Change> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (remaining.isEmpty()) {
+            return;
+        }
+        try {
+            writeWithRetry(remaining);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeWithRetry(List<Change> batch) throws InterruptedException {
+        // The history of a task is read from its shard; shards already written are not written again on retry
+        Map<Integer, List<Change>> pending = batch.stream()
+                .collect(Collectors.groupingBy(change -> shardRouter.shardOf(change.taskId())));
+        while (true) {
+            try {
+                for (Iterator<Map.Entry<Integer, List<Change>>> entries = pending.entrySet().iterator(); entries.hasNext(); ) {
+                    Map.Entry<Integer, List<Change>> entry = entries.next();
+                    flushes.record(() -> shardRouter.callOn(entry.getKey(), () -> write(entry.getValue())));
+                    written.increment(entry.getValue().size());
+                    entries.remove();
+                }
+                return;
+            } catch (RuntimeException e) {
+                int remaining = pending.values().stream().mapToInt(List::size).sum();
+                if (!running) {
+                    logger.error("Could not write {} audit changes at shutdown", remaining, e);
+                    pending.values().forEach(changes -> changes.forEach(change -> drop(change, "write failed")));
+                    return;
+                }
+                logger.warn("Could not write {} audit changes, retrying in {}", remaining, retryDelay, e);
+                Thread.sleep(retryDelay.toMillis());
+            }
+        }
+    }
+
+    private List<TaskAudit> write(List<Change> changes) {
+        return transactionTemplate.execute(status -> taskAuditRepository.saveAll(changes.stream()
+                .map(change -> TaskAudit.builder()
+                        .taskId(change.taskId())
+                        .field(change.field())
+                        .oldValue(change.oldValue())
+                        .newValue(change.newValue())
+                        .changedBy(change.changedBy())
+                        .changedAt(change.changedAt())
+                        .build())
+                .toList()));
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer.start();
+    }
+
+    /**
+     * Stops accepting changes and waits for the queued changes to be written.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writer.join(STOP_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before and stops after the web server, so requests in flight at shutdown are still audited.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.demo.audit;
+
+import com.example.demo.model.entity.Task;
+import com.example.demo.model.enums.Priority;
+import com.example.demo.model.enums.TaskStatus;
+
+import java.time.LocalDate;
+
+/**
+ * The audited fields of a task at one point in time, compared by the {@link TaskAuditTrail}.
+ * Taking a snapshot reads the description, so it is loaded if it was not fetched with the task.
+ *
+ * @param id the ID of the task
+ * @param title the title
+ * @param description the description
+ * @param status the status
+ * @param dueDate the due date
+ * @param priority the priority
+ * @param assignedUserId the ID of the assigned user, or null if the task is unassigned
+ */
+public record TaskSnapshot(Long id, String title, String description, TaskStatus status, LocalDate dueDate,
+                           Priority priority, Long assignedUserId) {
+
+    public static TaskSnapshot of(Task task) {
+        return new TaskSnapshot(task.getId(), task.getTitle(), task.getDescription(), task.getStatus(),
+                task.getDueDate(), task.getPriority(),
+                task.getAssignedUser() != null ? task.getAssignedUser().getId() : null);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.demo.cache;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Runs cache bookkeeping, event publishing and other side effects once the surrounding transaction has committed,
+ * so readers never see a change recorded for data that is not yet visible, or that is rolled back.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    /**
+     * Run the action after commit when called inside a transaction, otherwise immediately.
+     *
+     * @param action the action to run
+     */
+    public static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Run the action after commit when called inside a transaction, otherwise immediately. If the transaction
+     * rolls back, run the rollback action instead.
+     *
+     * @param action the action to run on commit
+     * @param onRollback the action to run on rollback
+     */
+    public static void run(Runnable action, Runnable onRollback) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        action.run();
+                    } else {
+                        onRollback.run();
+                    }
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
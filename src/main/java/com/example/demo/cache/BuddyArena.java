@@ -0,0 +1,134 @@
+package com.example.demo.cache;
+
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+
+/**
+ * Fixed off-heap arena handing out blocks with a buddy allocator. The memory is a single direct buffer allocated
+ * once, so filling and evicting entries allocates nothing and leaves nothing for the garbage collector. Blocks are
+ * powers of two from {@link #MIN_BLOCK} bytes up to the whole arena. A block is split in halves to serve smaller
+ * requests and merged with its free buddy when released, so free memory does not stay fragmented.
+ * Not thread-safe; callers synchronize.
+ */
+final class BuddyArena {
+
+    static final int MIN_BLOCK = 64;
+
+    private final ByteBuffer memory;
+    private final int maxOrder;
+    /**
+     * The free blocks of each order, by index of the block among the blocks of that size.
+     */
+    private final BitSet[] free;
+    private long usedBytes;
+
+    /**
+     * @param capacity the size of the arena, a power of two of at least {@link #MIN_BLOCK} bytes
+     */
+    BuddyArena(int capacity) {
+        if (capacity < MIN_BLOCK || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Arena capacity must be a power of two of at least " + MIN_BLOCK);
+        }
+        this.memory = ByteBuffer.allocateDirect(capacity);
+        this.maxOrder = Integer.numberOfTrailingZeros(capacity / MIN_BLOCK);
+        this.free = new BitSet[maxOrder + 1];
+        for (int order = 0; order <= maxOrder; order++) {
+            free[order] = new BitSet();
+        }
+        free[maxOrder].set(0);
+    }
+
+    /**
+     * Allocate a block for the given number of bytes.
+     *
+     * @param size the number of bytes, at least 1
+     * @return the offset of the block, or -1 if no free block is large enough
+     */
+    int allocate(int size) {
+        int order = orderOf(size);
+        int available = order;
+        while (available <= maxOrder && free[available].isEmpty()) {
+            available++;
+        }
+        if (available > maxOrder) {
+            return -1;
+        }
+
+        int index = free[available].nextSetBit(0);
+        free[available].clear(index);
+        while (available > order) {
+            // Keep the first half, free the second
+            available--;
+            index *= 2;
+            free[available].set(index + 1);
+        }
+        usedBytes += blockSize(order);
+        return index * blockSize(order);
+    }
+
+    /**
+     * Release a block, merging it with its buddy while that is free.
+     *
+     * @param offset the offset returned by {@link #allocate(int)}
+     * @param size the number of bytes the block was allocated for
+     */
+    void free(int offset, int size) {
+        int order = orderOf(size);
+        usedBytes -= blockSize(order);
+        int index = offset / blockSize(order);
+        while (order < maxOrder && free[order].get(index ^ 1)) {
+            free[order].clear(index ^ 1);
+            index /= 2;
+            order++;
+        }
+        free[order].set(index);
+    }
+
+    /**
+     * Get a read-only view of part of a block.
+     *
+     * @param offset the offset of the block
+     * @param length the number of bytes to view
+     * @return a buffer over the bytes, positioned at 0
+     */
+    ByteBuffer slice(int offset, int length) {
+        return memory.slice(offset, length).asReadOnlyBuffer();
+    }
+
+    /**
+     * Copy bytes into a block. Blocks do not overlap, so blocks may be written concurrently.
+     *
+     * @param offset the offset of the block
+     * @param bytes the bytes to copy
+     */
+    void write(int offset, byte[] bytes) {
+        memory.put(offset, bytes);
+    }
+
+    /**
+     * Get the number of bytes taken by a block allocated for the given size.
+     *
+     * @param size the requested number of bytes
+     * @return the size of the block
+     */
+    static int blockSizeFor(int size) {
+        return blockSize(orderOf(size));
+    }
+
+    long getUsedBytes() {
+        return usedBytes;
+    }
+
+    int getCapacity() {
+        return memory.capacity();
+    }
+
+    private static int blockSize(int order) {
+        return MIN_BLOCK << order;
+    }
+
+    private static int orderOf(int size) {
+        int blocks = (Math.max(size, 1) + MIN_BLOCK - 1) / MIN_BLOCK;
+        return 32 - Integer.numberOfLeadingZeros(blocks - 1);
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.demo.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps in-memory change counters that version task and project lists, for conditional requests and the
+ * {@link TaskPageCache}.
+ * <p>
+ * A task change bumps the counter of all tasks, the counter of its project and the counters of the users it was and is
+ * assigned to. Project and user changes bump counters of their own, which every task list depends on as tasks embed
+ * projects and users. A list is versioned by the sum of the counters of its scope, so a write only changes the versions
+ * of the lists it can appear in, and recording it is a few atomic increments without shared rows to lock.
+ * <p>
+ * The write paths bump the counters after commit, and events relayed from the outbox bump them too, see
+ * {@link ChangeTrackerOutboxSink}, which covers writes of other instances whose events this instance relays.
+ * Version strings carry a random epoch of this instance, so versions handed out by another instance or before a restart
+ * never match, and the current window of {@code app.change-tracker.max-staleness}, which bounds how long a version can
+ * miss a write relayed by another instance.
+ */
+@Component
+public class ChangeTracker {
+
+    /**
+     * Resource types whose changes are tracked.
+     */
+    public enum ResourceType {
+        TASK,
+        PROJECT,
+        USER
+    }
+
+    /**
+     * Distinguishes counters of this process from those of other instances and previous runs, which count separately.
+     */
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final long windowMillis;
+
+    private final AtomicLong tasks = new AtomicLong();
+    private final AtomicLong projects = new AtomicLong();
+    private final AtomicLong users = new AtomicLong();
+    private final Map<Long, AtomicLong> projectTasks = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> assignedTasks = new ConcurrentHashMap<>();
+
+    public ChangeTracker(@Value("${app.change-tracker.max-staleness}") Duration maxStaleness) {
+        this.windowMillis = maxStaleness.toMillis();
+    }
+
+    /**
+     * Record a change of a task. When called inside a transaction the counters are bumped after commit.
+     *
+     * @param projectId the ID of the project of the task
+     * @param assigneeIds the IDs of the users the task was or is assigned to, null values are ignored
+     */
+    public void markTaskChanged(Long projectId, Long... assigneeIds) {
+        AfterCommit.run(() -> {
+            tasks.incrementAndGet();
+            counter(projectTasks, projectId).incrementAndGet();
+            for (Long assigneeId : assigneeIds) {
+                if (assigneeId != null) {
+                    counter(assignedTasks, assigneeId).incrementAndGet();
+                }
+            }
+        });
+    }
+
+    /**
+     * Record the creation, update or deletion of a project. When called inside a transaction the counter is bumped
+     * after commit.
+     */
+    public void markProjectChanged() {
+        AfterCommit.run(projects::incrementAndGet);
+    }
+
+    /**
+     * Record the creation, update or deletion of a user. When called inside a transaction the counter is bumped
+     * after commit.
+     */
+    public void markUserChanged() {
+        AfterCommit.run(users::incrementAndGet);
+    }
+
+    /**
+     * Get the generation of the tasks in a scope, which grows whenever a task in the scope, or a project or user
+     * embedded in tasks, changes on this instance.
+     *
+     * @param projectIds the projects of the scope, or null if it is not limited to projects
+     * @param assignedUserId the assignee of the scope if it is not limited to projects, or null for all tasks
+     * @return the current generation of the scope
+     */
+    public long taskGeneration(Collection<Long> projectIds, Long assignedUserId) {
+        long generation = projects.get() + users.get();
+        if (projectIds != null) {
+            for (Long projectId : projectIds) {
+                generation += count(projectTasks, projectId);
+            }
+        } else if (assignedUserId != null) {
+            generation += count(assignedTasks, assignedUserId);
+        } else {
+            generation += tasks.get();
+        }
+        return generation;
+    }
+
+    /**
+     * Get a version string of the tasks in a scope, see {@link #taskGeneration(Collection, Long)}.
+     *
+     * @param projectIds the projects of the scope, or null if it is not limited to projects
+     * @param assignedUserId the assignee of the scope if it is not limited to projects, or null for all tasks
+     * @return the current version of the scope
+     */
+    public String taskVersion(Collection<Long> projectIds, Long assignedUserId) {
+        return version(taskGeneration(projectIds, assignedUserId));
+    }
+
+    /**
+     * Get a version string of the projects, which embed their owners.
+     *
+     * @return the current version of the projects
+     */
+    public String projectVersion() {
+        return version(projects.get() + users.get());
+    }
+
+    private String version(long generation) {
+        return epoch + "-" + System.currentTimeMillis() / windowMillis + "-" + generation;
+    }
+
+    private static AtomicLong counter(Map<Long, AtomicLong> counters, Long id) {
+        return counters.computeIfAbsent(id, ignored -> new AtomicLong());
+    }
+
+    /**
+     * Read a counter without creating it, so reads of scopes that never changed do not grow the maps.
+     */
+    private static long count(Map<Long, AtomicLong> counters, Long id) {
+        AtomicLong counter = counters.get(id);
+        return counter != null ? counter.get() : 0;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.cache;
+
+import com.example.demo.dto.task.TaskSummaryDto;
+import com.example.demo.model.entity.OutboxEvent;
+import com.example.demo.outbox.OutboxSink;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Bumps the {@link ChangeTracker} counters for relayed task and project events, so list versions and the pages of the
+ * {@link TaskPageCache} also change on writes made by other instances. The counters are bumped after the relay commits.
+ * Task events carry the state after the change, so a task moved away from an assignee by another instance only changes
+ * the versions of the new assignee.
+ */
+@Component
+public class ChangeTrackerOutboxSink implements OutboxSink {
+
+    private final ChangeTracker changeTracker;
+    private final ObjectMapper objectMapper;
+
+    public ChangeTrackerOutboxSink(ChangeTracker changeTracker, ObjectMapper objectMapper) {
+        this.changeTracker = changeTracker;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void deliver(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            switch (event.getType()) {
+                case TASK_CREATED, TASK_UPDATED, TASK_DELETED -> {
+                    TaskSummaryDto task = readTask(event);
+                    changeTracker.markTaskChanged(task.getProjectId(), task.getAssignedUserId());
+                }
+                case PROJECT_CREATED, PROJECT_UPDATED, PROJECT_DELETED -> changeTracker.markProjectChanged();
+                default -> {
+                    // Reminders change no list
+                }
+            }
+        }
+    }
+
+    private TaskSummaryDto readTask(OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), TaskSummaryDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read outbox event " + event.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.demo.cache;
+
+import com.example.demo.cache.ChangeTracker.ResourceType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps serialized single-resource responses off-heap, keyed by resource type and ID.
+ * Each entry is tagged with the version it was serialized from and is only served for that version,
+ * so an entry that is not evicted in time can never be served stale.
+ * <p>
+ * Bodies are copied into a {@link BuddyArena} allocated once at startup, so filling the cache does not allocate
+ * direct buffers. The arena is the largest power of two within {@code app.response-cache.max-bytes}, and entries
+ * are accounted by the blocks they take. The least recently used entries are dropped until a new body fits.
+ * Entries are reference counted: every entry returned by {@link #get} or {@link #put} must be
+ * {@link Entry#release() released} once written, and its block is only reused after that.
+ */
+@Component
+public class SerializedResponseCache {
+
+    /**
+     * Bodies smaller than this are not worth compressing.
+     */
+    private static final int GZIP_MIN_BYTES = 512;
+
+    /**
+     * A cached response body, with its gzip-compressed form if compression pays off.
+     * The buffers are read-only views of the arena and are shared, so readers must work on duplicates
+     * and must not use them after releasing the entry.
+     */
+    public static final class Entry {
+
+        private final SerializedResponseCache cache;
+        private final String version;
+        private final int offset;
+        private final int length;
+        private final ByteBuffer body;
+        private final ByteBuffer gzipBody;
+        private int references;
+
+        private Entry(SerializedResponseCache cache, String version, int offset, int length,
+                      ByteBuffer body, ByteBuffer gzipBody) {
+            this.cache = cache;
+            this.version = version;
+            this.offset = offset;
+            this.length = length;
+            this.body = body;
+            this.gzipBody = gzipBody;
+        }
+
+        public String version() {
+            return version;
+        }
+
+        public ByteBuffer body() {
+            return body;
+        }
+
+        public ByteBuffer gzipBody() {
+            return gzipBody;
+        }
+
+        /**
+         * Give the entry back to the cache, which may then reuse its memory.
+         */
+        public void release() {
+            if (cache != null) {
+                cache.unreference(this);
+            }
+        }
+    }
+
+    private record Key(ResourceType type, Long id) {
+    }
+
+    private final boolean gzip;
+    private final BuddyArena arena;
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public SerializedResponseCache(@Value("${app.response-cache.max-bytes}") long maxBytes,
+                                   @Value("${app.response-cache.gzip}") boolean gzip,
+                                   MeterRegistry meterRegistry) {
+        this.gzip = gzip;
+        this.arena = new BuddyArena(Integer.highestOneBit((int) Math.max(Math.min(maxBytes, 1 << 30), BuddyArena.MIN_BLOCK)));
+        this.hits = Counter.builder("response.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("response.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.evictions = Counter.builder("response.cache.evictions")
+                .description("Entries dropped to make room for new ones")
+                .register(meterRegistry);
+        Gauge.builder("response.cache.size", this, SerializedResponseCache::getUsedBytes)
+                .description("Off-heap bytes held by cached responses")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Get the cached response of a resource if it was serialized from the given version.
+     * The returned entry must be released once written.
+     *
+     * @param type the resource type
+     * @param id the ID of the resource
+     * @param version the current version of the resource
+     * @return the entry, or null if there is none for this version
+     */
+    public Entry get(ResourceType type, Long id, String version) {
+        synchronized (this) {
+            Entry entry = entries.get(new Key(type, id));
+            if (entry != null && entry.version.equals(version)) {
+                entry.references++;
+                hits.increment();
+                return entry;
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Store the serialized response of a resource, replacing the entry of any previous version.
+     * Bodies that do not fit in the arena, even after evicting every other entry, are not stored.
+     * The returned entry must be released once written.
+     *
+     * @param type the resource type
+     * @param id the ID of the resource
+     * @param version the version the body was serialized from
+     * @param body the serialized body
+     * @return the stored entry, or an uncached entry holding the body if it does not fit
+     */
+    public Entry put(ResourceType type, Long id, String version, byte[] body) {
+        byte[] gzipBody = gzip && body.length >= GZIP_MIN_BYTES ? compress(body) : null;
+        int length = body.length + (gzipBody != null ? gzipBody.length : 0);
+
+        int offset = allocate(length);
+        if (offset < 0) {
+            return new Entry(null, version, -1, length, ByteBuffer.wrap(body).asReadOnlyBuffer(),
+                    gzipBody != null ? ByteBuffer.wrap(gzipBody).asReadOnlyBuffer() : null);
+        }
+
+        // The block is not reachable by other threads yet, so it is filled outside the lock
+        arena.write(offset, body);
+        if (gzipBody != null) {
+            arena.write(offset + body.length, gzipBody);
+        }
+        Entry entry = new Entry(this, version, offset, length, arena.slice(offset, body.length),
+                gzipBody != null ? arena.slice(offset + body.length, gzipBody.length) : null);
+
+        synchronized (this) {
+            // One reference for the cache, one for the caller
+            entry.references = 2;
+            Entry previous = entries.put(new Key(type, id), entry);
+            if (previous != null) {
+                unreference(previous);
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Drop the cached response of a resource.
+     * When called inside a transaction the entry is dropped after commit, otherwise immediately.
+     *
+     * @param type the resource type
+     * @param id the ID of the resource
+     */
+    public void evict(ResourceType type, Long id) {
+        AfterCommit.run(() -> remove(new Key(type, id)));
+    }
+
+    /**
+     * Drop the cached responses of all resources of a type.
+     * When called inside a transaction the entries are dropped after commit, otherwise immediately.
+     *
+     * @param type the resource type
+     */
+    public void evictAll(ResourceType type) {
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    Map.Entry<Key, Entry> entry = iterator.next();
+                    if (entry.getKey().type() == type) {
+                        iterator.remove();
+                        unreference(entry.getValue());
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Get the number of arena bytes taken by blocks, including those of dropped entries that are still being written.
+     */
+    synchronized long getUsedBytes() {
+        return arena.getUsedBytes();
+    }
+
+    /**
+     * Allocate a block, evicting the least recently used entries until one is free.
+     *
+     * @return the offset of the block, or -1 if the body does not fit
+     */
+    private synchronized int allocate(int length) {
+        if (length > arena.getCapacity()) {
+            return -1;
+        }
+
+        int offset = arena.allocate(length);
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (offset < 0 && eldest.hasNext()) {
+            Entry entry = eldest.next();
+            eldest.remove();
+            unreference(entry);
+            evictions.increment();
+            offset = arena.allocate(length);
+        }
+        return offset;
+    }
+
+    private synchronized void remove(Key key) {
+        Entry previous = entries.remove(key);
+        if (previous != null) {
+            unreference(previous);
+        }
+    }
+
+    private synchronized void unreference(Entry entry) {
+        if (--entry.references == 0) {
+            arena.free(entry.offset, entry.length);
+        }
+    }
+
+    private static byte[] compress(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 2);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.size() < body.length ? compressed.toByteArray() : null;
+    }
+}
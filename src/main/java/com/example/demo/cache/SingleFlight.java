@@ -0,0 +1,94 @@
+package com.example.demo.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical concurrent reads: while a read for a key is in flight, callers with the same key wait for it
+ * and receive its result, or its exception, instead of running the read again.
+ * <p>
+ * The key must capture everything the result depends on, including the access scope of the caller, and callers must
+ * check access before joining, as the result is handed to every caller with the same key. Results are shared and must
+ * not be modified.
+ */
+@Component
+public class SingleFlight {
+
+    private final Map<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter executions;
+    private final Counter joins;
+
+    public SingleFlight(MeterRegistry meterRegistry) {
+        this.executions = Counter.builder("single.flight.calls").tag("result", "executed").register(meterRegistry);
+        this.joins = Counter.builder("single.flight.calls").tag("result", "joined").register(meterRegistry);
+    }
+
+    /**
+     * Run the loader, or wait for the in-flight run with the same key and return its result.
+     * Reads inside a read-write transaction may see uncommitted changes, so they are never shared.
+     *
+     * @param key identifies the read and the scope it is authorized for
+     * @param loader runs the read
+     * @param <T> the type of the result, which must be the same for all callers using a key
+     * @return the result of the read
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Object key, Supplier<T> loader) {
+        if (!isCommittedRead()) {
+            return loader.get();
+        }
+
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, call);
+        if (running != null) {
+            joins.increment();
+            return (T) await(running);
+        }
+
+        executions.increment();
+        try {
+            T result = loader.get();
+            call.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * Check whether the current thread can only see committed data: it is outside a transaction or in a read-only one.
+     * Results read in a read-write transaction may include its own uncommitted changes and must not be shared.
+     *
+     * @return true if results read now can be shared with other requests
+     */
+    static boolean isCommittedRead() {
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private static Object await(CompletableFuture<Object> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.demo.cache;
+
+import com.example.demo.dto.project.ProjectResponseDto;
+import com.example.demo.dto.task.TaskResponseDto;
+import com.example.demo.dto.user.UserResponseDto;
+import com.example.demo.model.enums.Priority;
+import com.example.demo.model.enums.TaskStatus;
+import com.example.demo.repository.TaskCriteria;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Caches pages of role-scoped task lists, keyed by the scope and filters of the query and the pageable.
+ * <p>
+ * A page is stored with the {@link ChangeTracker} generation of its scope, read before the query runs, and is only
+ * served while that generation is unchanged. Since the generations only grow, any relevant write changes them,
+ * so stale pages are detected on lookup instead of being searched for on write.
+ * <p>
+ * The generations only see writes made by this instance and the events it relays from the outbox, so every page
+ * expires {@code app.task-page-cache.expire-after-write} after it was loaded, which bounds how long a page can miss
+ * the rest.
+ * <p>
+ * Concurrent misses for the same page and generation share one load through {@link SingleFlight}. The cache starts the
+ * read-only transaction of a load itself, once it runs the load, so requests waiting for a load in flight hold no
+ * connection; callers resolve the scope and check access outside a transaction.
+ * Pages read inside a read-write transaction may hold its uncommitted changes, so they are neither shared nor cached.
+ * <p>
+ * The cached pages are shared between requests and must not be modified.
+ */
+@Component
+public class TaskPageCache {
+
+    private record Key(TaskStatus status, Priority priority, List<Long> projectIds, Long assignedUserId,
+                       Pageable pageable) {
+    }
+
+    private record Entry(long generation, Page<TaskResponseDto> page) {
+    }
+
+    private record Load(Key key, long generation) {
+    }
+
+    private final Cache<Key, Entry> cache;
+    private final ChangeTracker changeTracker;
+    private final SingleFlight singleFlight;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Counter hits;
+    private final Counter misses;
+
+    public TaskPageCache(@Value("${app.task-page-cache.max-bytes}") long maxBytes,
+                         @Value("${app.task-page-cache.expire-after-write}") Duration expireAfterWrite,
+                         ChangeTracker changeTracker, SingleFlight singleFlight,
+                         PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.changeTracker = changeTracker;
+        this.singleFlight = singleFlight;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .expireAfterWrite(expireAfterWrite)
+                .weigher((Key key, Entry entry) -> estimateBytes(entry.page()))
+                .build();
+        // Stale entries are found in the cache but count as misses, so Caffeine's own statistics do not apply
+        this.hits = Counter.builder("task.page.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("task.page.cache.requests").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("task.page.cache.size", cache, c -> c.policy().eviction().orElseThrow().weightedSize().orElse(0))
+                .description("Estimated heap bytes held by cached task pages")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("task.page.cache.entries", cache, Cache::estimatedSize)
+                .description("Number of cached task pages")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Get a page of tasks from the cache, or load and cache it if it is missing or stale.
+     * The loader runs in a read-only transaction, or in the transaction of the caller if there is one.
+     *
+     * @param criteria the criteria of the query, including the scope of the current user
+     * @param pageable the pagination information
+     * @param loader loads the page from the database
+     * @return the page of tasks
+     */
+    public Page<TaskResponseDto> get(TaskCriteria criteria, Pageable pageable, Supplier<Page<TaskResponseDto>> loader) {
+        if (!SingleFlight.isCommittedRead()) {
+            return readOnlyTransaction.execute(status -> loader.get());
+        }
+
+        List<Long> projectIds = criteria.getProjectIds() != null
+                ? criteria.getProjectIds().stream().sorted().toList()
+                : null;
+        Key key = new Key(criteria.getStatus(), criteria.getPriority(), projectIds, criteria.getAssignedUserId(), pageable);
+        long generation = changeTracker.taskGeneration(projectIds, criteria.getAssignedUserId());
+
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null && entry.generation() == generation) {
+            hits.increment();
+            return entry.page();
+        }
+
+        misses.increment();
+        // Loads that started before a write committed carry an older generation, so later requests do not join them
+        Page<TaskResponseDto> page = singleFlight.execute(new Load(key, generation),
+                () -> readOnlyTransaction.execute(status -> loader.get()));
+        cache.put(key, new Entry(generation, page));
+        return page;
+    }
+
+    /**
+     * Rough estimate of the heap retained by a page: a fixed overhead per object plus two bytes per character.
+     */
+    private static int estimateBytes(Page<TaskResponseDto> page) {
+        long bytes = 256;
+        for (TaskResponseDto task : page.getContent()) {
+            bytes += 192 + chars(task.getTitle()) + chars(task.getDescription());
+            ProjectResponseDto project = task.getProject();
+            if (project != null) {
+                bytes += 128 + chars(project.getName()) + chars(project.getDescription()) + estimateBytes(project.getOwner());
+            }
+            bytes += estimateBytes(task.getAssignedUser());
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private static long estimateBytes(UserResponseDto user) {
+        return user != null ? 128 + chars(user.getEmail()) : 0;
+    }
+
+    private static long chars(String value) {
+        return 2L * Objects.toString(value, "").length();
+    }
+}
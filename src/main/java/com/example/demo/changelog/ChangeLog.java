@@ -0,0 +1,210 @@
+package com.example.demo.changelog;
+
+import com.example.demo.event.ChangeEvent;
+import com.example.demo.event.ChangeEventConsumer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of committed task, project and user changes on local disk, for consumers that need every change
+ * in order. It consumes the {@link com.example.demo.event.ChangeEventBus}, so appending happens on the bus thread
+ * and adds nothing to the write itself.
+ * <p>
+ * The log is a sequence of segment files of {@code app.change-log.segment-records} fixed-size
+ * {@link ChangeLogRecord}s, named by the offset of their first record and mapped into memory. Offsets keep increasing
+ * across restarts, so a consumer resumes by reading from the offset after the last record it handled.
+ * Readers get read-only views of the mapped segments, without copying the records.
+ * Whole segments are deleted once they are older than {@code app.change-log.retention.max-age} or the log exceeds
+ * {@code app.change-log.retention.max-bytes}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.change-log.enabled", havingValue = "true", matchIfMissing = true)
+public class ChangeLog implements ChangeEventConsumer, DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(ChangeLog.class);
+
+    private final Path directory;
+    private final int segmentRecords;
+    private final NavigableMap<Long, ChangeLogSegment> segments = new ConcurrentSkipListMap<>();
+    private final Counter appended;
+
+    /**
+     * Only accessed by the appending thread.
+     */
+    private ChangeLogSegment active;
+
+    /**
+     * Offset of the next record to append. Written after the record, so readers never see a partial record.
+     */
+    private volatile long endOffset;
+    private volatile int waitingReaders;
+
+    public ChangeLog(@Value("${app.change-log.dir}") Path directory,
+                     @Value("${app.change-log.segment-records}") int segmentRecords,
+                     MeterRegistry meterRegistry) {
+        this.directory = directory;
+        this.segmentRecords = segmentRecords;
+        recover();
+        this.appended = Counter.builder("change.log.appended").register(meterRegistry);
+        Gauge.builder("change.log.size", this, ChangeLog::getSizeInBytes)
+                .description("Bytes held by the change log segments on disk")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    private void recover() {
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(path -> ChangeLogSegment.baseOffsetOf(path) >= 0)
+                        .map(ChangeLogSegment::open)
+                        .forEach(segment -> segments.put(segment.getBaseOffset(), segment));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (segments.isEmpty()) {
+            active = ChangeLogSegment.create(directory, 0, segmentRecords);
+            segments.put(0L, active);
+        } else {
+            active = segments.lastEntry().getValue();
+        }
+        endOffset = active.getBaseOffset() + active.countWritten();
+        logger.info("Opened change log in {} at offsets {} to {}", directory, getStartOffset(), endOffset);
+    }
+
+    @Override
+    public void onEvent(ChangeEvent event, long sequence, boolean endOfBatch) {
+        long offset = endOffset;
+        int index = (int) (offset - active.getBaseOffset());
+        if (index == active.getCapacity()) {
+            active.force();
+            active = ChangeLogSegment.create(directory, offset, segmentRecords);
+            segments.put(offset, active);
+            index = 0;
+        }
+
+        ChangeLogRecord.write(active.getBuffer(), index * ChangeLogRecord.SIZE, event);
+        endOffset = offset + 1;
+        appended.increment();
+
+        if (endOfBatch && waitingReaders > 0) {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * @return the offset of the oldest record still in the log
+     */
+    public long getStartOffset() {
+        return segments.firstKey();
+    }
+
+    /**
+     * @return the offset the next record will be appended at
+     */
+    public long getEndOffset() {
+        return endOffset;
+    }
+
+    /**
+     * Get a read-only view of the raw records from the given offset on, without copying them.
+     * The view ends at the end of a segment, so it may hold fewer records than asked for even when more are available.
+     *
+     * @param offset the offset of the first record, at least the start offset
+     * @param maxRecords the maximum number of records to return
+     * @return the records, {@link ChangeLogRecord#SIZE} bytes each; empty if no records are available from the offset
+     */
+    public ByteBuffer read(long offset, int maxRecords) {
+        long end = endOffset;
+        Map.Entry<Long, ChangeLogSegment> entry = segments.floorEntry(offset);
+        if (entry == null || offset >= end) {
+            return ByteBuffer.allocate(0);
+        }
+
+        ChangeLogSegment segment = entry.getValue();
+        int from = (int) (offset - segment.getBaseOffset());
+        int to = (int) Math.min(Math.min(end - segment.getBaseOffset(), segment.getCapacity()), from + (long) maxRecords);
+        return segment.getBuffer()
+                .slice(from * ChangeLogRecord.SIZE, (to - from) * ChangeLogRecord.SIZE)
+                .asReadOnlyBuffer();
+    }
+
+    /**
+     * Wait until a record is available at the given offset, for tailing readers that have caught up.
+     *
+     * @param offset the offset to wait for
+     * @param timeout the maximum time to wait
+     * @return whether a record is available at the offset
+     */
+    public boolean awaitRecords(long offset, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (this) {
+            waitingReaders++;
+            try {
+                long remaining;
+                while (endOffset <= offset && (remaining = deadline - System.nanoTime()) > 0) {
+                    wait(Math.max(1, remaining / 1_000_000));
+                }
+            } finally {
+                waitingReaders--;
+            }
+        }
+        return endOffset > offset;
+    }
+
+    /**
+     * Delete the oldest segments that are older than the maximum age, or that make the log larger than the maximum
+     * size. The segment being appended to is never deleted.
+     *
+     * @param maxAge the age of the newest record in a segment after which the segment is deleted
+     * @param maxBytes the maximum size of all segments together
+     * @return the number of segments deleted
+     */
+    public int deleteExpiredSegments(Duration maxAge, long maxBytes) {
+        long expiredBefore = System.currentTimeMillis() - maxAge.toMillis();
+        int deleted = 0;
+        while (segments.size() > 1) {
+            ChangeLogSegment oldest = segments.firstEntry().getValue();
+            int last = (oldest.getCapacity() - 1) * ChangeLogRecord.SIZE;
+            boolean expired = ChangeLogRecord.read(oldest.getBuffer(), last, 0).timestamp() < expiredBefore;
+            if (!expired && getSizeInBytes() <= maxBytes) {
+                break;
+            }
+            // Readers holding a view of the segment keep its mapping until they drop it
+            segments.remove(oldest.getBaseOffset());
+            oldest.delete();
+            deleted++;
+        }
+        return deleted;
+    }
+
+    private long getSizeInBytes() {
+        return segments.values().stream().mapToLong(ChangeLogSegment::getSizeInBytes).sum();
+    }
+
+    @Override
+    public void destroy() {
+        active.force();
+    }
+}
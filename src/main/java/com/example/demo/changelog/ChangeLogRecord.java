@@ -0,0 +1,85 @@
+package com.example.demo.changelog;
+
+import com.example.demo.cache.ChangeTracker.ResourceType;
+import com.example.demo.event.ChangeEvent;
+import com.example.demo.event.ChangeEvent.ChangeType;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A change read from the {@link ChangeLog}.
+ * On disk every record takes {@value #SIZE} bytes, big-endian:
+ * <ul>
+ *     <li>1 byte resource type: 1 task, 2 project, 3 user; 0 marks the end of the written records</li>
+ *     <li>1 byte change type: 1 created, 2 updated, 3 deleted</li>
+ *     <li>8 bytes resource ID</li>
+ *     <li>8 bytes commit time in milliseconds since the epoch</li>
+ * </ul>
+ *
+ * @param offset the position of the record in the log, increasing by one per record
+ * @param resourceType the type of the resource that changed
+ * @param changeType what happened to the resource
+ * @param resourceId the ID of the resource
+ * @param timestamp the time the change was committed, in milliseconds since the epoch
+ */
+public record ChangeLogRecord(long offset, ResourceType resourceType, ChangeType changeType, long resourceId,
+                              long timestamp) {
+
+    /**
+     * Size of a record in bytes.
+     */
+    public static final int SIZE = 18;
+
+    private static final ResourceType[] RESOURCE_TYPES = {null, ResourceType.TASK, ResourceType.PROJECT, ResourceType.USER};
+    private static final ChangeType[] CHANGE_TYPES = {null, ChangeType.CREATED, ChangeType.UPDATED, ChangeType.DELETED};
+
+    /**
+     * Decode the record at the given byte position without moving the buffer.
+     *
+     * @param buffer the buffer holding the record
+     * @param position the byte position of the record
+     * @param offset the offset of the record in the log
+     * @return the record
+     */
+    public static ChangeLogRecord read(ByteBuffer buffer, int position, long offset) {
+        return new ChangeLogRecord(offset,
+                RESOURCE_TYPES[buffer.get(position)],
+                CHANGE_TYPES[buffer.get(position + 1)],
+                buffer.getLong(position + 2),
+                buffer.getLong(position + 10));
+    }
+
+    /**
+     * Whether a record has been written at the given byte position.
+     */
+    static boolean isWritten(ByteBuffer buffer, int position) {
+        return buffer.get(position) != 0;
+    }
+
+    /**
+     * Encode an event at the given byte position. The resource type, which marks the record as written,
+     * is stored last, so a record cut short by a crash is never read.
+     */
+    static void write(ByteBuffer buffer, int position, ChangeEvent event) {
+        buffer.put(position + 1, code(event.getChangeType()));
+        buffer.putLong(position + 2, event.getResourceId());
+        buffer.putLong(position + 10, event.getTimestamp());
+        buffer.put(position, code(event.getResourceType()));
+    }
+
+    private static byte code(ResourceType resourceType) {
+        return switch (resourceType) {
+            case TASK -> 1;
+            case PROJECT -> 2;
+            case USER -> 3;
+        };
+    }
+
+    private static byte code(ChangeType changeType) {
+        return switch (changeType) {
+            case CREATED -> 1;
+            case UPDATED -> 2;
+            case DELETED -> 3;
+        };
+    }
+}
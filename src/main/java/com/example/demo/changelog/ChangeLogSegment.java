@@ -0,0 +1,127 @@
+package com.example.demo.changelog;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One file of the {@link ChangeLog}, holding a fixed number of records from a base offset on.
+ * The file is created at its full size and mapped into memory once, so appending and reading are plain memory accesses.
+ */
+final class ChangeLogSegment {
+
+    static final String SUFFIX = ".log";
+
+    private final long baseOffset;
+    private final int capacity;
+    private final Path path;
+    private final MappedByteBuffer buffer;
+
+    private ChangeLogSegment(long baseOffset, int capacity, Path path, MappedByteBuffer buffer) {
+        this.baseOffset = baseOffset;
+        this.capacity = capacity;
+        this.path = path;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Create and map a new segment starting at the given offset.
+     */
+    static ChangeLogSegment create(Path directory, long baseOffset, int capacity) {
+        Path path = directory.resolve(String.format("%020d", baseOffset) + SUFFIX);
+        return open(path, baseOffset, capacity);
+    }
+
+    /**
+     * Map an existing segment file, keeping the capacity it was created with.
+     */
+    static ChangeLogSegment open(Path path) {
+        try {
+            return open(path, baseOffsetOf(path), (int) (Files.size(path) / ChangeLogRecord.SIZE));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ChangeLogSegment open(Path path, long baseOffset, int capacity) {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * ChangeLogRecord.SIZE);
+            return new ChangeLogSegment(baseOffset, capacity, path, buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Parse the base offset from a segment file name, or return -1 if the file is not a segment.
+     */
+    static long baseOffsetOf(Path path) {
+        String name = path.getFileName().toString();
+        if (!name.endsWith(SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Count the records written to the segment. Records are written in order, so the written ones form a prefix
+     * that is found by binary search.
+     */
+    int countWritten() {
+        int low = 0;
+        int high = capacity;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (ChangeLogRecord.isWritten(buffer, middle * ChangeLogRecord.SIZE)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    long getBaseOffset() {
+        return baseOffset;
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    long getSizeInBytes() {
+        return (long) capacity * ChangeLogRecord.SIZE;
+    }
+
+    /**
+     * The shared mapping. Readers must work on duplicates so they do not disturb each other's positions.
+     */
+    MappedByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Write the changes to the mapped memory through to the file.
+     */
+    void force() {
+        buffer.force();
+    }
+
+    void delete() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -9,6 +9,7 @@ import com.example.demo.model.enums.TaskStatus;
 import com.example.demo.repository.ProjectRepository;
 import com.example.demo.repository.TaskRepository;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.shard.ShardRouter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
@@ -16,6 +17,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
+import java.util.List;
 
 /**
  * Component to initialize the database with sample data on application startup.
@@ -28,6 +30,7 @@ public class DataInitializer implements CommandLineRunner {
     private final ProjectRepository projectRepository;
     private final TaskRepository taskRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ShardRouter shardRouter;
 
     @Override
     public void run(String... args) {
@@ -71,22 +74,29 @@ public class DataInitializer implements CommandLineRunner {
                 .build();
         userRepository.save(user2);
 
-        // Create projects
+        // Copy the users to the other shards
+        for (User user : List.of(admin, manager1, manager2, user1, user2)) {
+            shardRouter.inTransactionOnOtherShards(() -> userRepository.replicate(user));
+        }
+
+        // Create projects, each on the next shard in turn
         Project project1 = Project.builder()
                 .name("Website Redesign")
                 .description("Redesign the company website with a modern look and feel")
                 .owner(manager1)
                 .build();
-        projectRepository.save(project1);
+        int project1Shard = shardRouter.nextShard();
+        shardRouter.callOn(project1Shard, () -> projectRepository.save(project1));
 
         Project project2 = Project.builder()
                 .name("Mobile App Development")
                 .description("Develop a mobile app for both iOS and Android platforms")
                 .owner(manager2)
                 .build();
-        projectRepository.save(project2);
+        int project2Shard = shardRouter.nextShard();
+        shardRouter.callOn(project2Shard, () -> projectRepository.save(project2));
 
-        // Create tasks
+        // Create tasks on the shard of their project
         Task task1 = Task.builder()
                 .title("Design Homepage")
                 .description("Create wireframes and mockups for the homepage")
@@ -96,7 +106,7 @@ public class DataInitializer implements CommandLineRunner {
                 .project(project1)
                 .assignedUser(user1)
                 .build();
-        taskRepository.save(task1);
+        shardRouter.callOn(project1Shard, () -> taskRepository.save(task1));
 
         Task task2 = Task.builder()
                 .title("Implement User Authentication")
@@ -107,7 +117,7 @@ public class DataInitializer implements CommandLineRunner {
                 .project(project1)
                 .assignedUser(user2)
                 .build();
-        taskRepository.save(task2);
+        shardRouter.callOn(project1Shard, () -> taskRepository.save(task2));
 
         Task task3 = Task.builder()
                 .title("Create App Wireframes")
@@ -118,7 +128,7 @@ public class DataInitializer implements CommandLineRunner {
                 .project(project2)
                 .assignedUser(user2)
                 .build();
-        taskRepository.save(task3);
+        shardRouter.callOn(project2Shard, () -> taskRepository.save(task3));
 
         Task task4 = Task.builder()
                 .title("Set Up CI/CD Pipeline")
@@ -129,7 +139,7 @@ public class DataInitializer implements CommandLineRunner {
                 .project(project2)
                 .assignedUser(null)
                 .build();
-        taskRepository.save(task4);
+        shardRouter.callOn(project2Shard, () -> taskRepository.save(task4));
 
         System.out.println("Sample data initialized successfully!");
     }
@@ -0,0 +1,74 @@
+package com.example.demo.config;
+
+import com.example.demo.exception.AccessDeniedException;
+import com.example.demo.exception.ResourceNotFoundException;
+import graphql.GraphQLError;
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import graphql.schema.DataFetchingEnvironment;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.graphql.execution.DataFetcherExceptionResolver;
+import org.springframework.graphql.execution.DataFetcherExceptionResolverAdapter;
+import org.springframework.graphql.execution.ErrorType;
+
+/**
+ * Limits and error mapping for the GraphQL API.
+ */
+@Configuration
+public class GraphQlConfig {
+
+    /**
+     * Reject queries nested deeper than the configured depth before they are executed.
+     */
+    @Bean
+    public MaxQueryDepthInstrumentation maxQueryDepthInstrumentation(@Value("${app.graphql.max-depth}") int maxDepth) {
+        return new MaxQueryDepthInstrumentation(maxDepth);
+    }
+
+    /**
+     * Reject queries whose estimated cost exceeds the configured maximum before they are executed.
+     * Every field costs 1, and the fields selected under a list field are counted once per requested element,
+     * as given by its {@code size} or {@code first} argument.
+     */
+    @Bean
+    public MaxQueryComplexityInstrumentation maxQueryComplexityInstrumentation(
+            @Value("${app.graphql.max-complexity}") int maxComplexity) {
+        return new MaxQueryComplexityInstrumentation(maxComplexity, (environment, childComplexity) -> {
+            Object size = environment.getArguments().getOrDefault("size", environment.getArguments().get("first"));
+            int multiplier = size instanceof Integer count ? Math.max(count, 1) : 1;
+            return 1 + multiplier * childComplexity;
+        });
+    }
+
+    /**
+     * Map service exceptions to GraphQL error types, as GlobalExceptionHandler does for HTTP statuses.
+     */
+    @Bean
+    public DataFetcherExceptionResolver graphQlExceptionResolver() {
+        return new DataFetcherExceptionResolverAdapter() {
+            @Override
+            protected GraphQLError resolveToSingleError(Throwable ex, DataFetchingEnvironment env) {
+                ErrorType errorType;
+                if (ex instanceof ResourceNotFoundException) {
+                    errorType = ErrorType.NOT_FOUND;
+                } else if (ex instanceof AccessDeniedException
+                        || ex instanceof org.springframework.security.access.AccessDeniedException) {
+                    errorType = ErrorType.FORBIDDEN;
+                } else if (ex instanceof IllegalArgumentException) {
+                    errorType = ErrorType.BAD_REQUEST;
+                } else {
+                    return null;
+                }
+
+                return GraphQLError.newError()
+                        .errorType(errorType)
+                        .message(ex.getMessage())
+                        .path(env.getExecutionStepInfo().getPath())
+                        .location(env.getField().getSourceLocation())
+                        .build();
+            }
+        };
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.demo.config;
+
+import com.example.demo.web.SerializationMetrics;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Configuration class for Jackson serialization.
+ * Besides JSON, the API produces and consumes CBOR ({@code application/cbor}) and Smile
+ * ({@code application/x-jackson-smile}) when the client asks for them through the Accept or Content-Type header.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class JacksonConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilders;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Records JSON serialization time and size for every object mapper built by Spring Boot.
+     * Each builder gets a factory of its own, as a factory is bound to the mapper built from it.
+     *
+     * @return the object mapper builder customizer
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer serializationMetricsCustomizer() {
+        return builder -> builder.factory(JsonFactory.builder()
+                .outputDecorator(new SerializationMetrics(meterRegistry, JsonFactory.FORMAT_NAME_JSON))
+                .build());
+    }
+
+    /**
+     * Registers a default provider for the field selection filter, so DTOs are serialized in full
+     * when no selection applies to the response.
+     *
+     * @return the object mapper builder customizer
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldSelectionFilterCustomizer() {
+        return builder -> builder.filters(new SimpleFilterProvider().setFailOnUnknownId(false));
+    }
+
+    /**
+     * Replaces the CBOR and Smile converters that Spring MVC registers by default with ones built from
+     * Spring Boot's object mapper builder, so the application's Jackson settings apply to them, and with
+     * factories recording serialization metrics for their format.
+     * They are registered after the JSON converter, so JSON remains the format used when the client
+     * accepts any media type.
+     *
+     * @param converters the converters configured by Spring Boot
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+        converters.add(new MappingJackson2CborHttpMessageConverter(objectMapperBuilders.getObject()
+                .factory(CBORFactory.builder()
+                        .outputDecorator(new SerializationMetrics(meterRegistry, CBORFactory.FORMAT_NAME))
+                        .build())
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build()));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(objectMapperBuilders.getObject()
+                .factory(SmileFactory.builder()
+                        .outputDecorator(new SerializationMetrics(meterRegistry, SmileFactory.FORMAT_NAME_SMILE))
+                        .build())
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build()));
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.demo.config;
+
+import com.example.demo.shard.ShardRoutingDataSource;
+import com.example.demo.shard.ShardSchemaInitializer;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration class for sharding projects and tasks across the databases listed in {@code app.sharding.urls}.
+ * Each shard is connected with the {@code spring.datasource} driver and credentials.
+ * Without the property the single {@code spring.datasource} database is used.
+ */
+@Configuration
+@ConditionalOnExpression("!'${app.sharding.urls:}'.isEmpty()")
+public class ShardingConfig {
+
+    @Bean
+    public ShardRoutingDataSource dataSource(DataSourceProperties properties,
+                                             @Value("${app.sharding.urls}") List<String> urls) {
+        List<DataSource> shards = new ArrayList<>();
+        for (int shard = 0; shard < urls.size(); shard++) {
+            HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(urls.get(shard).trim())
+                    .build();
+            dataSource.setPoolName("shard-" + shard);
+            shards.add(dataSource);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    public ShardSchemaInitializer shardSchemaInitializer(ShardRoutingDataSource dataSource,
+                                                         EntityManagerFactory entityManagerFactory,
+                                                         @Value("${spring.jpa.hibernate.ddl-auto:none}") String ddlAuto) {
+        return new ShardSchemaInitializer(dataSource, entityManagerFactory, ddlAuto);
+    }
+}
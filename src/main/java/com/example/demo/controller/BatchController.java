@@ -0,0 +1,55 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.batch.BatchRequestDto;
+import com.example.demo.dto.batch.BatchResultDto;
+import com.example.demo.web.BatchRequestExecutor;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+
+@RestController
+@RequestMapping("/api/v1/batch")
+@RequiredArgsConstructor
+@Tag(name = "Batch", description = "Batch request API")
+@SecurityRequirement(name = "bearerAuth")
+public class BatchController {
+
+    private final BatchRequestExecutor batchRequestExecutor;
+
+    /**
+     * Execute several task, project and user API calls in one request.
+     * Every operation is subject to the same access rules as when called on its own.
+     *
+     * @param requestDto the operations to execute and whether they share a transaction
+     * @param request the current request
+     * @param response the current response
+     * @return the status and body of every operation, in order
+     */
+    @Operation(summary = "Execute a batch", description = "Executes an ordered list of API calls and returns the result of each")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Batch executed, see the status of each operation",
+                content = @Content(mediaType = "application/json", 
+                schema = @Schema(implementation = BatchResultDto.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid batch", 
+                content = @Content),
+        @ApiResponse(responseCode = "401", description = "Unauthorized", 
+                content = @Content)
+    })
+    @PostMapping
+    public ResponseEntity<BatchResultDto> executeBatch(@Valid @RequestBody BatchRequestDto requestDto,
+                                                       HttpServletRequest request,
+                                                       HttpServletResponse response) {
+        return ResponseEntity.ok(batchRequestExecutor.execute(requestDto, request, response));
+    }
+}
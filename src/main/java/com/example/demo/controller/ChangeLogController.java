@@ -0,0 +1,62 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.changelog.ChangeLogPageDto;
+import com.example.demo.service.ChangeLogService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/api/v1/change-log")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.change-log.enabled", havingValue = "true", matchIfMissing = true)
+@Tag(name = "Change Log", description = "Replay of committed task, project and user changes")
+@SecurityRequirement(name = "bearerAuth")
+public class ChangeLogController {
+
+    private final ChangeLogService changeLogService;
+
+    /**
+     * Read committed changes in order from an offset.
+     * Only accessible to admins.
+     *
+     * @param offset the offset of the first change to read, or the start of the log if omitted
+     * @param limit the maximum number of changes to read
+     * @param waitMillis how long to wait for new changes when none are available from the offset
+     * @return the changes read and the offset to continue from
+     */
+    @Operation(summary = "Read the change log", description = "Returns committed changes from an offset on, "
+            + "optionally waiting for new changes once caught up (admin only)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully read changes",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = ChangeLogPageDto.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid offset, limit or wait",
+                content = @Content),
+        @ApiResponse(responseCode = "403", description = "Access denied",
+                content = @Content),
+        @ApiResponse(responseCode = "401", description = "Unauthorized",
+                content = @Content)
+    })
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ChangeLogPageDto> getChanges(@RequestParam(required = false) Long offset,
+                                                       @RequestParam(defaultValue = "1000") int limit,
+                                                       @RequestParam(defaultValue = "0") long waitMillis) {
+        return ResponseEntity.ok(changeLogService.getChanges(offset, limit, Duration.ofMillis(waitMillis)));
+    }
+}
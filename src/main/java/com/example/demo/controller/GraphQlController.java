@@ -0,0 +1,157 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.project.ProjectSummaryDto;
+import com.example.demo.dto.task.TaskSummaryDto;
+import com.example.demo.dto.user.UserResponseDto;
+import com.example.demo.model.enums.Priority;
+import com.example.demo.model.enums.TaskStatus;
+import com.example.demo.service.ProjectService;
+import com.example.demo.service.TaskService;
+import com.example.demo.service.UserService;
+import org.dataloader.DataLoader;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * GraphQL read API over tasks, projects and users.
+ * Root fields go through the same services, and therefore the same role rules, as the REST API.
+ * Projects, owners, assignees and project tasks are resolved through per-request data loaders,
+ * so every association is loaded with one query per level, for all distinct ids at once.
+ */
+@Controller
+public class GraphQlController {
+
+    static final int MAX_PAGE_SIZE = 100;
+
+    private final TaskService taskService;
+    private final ProjectService projectService;
+    private final UserService userService;
+
+    public GraphQlController(TaskService taskService, ProjectService projectService, UserService userService,
+                             BatchLoaderRegistry batchLoaderRegistry) {
+        this.taskService = taskService;
+        this.projectService = projectService;
+        this.userService = userService;
+
+        batchLoaderRegistry.<ProjectTasksKey, List<TaskSummaryDto>>forName(ProjectTasksKey.LOADER)
+                .registerMappedBatchLoader((keys, environment) -> Mono.fromSupplier(() -> loadProjectTasks(keys)));
+    }
+
+    @QueryMapping
+    public Page<TaskSummaryDto> tasks(@Argument TaskStatus status, @Argument Priority priority,
+                                      @Argument int page, @Argument int size) {
+        checkPageSize("size", size);
+        return taskService.getTaskSummaries(status, priority, PageRequest.of(page, size, Sort.by("id")));
+    }
+
+    @QueryMapping
+    public TaskSummaryDto task(@Argument Long id) {
+        return taskService.getTaskSummaryById(id);
+    }
+
+    @QueryMapping
+    public List<ProjectSummaryDto> projects() {
+        return projectService.getProjectSummaries();
+    }
+
+    @QueryMapping
+    public ProjectSummaryDto project(@Argument Long id) {
+        return projectService.getProjectSummaryById(id);
+    }
+
+    @BatchMapping(typeName = "Task", field = "project")
+    public Map<TaskSummaryDto, ProjectSummaryDto> taskProject(List<TaskSummaryDto> tasks) {
+        Map<Long, ProjectSummaryDto> projects = index(
+                projectService.getReferencedProjects(ids(tasks, TaskSummaryDto::getProjectId)), ProjectSummaryDto::getId);
+        return associate(tasks, task -> projects.get(task.getProjectId()));
+    }
+
+    @BatchMapping(typeName = "Task", field = "assignedUser")
+    public Map<TaskSummaryDto, UserResponseDto> taskAssignedUser(List<TaskSummaryDto> tasks) {
+        Map<Long, UserResponseDto> users = index(
+                userService.getReferencedUsers(ids(tasks, TaskSummaryDto::getAssignedUserId)), UserResponseDto::getId);
+        return associate(tasks, task -> users.get(task.getAssignedUserId()));
+    }
+
+    @BatchMapping(typeName = "Project", field = "owner")
+    public Map<ProjectSummaryDto, UserResponseDto> projectOwner(List<ProjectSummaryDto> projects) {
+        Map<Long, UserResponseDto> users = index(
+                userService.getReferencedUsers(ids(projects, ProjectSummaryDto::getOwnerId)), UserResponseDto::getId);
+        return associate(projects, project -> users.get(project.getOwnerId()));
+    }
+
+    @SchemaMapping(typeName = "Project", field = "tasks")
+    public CompletableFuture<List<TaskSummaryDto>> projectTasks(
+            ProjectSummaryDto project, @Argument int first,
+            DataLoader<ProjectTasksKey, List<TaskSummaryDto>> projectTasks) {
+        checkPageSize("first", first);
+        return projectTasks.load(new ProjectTasksKey(project.getId(), first));
+    }
+
+    /**
+     * Load the tasks of all requested projects with one query, using the largest requested limit.
+     */
+    private Map<ProjectTasksKey, List<TaskSummaryDto>> loadProjectTasks(Set<ProjectTasksKey> keys) {
+        Set<Long> projectIds = keys.stream().map(ProjectTasksKey::projectId).collect(Collectors.toSet());
+        int limit = keys.stream().mapToInt(ProjectTasksKey::first).max().orElse(0);
+        Map<Long, List<TaskSummaryDto>> tasksByProject = taskService.getTaskSummariesByProjectIds(projectIds, limit);
+
+        Map<ProjectTasksKey, List<TaskSummaryDto>> result = new LinkedHashMap<>();
+        for (ProjectTasksKey key : keys) {
+            List<TaskSummaryDto> tasks = tasksByProject.getOrDefault(key.projectId(), List.of());
+            result.put(key, tasks.subList(0, Math.min(key.first(), tasks.size())));
+        }
+        return result;
+    }
+
+    private static void checkPageSize(String argument, int value) {
+        if (value < 0 || value > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Argument '" + argument + "' must be between 0 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    private static <S> Set<Long> ids(Collection<S> sources, Function<S, Long> idOf) {
+        return sources.stream().map(idOf).filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+
+    private static <T> Map<Long, T> index(Collection<T> values, Function<T, Long> idOf) {
+        return values.stream().collect(Collectors.toMap(idOf, Function.identity()));
+    }
+
+    private static <S, T> Map<S, T> associate(List<S> sources, Function<S, T> target) {
+        Map<S, T> result = new LinkedHashMap<>();
+        sources.forEach(source -> {
+            T value = target.apply(source);
+            if (value != null) {
+                result.put(source, value);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Key of the project tasks data loader: a project and the number of tasks requested for it.
+     */
+    record ProjectTasksKey(Long projectId, int first) {
+
+        static final String LOADER = "projectTasks";
+    }
+}
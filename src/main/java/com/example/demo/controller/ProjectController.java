@@ -1,11 +1,21 @@
 package com.example.demo.controller;
 
+import com.example.demo.cache.ChangeTracker;
+import com.example.demo.cache.ChangeTracker.ResourceType;
+import com.example.demo.dto.BatchResponseDto;
+import com.example.demo.dto.FieldSelection;
 import com.example.demo.dto.project.ProjectRequestDto;
 import com.example.demo.dto.project.ProjectResponseDto;
+import com.example.demo.dto.task.TaskListResponseDto;
 import com.example.demo.dto.task.TaskResponseDto;
+import com.example.demo.service.IdempotencyService;
 import com.example.demo.service.ProjectService;
 import com.example.demo.service.TaskService;
+import com.example.demo.web.CachedResponseWriter;
+import com.example.demo.web.ETags;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -21,6 +31,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -35,11 +47,16 @@ public class ProjectController {
 
     private final ProjectService projectService;
     private final TaskService taskService;
+    private final IdempotencyService idempotencyService;
+    private final ChangeTracker changeTracker;
+    private final CachedResponseWriter cachedResponseWriter;
 
     /**
      * Get all projects.
      * Access is restricted based on a user role.
      *
+     * @param selection the fields and associations to return
+     * @param request the current request, used to answer If-None-Match
      * @return a list of projects based on a user role
      */
     @Operation(summary = "Get all projects", description = "Returns a list of projects based on user role")
@@ -47,13 +64,26 @@ public class ProjectController {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved projects",
                 content = @Content(mediaType = "application/json", 
                 schema = @Schema(implementation = ProjectResponseDto.class))),
+        @ApiResponse(responseCode = "304", description = "Projects not modified", 
+                content = @Content),
         @ApiResponse(responseCode = "403", description = "Access denied", 
                 content = @Content),
         @ApiResponse(responseCode = "401", description = "Unauthorized", 
                 content = @Content)
     })
+    @Parameter(name = "fields", in = ParameterIn.QUERY, description = "Comma-separated project fields to return")
+    @Parameter(name = "expand", in = ParameterIn.QUERY, description = "Comma-separated associations to embed")
     @GetMapping
-    public ResponseEntity<List<ProjectResponseDto>> getAllProjects() {
+    public ResponseEntity<List<ProjectResponseDto>> getAllProjects(
+            @Parameter(hidden = true) FieldSelection selection,
+            WebRequest request) {
+        String version = changeTracker.projectVersion();
+        if (request.checkNotModified(ETags.strong(request, version))) {
+            return null;
+        }
+        if (!selection.isDefault()) {
+            return ResponseEntity.ok(projectService.getAllProjects(selection));
+        }
         return ResponseEntity.ok(projectService.getAllProjects());
     }
 
@@ -62,6 +92,7 @@ public class ProjectController {
      * Access is restricted based on a user role.
      *
      * @param id the ID of the project to get
+     * @param request the current request, used to answer If-None-Match and to write the cached response
      * @return the project with the specified ID
      */
     @Operation(summary = "Get project by ID", description = "Returns a project by its ID")
@@ -69,6 +100,8 @@ public class ProjectController {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved project",
                 content = @Content(mediaType = "application/json", 
                 schema = @Schema(implementation = ProjectResponseDto.class))),
+        @ApiResponse(responseCode = "304", description = "Project not modified", 
+                content = @Content),
         @ApiResponse(responseCode = "404", description = "Project not found", 
                 content = @Content),
         @ApiResponse(responseCode = "403", description = "Access denied", 
@@ -77,15 +110,52 @@ public class ProjectController {
                 content = @Content)
     })
     @GetMapping("/{id}")
-    public ResponseEntity<ProjectResponseDto> getProjectById(@PathVariable Long id) {
+    public ResponseEntity<ProjectResponseDto> getProjectById(@PathVariable Long id, NativeWebRequest request) {
+        String version = projectService.getProjectVersion(id);
+        if (request.checkNotModified(cachedResponseWriter.eTag(version, request))
+                || cachedResponseWriter.write(ResourceType.PROJECT, id, version, request, () -> projectService.getProjectById(id))) {
+            return null;
+        }
         return ResponseEntity.ok(projectService.getProjectById(id));
     }
 
+    /**
+     * Get several projects by ID in one request.
+     * Access is checked for each project as for a single project.
+     *
+     * @param ids the IDs of the projects to get
+     * @param request the current request, used to answer If-None-Match
+     * @return the accessible projects and the IDs that are forbidden or missing
+     */
+    @Operation(summary = "Get projects by IDs", description = "Returns the accessible projects with the given IDs and lists the IDs that are forbidden or missing")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved projects",
+                content = @Content(mediaType = "application/json", 
+                schema = @Schema(implementation = BatchResponseDto.class))),
+        @ApiResponse(responseCode = "304", description = "Projects not modified", 
+                content = @Content),
+        @ApiResponse(responseCode = "400", description = "Too many IDs requested", 
+                content = @Content),
+        @ApiResponse(responseCode = "401", description = "Unauthorized", 
+                content = @Content)
+    })
+    @GetMapping("/batch")
+    public ResponseEntity<BatchResponseDto<ProjectResponseDto>> getProjectsByIds(@RequestParam List<Long> ids, WebRequest request) {
+        // Users have access to the projects they have tasks in, so the tasks of the projects are part of the version
+        String version = changeTracker.taskVersion(ids, null);
+        if (request.checkNotModified(ETags.strong(request, version))) {
+            return null;
+        }
+        return ResponseEntity.ok(projectService.getProjectsByIds(ids));
+    }
+
     /**
      * Create a new project.
      * Only accessible to managers and admins.
      *
      * @param requestDto the project data to create
+     * @param idempotencyKey optional key identifying the request, so that a retry returns the project created by the
+     *        first attempt instead of creating another one
      * @return the created project
      */
     @Operation(summary = "Create a new project", description = "Creates a new project")
@@ -98,11 +168,17 @@ public class ProjectController {
         @ApiResponse(responseCode = "403", description = "Access denied", 
                 content = @Content),
         @ApiResponse(responseCode = "401", description = "Unauthorized", 
+                content = @Content),
+        @ApiResponse(responseCode = "409", description = "A request with the same idempotency key is still in progress",
                 content = @Content)
     })
     @PostMapping
-    public ResponseEntity<ProjectResponseDto> createProject(@Valid @RequestBody ProjectRequestDto requestDto) {
-        return new ResponseEntity<>(projectService.createProject(requestDto), HttpStatus.CREATED);
+    public ResponseEntity<ProjectResponseDto> createProject(
+            @Valid @RequestBody ProjectRequestDto requestDto,
+            @RequestHeader(name = IdempotencyService.KEY_HEADER, required = false) String idempotencyKey) {
+        ProjectResponseDto created = idempotencyService.execute(idempotencyKey, "createProject", requestDto,
+                ProjectResponseDto.class, () -> projectService.createProject(requestDto));
+        return new ResponseEntity<>(created, HttpStatus.CREATED);
     }
 
     /**
@@ -162,6 +238,8 @@ public class ProjectController {
      *
      * @param id the ID of the project to get tasks for
      * @param pageable pagination information
+     * @param selection the fields and associations to return
+     * @param request the current request, used to answer If-None-Match
      * @return a page of tasks in the project
      */
     @Operation(summary = "Get project tasks", description = "Returns all tasks in a project with pagination")
@@ -169,6 +247,8 @@ public class ProjectController {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved tasks",
                 content = @Content(mediaType = "application/json", 
                 schema = @Schema(implementation = Page.class))),
+        @ApiResponse(responseCode = "304", description = "Tasks not modified", 
+                content = @Content),
         @ApiResponse(responseCode = "404", description = "Project not found", 
                 content = @Content),
         @ApiResponse(responseCode = "403", description = "Access denied", 
@@ -176,10 +256,55 @@ public class ProjectController {
         @ApiResponse(responseCode = "401", description = "Unauthorized", 
                 content = @Content)
     })
+    @Parameter(name = "fields", in = ParameterIn.QUERY, description = "Comma-separated task fields to return")
+    @Parameter(name = "expand", in = ParameterIn.QUERY, description = "Comma-separated associations to embed")
     @GetMapping("/{id}/tasks")
     public ResponseEntity<Page<TaskResponseDto>> getProjectTasks(
             @PathVariable Long id,
-            @PageableDefault(size = 10, sort = "id") Pageable pageable) {
+            @PageableDefault(size = 10, sort = "id") Pageable pageable,
+            @Parameter(hidden = true) FieldSelection selection,
+            WebRequest request) {
+        String version = changeTracker.taskVersion(List.of(id), null);
+        if (request.checkNotModified(ETags.strong(request, version))) {
+            return null;
+        }
+        if (!selection.isDefault()) {
+            return ResponseEntity.ok(taskService.getTasksByProjectId(id, selection, pageable));
+        }
         return ResponseEntity.ok(taskService.getTasksByProjectId(id, pageable));
     }
+
+    /**
+     * Get all tasks in a project as a normalized page.
+     *
+     * @param id the ID of the project to get tasks for
+     * @param pageable pagination information
+     * @param request the current request, used to answer If-None-Match
+     * @return a normalized page of tasks in the project
+     */
+    @Operation(summary = "Get project tasks (normalized)", description = "Returns tasks in a project with projects and users listed once in an included section")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved tasks",
+                content = @Content(mediaType = "application/json", 
+                schema = @Schema(implementation = TaskListResponseDto.class))),
+        @ApiResponse(responseCode = "304", description = "Tasks not modified", 
+                content = @Content),
+        @ApiResponse(responseCode = "404", description = "Project not found", 
+                content = @Content),
+        @ApiResponse(responseCode = "403", description = "Access denied", 
+                content = @Content),
+        @ApiResponse(responseCode = "401", description = "Unauthorized", 
+                content = @Content)
+    })
+    @GetMapping(value = "/{id}/tasks", params = "normalized=true")
+    public ResponseEntity<TaskListResponseDto> getProjectTasksNormalized(
+            @PathVariable Long id,
+            @PageableDefault(size = 10, sort = "id") Pageable pageable,
+            WebRequest request) {
+        String version = changeTracker.taskVersion(List.of(id), null);
+        if (request.checkNotModified(ETags.strong(request, version))) {
+            return null;
+        }
+        return ResponseEntity.ok(taskService.getTasksByProjectIdNormalized(id, pageable));
+    }
 }
@@ -1,12 +1,23 @@
 package com.example.demo.controller;
 
+import com.example.demo.cache.ChangeTracker;
+import com.example.demo.cache.ChangeTracker.ResourceType;
+import com.example.demo.dto.BatchResponseDto;
+import com.example.demo.dto.FieldSelection;
+import com.example.demo.dto.task.TaskAuditDto;
+import com.example.demo.dto.task.TaskListResponseDto;
 import com.example.demo.dto.task.TaskRequestDto;
 import com.example.demo.dto.task.TaskResponseDto;
 import com.example.demo.dto.task.TaskStatusUpdateRequestDto;
 import com.example.demo.model.enums.Priority;
 import com.example.demo.model.enums.TaskStatus;
+import com.example.demo.service.IdempotencyService;
 import com.example.demo.service.TaskService;
+import com.example.demo.web.CachedResponseWriter;
+import com.example.demo.web.ETags;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -17,11 +28,16 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
 
 
 @RestController
@@ -32,12 +48,17 @@ import org.springframework.web.bind.annotation.*;
 public class TaskController {
 
     private final TaskService taskService;
+    private final IdempotencyService idempotencyService;
+    private final ChangeTracker changeTracker;
+    private final CachedResponseWriter cachedResponseWriter;
 
     /**
      * Get all tasks with pagination.
      * Access is restricted based on a user role.
      *
      * @param pageable pagination information
+     * @param selection the fields and associations to return
+     * @param request the current request, used to answer If-None-Match
      * @return a page of tasks based on a user role
      */
     @Operation(summary = "Get all tasks", description = "Returns all tasks with pagination based on user role")
@@ -45,20 +66,61 @@ public class TaskController {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved tasks",
                 content = @Content(mediaType = "application/json", 
                 schema = @Schema(implementation = Page.class))),
+        @ApiResponse(responseCode = "304", description = "Tasks not modified", 
+                content = @Content),
         @ApiResponse(responseCode = "401", description = "Unauthorized", 
                 content = @Content)
     })
+    @Parameter(name = "fields", in = ParameterIn.QUERY, description = "Comma-separated task fields to return")
+    @Parameter(name = "expand", in = ParameterIn.QUERY, description = "Comma-separated associations to embed")
     @GetMapping
     public ResponseEntity<Page<TaskResponseDto>> getAllTasks(
-            @PageableDefault(size = 10, sort = "id") Pageable pageable) {
+            @PageableDefault(size = 10, sort = "id") Pageable pageable,
+            @Parameter(hidden = true) FieldSelection selection,
+            WebRequest request) {
+        if (request.checkNotModified(taskListETag(request))) {
+            return null;
+        }
+        if (!selection.isDefault()) {
+            return ResponseEntity.ok(taskService.getTasks(null, null, selection, pageable));
+        }
         return ResponseEntity.ok(taskService.getAllTasks(pageable));
     }
 
+    /**
+     * Get all tasks as a normalized page.
+     * Tasks reference their project and assigned user by id, each referenced project and user is included once.
+     *
+     * @param pageable pagination information
+     * @param request the current request, used to answer If-None-Match
+     * @return a normalized page of tasks based on a user role
+     */
+    @Operation(summary = "Get all tasks (normalized)", description = "Returns all tasks with projects and users listed once in an included section")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved tasks",
+                content = @Content(mediaType = "application/json", 
+                schema = @Schema(implementation = TaskListResponseDto.class))),
+        @ApiResponse(responseCode = "304", description = "Tasks not modified", 
+                content = @Content),
+        @ApiResponse(responseCode = "401", description = "Unauthorized", 
+                content = @Content)
+    })
+    @GetMapping(params = "normalized=true")
+    public ResponseEntity<TaskListResponseDto> getAllTasksNormalized(
+            @PageableDefault(size = 10, sort = "id") Pageable pageable,
+            WebRequest request) {
+        if (request.checkNotModified(taskListETag(request))) {
+            return null;
+        }
+        return ResponseEntity.ok(taskService.getTasksNormalized(null, null, pageable));
+    }
+
     /**
      * Get a task by ID.
      * Access is restricted based on a user role.
      *
      * @param id the ID of the task to get
+     * @param request the current request, used to answer If-None-Match and to write the cached response
      * @return the task with the specified ID
      */
     @Operation(summary = "Get task by ID", description = "Returns a task by its ID")
@@ -66,6 +128,8 @@ public class TaskController {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved task",
                 content = @Content(mediaType = "application/json", 
                 schema = @Schema(implementation = TaskResponseDto.class))),
+        @ApiResponse(responseCode = "304", description = "Task not modified", 
+                content = @Content),
         @ApiResponse(responseCode = "404", description = "Task not found", 
                 content = @Content),
         @ApiResponse(responseCode = "403", description = "Access denied", 
@@ -74,16 +138,80 @@ public class TaskController {
                 content = @Content)
     })
     @GetMapping("/{id}")
-    public ResponseEntity<TaskResponseDto> getTaskById(@PathVariable Long id) {
+    public ResponseEntity<TaskResponseDto> getTaskById(@PathVariable Long id, NativeWebRequest request) {
+        String version = taskService.getTaskVersion(id);
+        if (request.checkNotModified(cachedResponseWriter.eTag(version, request))
+                || cachedResponseWriter.write(ResourceType.TASK, id, version, request, () -> taskService.getTaskById(id))) {
+            return null;
+        }
         return ResponseEntity.ok(taskService.getTaskById(id));
     }
 
+    /**
+     * Get the history of field changes of a task.
+     * Access is restricted as for a single task; admins can also read the history of archived and deleted tasks.
+     *
+     * @param id the ID of the task
+     * @param pageable the pagination information, newest changes first by default
+     * @return a page of field changes
+     */
+    @Operation(summary = "Get task history", description = "Returns who changed which field of a task, when, "
+            + "and the old and new values")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved task history",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = TaskAuditDto.class))),
+        @ApiResponse(responseCode = "404", description = "Task not found",
+                content = @Content),
+        @ApiResponse(responseCode = "403", description = "Access denied",
+                content = @Content),
+        @ApiResponse(responseCode = "401", description = "Unauthorized",
+                content = @Content)
+    })
+    @GetMapping("/{id}/history")
+    public ResponseEntity<Page<TaskAuditDto>> getTaskHistory(
+            @PathVariable Long id,
+            @PageableDefault(size = 20, sort = "changedAt", direction = Sort.Direction.DESC) Pageable pageable) {
+        return ResponseEntity.ok(taskService.getTaskHistory(id, pageable));
+    }
+
+    /**
+     * Get several tasks by ID in one request.
+     * Access is checked for each task as for a single task.
+     *
+     * @param ids the IDs of the tasks to get
+     * @param request the current request, used to answer If-None-Match
+     * @return the accessible tasks and the IDs that are forbidden or missing
+     */
+    @Operation(summary = "Get tasks by IDs", description = "Returns the accessible tasks with the given IDs and lists the IDs that are forbidden or missing")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved tasks",
+                content = @Content(mediaType = "application/json", 
+                schema = @Schema(implementation = BatchResponseDto.class))),
+        @ApiResponse(responseCode = "304", description = "Tasks not modified", 
+                content = @Content),
+        @ApiResponse(responseCode = "400", description = "Too many IDs requested", 
+                content = @Content),
+        @ApiResponse(responseCode = "401", description = "Unauthorized", 
+                content = @Content)
+    })
+    @GetMapping("/batch")
+    public ResponseEntity<BatchResponseDto<TaskResponseDto>> getTasksByIds(@RequestParam List<Long> ids, WebRequest request) {
+        // The tasks may be in any project, and whether an ID is missing or forbidden changes with any task
+        if (request.checkNotModified(ETags.strong(request, changeTracker.taskVersion(null, null)))) {
+            return null;
+        }
+        return ResponseEntity.ok(taskService.getTasksByIds(ids));
+    }
+
     /**
      * Get all tasks assigned to a user with pagination.
      * Access is restricted based on a user role.
      *
      * @param userId the ID of the user to get tasks for
      * @param pageable pagination information
+     * @param selection the fields and associations to return
+     * @param request the current request, used to answer If-None-Match
      * @return a page of tasks assigned to the user
      */
     @Operation(summary = "Get tasks by user ID", description = "Returns all tasks assigned to a specific user")
@@ -91,6 +219,8 @@ public class TaskController {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved tasks",
                 content = @Content(mediaType = "application/json", 
                 schema = @Schema(implementation = Page.class))),
+        @ApiResponse(responseCode = "304", description = "Tasks not modified", 
+                content = @Content),
         @ApiResponse(responseCode = "404", description = "User not found", 
                 content = @Content),
         @ApiResponse(responseCode = "403", description = "Access denied", 
@@ -98,18 +228,63 @@ public class TaskController {
         @ApiResponse(responseCode = "401", description = "Unauthorized", 
                 content = @Content)
     })
+    @Parameter(name = "fields", in = ParameterIn.QUERY, description = "Comma-separated task fields to return")
+    @Parameter(name = "expand", in = ParameterIn.QUERY, description = "Comma-separated associations to embed")
     @GetMapping("/user/{userId}")
     public ResponseEntity<Page<TaskResponseDto>> getTasksByAssignedUserId(
             @PathVariable Long userId,
-            @PageableDefault(size = 10, sort = "id") Pageable pageable) {
+            @PageableDefault(size = 10, sort = "id") Pageable pageable,
+            @Parameter(hidden = true) FieldSelection selection,
+            WebRequest request) {
+        if (request.checkNotModified(assignedTaskListETag(request, userId))) {
+            return null;
+        }
+        if (!selection.isDefault()) {
+            return ResponseEntity.ok(taskService.getTasksByAssignedUserId(userId, selection, pageable));
+        }
         return ResponseEntity.ok(taskService.getTasksByAssignedUserId(userId, pageable));
     }
 
+    /**
+     * Get all tasks assigned to a user as a normalized page.
+     *
+     * @param userId the ID of the user to get tasks for
+     * @param pageable pagination information
+     * @param request the current request, used to answer If-None-Match
+     * @return a normalized page of tasks assigned to the user
+     */
+    @Operation(summary = "Get tasks by user ID (normalized)", description = "Returns tasks assigned to a user with projects and users listed once in an included section")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved tasks",
+                content = @Content(mediaType = "application/json", 
+                schema = @Schema(implementation = TaskListResponseDto.class))),
+        @ApiResponse(responseCode = "304", description = "Tasks not modified", 
+                content = @Content),
+        @ApiResponse(responseCode = "404", description = "User not found", 
+                content = @Content),
+        @ApiResponse(responseCode = "403", description = "Access denied", 
+                content = @Content),
+        @ApiResponse(responseCode = "401", description = "Unauthorized", 
+                content = @Content)
+    })
+    @GetMapping(value = "/user/{userId}", params = "normalized=true")
+    public ResponseEntity<TaskListResponseDto> getTasksByAssignedUserIdNormalized(
+            @PathVariable Long userId,
+            @PageableDefault(size = 10, sort = "id") Pageable pageable,
+            WebRequest request) {
+        if (request.checkNotModified(assignedTaskListETag(request, userId))) {
+            return null;
+        }
+        return ResponseEntity.ok(taskService.getTasksByAssignedUserIdNormalized(userId, pageable));
+    }
+
     /**
      * Create a new task.
      * Only accessible to project owners or admins.
      *
      * @param requestDto the task data to create
+     * @param idempotencyKey optional key identifying the request, so that a retry returns the task created by the
+     *        first attempt instead of creating another one
      * @return the created task
      */
     @Operation(summary = "Create a new task", description = "Creates a new task")
@@ -122,12 +297,18 @@ public class TaskController {
         @ApiResponse(responseCode = "403", description = "Access denied", 
                 content = @Content),
         @ApiResponse(responseCode = "401", description = "Unauthorized", 
+                content = @Content),
+        @ApiResponse(responseCode = "409", description = "A request with the same idempotency key is still in progress",
                 content = @Content)
     })
     @PostMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
-    public ResponseEntity<TaskResponseDto> createTask(@Valid @RequestBody TaskRequestDto requestDto) {
-        return new ResponseEntity<>(taskService.createTask(requestDto), HttpStatus.CREATED);
+    public ResponseEntity<TaskResponseDto> createTask(
+            @Valid @RequestBody TaskRequestDto requestDto,
+            @RequestHeader(name = IdempotencyService.KEY_HEADER, required = false) String idempotencyKey) {
+        TaskResponseDto created = idempotencyService.execute(idempotencyKey, "createTask", requestDto,
+                TaskResponseDto.class, () -> taskService.createTask(requestDto));
+        return new ResponseEntity<>(created, HttpStatus.CREATED);
     }
 
     /**
@@ -214,6 +395,8 @@ public class TaskController {
      * @param status optional status to filter by
      * @param priority optional priority to filter by
      * @param pageable pagination information
+     * @param selection the fields and associations to return
+     * @param request the current request, used to answer If-None-Match
      * @return a page of tasks filtered by the specified criteria
      */
     @Operation(summary = "Get filtered tasks", description = "Returns tasks filtered by status and/or priority")
@@ -221,14 +404,28 @@ public class TaskController {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved filtered tasks",
                 content = @Content(mediaType = "application/json", 
                 schema = @Schema(implementation = Page.class))),
+        @ApiResponse(responseCode = "304", description = "Tasks not modified", 
+                content = @Content),
         @ApiResponse(responseCode = "401", description = "Unauthorized", 
                 content = @Content)
     })
+    @Parameter(name = "fields", in = ParameterIn.QUERY, description = "Comma-separated task fields to return")
+    @Parameter(name = "expand", in = ParameterIn.QUERY, description = "Comma-separated associations to embed")
     @GetMapping("/filter")
     public ResponseEntity<Page<TaskResponseDto>> getFilteredTasks(
             @RequestParam(required = false) TaskStatus status,
             @RequestParam(required = false) Priority priority,
-            @PageableDefault(size = 2, sort = "id") Pageable pageable) {
+            @PageableDefault(size = 2, sort = "id") Pageable pageable,
+            @Parameter(hidden = true) FieldSelection selection,
+            WebRequest request) {
+
+        if (request.checkNotModified(taskListETag(request))) {
+            return null;
+        }
+
+        if (!selection.isDefault()) {
+            return ResponseEntity.ok(taskService.getTasks(status, priority, selection, pageable));
+        }
 
         if (status != null && priority != null) {
             return ResponseEntity.ok(taskService.getTasksByStatusAndPriority(status, priority, pageable));
@@ -241,4 +438,50 @@ public class TaskController {
         }
     }
 
+    /**
+     * Get paginated tasks with optional status and priority filters as a normalized page.
+     *
+     * @param status optional status to filter by
+     * @param priority optional priority to filter by
+     * @param pageable pagination information
+     * @param request the current request, used to answer If-None-Match
+     * @return a normalized page of tasks filtered by the specified criteria
+     */
+    @Operation(summary = "Get filtered tasks (normalized)", description = "Returns filtered tasks with projects and users listed once in an included section")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved tasks",
+                content = @Content(mediaType = "application/json", 
+                schema = @Schema(implementation = TaskListResponseDto.class))),
+        @ApiResponse(responseCode = "304", description = "Tasks not modified", 
+                content = @Content),
+        @ApiResponse(responseCode = "401", description = "Unauthorized", 
+                content = @Content)
+    })
+    @GetMapping(value = "/filter", params = "normalized=true")
+    public ResponseEntity<TaskListResponseDto> getFilteredTasksNormalized(
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) Priority priority,
+            @PageableDefault(size = 2, sort = "id") Pageable pageable,
+            WebRequest request) {
+        if (request.checkNotModified(taskListETag(request))) {
+            return null;
+        }
+        return ResponseEntity.ok(taskService.getTasksNormalized(status, priority, pageable));
+    }
+
+    /**
+     * Build the ETag of a task list for the current user, which changes with the tasks in the user's scope
+     * and with the projects and users they embed.
+     */
+    private String taskListETag(WebRequest request) {
+        return ETags.strong(request, taskService.getTaskListVersion());
+    }
+
+    /**
+     * Build the ETag of the list of tasks assigned to a user, which changes with the tasks the user was or is
+     * assigned to and with the projects and users they embed.
+     */
+    private String assignedTaskListETag(WebRequest request, Long userId) {
+        return ETags.strong(request, changeTracker.taskVersion(null, userId));
+    }
 }
@@ -1,5 +1,6 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.BatchResponseDto;
 import com.example.demo.dto.user.UserRequestDto;
 import com.example.demo.dto.user.UserResponseDto;
 import com.example.demo.service.UserService;
@@ -76,6 +77,31 @@ public class UserController {
         return ResponseEntity.ok(userService.getUserById(id));
     }
 
+    /**
+     * Get several users by ID in one request.
+     * Only accessible to admins.
+     *
+     * @param ids the IDs of the users to get
+     * @return the users found and the IDs that are missing
+     */
+    @Operation(summary = "Get users by IDs", description = "Returns the users with the given IDs and lists the IDs that were not found (admin only)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved users",
+                content = @Content(mediaType = "application/json", 
+                schema = @Schema(implementation = BatchResponseDto.class))),
+        @ApiResponse(responseCode = "400", description = "Too many IDs requested", 
+                content = @Content),
+        @ApiResponse(responseCode = "403", description = "Access denied", 
+                content = @Content),
+        @ApiResponse(responseCode = "401", description = "Unauthorized", 
+                content = @Content)
+    })
+    @GetMapping("/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BatchResponseDto<UserResponseDto>> getUsersByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(userService.getUsersByIds(ids));
+    }
+
     /**
      * Create a new user.
      * Only accessible to admins.
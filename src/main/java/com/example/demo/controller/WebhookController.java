@@ -0,0 +1,109 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.webhook.WebhookSubscriptionRequestDto;
+import com.example.demo.dto.webhook.WebhookSubscriptionResponseDto;
+import com.example.demo.service.WebhookService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/projects/{projectId}/webhooks")
+@RequiredArgsConstructor
+@Tag(name = "Webhooks", description = "Callbacks on task changes in a project")
+@SecurityRequirement(name = "bearerAuth")
+public class WebhookController {
+
+    private final WebhookService webhookService;
+
+    /**
+     * Subscribe an endpoint to the task changes of a project.
+     * Only accessible to the project owner or admins.
+     *
+     * @param projectId the ID of the project
+     * @param requestDto the endpoint to call
+     * @return the subscription, with the secret signing its callbacks
+     */
+    @Operation(summary = "Create a webhook subscription", description = "Subscribes an endpoint to the task "
+            + "changes of a project; the returned secret signs every callback and is not shown again")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Subscription successfully created",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = WebhookSubscriptionResponseDto.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid URL",
+                content = @Content),
+        @ApiResponse(responseCode = "403", description = "Access denied",
+                content = @Content),
+        @ApiResponse(responseCode = "404", description = "Project not found",
+                content = @Content),
+        @ApiResponse(responseCode = "401", description = "Unauthorized",
+                content = @Content)
+    })
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<WebhookSubscriptionResponseDto> createSubscription(
+            @PathVariable Long projectId,
+            @Valid @RequestBody WebhookSubscriptionRequestDto requestDto) {
+        return new ResponseEntity<>(webhookService.createSubscription(projectId, requestDto), HttpStatus.CREATED);
+    }
+
+    /**
+     * List the webhook subscriptions of a project.
+     * Only accessible to the project owner or admins.
+     *
+     * @param projectId the ID of the project
+     * @return the subscriptions
+     */
+    @Operation(summary = "List webhook subscriptions", description = "Returns the webhook subscriptions of a project")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved subscriptions"),
+        @ApiResponse(responseCode = "403", description = "Access denied",
+                content = @Content),
+        @ApiResponse(responseCode = "404", description = "Project not found",
+                content = @Content),
+        @ApiResponse(responseCode = "401", description = "Unauthorized",
+                content = @Content)
+    })
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<List<WebhookSubscriptionResponseDto>> getSubscriptions(@PathVariable Long projectId) {
+        return ResponseEntity.ok(webhookService.getSubscriptions(projectId));
+    }
+
+    /**
+     * Delete a webhook subscription with its pending deliveries.
+     * Only accessible to the project owner or admins.
+     *
+     * @param projectId the ID of the project
+     * @param id the ID of the subscription
+     * @return no content
+     */
+    @Operation(summary = "Delete a webhook subscription", description = "Deletes a webhook subscription")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Subscription successfully deleted"),
+        @ApiResponse(responseCode = "403", description = "Access denied",
+                content = @Content),
+        @ApiResponse(responseCode = "404", description = "Project or subscription not found",
+                content = @Content),
+        @ApiResponse(responseCode = "401", description = "Unauthorized",
+                content = @Content)
+    })
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<Void> deleteSubscription(@PathVariable Long projectId, @PathVariable Long id) {
+        webhookService.deleteSubscription(projectId, id);
+        return ResponseEntity.noContent().build();
+    }
+}
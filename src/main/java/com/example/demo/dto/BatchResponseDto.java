@@ -0,0 +1,25 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Result of looking up several resources by id in one request.
+ * Every requested id appears exactly once, in found, forbidden or missing.
+ *
+ * @param <T> the response DTO type of the resource
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResponseDto<T> {
+
+    private List<T> found;
+    private List<Long> forbidden;
+    private List<Long> missing;
+}
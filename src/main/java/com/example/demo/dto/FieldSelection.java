@@ -0,0 +1,136 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Fields and associations requested through the {@code fields} and {@code expand} query parameters.
+ * {@code fields} lists the top-level properties to return, the id is always returned.
+ * {@code expand} lists the associations to embed in full, other requested associations only carry their id.
+ * Without either parameter the full representation is returned.
+ */
+public final class FieldSelection {
+
+    /**
+     * ID of the Jackson filter applied to response DTOs that support field selection.
+     */
+    public static final String FILTER_ID = "fieldSelection";
+
+    /**
+     * The full representation, as returned when no selection is requested.
+     */
+    public static final FieldSelection ALL = new FieldSelection(null, null);
+
+    /**
+     * All properties, with associations carrying only their id.
+     */
+    public static final FieldSelection REFERENCES = new FieldSelection(null, Set.of());
+
+    private final Set<String> fields;
+    private final Set<String> expand;
+
+    private FieldSelection(Set<String> fields, Set<String> expand) {
+        this.fields = fields;
+        this.expand = expand;
+    }
+
+    /**
+     * Parse the {@code fields} and {@code expand} query parameters.
+     *
+     * @param fields comma-separated top-level properties, or null for all
+     * @param expand comma-separated associations to embed, or null
+     * @return the field selection
+     */
+    public static FieldSelection of(String fields, String expand) {
+        if (fields == null && expand == null) {
+            return ALL;
+        }
+        return new FieldSelection(parse(fields), parse(expand));
+    }
+
+    /**
+     * Check whether this is the full representation.
+     *
+     * @return true if neither fields nor expansions were requested
+     */
+    public boolean isDefault() {
+        return fields == null && expand == null;
+    }
+
+    /**
+     * Check whether a top-level property is requested.
+     * Expanded associations are always included.
+     *
+     * @param field the name of the property
+     * @return true if the property is part of the response
+     */
+    public boolean includes(String field) {
+        return fields == null || fields.contains(field) || "id".equals(field) || (expand != null && expand.contains(field));
+    }
+
+    /**
+     * Check whether an association is embedded in full.
+     *
+     * @param association the name of the association
+     * @return true if the association is embedded in full, false if it only carries its id
+     */
+    public boolean isExpanded(String association) {
+        return expand != null ? expand.contains(association) : fields == null;
+    }
+
+    /**
+     * Check whether a property path, such as {@code title} or {@code project.name}, is part of the response.
+     *
+     * @param path the dotted path of the property
+     * @return true if the property is part of the response
+     */
+    public boolean allows(String path) {
+        int dot = path.indexOf('.');
+        if (dot < 0) {
+            return includes(path);
+        }
+
+        String association = path.substring(0, dot);
+        return includes(association) && (isExpanded(association) || "id".equals(path.substring(dot + 1)));
+    }
+
+    /**
+     * Validate the selection against a response DTO.
+     * Fields must be properties of the DTO and expansions must be properties holding another selectable DTO.
+     *
+     * @param dtoType the response DTO class
+     * @throws IllegalArgumentException if the selection names an unknown field or association
+     */
+    public void validate(Class<?> dtoType) {
+        Set<String> known = Arrays.stream(dtoType.getDeclaredFields())
+                .map(Field::getName)
+                .collect(Collectors.toCollection(TreeSet::new));
+        Set<String> expandable = Arrays.stream(dtoType.getDeclaredFields())
+                .filter(field -> field.getType().isAnnotationPresent(JsonFilter.class))
+                .map(Field::getName)
+                .collect(Collectors.toCollection(TreeSet::new));
+
+        if (fields != null && !known.containsAll(fields)) {
+            throw new IllegalArgumentException("Unknown fields requested. Valid fields are: " + String.join(", ", known));
+        }
+        if (expand != null && !expandable.containsAll(expand)) {
+            throw new IllegalArgumentException("Unknown associations to expand. Valid values are: " + String.join(", ", expandable));
+        }
+    }
+
+    private static Set<String> parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(item -> !item.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+}
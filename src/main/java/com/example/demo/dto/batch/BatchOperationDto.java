@@ -0,0 +1,27 @@
+package com.example.demo.dto.batch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A single API call inside a batch request.
+ * The path may reference a field of an earlier result, e.g. {@code /api/v1/tasks/${0.id}/status}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOperationDto {
+
+    @NotBlank(message = "Method is required")
+    private String method;
+
+    @NotBlank(message = "Path is required")
+    private String path;
+
+    private JsonNode body;
+}
@@ -0,0 +1,17 @@
+package com.example.demo.dto.batch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOperationResultDto {
+
+    private int status;
+    private JsonNode body;
+}
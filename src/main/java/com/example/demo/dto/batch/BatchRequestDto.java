@@ -0,0 +1,23 @@
+package com.example.demo.dto.batch;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRequestDto {
+
+    @Valid
+    @NotEmpty(message = "At least one operation is required")
+    private List<BatchOperationDto> operations;
+
+    private boolean transactional;
+}
@@ -0,0 +1,22 @@
+package com.example.demo.dto.batch;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Results of a batch request, in the order the operations were sent.
+ * For a transactional batch, committed is false when an operation failed and all changes were rolled back.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResultDto {
+
+    private List<BatchOperationResultDto> results;
+    private boolean committed;
+}
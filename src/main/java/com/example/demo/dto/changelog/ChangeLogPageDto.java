@@ -0,0 +1,31 @@
+package com.example.demo.dto.changelog;
+
+import com.example.demo.changelog.ChangeLogRecord;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Records read from the change log, with the offset to continue reading from.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeLogPageDto {
+
+    /**
+     * Offset of the oldest record still in the log. Records before it have been deleted by retention.
+     */
+    private long startOffset;
+
+    /**
+     * Offset to request next. Equal to the requested offset when no new records are available.
+     */
+    private long nextOffset;
+
+    private List<ChangeLogRecord> records;
+}
@@ -1,6 +1,8 @@
 package com.example.demo.dto.project;
 
+import com.example.demo.dto.FieldSelection;
 import com.example.demo.dto.user.UserResponseDto;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -10,6 +12,7 @@ import java.time.LocalDateTime;
 
 @Data
 @Builder
+@JsonFilter(FieldSelection.FILTER_ID)
 @NoArgsConstructor
 @AllArgsConstructor
 public class ProjectResponseDto {
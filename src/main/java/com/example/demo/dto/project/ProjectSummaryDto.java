@@ -0,0 +1,26 @@
+package com.example.demo.dto.project;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Project representation used in normalized lists.
+ * The owner is referenced by id and listed once alongside the project.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectSummaryDto {
+
+    private Long id;
+    private String name;
+    private String description;
+    private Long ownerId;
+    private LocalDateTime createDate;
+    private LocalDateTime updateDate;
+}
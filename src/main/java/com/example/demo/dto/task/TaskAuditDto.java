@@ -0,0 +1,25 @@
+package com.example.demo.dto.task;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A change to one field of a task, as listed in the task history.
+ * Values are given as text; enums by name and dates in ISO format.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskAuditDto {
+
+    private String field;
+    private String oldValue;
+    private String newValue;
+    private Long changedBy;
+    private LocalDateTime changedAt;
+}
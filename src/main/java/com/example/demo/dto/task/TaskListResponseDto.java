@@ -0,0 +1,42 @@
+package com.example.demo.dto.task;
+
+import com.example.demo.dto.project.ProjectSummaryDto;
+import com.example.demo.dto.user.UserResponseDto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Normalized page of tasks.
+ * Tasks reference their project and assigned user by id, and every referenced project and user
+ * appears once in the included section.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskListResponseDto {
+
+    private List<TaskSummaryDto> content;
+    private Included included;
+    private int number;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+
+    /**
+     * Projects and users referenced by the tasks of the page.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Included {
+
+        private List<ProjectSummaryDto> projects;
+        private List<UserResponseDto> users;
+    }
+}
@@ -1,9 +1,11 @@
 package com.example.demo.dto.task;
 
+import com.example.demo.dto.FieldSelection;
 import com.example.demo.dto.project.ProjectResponseDto;
 import com.example.demo.dto.user.UserResponseDto;
 import com.example.demo.model.enums.Priority;
 import com.example.demo.model.enums.TaskStatus;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,6 +16,7 @@ import java.time.LocalDateTime;
 
 @Data
 @Builder
+@JsonFilter(FieldSelection.FILTER_ID)
 @NoArgsConstructor
 @AllArgsConstructor
 public class TaskResponseDto {
@@ -0,0 +1,33 @@
+package com.example.demo.dto.task;
+
+import com.example.demo.model.enums.Priority;
+import com.example.demo.model.enums.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Task representation used in normalized lists.
+ * The project and assigned user are referenced by id and listed once in {@link TaskListResponseDto.Included}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskSummaryDto {
+
+    private Long id;
+    private String title;
+    private String description;
+    private TaskStatus status;
+    private LocalDate dueDate;
+    private Priority priority;
+    private Long projectId;
+    private Long assignedUserId;
+    private LocalDateTime createDate;
+    private LocalDateTime updateDate;
+}
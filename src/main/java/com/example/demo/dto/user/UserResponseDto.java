@@ -1,6 +1,8 @@
 package com.example.demo.dto.user;
 
+import com.example.demo.dto.FieldSelection;
 import com.example.demo.model.enums.Role;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -11,6 +13,7 @@ import java.time.LocalDateTime;
 
 @Data
 @Builder
+@JsonFilter(FieldSelection.FILTER_ID)
 @NoArgsConstructor
 @AllArgsConstructor
 public class UserResponseDto {
@@ -0,0 +1,21 @@
+package com.example.demo.dto.webhook;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebhookSubscriptionRequestDto {
+
+    @NotBlank(message = "Webhook URL is required")
+    @Size(max = 2048, message = "Webhook URL must be at most 2048 characters")
+    @Pattern(regexp = "https?://\\S+", message = "Webhook URL must be an http or https URL")
+    private String url;
+}
@@ -0,0 +1,25 @@
+package com.example.demo.dto.webhook;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Webhook subscription of a project. The secret signing the callbacks is only returned when the subscription
+ * is created.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebhookSubscriptionResponseDto {
+
+    private Long id;
+    private Long projectId;
+    private String url;
+    private String secret;
+    private LocalDateTime createDate;
+}
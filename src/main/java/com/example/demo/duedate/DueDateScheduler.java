@@ -0,0 +1,329 @@
+package com.example.demo.duedate;
+
+import com.example.demo.cache.ChangeTracker.ResourceType;
+import com.example.demo.event.ChangeEvent;
+import com.example.demo.event.ChangeEventConsumer;
+import com.example.demo.job.JobRunner;
+import com.example.demo.model.enums.OutboxEventType;
+import com.example.demo.repository.projection.TaskDueDate;
+import com.example.demo.service.DueDateService;
+import com.example.demo.shard.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fires {@link OutboxEventType#TASK_DUE_SOON} when an open task reaches {@code app.due-dates.reminder-lead} before
+ * the end of its due date, and {@link OutboxEventType#TASK_OVERDUE} when the due date ends, in the system time zone.
+ * <p>
+ * Timers are kept in a {@link TimingWheel} owned by a single scheduler thread, so scheduling and firing cost
+ * constant time without locks. Only tasks due within {@code app.due-dates.horizon} are held in memory. At startup
+ * they are read from the due date index in pages of {@code app.due-dates.load-batch-size}, and the horizon is
+ * extended the same way as the days pass. Task changes arrive from the event bus and are applied on the next tick
+ * by reading the due dates of the changed tasks in one query per shard.
+ * <p>
+ * A timer that comes due fires an event only if its task is still open and due on the same date, which is checked
+ * when the event is recorded, so timers of tasks changed or deleted meanwhile, such as with their project, are
+ * dropped then. Timers whose moment has already passed when they are scheduled, including while the application
+ * was down, do not fire.
+ * <p>
+ * Only the instance holding the lease of the job keeps timers, and each tick runs under the throttle of the
+ * {@link JobRunner}. The events of task changes are only seen on the instance making them, so the holder also reads
+ * the whole horizon again every {@code app.due-dates.rescan-interval}, to pick up changes made on other instances.
+ */
+@Component
+@ConditionalOnProperty(name = "app.due-dates.enabled", havingValue = "true", matchIfMissing = true)
+public class DueDateScheduler implements ChangeEventConsumer, SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(DueDateScheduler.class);
+
+    private static final String JOB_NAME = "due-dates";
+    private static final int WHEEL_SIZE = 64;
+    private static final long STOP_TIMEOUT_MILLIS = 10_000;
+
+    private final DueDateService dueDateService;
+    private final ShardRouter shardRouter;
+    private final JobRunner jobRunner;
+    private final Duration tick;
+    private final Duration reminderLead;
+    private final Duration horizon;
+    private final int loadBatchSize;
+    private final Duration rescanInterval;
+    private final Clock clock;
+    private final ZoneId zone;
+
+    private final Queue<TaskChange> changes = new ConcurrentLinkedQueue<>();
+    private final Thread scheduler = new Thread(this::runScheduler, "due-date-scheduler");
+    private volatile boolean running;
+
+    // Owned by the scheduler thread
+    private TimingWheel<DueTimer> wheel;
+    private final Map<Long, LocalDate> scheduled = new HashMap<>();
+    private final Set<Long> pendingRefresh = new HashSet<>();
+    private final List<DueTimer> fired = new ArrayList<>();
+    private LocalDate loadedUntil;
+    private long rescanAt;
+
+    private final Counter reminders;
+    private final Counter overdue;
+
+    public DueDateScheduler(DueDateService dueDateService,
+                            ShardRouter shardRouter,
+                            JobRunner jobRunner,
+                            @Value("${app.due-dates.tick}") Duration tick,
+                            @Value("${app.due-dates.reminder-lead}") Duration reminderLead,
+                            @Value("${app.due-dates.horizon}") Duration horizon,
+                            @Value("${app.due-dates.load-batch-size}") int loadBatchSize,
+                            @Value("${app.due-dates.rescan-interval}") Duration rescanInterval,
+                            MeterRegistry meterRegistry) {
+        this(dueDateService, shardRouter, jobRunner, tick, reminderLead, horizon, loadBatchSize, rescanInterval,
+                meterRegistry, Clock.systemDefaultZone());
+    }
+
+    DueDateScheduler(DueDateService dueDateService,
+                     ShardRouter shardRouter,
+                     JobRunner jobRunner,
+                     Duration tick,
+                     Duration reminderLead,
+                     Duration horizon,
+                     int loadBatchSize,
+                     Duration rescanInterval,
+                     MeterRegistry meterRegistry,
+                     Clock clock) {
+        this.dueDateService = dueDateService;
+        this.shardRouter = shardRouter;
+        this.jobRunner = jobRunner;
+        this.tick = tick;
+        this.reminderLead = reminderLead;
+        this.horizon = horizon;
+        this.loadBatchSize = loadBatchSize;
+        this.rescanInterval = rescanInterval;
+        this.clock = clock;
+        this.zone = clock.getZone();
+        this.reminders = Counter.builder("due.dates.fired").tag("type", "due_soon").register(meterRegistry);
+        this.overdue = Counter.builder("due.dates.fired").tag("type", "overdue").register(meterRegistry);
+        Gauge.builder("due.dates.timers", this, scheduler -> scheduler.wheel != null ? scheduler.wheel.size() : 0)
+                .description("Timers pending in the timing wheel, including those of changed tasks")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void onEvent(ChangeEvent event, long sequence, boolean endOfBatch) {
+        if (event.getResourceType() == ResourceType.TASK) {
+            changes.add(new TaskChange(event.getResourceId(), event.getChangeType() == ChangeEvent.ChangeType.DELETED));
+        }
+    }
+
+    private void runScheduler() {
+        while (running) {
+            try {
+                if (!jobRunner.runExclusively(JOB_NAME, this::tick)) {
+                    stepDown();
+                }
+            } catch (RuntimeException e) {
+                // Whatever failed is kept and retried on the next tick
+                logger.warn("Due date scheduler tick failed", e);
+            }
+            LockSupport.parkNanos(tick.toNanos());
+        }
+    }
+
+    /**
+     * Apply the task changes received and fire the timers due by now. Runs on the scheduler thread while the lease
+     * is held.
+     */
+    void tick() {
+        long now = clock.millis();
+        if (wheel == null) {
+            // Rebuilt from the database on taking the lease, as another instance may have held it meanwhile
+            wheel = new TimingWheel<>(tick.toMillis(), WHEEL_SIZE, now);
+            rescanAt = now;
+        }
+        if (now >= rescanAt) {
+            // Picks up the changes made on other instances, whose events this instance does not see
+            loadedUntil = LocalDate.now(clock);
+            rescanAt = now + rescanInterval.toMillis();
+        }
+        extendHorizon();
+        applyChanges();
+        wheel.advanceTo(now, this::expire);
+        fire();
+    }
+
+    /**
+     * Drop the timers while another instance holds the lease and fires them.
+     */
+    private void stepDown() {
+        changes.clear();
+        if (wheel != null) {
+            wheel = null;
+            scheduled.clear();
+            pendingRefresh.clear();
+            fired.clear();
+        }
+    }
+
+    /**
+     * Load the tasks due between the end of the loaded range and the horizon, shard by shard, by key.
+     */
+    private void extendHorizon() {
+        LocalDate until = LocalDate.now(clock).plusDays(Math.max(1, horizon.toDays()));
+        if (!until.isAfter(loadedUntil)) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        int loaded = 0;
+        for (int shard : shardRouter.allShards()) {
+            TaskDueDate after = null;
+            List<TaskDueDate> page;
+            do {
+                TaskDueDate last = after;
+                page = shardRouter.callOn(shard, () ->
+                        dueDateService.getOpenTasksDueBetween(loadedUntil, until, last, loadBatchSize));
+                for (TaskDueDate task : page) {
+                    schedule(task.getId(), task.getDueDate());
+                }
+                loaded += page.size();
+                after = page.isEmpty() ? null : page.get(page.size() - 1);
+            } while (page.size() == loadBatchSize);
+        }
+        logger.info("Scheduled {} tasks due from {} to {} in {} ms", loaded, loadedUntil, until.minusDays(1),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        loadedUntil = until;
+    }
+
+    /**
+     * Reschedule the tasks changed since the last tick from their current due dates.
+     */
+    private void applyChanges() {
+        TaskChange change;
+        while ((change = changes.poll()) != null) {
+            if (change.deleted()) {
+                pendingRefresh.remove(change.taskId());
+                scheduled.remove(change.taskId());
+            } else {
+                pendingRefresh.add(change.taskId());
+            }
+        }
+        if (pendingRefresh.isEmpty()) {
+            return;
+        }
+
+        for (Map.Entry<Integer, List<Long>> entry : shardRouter.groupByShard(pendingRefresh).entrySet()) {
+            List<TaskDueDate> open = shardRouter.callOn(entry.getKey(),
+                    () -> dueDateService.getOpenTaskDueDates(entry.getValue()));
+            Map<Long, LocalDate> dueDates = new HashMap<>();
+            for (TaskDueDate task : open) {
+                dueDates.put(task.getId(), task.getDueDate());
+            }
+            for (Long taskId : entry.getValue()) {
+                LocalDate dueDate = dueDates.get(taskId);
+                // Tasks due beyond the loaded range are scheduled when the horizon reaches them
+                if (dueDate != null && dueDate.isBefore(loadedUntil)) {
+                    schedule(taskId, dueDate);
+                } else {
+                    scheduled.remove(taskId);
+                }
+                pendingRefresh.remove(taskId);
+            }
+        }
+    }
+
+    private void schedule(Long taskId, LocalDate dueDate) {
+        if (dueDate.equals(scheduled.put(taskId, dueDate))) {
+            return;
+        }
+        // Timers of a previous due date stay in the wheel and are dropped when they come due
+        long deadline = dueDate.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        wheel.add(deadline - reminderLead.toMillis(), new DueTimer(taskId, dueDate, OutboxEventType.TASK_DUE_SOON));
+        if (!wheel.add(deadline, new DueTimer(taskId, dueDate, OutboxEventType.TASK_OVERDUE))) {
+            scheduled.remove(taskId);
+        }
+    }
+
+    private void expire(DueTimer timer) {
+        if (!timer.dueDate().equals(scheduled.get(timer.taskId()))) {
+            return;
+        }
+        if (timer.type() == OutboxEventType.TASK_OVERDUE) {
+            scheduled.remove(timer.taskId());
+        }
+        fired.add(timer);
+    }
+
+    /**
+     * Record the events of the timers that fired, one transaction per shard and event type.
+     */
+    private void fire() {
+        if (fired.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, Map<OutboxEventType, Map<Long, LocalDate>>> byShard = new LinkedHashMap<>();
+        for (DueTimer timer : fired) {
+            byShard.computeIfAbsent(shardRouter.shardOf(timer.taskId()), shard -> new LinkedHashMap<>())
+                    .computeIfAbsent(timer.type(), type -> new LinkedHashMap<>())
+                    .put(timer.taskId(), timer.dueDate());
+        }
+        for (Map.Entry<Integer, Map<OutboxEventType, Map<Long, LocalDate>>> shard : byShard.entrySet()) {
+            for (Map.Entry<OutboxEventType, Map<Long, LocalDate>> events : shard.getValue().entrySet()) {
+                int recorded = shardRouter.callOn(shard.getKey(),
+                        () -> dueDateService.recordDueEvents(events.getKey(), events.getValue()));
+                (events.getKey() == OutboxEventType.TASK_OVERDUE ? overdue : reminders).increment(recorded);
+                fired.removeIf(timer -> timer.type() == events.getKey()
+                        && events.getValue().containsKey(timer.taskId())
+                        && shardRouter.shardOf(timer.taskId()) == shard.getKey());
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        scheduler.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        LockSupport.unpark(scheduler);
+        try {
+            scheduler.join(STOP_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private record TaskChange(Long taskId, boolean deleted) {
+    }
+
+    private record DueTimer(Long taskId, LocalDate dueDate, OutboxEventType type) {
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.demo.duedate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel. Level 0 has {@code wheelSize} buckets of one tick each; every further level has
+ * buckets as long as the whole level below, and is added when a timer is first scheduled beyond the levels so far.
+ * Adding a timer and expiring it cost constant time however many timers are pending; a timer moves down one level
+ * at a time as its bucket comes due, so it is touched at most once per level.
+ * <p>
+ * Timers fire once the tick holding their deadline has passed, so never early and at most one tick late. The
+ * wheel is not thread-safe and is meant to be owned by a single thread.
+ *
+ * @param <T> the type of the items scheduled
+ */
+final class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final List<Level<T>> levels = new ArrayList<>();
+    private long currentTime;
+    private int size;
+
+    /**
+     * @param tickMillis the length of a level 0 bucket
+     * @param wheelSize the number of buckets per level
+     * @param startMillis the time the wheel starts at
+     */
+    TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("Timing wheel needs a positive tick and at least two buckets");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.currentTime = startMillis - Math.floorMod(startMillis, tickMillis);
+        levels.add(new Level<>(tickMillis, wheelSize));
+    }
+
+    /**
+     * Schedule an item.
+     *
+     * @param deadlineMillis the time the item is due
+     * @param item the item
+     * @return false if the deadline is before the current tick, in which case the item is not scheduled
+     */
+    boolean add(long deadlineMillis, T item) {
+        if (!place(new Timer<>(deadlineMillis, item))) {
+            return false;
+        }
+        size++;
+        return true;
+    }
+
+    /**
+     * Advance the wheel tick by tick up to a time, expiring the items that come due on the way.
+     *
+     * @param nowMillis the time to advance to
+     * @param expired receives the expired items, in deadline order up to the tick
+     */
+    void advanceTo(long nowMillis, Consumer<T> expired) {
+        while (currentTime + tickMillis <= nowMillis) {
+            // The current tick has passed, so every timer due in it has come due
+            ArrayDeque<Timer<T>> bucket = levels.get(0).bucketFor(currentTime);
+            Timer<T> timer;
+            while ((timer = bucket.poll()) != null) {
+                size--;
+                expired.accept(timer.item());
+            }
+
+            currentTime += tickMillis;
+            // Move timers down from the highest level whose bucket starts now; each lands in a lower level, as the
+            // bucket covers no more than the range of the level below
+            for (int level = levels.size() - 1; level > 0; level--) {
+                Level<T> wheel = levels.get(level);
+                if (currentTime % wheel.tickMillis == 0) {
+                    ArrayDeque<Timer<T>> due = wheel.bucketFor(currentTime);
+                    while ((timer = due.poll()) != null) {
+                        place(timer);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the number of pending timers.
+     *
+     * @return the number of timers added and not yet expired
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Put a timer into the lowest level whose range covers its deadline, adding levels as needed.
+     *
+     * @return false if the timer was due before the current tick
+     */
+    private boolean place(Timer<T> timer) {
+        if (timer.deadlineMillis() < currentTime) {
+            return false;
+        }
+        for (int level = 0; ; level++) {
+            if (level == levels.size()) {
+                Level<T> top = levels.get(level - 1);
+                levels.add(new Level<>(top.tickMillis * wheelSize, wheelSize));
+            }
+            Level<T> wheel = levels.get(level);
+            long levelTime = currentTime - Math.floorMod(currentTime, wheel.tickMillis);
+            if (timer.deadlineMillis() < levelTime + wheel.tickMillis * wheelSize) {
+                wheel.bucketFor(timer.deadlineMillis()).add(timer);
+                return true;
+            }
+        }
+    }
+
+    private record Timer<T>(long deadlineMillis, T item) {
+    }
+
+    /**
+     * One level of the wheel, each bucket holding the timers due within one tick of the level.
+     */
+    private static final class Level<T> {
+
+        private final long tickMillis;
+        private final ArrayDeque<Timer<T>>[] buckets;
+
+        @SuppressWarnings("unchecked")
+        Level(long tickMillis, int wheelSize) {
+            this.tickMillis = tickMillis;
+            this.buckets = new ArrayDeque[wheelSize];
+            for (int index = 0; index < wheelSize; index++) {
+                buckets[index] = new ArrayDeque<>();
+            }
+        }
+
+        ArrayDeque<Timer<T>> bucketFor(long timeMillis) {
+            return buckets[(int) Math.floorMod(Math.floorDiv(timeMillis, tickMillis), (long) buckets.length)];
+        }
+    }
+}
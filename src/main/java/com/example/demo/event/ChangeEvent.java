@@ -0,0 +1,59 @@
+package com.example.demo.event;
+
+import com.example.demo.cache.ChangeTracker.ResourceType;
+
+/**
+ * A committed change to a task, project or user, as seen by {@link ChangeEventConsumer}s.
+ * Events are preallocated slots of the {@link ChangeEventBus} ring buffer and are overwritten once every consumer
+ * has moved past them, so consumers must copy what they need instead of keeping the event.
+ */
+public final class ChangeEvent {
+
+    /**
+     * What happened to the resource.
+     */
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private ResourceType resourceType;
+    private ChangeType changeType;
+    private long resourceId;
+    private long timestamp;
+
+    ChangeEvent() {
+    }
+
+    void set(ResourceType resourceType, ChangeType changeType, long resourceId, long timestamp) {
+        this.resourceType = resourceType;
+        this.changeType = changeType;
+        this.resourceId = resourceId;
+        this.timestamp = timestamp;
+    }
+
+    public ResourceType getResourceType() {
+        return resourceType;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public long getResourceId() {
+        return resourceId;
+    }
+
+    /**
+     * @return the time the change was committed, in milliseconds since the epoch
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return changeType + " " + resourceType + " " + resourceId;
+    }
+}
@@ -0,0 +1,274 @@
+package com.example.demo.event;
+
+import com.example.demo.cache.AfterCommit;
+import com.example.demo.cache.ChangeTracker.ResourceType;
+import com.example.demo.event.ChangeEvent.ChangeType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-process bus delivering committed task, project and user changes to every {@link ChangeEventConsumer} bean.
+ * Events live in a preallocated ring buffer of {@code app.event-bus.buffer-size} slots, so publishing allocates
+ * nothing on the bus: a publisher claims the next sequence with a single atomic increment, fills the slot it alone
+ * owns and marks it published. Each consumer reads the buffer on its own thread, tracking its own sequence, and idles
+ * according to {@code app.event-bus.wait-strategy}. A publisher only waits when the slowest consumer is a full
+ * buffer behind.
+ */
+@Component
+public class ChangeEventBus implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(ChangeEventBus.class);
+
+    private static final long PUBLISH_WAIT_NANOS = 1_000;
+    private static final long STOP_TIMEOUT_MILLIS = 5_000;
+
+    private final ChangeEvent[] entries;
+    private final int mask;
+    private final int indexShift;
+    /**
+     * The round each slot was last published in, so a slot left over from the previous round is not mistaken
+     * for the next event.
+     */
+    private final AtomicLongArray publishedRounds;
+    private final AtomicLong claimed = new AtomicLong(-1);
+
+    private final WaitStrategy waitStrategy;
+    private final ObjectProvider<ChangeEventConsumer> consumers;
+    private final MeterRegistry meterRegistry;
+    private final Counter published;
+    private final Counter publishWaits;
+
+    private volatile List<Processor> processors = List.of();
+    private volatile boolean running;
+
+    public ChangeEventBus(@Value("${app.event-bus.buffer-size}") int bufferSize,
+                          @Value("${app.event-bus.wait-strategy}") WaitStrategy waitStrategy,
+                          ObjectProvider<ChangeEventConsumer> consumers,
+                          MeterRegistry meterRegistry) {
+        if (bufferSize < 1 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("Event bus buffer size must be a power of two: " + bufferSize);
+        }
+        this.entries = new ChangeEvent[bufferSize];
+        for (int index = 0; index < bufferSize; index++) {
+            entries[index] = new ChangeEvent();
+        }
+        this.mask = bufferSize - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(bufferSize);
+        this.publishedRounds = new AtomicLongArray(bufferSize);
+        for (int index = 0; index < bufferSize; index++) {
+            publishedRounds.set(index, -1);
+        }
+        this.waitStrategy = waitStrategy;
+        this.consumers = consumers;
+        this.meterRegistry = meterRegistry;
+        this.published = Counter.builder("event.bus.published").register(meterRegistry);
+        this.publishWaits = Counter.builder("event.bus.publish.waits")
+                .description("Publishes that waited for the slowest consumer to free a slot")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Publish a change. When called inside a transaction the event is published after commit, and dropped on
+     * rollback; otherwise it is published immediately. An event that would have to wait for a free slot while
+     * the bus is stopping is dropped.
+     *
+     * @param resourceType the type of the resource that changed
+     * @param changeType what happened to the resource
+     * @param resourceId the ID of the resource
+     */
+    public void publish(ResourceType resourceType, ChangeType changeType, long resourceId) {
+        AfterCommit.run(() -> publishNow(resourceType, changeType, resourceId));
+    }
+
+    private void publishNow(ResourceType resourceType, ChangeType changeType, long resourceId) {
+        List<Processor> current = processors;
+        if (current.isEmpty()) {
+            return;
+        }
+
+        long sequence = claimed.incrementAndGet();
+        long wrapPoint = sequence - entries.length;
+        if (wrapPoint > minimumSequence(current)) {
+            publishWaits.increment();
+            while (wrapPoint > minimumSequence(current)) {
+                if (!running) {
+                    // The slot still holds an event the consumers drain while stopping
+                    logger.warn("Dropped {} {} {} published while the event bus stopped", changeType, resourceType,
+                            resourceId);
+                    return;
+                }
+                LockSupport.parkNanos(PUBLISH_WAIT_NANOS);
+            }
+        }
+
+        int index = (int) sequence & mask;
+        entries[index].set(resourceType, changeType, resourceId, System.currentTimeMillis());
+        publishedRounds.set(index, sequence >>> indexShift);
+        published.increment();
+
+        if (waitStrategy == WaitStrategy.BLOCKING) {
+            for (Processor processor : current) {
+                if (processor.parked) {
+                    LockSupport.unpark(processor.thread);
+                }
+            }
+        }
+    }
+
+    private boolean isPublished(long sequence) {
+        return publishedRounds.get((int) sequence & mask) == sequence >>> indexShift;
+    }
+
+    private static long minimumSequence(List<Processor> processors) {
+        long minimum = Long.MAX_VALUE;
+        for (Processor processor : processors) {
+            minimum = Math.min(minimum, processor.sequence);
+        }
+        return minimum;
+    }
+
+    @Override
+    public void start() {
+        List<Processor> started = new ArrayList<>();
+        long next = claimed.get() + 1;
+        consumers.orderedStream().forEach(consumer -> started.add(new Processor(consumer, next - 1)));
+        running = true;
+        processors = List.copyOf(started);
+        for (Processor processor : started) {
+            Gauge.builder("event.bus.backlog", processor, p -> claimed.get() - p.sequence)
+                    .description("Events published but not yet handled by the consumer")
+                    .tag("consumer", processor.name)
+                    .register(meterRegistry);
+            processor.thread.start();
+        }
+        logger.info("Started event bus with {} consumers", started.size());
+    }
+
+    /**
+     * Stops accepting events and waits for the consumers to handle the events already published.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        List<Processor> stopping = processors;
+        processors = List.of();
+        for (Processor processor : stopping) {
+            LockSupport.unpark(processor.thread);
+        }
+        for (Processor processor : stopping) {
+            try {
+                processor.thread.join(STOP_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before and stops after the web server, so requests in flight at shutdown can still publish.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private final class Processor implements Runnable {
+
+        private final ChangeEventConsumer consumer;
+        private final String name;
+        private final Thread thread;
+        private volatile long sequence;
+        private volatile boolean parked;
+
+        private Processor(ChangeEventConsumer consumer, long sequence) {
+            this.consumer = consumer;
+            this.name = consumer.getClass().getSimpleName();
+            this.sequence = sequence;
+            this.thread = new Thread(this, "event-bus-" + name);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                process();
+            } finally {
+                if (running) {
+                    // A consumer that is gone must not keep publishers waiting for it to free slots
+                    logger.error("Event consumer {} stopped unexpectedly, events are no longer delivered to it", name);
+                    sequence = Long.MAX_VALUE;
+                }
+            }
+        }
+
+        private void process() {
+            long next = sequence + 1;
+            while (true) {
+                long available = waitFor(next);
+                if (available < next) {
+                    return;
+                }
+                for (long current = next; current <= available; current++) {
+                    ChangeEvent event = entries[(int) current & mask];
+                    try {
+                        consumer.onEvent(event, current, current == available);
+                    } catch (Throwable e) {
+                        // Errors are logged and skipped like exceptions, as a dead consumer would block publishers
+                        logger.error("Event consumer {} failed on {}", name, event, e);
+                    }
+                }
+                sequence = available;
+                next = available + 1;
+            }
+        }
+
+        /**
+         * Wait for the given event, then return the last of the contiguous events published from it on.
+         * Returns one less than the given sequence once the bus is stopped and no more events are available.
+         */
+        private long waitFor(long next) {
+            int attempt = 0;
+            while (!isPublished(next)) {
+                if (!running) {
+                    return next - 1;
+                }
+                if (waitStrategy == WaitStrategy.BLOCKING) {
+                    // Publishers check the flag after marking the slot published, so one of the two sees the other
+                    parked = true;
+                    if (!isPublished(next) && running) {
+                        waitStrategy.idle(attempt, this);
+                    }
+                    parked = false;
+                } else {
+                    waitStrategy.idle(attempt, this);
+                }
+                attempt++;
+            }
+
+            long available = next;
+            long last = claimed.get();
+            while (available < last && isPublished(available + 1)) {
+                available++;
+            }
+            return available;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.demo.event;
+
+/**
+ * Receives every event published to the {@link ChangeEventBus}, in publication order, on a thread of its own.
+ * Each consumer bean gets its own thread, so a slow consumer does not delay the others until the ring buffer
+ * is full, at which point publishers wait for it.
+ */
+public interface ChangeEventConsumer {
+
+    /**
+     * Handle an event. Exceptions are logged and the event is skipped.
+     *
+     * @param event the event, only valid for the duration of the call
+     * @param sequence the position of the event on the bus, increasing by one per event
+     * @param endOfBatch whether no further events are available yet, so buffered work can be flushed
+     */
+    void onEvent(ChangeEvent event, long sequence, boolean endOfBatch);
+}
@@ -0,0 +1,64 @@
+package com.example.demo.event;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How an idle {@link ChangeEventBus} consumer waits for the next event, trading latency against CPU use.
+ */
+public enum WaitStrategy {
+    /**
+     * Parks until a publisher wakes the consumer. Uses no CPU while idle, at the cost of a wake-up per publish
+     * while the consumer sleeps.
+     */
+    BLOCKING,
+
+    /**
+     * Spins, then yields, then parks for short intervals. Publishers never wake the consumer.
+     */
+    SLEEPING,
+
+    /**
+     * Spins, then yields the CPU to other threads. Low latency, but keeps a core busy while idle.
+     */
+    YIELDING,
+
+    /**
+     * Spins continuously. Lowest latency; only suitable when a core can be dedicated to each consumer.
+     */
+    BUSY_SPIN;
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 200;
+    private static final long SLEEP_NANOS = 100_000;
+    private static final long BLOCK_NANOS = 10_000_000;
+
+    /**
+     * Wait once before checking again for the next event.
+     *
+     * @param attempt the number of times the consumer has already waited for this event
+     * @param blocker the object the consumer parks on
+     */
+    void idle(int attempt, Object blocker) {
+        switch (this) {
+            case BUSY_SPIN -> Thread.onSpinWait();
+            case YIELDING -> {
+                if (attempt < SPIN_TRIES) {
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+            case SLEEPING -> {
+                if (attempt < SPIN_TRIES) {
+                    Thread.onSpinWait();
+                } else if (attempt < YIELD_TRIES) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(blocker, SLEEP_NANOS);
+                }
+            }
+            // Bounded, so a consumer notices shutdown even without a wake-up
+            case BLOCKING -> LockSupport.parkNanos(blocker, BLOCK_NANOS);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.demo.grpc;
+
+import com.example.demo.security.CustomUserDetailsService;
+import com.example.demo.security.jwt.JwtUtils;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Authenticates gRPC calls with the same JWT bearer tokens as the REST API, sent in the {@code authorization} metadata.
+ * The token is verified once per call, and the authentication is installed in the security context around every
+ * callback of the call, since gRPC may run them on different threads.
+ */
+@Component
+@RequiredArgsConstructor
+public class GrpcAuthInterceptor implements ServerInterceptor {
+
+    private static final Metadata.Key<String> AUTHORIZATION =
+            Metadata.Key.of("authorization", Metadata.ASCII_STRING_MARSHALLER);
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtUtils jwtUtils;
+    private final CustomUserDetailsService userDetailsService;
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+            ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+        Authentication authentication = authenticate(headers.get(AUTHORIZATION));
+        if (authentication == null) {
+            call.close(Status.UNAUTHENTICATED.withDescription("A valid bearer token is required"), new Metadata());
+            return new ServerCall.Listener<>() {
+            };
+        }
+
+        ServerCall.Listener<ReqT> listener = runAs(authentication, () -> next.startCall(call, headers));
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(listener) {
+            @Override
+            public void onMessage(ReqT message) {
+                runAs(authentication, () -> super.onMessage(message));
+            }
+
+            @Override
+            public void onHalfClose() {
+                runAs(authentication, super::onHalfClose);
+            }
+
+            @Override
+            public void onCancel() {
+                runAs(authentication, super::onCancel);
+            }
+
+            @Override
+            public void onComplete() {
+                runAs(authentication, super::onComplete);
+            }
+
+            @Override
+            public void onReady() {
+                runAs(authentication, super::onReady);
+            }
+        };
+    }
+
+    private Authentication authenticate(String header) {
+        if (header == null || !header.startsWith(BEARER_PREFIX)) {
+            return null;
+        }
+
+        String jwt = header.substring(BEARER_PREFIX.length());
+        if (!jwtUtils.validateJwtToken(jwt)) {
+            return null;
+        }
+
+        try {
+            UserDetails userDetails = userDetailsService.loadUserByUsername(jwtUtils.getUsernameFromJwtToken(jwt));
+            return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static void runAs(Authentication authentication, Runnable callback) {
+        runAs(authentication, () -> {
+            callback.run();
+            return null;
+        });
+    }
+
+    private static <T> T runAs(Authentication authentication, Supplier<T> callback) {
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(authentication);
+        SecurityContextHolder.setContext(context);
+        try {
+            return callback.get();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.demo.grpc;
+
+import com.example.demo.exception.AccessDeniedException;
+import com.example.demo.exception.ResourceNotFoundException;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import jakarta.validation.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Collectors;
+
+/**
+ * Closes gRPC calls whose handler throws with a status derived from the exception,
+ * as GlobalExceptionHandler does for HTTP statuses. Every listener callback is covered; when a callback fails after
+ * the call has already been closed, such as on cancellation or completion, the status is logged instead.
+ */
+@Component
+public class GrpcExceptionInterceptor implements ServerInterceptor {
+    private static final Logger logger = LoggerFactory.getLogger(GrpcExceptionInterceptor.class);
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+            ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(next.startCall(call, headers)) {
+            @Override
+            public void onMessage(ReqT message) {
+                try {
+                    super.onMessage(message);
+                } catch (RuntimeException e) {
+                    close(call, e);
+                }
+            }
+
+            @Override
+            public void onHalfClose() {
+                try {
+                    super.onHalfClose();
+                } catch (RuntimeException e) {
+                    close(call, e);
+                }
+            }
+
+            @Override
+            public void onReady() {
+                try {
+                    super.onReady();
+                } catch (RuntimeException e) {
+                    close(call, e);
+                }
+            }
+
+            @Override
+            public void onCancel() {
+                try {
+                    super.onCancel();
+                } catch (RuntimeException e) {
+                    close(call, e);
+                }
+            }
+
+            @Override
+            public void onComplete() {
+                try {
+                    super.onComplete();
+                } catch (RuntimeException e) {
+                    close(call, e);
+                }
+            }
+        };
+    }
+
+    private void close(ServerCall<?, ?> call, RuntimeException e) {
+        Status status = toStatus(e);
+        try {
+            call.close(status, new Metadata());
+        } catch (IllegalStateException alreadyClosed) {
+            // The call ended before the callback failed, so the status can no longer reach the client
+            logger.warn("gRPC callback failed after the call was closed with status {}", status.getCode(), e);
+        }
+    }
+
+    private static Status toStatus(RuntimeException e) {
+        if (e instanceof StatusRuntimeException statusException) {
+            return statusException.getStatus();
+        }
+        if (e instanceof ResourceNotFoundException) {
+            return Status.NOT_FOUND.withDescription(e.getMessage());
+        }
+        if (e instanceof AccessDeniedException) {
+            return Status.PERMISSION_DENIED.withDescription(e.getMessage());
+        }
+        if (e instanceof org.springframework.security.access.AccessDeniedException) {
+            return Status.PERMISSION_DENIED
+                    .withDescription("Access denied: You don't have permission to access this resource");
+        }
+        if (e instanceof ConstraintViolationException violationException) {
+            return Status.INVALID_ARGUMENT.withDescription(violationException.getConstraintViolations().stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+        if (e instanceof IllegalArgumentException) {
+            return Status.INVALID_ARGUMENT.withDescription(e.getMessage());
+        }
+
+        logger.error("Unexpected error in gRPC call", e);
+        return Status.INTERNAL.withDescription("An unexpected error occurred");
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.demo.grpc;
+
+import com.example.demo.dto.project.ProjectRequestDto;
+import com.example.demo.dto.project.ProjectResponseDto;
+import com.example.demo.dto.task.TaskRequestDto;
+import com.example.demo.dto.task.TaskResponseDto;
+import com.example.demo.dto.user.UserResponseDto;
+import com.example.demo.grpc.proto.Priority;
+import com.example.demo.grpc.proto.Project;
+import com.example.demo.grpc.proto.ProjectRequest;
+import com.example.demo.grpc.proto.Role;
+import com.example.demo.grpc.proto.Task;
+import com.example.demo.grpc.proto.TaskRequest;
+import com.example.demo.grpc.proto.TaskStatus;
+import com.example.demo.grpc.proto.User;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Maps between the DTOs used by the services and the protobuf messages of the gRPC API.
+ * Enum values are prefixed with their type name in protobuf, unspecified values map to null.
+ * Request DTOs are validated as {@code @Valid} does for REST request bodies.
+ */
+@Component
+@RequiredArgsConstructor
+public class GrpcMessageMapper {
+
+    private final Validator validator;
+
+    public Task toMessage(TaskResponseDto dto) {
+        Task.Builder task = Task.newBuilder()
+                .setId(dto.getId())
+                .setTitle(Objects.toString(dto.getTitle(), ""))
+                .setDescription(Objects.toString(dto.getDescription(), ""))
+                .setStatus(toMessage(dto.getStatus()))
+                .setDueDate(Objects.toString(dto.getDueDate(), ""))
+                .setPriority(toMessage(dto.getPriority()))
+                .setCreateDate(Objects.toString(dto.getCreateDate(), ""))
+                .setUpdateDate(Objects.toString(dto.getUpdateDate(), ""));
+        if (dto.getProject() != null) {
+            task.setProject(toMessage(dto.getProject()));
+        }
+        if (dto.getAssignedUser() != null) {
+            task.setAssignedUser(toMessage(dto.getAssignedUser()));
+        }
+        return task.build();
+    }
+
+    public Project toMessage(ProjectResponseDto dto) {
+        Project.Builder project = Project.newBuilder()
+                .setId(dto.getId())
+                .setName(Objects.toString(dto.getName(), ""))
+                .setDescription(Objects.toString(dto.getDescription(), ""))
+                .setCreateDate(Objects.toString(dto.getCreateDate(), ""))
+                .setUpdateDate(Objects.toString(dto.getUpdateDate(), ""));
+        if (dto.getOwner() != null) {
+            project.setOwner(toMessage(dto.getOwner()));
+        }
+        return project.build();
+    }
+
+    public User toMessage(UserResponseDto dto) {
+        return User.newBuilder()
+                .setId(dto.getId())
+                .setEmail(Objects.toString(dto.getEmail(), ""))
+                .setRole(dto.getRole() != null ? Role.valueOf("ROLE_" + dto.getRole().name()) : Role.ROLE_UNSPECIFIED)
+                .setCreateDate(Objects.toString(dto.getCreateDate(), ""))
+                .setUpdateDate(Objects.toString(dto.getUpdateDate(), ""))
+                .build();
+    }
+
+    public TaskStatus toMessage(com.example.demo.model.enums.TaskStatus status) {
+        return status != null ? TaskStatus.valueOf("TASK_STATUS_" + status.name()) : TaskStatus.TASK_STATUS_UNSPECIFIED;
+    }
+
+    public Priority toMessage(com.example.demo.model.enums.Priority priority) {
+        return priority != null ? Priority.valueOf("PRIORITY_" + priority.name()) : Priority.PRIORITY_UNSPECIFIED;
+    }
+
+    public TaskRequestDto toDto(TaskRequest request) {
+        return validate(TaskRequestDto.builder()
+                .title(request.getTitle())
+                .description(request.getDescription().isEmpty() ? null : request.getDescription())
+                .status(toDto(request.getStatus()))
+                .dueDate(toDate(request.getDueDate()))
+                .priority(toDto(request.getPriority()))
+                .projectId(request.getProjectId() != 0 ? request.getProjectId() : null)
+                .assignedUserId(request.hasAssignedUserId() ? request.getAssignedUserId() : null)
+                .build());
+    }
+
+    public ProjectRequestDto toDto(ProjectRequest request) {
+        return validate(ProjectRequestDto.builder()
+                .name(request.getName())
+                .description(request.getDescription().isEmpty() ? null : request.getDescription())
+                .build());
+    }
+
+    public com.example.demo.model.enums.TaskStatus toDto(TaskStatus status) {
+        return switch (status) {
+            case TASK_STATUS_UNSPECIFIED -> null;
+            case UNRECOGNIZED -> throw new IllegalArgumentException("Unknown task status");
+            default -> com.example.demo.model.enums.TaskStatus.valueOf(status.name().substring("TASK_STATUS_".length()));
+        };
+    }
+
+    public com.example.demo.model.enums.Priority toDto(Priority priority) {
+        return switch (priority) {
+            case PRIORITY_UNSPECIFIED -> null;
+            case UNRECOGNIZED -> throw new IllegalArgumentException("Unknown task priority");
+            default -> com.example.demo.model.enums.Priority.valueOf(priority.name().substring("PRIORITY_".length()));
+        };
+    }
+
+    private <T> T validate(T requestDto) {
+        Set<ConstraintViolation<T>> violations = validator.validate(requestDto);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        return requestDto;
+    }
+
+    private LocalDate toDate(String value) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid due date, expected yyyy-MM-dd: " + value);
+        }
+    }
+}
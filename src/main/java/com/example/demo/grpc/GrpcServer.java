@@ -0,0 +1,94 @@
+package com.example.demo.grpc;
+
+import com.example.demo.grpc.proto.ProjectsGrpc;
+import com.example.demo.grpc.proto.TasksGrpc;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.ServerInterceptors;
+import io.grpc.ServerServiceDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the gRPC API in the application alongside the REST API, on the port configured by {@code app.grpc.port}.
+ */
+@Component
+public class GrpcServer implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(GrpcServer.class);
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final int port;
+    private final TaskGrpcService taskGrpcService;
+    private final ProjectGrpcService projectGrpcService;
+    private final GrpcAuthInterceptor authInterceptor;
+    private final GrpcExceptionInterceptor exceptionInterceptor;
+    private Server server;
+
+    public GrpcServer(@Value("${app.grpc.port}") int port,
+                      TaskGrpcService taskGrpcService,
+                      ProjectGrpcService projectGrpcService,
+                      GrpcAuthInterceptor authInterceptor,
+                      GrpcExceptionInterceptor exceptionInterceptor) {
+        this.port = port;
+        this.taskGrpcService = taskGrpcService;
+        this.projectGrpcService = projectGrpcService;
+        this.authInterceptor = authInterceptor;
+        this.exceptionInterceptor = exceptionInterceptor;
+    }
+
+    @Override
+    public void start() {
+        ServerBuilder<?> builder = ServerBuilder.forPort(port);
+        services().forEach(builder::addService);
+        server = builder.build();
+        try {
+            server.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start gRPC server on port " + port, e);
+        }
+        logger.info("gRPC server started on port {}", server.getPort());
+    }
+
+    /**
+     * Bind the services with their interceptors. The services are bound through the generated static bindService
+     * methods rather than their own bindService(), so that calls go through the Spring proxies and their method
+     * security. The interceptor listed last runs first: calls are authenticated before exceptions are translated.
+     *
+     * @return the services to serve
+     */
+    List<ServerServiceDefinition> services() {
+        return List.of(
+                ServerInterceptors.intercept(TasksGrpc.bindService(taskGrpcService), exceptionInterceptor,
+                        authInterceptor),
+                ServerInterceptors.intercept(ProjectsGrpc.bindService(projectGrpcService), exceptionInterceptor,
+                        authInterceptor));
+    }
+
+    @Override
+    public void stop() {
+        server.shutdown();
+        try {
+            if (!server.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                server.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            server.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+}
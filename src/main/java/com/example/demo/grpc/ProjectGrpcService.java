@@ -0,0 +1,65 @@
+package com.example.demo.grpc;
+
+import com.example.demo.grpc.proto.DeleteProjectRequest;
+import com.example.demo.grpc.proto.GetProjectRequest;
+import com.example.demo.grpc.proto.ListProjectsResponse;
+import com.example.demo.grpc.proto.Project;
+import com.example.demo.grpc.proto.ProjectRequest;
+import com.example.demo.grpc.proto.ProjectsGrpc;
+import com.example.demo.grpc.proto.UpdateProjectRequest;
+import com.example.demo.service.ProjectService;
+import com.google.protobuf.Empty;
+import io.grpc.stub.StreamObserver;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Component;
+
+/**
+ * gRPC project service on top of {@link ProjectService}, with the same role rules as ProjectController.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProjectGrpcService extends ProjectsGrpc.ProjectsImplBase {
+
+    private final ProjectService projectService;
+    private final GrpcMessageMapper mapper;
+
+    @Override
+    @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN')")
+    public void getProject(GetProjectRequest request, StreamObserver<Project> responseObserver) {
+        responseObserver.onNext(mapper.toMessage(projectService.getProjectById(request.getId())));
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN')")
+    public void listProjects(Empty request, StreamObserver<ListProjectsResponse> responseObserver) {
+        ListProjectsResponse.Builder response = ListProjectsResponse.newBuilder();
+        projectService.getAllProjects().forEach(project -> response.addProjects(mapper.toMessage(project)));
+        responseObserver.onNext(response.build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN')")
+    public void createProject(ProjectRequest request, StreamObserver<Project> responseObserver) {
+        responseObserver.onNext(mapper.toMessage(projectService.createProject(mapper.toDto(request))));
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN')")
+    public void updateProject(UpdateProjectRequest request, StreamObserver<Project> responseObserver) {
+        responseObserver.onNext(mapper.toMessage(
+                projectService.updateProject(request.getId(), mapper.toDto(request.getProject()))));
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN')")
+    public void deleteProject(DeleteProjectRequest request, StreamObserver<Empty> responseObserver) {
+        projectService.deleteProject(request.getId());
+        responseObserver.onNext(Empty.getDefaultInstance());
+        responseObserver.onCompleted();
+    }
+}
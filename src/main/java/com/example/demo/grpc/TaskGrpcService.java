@@ -0,0 +1,143 @@
+package com.example.demo.grpc;
+
+import com.example.demo.dto.task.TaskRequestDto;
+import com.example.demo.dto.task.TaskResponseDto;
+import com.example.demo.grpc.proto.DeleteTaskRequest;
+import com.example.demo.grpc.proto.GetTaskRequest;
+import com.example.demo.grpc.proto.ScanTasksRequest;
+import com.example.demo.grpc.proto.Task;
+import com.example.demo.grpc.proto.TaskRequest;
+import com.example.demo.grpc.proto.TasksGrpc;
+import com.example.demo.grpc.proto.UpdateTaskRequest;
+import com.example.demo.grpc.proto.UpdateTaskStatusRequest;
+import com.example.demo.model.enums.Priority;
+import com.example.demo.model.enums.TaskStatus;
+import com.example.demo.service.TaskService;
+import com.google.protobuf.Empty;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * gRPC task service on top of {@link TaskService}, with the same role rules as TaskController.
+ */
+@Component
+public class TaskGrpcService extends TasksGrpc.TasksImplBase {
+
+    private final TaskService taskService;
+    private final GrpcMessageMapper mapper;
+    private final int scanPageSize;
+
+    public TaskGrpcService(TaskService taskService, GrpcMessageMapper mapper,
+                           @Value("${app.grpc.scan-page-size}") int scanPageSize) {
+        this.taskService = taskService;
+        this.mapper = mapper;
+        this.scanPageSize = scanPageSize;
+    }
+
+    @Override
+    public void getTask(GetTaskRequest request, StreamObserver<Task> responseObserver) {
+        complete(responseObserver, mapper.toMessage(taskService.getTaskById(request.getId())));
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public void createTask(TaskRequest request, StreamObserver<Task> responseObserver) {
+        TaskRequestDto requestDto = mapper.toDto(request);
+        complete(responseObserver, mapper.toMessage(taskService.createTask(requestDto)));
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public void updateTask(UpdateTaskRequest request, StreamObserver<Task> responseObserver) {
+        TaskRequestDto requestDto = mapper.toDto(request.getTask());
+        complete(responseObserver, mapper.toMessage(taskService.updateTask(request.getId(), requestDto)));
+    }
+
+    @Override
+    public void updateTaskStatus(UpdateTaskStatusRequest request, StreamObserver<Task> responseObserver) {
+        TaskStatus status = mapper.toDto(request.getStatus());
+        if (status == null) {
+            throw new IllegalArgumentException("Task status is required");
+        }
+        complete(responseObserver, mapper.toMessage(taskService.updateTaskStatus(request.getId(), status)));
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public void deleteTask(DeleteTaskRequest request, StreamObserver<Empty> responseObserver) {
+        taskService.deleteTask(request.getId());
+        complete(responseObserver, Empty.getDefaultInstance());
+    }
+
+    /**
+     * Stream the visible tasks by ID. The next page is only read once the previous one has been handed to the
+     * transport, and nothing is read while the client is not ready to receive, so a slow client does not make
+     * the server buffer the whole result.
+     */
+    @Override
+    public void scanTasks(ScanTasksRequest request, StreamObserver<Task> responseObserver) {
+        ServerCallStreamObserver<Task> observer = (ServerCallStreamObserver<Task>) responseObserver;
+        TaskScan scan = new TaskScan(observer, mapper.toDto(request.getStatus()), mapper.toDto(request.getPriority()),
+                request.getAfterId() != 0 ? request.getAfterId() : null);
+        // Stop quietly instead of failing the next onNext when the client goes away mid-scan
+        observer.setOnCancelHandler(() -> scan.completed = true);
+        observer.setOnReadyHandler(scan::drain);
+    }
+
+    private static <T> void complete(StreamObserver<T> responseObserver, T response) {
+        responseObserver.onNext(response);
+        responseObserver.onCompleted();
+    }
+
+    /**
+     * State of one task scan. Only accessed from the call's callbacks, which gRPC never runs concurrently.
+     */
+    private class TaskScan {
+
+        private final ServerCallStreamObserver<Task> observer;
+        private final TaskStatus status;
+        private final Priority priority;
+        private final Deque<TaskResponseDto> buffer = new ArrayDeque<>();
+        private Long afterId;
+        private boolean exhausted;
+        private boolean completed;
+
+        TaskScan(ServerCallStreamObserver<Task> observer, TaskStatus status, Priority priority, Long afterId) {
+            this.observer = observer;
+            this.status = status;
+            this.priority = priority;
+            this.afterId = afterId;
+        }
+
+        void drain() {
+            while (!completed && !observer.isCancelled()) {
+                if (buffer.isEmpty() && exhausted) {
+                    completed = true;
+                    observer.onCompleted();
+                    return;
+                }
+                if (!observer.isReady()) {
+                    return;
+                }
+
+                if (buffer.isEmpty()) {
+                    List<TaskResponseDto> page = taskService.scanTasks(status, priority, afterId, scanPageSize);
+                    exhausted = page.size() < scanPageSize;
+                    if (!page.isEmpty()) {
+                        afterId = page.get(page.size() - 1).getId();
+                        buffer.addAll(page);
+                    }
+                } else {
+                    observer.onNext(mapper.toMessage(buffer.poll()));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.demo.job;
+
+import com.example.demo.changelog.ChangeLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Periodically deletes the change log segments that fall outside {@code app.change-log.retention.max-age}
+ * or {@code app.change-log.retention.max-bytes}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.change-log.enabled", havingValue = "true", matchIfMissing = true)
+public class ChangeLogRetentionJob {
+    private static final Logger logger = LoggerFactory.getLogger(ChangeLogRetentionJob.class);
+
+    private final ChangeLog changeLog;
+    private final Duration maxAge;
+    private final long maxBytes;
+
+    public ChangeLogRetentionJob(ChangeLog changeLog,
+                                 @Value("${app.change-log.retention.max-age}") Duration maxAge,
+                                 @Value("${app.change-log.retention.max-bytes}") long maxBytes) {
+        this.changeLog = changeLog;
+        this.maxAge = maxAge;
+        this.maxBytes = maxBytes;
+    }
+
+    @Scheduled(initialDelayString = "${app.change-log.retention.interval}",
+            fixedDelayString = "${app.change-log.retention.interval}")
+    public void deleteExpiredSegments() {
+        int deleted = changeLog.deleteExpiredSegments(maxAge, maxBytes);
+        if (deleted > 0) {
+            logger.info("Deleted {} change log segments, log now starts at offset {}", deleted,
+                    changeLog.getStartOffset());
+        }
+    }
+}
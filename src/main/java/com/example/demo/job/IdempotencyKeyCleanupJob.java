@@ -0,0 +1,37 @@
+package com.example.demo.job;
+
+import com.example.demo.service.IdempotencyService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically deletes the idempotency keys older than {@code app.idempotency.ttl}.
+ * Keys are kept on shard 0 only. Only the instance holding the lease of the job runs it.
+ */
+@Component
+public class IdempotencyKeyCleanupJob {
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyKeyCleanupJob.class);
+
+    private static final String JOB_NAME = "idempotency-key-cleanup";
+
+    private final IdempotencyService idempotencyService;
+    private final JobRunner jobRunner;
+
+    public IdempotencyKeyCleanupJob(IdempotencyService idempotencyService, JobRunner jobRunner) {
+        this.idempotencyService = idempotencyService;
+        this.jobRunner = jobRunner;
+    }
+
+    @Scheduled(initialDelayString = "${app.idempotency.cleanup-interval}",
+            fixedDelayString = "${app.idempotency.cleanup-interval}")
+    public void deleteExpiredKeys() {
+        jobRunner.runExclusively(JOB_NAME, () -> {
+            int deleted = idempotencyService.deleteExpiredKeys();
+            if (deleted > 0) {
+                logger.info("Deleted {} expired idempotency keys", deleted);
+            }
+        });
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.demo.job;
+
+import com.example.demo.service.JobLeaseService;
+import com.example.demo.shard.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.function.UnaryOperator;
+
+/**
+ * Runs background jobs on the single instance holding their lease, see {@link JobLeaseService}.
+ * <p>
+ * Jobs run under a throttle so that they leave the request threads and the connection pools to the requests.
+ * At most {@code app.jobs.max-concurrent-chunks} chunks of jobs run at once on an instance, each holding a connection
+ * for one short transaction. Before a chunk starts, the job waits while requests are waiting for connections of any
+ * pool, for up to {@code app.jobs.max-throttle-wait}, and jobs processed in chunks pause for
+ * {@code app.jobs.chunk-pause} between chunks.
+ */
+@Component
+public class JobRunner {
+    private static final Logger logger = LoggerFactory.getLogger(JobRunner.class);
+
+    private final JobLeaseService jobLeaseService;
+    private final DataSource dataSource;
+    private final Duration chunkPause;
+    private final Duration maxThrottleWait;
+    private final Semaphore chunks;
+    private final MeterRegistry meterRegistry;
+    private final Counter throttled;
+
+    private volatile List<HikariPoolMXBean> pools;
+
+    public JobRunner(JobLeaseService jobLeaseService, DataSource dataSource,
+                     @Value("${app.jobs.chunk-pause}") Duration chunkPause,
+                     @Value("${app.jobs.max-throttle-wait}") Duration maxThrottleWait,
+                     @Value("${app.jobs.max-concurrent-chunks}") int maxConcurrentChunks,
+                     MeterRegistry meterRegistry) {
+        this.jobLeaseService = jobLeaseService;
+        this.dataSource = dataSource;
+        this.chunkPause = chunkPause;
+        this.maxThrottleWait = maxThrottleWait;
+        this.chunks = new Semaphore(maxConcurrentChunks, true);
+        this.meterRegistry = meterRegistry;
+        this.throttled = Counter.builder("jobs.throttled")
+                .description("Chunks of jobs delayed while requests waited for connections")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run a job as a single chunk if this instance holds its lease.
+     *
+     * @param job the name of the job
+     * @param task the work of the job
+     * @return true if the job ran
+     */
+    public boolean runExclusively(String job, Runnable task) {
+        if (!jobLeaseService.holdLease(job)) {
+            return false;
+        }
+        if (!acquireChunk()) {
+            return false;
+        }
+        try {
+            task.run();
+        } finally {
+            releaseChunk(job);
+        }
+        return true;
+    }
+
+    /**
+     * Run a job in chunks while this instance holds its lease, resuming from the checkpoint stored by the last run,
+     * on this instance or another. The checkpoint returned by each chunk is stored before the next chunk starts,
+     * so a chunk must be committed by the time it returns. A chunk may run again if the instance stops before its
+     * checkpoint is stored, so chunks must be safe to repeat.
+     *
+     * @param job the name of the job
+     * @param chunk processes the chunk after the given checkpoint, null for the first one, and returns the
+     *        checkpoint after it, or null when the job is done
+     * @return true if the job ran to the end
+     */
+    public boolean runInChunks(String job, UnaryOperator<String> chunk) {
+        if (!jobLeaseService.holdLease(job)) {
+            return false;
+        }
+
+        String checkpoint = jobLeaseService.getCheckpoint(job);
+        if (checkpoint != null) {
+            logger.info("Resuming job {} from checkpoint {}", job, checkpoint);
+        }
+        while (true) {
+            if (!acquireChunk()) {
+                return false;
+            }
+            try {
+                checkpoint = chunk.apply(checkpoint);
+            } finally {
+                releaseChunk(job);
+            }
+            if (!jobLeaseService.saveCheckpoint(job, checkpoint)) {
+                logger.warn("Stopped job {} after losing its lease", job);
+                return false;
+            }
+            if (checkpoint == null) {
+                return true;
+            }
+            if (!pause(chunkPause)) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Take a chunk slot once requests are no longer waiting for connections.
+     *
+     * @return false if the thread was interrupted
+     */
+    private boolean acquireChunk() {
+        try {
+            chunks.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        if (!awaitIdleConnections()) {
+            chunks.release();
+            return false;
+        }
+        return true;
+    }
+
+    private void releaseChunk(String job) {
+        chunks.release();
+        meterRegistry.counter("jobs.chunks", "job", job).increment();
+    }
+
+    /**
+     * Wait while requests are waiting for connections, up to the maximum throttle wait.
+     *
+     * @return false if the thread was interrupted
+     */
+    private boolean awaitIdleConnections() {
+        long deadline = System.nanoTime() + maxThrottleWait.toNanos();
+        boolean delayed = false;
+        while (isPoolContended() && System.nanoTime() - deadline < 0) {
+            if (!delayed) {
+                throttled.increment();
+                delayed = true;
+            }
+            if (!pause(chunkPause.isZero() ? Duration.ofMillis(10) : chunkPause)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isPoolContended() {
+        for (HikariPoolMXBean pool : pools()) {
+            if (pool.getThreadsAwaitingConnection() > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<HikariPoolMXBean> pools() {
+        List<HikariPoolMXBean> found = pools;
+        if (found == null) {
+            List<DataSource> shards = dataSource instanceof ShardRoutingDataSource routing
+                    ? routing.getShards()
+                    : List.of(dataSource);
+            found = new ArrayList<>();
+            for (DataSource shard : shards) {
+                HikariPoolMXBean pool = poolOf(shard);
+                if (pool == null) {
+                    // Pools start with their first connection, look again next time
+                    return List.of();
+                }
+                found.add(pool);
+            }
+            pools = found;
+        }
+        return found;
+    }
+
+    private static HikariPoolMXBean poolOf(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class)
+                    ? dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean()
+                    : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    private static boolean pause(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.demo.job;
+
+import com.example.demo.service.OutboxRelayService;
+import com.example.demo.shard.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically relays the events recorded in the outbox to the outbox sinks.
+ * Events are relayed in batches of {@code app.outbox.relay.batch-size}, each in its own short transaction,
+ * until the outbox is drained. Each shard keeps its own outbox and is relayed in turn.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelayJob {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelayJob.class);
+
+    private final OutboxRelayService outboxRelayService;
+    private final ShardRouter shardRouter;
+    private final int batchSize;
+
+    public OutboxRelayJob(OutboxRelayService outboxRelayService, ShardRouter shardRouter,
+                          @Value("${app.outbox.relay.batch-size}") int batchSize) {
+        this.outboxRelayService = outboxRelayService;
+        this.shardRouter = shardRouter;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay.interval}")
+    public void relayEvents() {
+        int total = 0;
+        for (int shard : shardRouter.allShards()) {
+            total += shardRouter.callOn(shard, this::drainShard);
+        }
+
+        if (total > 0) {
+            logger.debug("Relayed {} outbox events", total);
+        }
+    }
+
+    private int drainShard() {
+        int total = 0;
+        int relayed;
+        do {
+            relayed = outboxRelayService.relayEvents(batchSize);
+            total += relayed;
+        } while (relayed == batchSize);
+        return total;
+    }
+}
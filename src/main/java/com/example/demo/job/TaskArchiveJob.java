@@ -0,0 +1,66 @@
+package com.example.demo.job;
+
+import com.example.demo.service.TaskArchiveService;
+import com.example.demo.shard.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Periodically moves DONE tasks that have not been updated for {@code app.task-archive.min-age} into the archive.
+ * Tasks are moved in batches of {@code app.task-archive.batch-size}, each in its own short transaction,
+ * until no more tasks are due. Each shard is archived in turn. Only the instance holding the lease of the job runs it,
+ * and a run cut short resumes from the shard it reached.
+ */
+@Component
+@ConditionalOnProperty(name = "app.task-archive.enabled", havingValue = "true", matchIfMissing = true)
+public class TaskArchiveJob {
+    private static final Logger logger = LoggerFactory.getLogger(TaskArchiveJob.class);
+
+    private static final String JOB_NAME = "task-archive";
+
+    private final TaskArchiveService taskArchiveService;
+    private final ShardRouter shardRouter;
+    private final JobRunner jobRunner;
+    private final Duration minAge;
+    private final int batchSize;
+
+    public TaskArchiveJob(TaskArchiveService taskArchiveService, ShardRouter shardRouter, JobRunner jobRunner,
+                          @Value("${app.task-archive.min-age}") Duration minAge,
+                          @Value("${app.task-archive.batch-size}") int batchSize) {
+        this.taskArchiveService = taskArchiveService;
+        this.shardRouter = shardRouter;
+        this.jobRunner = jobRunner;
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(initialDelayString = "${app.task-archive.interval}", fixedDelayString = "${app.task-archive.interval}")
+    public void archiveCompletedTasks() {
+        LocalDateTime completedBefore = LocalDateTime.now().minus(minAge);
+        AtomicInteger total = new AtomicInteger();
+        jobRunner.runInChunks(JOB_NAME, checkpoint -> {
+            int shard = checkpoint != null ? Integer.parseInt(checkpoint) : 0;
+            if (shard >= shardRouter.getShardCount()) {
+                return null;
+            }
+            int archived = shardRouter.callOn(shard,
+                    () -> taskArchiveService.archiveCompletedTasks(completedBefore, batchSize));
+            total.addAndGet(archived);
+            // The checkpoint is the shard to continue on
+            int next = archived == batchSize ? shard : shard + 1;
+            return next < shardRouter.getShardCount() ? String.valueOf(next) : null;
+        });
+
+        if (total.get() > 0) {
+            logger.info("Archived {} tasks completed before {}", total.get(), completedBefore);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.demo.job;
+
+import com.example.demo.service.WebhookService;
+import com.example.demo.shard.ShardRouter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Periodically sends the webhook deliveries that are due, up to {@code app.webhooks.batch-size} per shard.
+ * The job does not wait for the responses. A shard is skipped while its previous batch is still in flight, which
+ * bounds the requests in flight and keeps a batch from outliving the claim lease of its deliveries.
+ */
+@Component
+@ConditionalOnProperty(name = "app.webhooks.enabled", havingValue = "true", matchIfMissing = true)
+public class WebhookDispatchJob {
+
+    private final WebhookService webhookService;
+    private final ShardRouter shardRouter;
+    private final int batchSize;
+    private final Map<Integer, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    public WebhookDispatchJob(WebhookService webhookService, ShardRouter shardRouter,
+                              @Value("${app.webhooks.batch-size}") int batchSize) {
+        this.webhookService = webhookService;
+        this.shardRouter = shardRouter;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${app.webhooks.dispatch-interval}")
+    public void dispatchDueDeliveries() {
+        for (int shard : shardRouter.allShards()) {
+            CompletableFuture<Void> previous = inFlight.get(shard);
+            if (previous == null || previous.isDone()) {
+                inFlight.put(shard, shardRouter.callOn(shard, () -> webhookService.dispatchDueDeliveries(batchSize)));
+            }
+        }
+    }
+}
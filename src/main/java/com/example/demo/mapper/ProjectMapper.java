@@ -2,10 +2,12 @@ package com.example.demo.mapper;
 
 import com.example.demo.dto.project.ProjectRequestDto;
 import com.example.demo.dto.project.ProjectResponseDto;
+import com.example.demo.dto.project.ProjectSummaryDto;
 import com.example.demo.model.entity.Project;
 import com.example.demo.model.entity.User;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
 
 /**
  * Mapper class for converting between Project entity and DTOs.
@@ -22,6 +24,15 @@ public interface ProjectMapper {
     @Mapping(target = "owner", source = "owner")
     ProjectResponseDto toResponseDto(Project project);
 
+    /**
+     * Convert a Project entity to a ProjectSummaryDto, referencing the owner by id.
+     *
+     * @param project the Project entity to convert
+     * @return the ProjectSummaryDto
+     */
+    @Mapping(target = "ownerId", source = "owner.id")
+    ProjectSummaryDto toSummaryDto(Project project);
+
 
     /**
      * Convert a ProjectRequestDto to a new Project entity.
@@ -38,17 +49,15 @@ public interface ProjectMapper {
 
 
     /**
-     * Update an existing Project entity with data from a ProjectRequestDto.
+     * Update a managed Project entity in place with data from a ProjectRequestDto.
      *
-     * @param project the Project entity to update
      * @param requestDto the ProjectRequestDto containing the new data
-     * @return the updated Project entity
+     * @param project the Project entity to update
      */
-    @Mapping(target = "name", source = "requestDto.name")
-    @Mapping(target = "description", source = "requestDto.description")
-    @Mapping(target = "owner", source = "project.owner")
-    @Mapping(target = "id", source = "project.id")
-    @Mapping(target = "createDate", source = "project.createDate")
+    @Mapping(target = "owner", ignore = true)
+    @Mapping(target = "tasks", ignore = true)
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "createDate", ignore = true)
     @Mapping(target = "updateDate", ignore = true)
-    Project updateEntity(Project project, ProjectRequestDto requestDto);
+    void updateEntity(ProjectRequestDto requestDto, @MappingTarget Project project);
 }
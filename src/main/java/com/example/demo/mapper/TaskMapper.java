@@ -1,12 +1,16 @@
 package com.example.demo.mapper;
 
+import com.example.demo.dto.task.TaskAuditDto;
 import com.example.demo.dto.task.TaskRequestDto;
 import com.example.demo.dto.task.TaskResponseDto;
+import com.example.demo.dto.task.TaskSummaryDto;
 import com.example.demo.model.entity.Project;
 import com.example.demo.model.entity.Task;
+import com.example.demo.model.entity.TaskAudit;
 import com.example.demo.model.entity.User;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
 
 /**
  * Mapper class for converting between Task entity and DTOs.
@@ -23,6 +27,24 @@ public interface TaskMapper {
      */
     TaskResponseDto toResponseDto(Task task);
 
+    /**
+     * Convert a Task entity to a TaskSummaryDto, referencing the project and assigned user by id.
+     *
+     * @param task the Task entity to convert
+     * @return the TaskSummaryDto
+     */
+    @Mapping(target = "projectId", source = "project.id")
+    @Mapping(target = "assignedUserId", source = "assignedUser.id")
+    TaskSummaryDto toSummaryDto(Task task);
+
+    /**
+     * Convert a TaskAudit entity to a TaskAuditDto.
+     *
+     * @param taskAudit the TaskAudit entity to convert
+     * @return the TaskAuditDto
+     */
+    TaskAuditDto toAuditDto(TaskAudit taskAudit);
+
     /**
      * Convert a TaskRequestDto to a new Task entity.
      *
@@ -44,23 +66,22 @@ public interface TaskMapper {
     Task toEntity(TaskRequestDto requestDto, Project project, User assignedUser);
 
     /**
-     * Update an existing Task entity with data from a TaskRequestDto.
+     * Update a managed Task entity in place with data from a TaskRequestDto.
+     * The project of a task cannot change and is left untouched.
      *
-     * @param task the Task entity to update
      * @param requestDto the TaskRequestDto containing the new data
-     * @param project the Project the task belongs to
      * @param assignedUser the User assigned to the task (can be null)
-     * @return the updated Task entity
+     * @param task the Task entity to update
      */
-    @Mapping(target = "project", source = "project")
     @Mapping(target = "assignedUser", source = "assignedUser")
-    @Mapping(target = "id", source = "task.id")
-    @Mapping(target = "createDate", source = "task.createDate")
+    @Mapping(target = "project", ignore = true)
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "createDate", ignore = true)
     @Mapping(target = "updateDate", ignore = true)
     @Mapping(target = "description", source = "requestDto.description")
     @Mapping(target = "title", source = "requestDto.title")
     @Mapping(target = "status", source = "requestDto.status")
     @Mapping(target = "dueDate", source = "requestDto.dueDate")
     @Mapping(target = "priority", source = "requestDto.priority")
-    Task updateEntity(Task task, TaskRequestDto requestDto, Project project, User assignedUser);
+    void updateEntity(TaskRequestDto requestDto, User assignedUser, @MappingTarget Task task);
 }
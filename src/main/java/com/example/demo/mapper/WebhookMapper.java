@@ -0,0 +1,23 @@
+package com.example.demo.mapper;
+
+import com.example.demo.dto.webhook.WebhookSubscriptionResponseDto;
+import com.example.demo.model.entity.WebhookSubscription;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Mapper class for converting webhook entities to DTOs.
+ */
+@Mapper(componentModel = "spring")
+public interface WebhookMapper {
+
+    /**
+     * Convert a WebhookSubscription entity to a WebhookSubscriptionResponseDto, without the secret.
+     *
+     * @param subscription the WebhookSubscription entity to convert
+     * @return the WebhookSubscriptionResponseDto
+     */
+    @Mapping(target = "projectId", source = "project.id")
+    @Mapping(target = "secret", ignore = true)
+    WebhookSubscriptionResponseDto toResponseDto(WebhookSubscription subscription);
+}
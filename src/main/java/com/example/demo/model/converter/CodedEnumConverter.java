@@ -0,0 +1,46 @@
+package com.example.demo.model.converter;
+
+import com.example.demo.model.enums.CodedEnum;
+import jakarta.persistence.AttributeConverter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Base converter storing a {@link CodedEnum} as its smallint code.
+ *
+ * @param <E> the type of the enum
+ */
+public abstract class CodedEnumConverter<E extends Enum<E> & CodedEnum> implements AttributeConverter<E, Short> {
+
+    private final Class<E> type;
+    private final Map<Short, E> valuesByCode = new HashMap<>();
+
+    protected CodedEnumConverter(Class<E> type) {
+        this.type = type;
+        for (E value : type.getEnumConstants()) {
+            E previous = valuesByCode.put(value.getCode(), value);
+            if (previous != null) {
+                throw new IllegalStateException(type.getSimpleName() + "." + previous + " and " + value
+                        + " share code " + value.getCode());
+            }
+        }
+    }
+
+    @Override
+    public Short convertToDatabaseColumn(E value) {
+        return value != null ? value.getCode() : null;
+    }
+
+    @Override
+    public E convertToEntityAttribute(Short code) {
+        if (code == null) {
+            return null;
+        }
+        E value = valuesByCode.get(code);
+        if (value == null) {
+            throw new IllegalStateException("Unknown " + type.getSimpleName() + " code " + code);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.demo.model.converter;
+
+import com.example.demo.model.enums.OutboxEventType;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores {@link OutboxEventType} values as their smallint codes.
+ */
+@Converter(autoApply = true)
+public class OutboxEventTypeConverter extends CodedEnumConverter<OutboxEventType> {
+
+    public OutboxEventTypeConverter() {
+        super(OutboxEventType.class);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.demo.model.converter;
+
+import com.example.demo.model.enums.Priority;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores {@link Priority} values as their smallint codes.
+ */
+@Converter(autoApply = true)
+public class PriorityConverter extends CodedEnumConverter<Priority> {
+
+    public PriorityConverter() {
+        super(Priority.class);
+    }
+}
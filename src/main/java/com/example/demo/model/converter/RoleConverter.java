@@ -0,0 +1,15 @@
+package com.example.demo.model.converter;
+
+import com.example.demo.model.enums.Role;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores {@link Role} values as their smallint codes.
+ */
+@Converter(autoApply = true)
+public class RoleConverter extends CodedEnumConverter<Role> {
+
+    public RoleConverter() {
+        super(Role.class);
+    }
+}
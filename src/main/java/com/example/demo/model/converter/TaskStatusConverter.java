@@ -0,0 +1,15 @@
+package com.example.demo.model.converter;
+
+import com.example.demo.model.enums.TaskStatus;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores {@link TaskStatus} values as their smallint codes.
+ */
+@Converter(autoApply = true)
+public class TaskStatusConverter extends CodedEnumConverter<TaskStatus> {
+
+    public TaskStatusConverter() {
+        super(TaskStatus.class);
+    }
+}
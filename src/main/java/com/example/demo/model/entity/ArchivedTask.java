@@ -0,0 +1,61 @@
+package com.example.demo.model.entity;
+
+import com.example.demo.model.enums.Priority;
+import com.example.demo.model.enums.TaskStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a completed task that has been moved out of the tasks table.
+ * Rows are copied from tasks with their IDs by the archiver and are never updated afterwards,
+ * so the tasks table and its indexes only hold active and recently completed work.
+ */
+@Entity
+@Table(name = "archived_tasks", indexes = {
+        @Index(name = "idx_archived_tasks_project", columnList = "project_id, id"),
+        @Index(name = "idx_archived_tasks_assigned_user", columnList = "assigned_user_id")
+})
+@Getter
+@NoArgsConstructor
+public class ArchivedTask {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Basic(fetch = FetchType.LAZY)
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Column(nullable = false)
+    private TaskStatus status;
+
+    @Column(name = "due_date")
+    private LocalDate dueDate;
+
+    @Column(nullable = false)
+    private Priority priority;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "project_id", nullable = false)
+    private Project project;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "assigned_user_id")
+    private User assignedUser;
+
+    @Column(name = "create_date", nullable = false)
+    private LocalDateTime createDate;
+
+    @Column(name = "update_date")
+    private LocalDateTime updateDate;
+
+    @Column(name = "archive_date", nullable = false)
+    private LocalDateTime archiveDate;
+}
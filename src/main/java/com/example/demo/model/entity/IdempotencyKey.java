@@ -0,0 +1,45 @@
+package com.example.demo.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing an idempotency key claimed by a create request, with the response sent for it.
+ * The ID is a hash of the key, the endpoint and the user sending it. The response is empty while the request
+ * is still being processed.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyKey {
+
+    @Id
+    @Column(length = 64)
+    private String id;
+
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(columnDefinition = "TEXT")
+    private String response;
+
+    @Column(name = "create_date", nullable = false, updatable = false)
+    private LocalDateTime createDate;
+
+    /**
+     * Check whether the request holding the key has completed.
+     *
+     * @return true if the response has been stored
+     */
+    public boolean isCompleted() {
+        return response != null;
+    }
+}
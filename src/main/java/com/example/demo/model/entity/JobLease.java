@@ -0,0 +1,36 @@
+package com.example.demo.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing the lease an instance holds on a background job, which only the holder runs.
+ * The checkpoint records how far the current run of the job got, so that the next holder can resume it.
+ * It is empty when the last run finished.
+ */
+@Entity
+@Table(name = "job_leases")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobLease {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(nullable = false, length = 128)
+    private String owner;
+
+    @Column(name = "lease_until", nullable = false)
+    private LocalDateTime leaseUntil;
+
+    @Column(columnDefinition = "TEXT")
+    private String checkpoint;
+}
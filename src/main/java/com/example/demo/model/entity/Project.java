@@ -5,9 +5,12 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -18,8 +21,11 @@ import java.util.List;
  * Projects are owned by users with the MANAGER or ADMIN role and contain tasks.
  */
 @Entity
+@DynamicUpdate
 @Table(name = "projects")
-@Data
+@Getter
+@Setter
+@ToString
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -33,14 +39,18 @@ public class Project {
     @Column(nullable = false)
     private String name;
 
+    @ToString.Exclude
+    @Basic(fetch = FetchType.LAZY)
     @Column(columnDefinition = "TEXT")
     private String description;
 
+    @ToString.Exclude
     @NotNull
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", nullable = false)
     private User owner;
 
+    @ToString.Exclude
     @OneToMany(mappedBy = "project", cascade = CascadeType.REMOVE, orphanRemoval = true)
     private List<Task> tasks;
 
@@ -51,4 +61,21 @@ public class Project {
     @UpdateTimestamp
     @Column(name = "update_date")
     private LocalDateTime updateDate;
+
+    /**
+     * Projects are equal when they have the same ID, so entities and their proxies compare equal
+     * without initializing any attribute. Unsaved projects are only equal to themselves.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof Project other && id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Project.class.hashCode();
+    }
 }
\ No newline at end of file
@@ -7,9 +7,12 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDate;
@@ -18,10 +21,19 @@ import java.time.LocalDateTime;
 /**
  * Entity representing a task in the system.
  * Tasks belong to projects and can be assigned to users.
+ * Status and priority are stored as smallint codes in lifecycle and urgency order, so sorting by priority is index-backed.
  */
 @Entity
-@Table(name = "tasks")
-@Data
+@DynamicUpdate
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_priority", columnList = "priority, id"),
+        @Index(name = "idx_tasks_project_priority", columnList = "project_id, priority, id"),
+        @Index(name = "idx_tasks_project_id", columnList = "project_id, id"),
+        @Index(name = "idx_tasks_due_date", columnList = "due_date, id")
+})
+@Getter
+@Setter
+@ToString
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -35,11 +47,12 @@ public class Task {
     @Column(nullable = false)
     private String title;
 
+    @ToString.Exclude
+    @Basic(fetch = FetchType.LAZY)
     @Column(columnDefinition = "TEXT")
     private String description;
 
     @NotNull
-    @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private TaskStatus status;
 
@@ -47,15 +60,16 @@ public class Task {
     private LocalDate dueDate;
 
     @NotNull
-    @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private Priority priority;
 
+    @ToString.Exclude
     @NotNull
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "project_id", nullable = false)
     private Project project;
 
+    @ToString.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "assigned_user_id")
     private User assignedUser;
@@ -67,4 +81,21 @@ public class Task {
     @UpdateTimestamp
     @Column(name = "update_date")
     private LocalDateTime updateDate;
+
+    /**
+     * Tasks are compared by ID only, so comparing or hashing a task never loads its lazy attributes.
+     * Unsaved tasks are only equal to themselves.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof Task other && id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Task.class.hashCode();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.example.demo.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a change to one field of a task, kept for the audit history.
+ * Rows are append-only and are kept when the task is archived or deleted, so the task is referenced by ID only.
+ * IDs come from a pooled sequence, so a batch of rows is inserted with a single JDBC batch.
+ */
+@Entity
+@Immutable
+@Table(name = "task_audit", indexes = {
+        @Index(name = "idx_task_audit_task_changed_at", columnList = "task_id, changed_at")
+})
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskAudit {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_audit_seq")
+    @SequenceGenerator(name = "task_audit_seq", sequenceName = "task_audit_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    @Column(nullable = false)
+    private String field;
+
+    @Column(name = "old_value", columnDefinition = "TEXT")
+    private String oldValue;
+
+    @Column(name = "new_value", columnDefinition = "TEXT")
+    private String newValue;
+
+    @Column(name = "changed_by")
+    private Long changedBy;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,60 @@
+package com.example.demo.model.entity;
+
+import com.example.demo.model.enums.Priority;
+import com.example.demo.model.enums.TaskStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Subselect;
+import org.hibernate.annotations.Synchronize;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view of active and archived tasks together, with the same attributes as {@link Task}.
+ * Queries that may match archived tasks read from it instead of from Task; the database pushes their
+ * filters down into both sides of the union, so each table is still searched through its own indexes.
+ */
+@Entity
+@Immutable
+@Subselect("select id, title, description, status, due_date, priority, project_id, assigned_user_id, "
+        + "create_date, update_date from tasks "
+        + "union all "
+        + "select id, title, description, status, due_date, priority, project_id, assigned_user_id, "
+        + "create_date, update_date from archived_tasks")
+@Synchronize({"tasks", "archived_tasks"})
+@Getter
+@NoArgsConstructor
+public class TaskView {
+
+    @Id
+    private Long id;
+
+    private String title;
+
+    @Basic(fetch = FetchType.LAZY)
+    private String description;
+
+    private TaskStatus status;
+
+    @Column(name = "due_date")
+    private LocalDate dueDate;
+
+    private Priority priority;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "project_id")
+    private Project project;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "assigned_user_id")
+    private User assignedUser;
+
+    @Column(name = "create_date")
+    private LocalDateTime createDate;
+
+    @Column(name = "update_date")
+    private LocalDateTime updateDate;
+}
@@ -0,0 +1,56 @@
+package com.example.demo.model.entity;
+
+import com.example.demo.model.enums.OutboxEventType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a webhook delivery given up after its last attempt failed, kept for inspection and replay.
+ * The subscription is referenced by ID only, so dead letters outlive it.
+ */
+@Entity
+@Immutable
+@Table(name = "webhook_dead_letters")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WebhookDeadLetter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "webhook_dead_letters_seq")
+    @SequenceGenerator(name = "webhook_dead_letters_seq", sequenceName = "webhook_dead_letters_seq")
+    private Long id;
+
+    @Column(name = "subscription_id", nullable = false)
+    private Long subscriptionId;
+
+    @Column(nullable = false, length = 2048)
+    private String url;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    @Column(name = "event_type", nullable = false)
+    private OutboxEventType eventType;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "create_date", nullable = false, updatable = false)
+    private LocalDateTime createDate;
+}
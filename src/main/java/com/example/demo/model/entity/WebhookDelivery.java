@@ -0,0 +1,74 @@
+package com.example.demo.model.entity;
+
+import com.example.demo.model.enums.OutboxEventType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing the latest change to a task waiting to be sent to a webhook subscription.
+ * While a delivery is waiting, later changes to the same task replace its payload, so an endpoint receives the latest
+ * state once instead of every intermediate one. Due-date events are only replaced by later events of their own type. A claimed delivery is being sent and is no longer replaced; its
+ * next attempt time is pushed out by the claim lease, so it is sent again if its sender never reports back.
+ */
+@Entity
+@DynamicUpdate
+@Table(name = "webhook_deliveries", indexes = {
+        @Index(name = "idx_webhook_deliveries_next_attempt_at", columnList = "next_attempt_at"),
+        @Index(name = "idx_webhook_deliveries_subscription_task", columnList = "subscription_id, task_id")
+})
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WebhookDelivery {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "webhook_deliveries_seq")
+    @SequenceGenerator(name = "webhook_deliveries_seq", sequenceName = "webhook_deliveries_seq", allocationSize = 50)
+    private Long id;
+
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "subscription_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private WebhookSubscription subscription;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    @Column(name = "event_type", nullable = false)
+    private OutboxEventType eventType;
+
+    @ToString.Exclude
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "create_date", nullable = false, updatable = false)
+    private LocalDateTime createDate;
+}
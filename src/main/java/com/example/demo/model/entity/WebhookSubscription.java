@@ -0,0 +1,51 @@
+package com.example.demo.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing an endpoint that is called back when the tasks of a project change.
+ * Subscriptions are kept on the shard of their project and are deleted with it.
+ */
+@Entity
+@Table(name = "webhook_subscriptions", indexes = {
+        @Index(name = "idx_webhook_subscriptions_project_id", columnList = "project_id")
+})
+@Getter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WebhookSubscription {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "webhook_subscriptions_seq")
+    @SequenceGenerator(name = "webhook_subscriptions_seq", sequenceName = "webhook_subscriptions_seq")
+    private Long id;
+
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "project_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Project project;
+
+    @Column(nullable = false, length = 2048)
+    private String url;
+
+    @ToString.Exclude
+    @Column(nullable = false, length = 64)
+    private String secret;
+
+    @CreationTimestamp
+    @Column(name = "create_date", nullable = false, updatable = false)
+    private LocalDateTime createDate;
+}
@@ -0,0 +1,16 @@
+package com.example.demo.model.enums;
+
+/**
+ * Enum stored in the database as a fixed numeric code rather than by name.
+ * Codes are part of the stored data: they must never be changed or reused once rows have been written with them,
+ * and their numeric order is the order in which the database sorts the values.
+ */
+public interface CodedEnum {
+
+    /**
+     * Get the code stored for this value.
+     *
+     * @return the code of the value
+     */
+    short getCode();
+}
@@ -0,0 +1,58 @@
+package com.example.demo.model.enums;
+
+/**
+ * Enum representing the kind of change recorded in the outbox.
+ * Each value names the aggregate that changed and what happened to it.
+ */
+public enum OutboxEventType implements CodedEnum {
+    /**
+     * A task was created.
+     */
+    TASK_CREATED(1),
+
+    /**
+     * A task was updated, including changes to its status.
+     */
+    TASK_UPDATED(2),
+
+    /**
+     * A task was deleted.
+     */
+    TASK_DELETED(3),
+
+    /**
+     * A project was created.
+     */
+    PROJECT_CREATED(4),
+
+    /**
+     * A project was updated.
+     */
+    PROJECT_UPDATED(5),
+
+    /**
+     * A project was deleted together with its tasks.
+     */
+    PROJECT_DELETED(6),
+
+    /**
+     * An open task reached the reminder lead time before its due date.
+     */
+    TASK_DUE_SOON(7),
+
+    /**
+     * An open task passed the end of its due date.
+     */
+    TASK_OVERDUE(8);
+
+    private final short code;
+
+    OutboxEventType(int code) {
+        this.code = (short) code;
+    }
+
+    @Override
+    public short getCode() {
+        return code;
+    }
+}
@@ -4,19 +4,30 @@ package com.example.demo.model.enums;
  * Enum representing the priority level of a task in the system.
  * Indicates the importance and urgency of a task.
  */
-public enum Priority {
+public enum Priority implements CodedEnum {
     /**
      * Low priority task can be completed when time permits.
      */
-    LOW,
+    LOW(1),
     
     /**
      * Medium priority task should be completed in a reasonable timeframe.
      */
-    MEDIUM,
+    MEDIUM(2),
     
     /**
      * High priority task, requires immediate attention and should be completed as soon as possible.
      */
-    HIGH
-}
\ No newline at end of file
+    HIGH(3);
+
+    private final short code;
+
+    Priority(int code) {
+        this.code = (short) code;
+    }
+
+    @Override
+    public short getCode() {
+        return code;
+    }
+}
@@ -4,19 +4,30 @@ package com.example.demo.model.enums;
  * Enum representing user roles in the system.
  * Each role has different access levels and permissions.
  */
-public enum Role {
+public enum Role implements CodedEnum {
     /**
      * Admin role with full access to all resources.
      */
-    ADMIN,
+    ADMIN(1),
     
     /**
      * Manager role with access to manage their own projects and related tasks.
      */
-    MANAGER,
+    MANAGER(2),
     
     /**
      * User role with access to view and update only their own assigned tasks.
      */
-    USER
-}
\ No newline at end of file
+    USER(3);
+
+    private final short code;
+
+    Role(int code) {
+        this.code = (short) code;
+    }
+
+    @Override
+    public short getCode() {
+        return code;
+    }
+}
@@ -4,19 +4,30 @@ package com.example.demo.model.enums;
  * Enum representing the status of a task in the system.
  * Indicates the current state of a task in its lifecycle.
  */
-public enum TaskStatus {
+public enum TaskStatus implements CodedEnum {
     /**
      * Task is created but work has not started yet.
      */
-    TODO,
+    TODO(1),
     
     /**
      * Task is currently being worked on.
      */
-    IN_PROGRESS,
+    IN_PROGRESS(2),
     
     /**
      * Task has been completed.
      */
-    DONE
-}
\ No newline at end of file
+    DONE(3);
+
+    private final short code;
+
+    TaskStatus(int code) {
+        this.code = (short) code;
+    }
+
+    @Override
+    public short getCode() {
+        return code;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.demo.outbox;
+
+import com.example.demo.model.entity.OutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Logs relayed events at debug level. Stands in for a message broker until one is configured.
+ */
+@Component
+public class LoggingOutboxSink implements OutboxSink {
+    private static final Logger logger = LoggerFactory.getLogger(LoggingOutboxSink.class);
+
+    @Override
+    public void deliver(List<OutboxEvent> events) {
+        if (!logger.isDebugEnabled()) {
+            return;
+        }
+        for (OutboxEvent event : events) {
+            logger.debug("Outbox event {} {} {}: {}", event.getId(), event.getType(), event.getAggregateId(),
+                    event.getPayload());
+        }
+    }
+}
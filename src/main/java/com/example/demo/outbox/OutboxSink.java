@@ -0,0 +1,20 @@
+package com.example.demo.outbox;
+
+import com.example.demo.model.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination for the events relayed from the outbox. Every sink bean receives every batch.
+ * Delivery is at least once: a batch is delivered again if any sink fails or the relay stops before the batch
+ * is deleted, so sinks must tolerate duplicates, for example by keeping the highest event ID seen per aggregate.
+ */
+public interface OutboxSink {
+
+    /**
+     * Deliver a batch of events. Throwing leaves the batch in the outbox to be retried.
+     *
+     * @param events the events in the order they were recorded on their shard
+     */
+    void deliver(List<OutboxEvent> events);
+}
@@ -0,0 +1,64 @@
+package com.example.demo.outbox;
+
+import com.example.demo.model.entity.OutboxEvent;
+import com.example.demo.model.enums.OutboxEventType;
+import com.example.demo.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Records changes to tasks and projects in the outbox, in the transaction making the change,
+ * so an event is relayed if and only if the change is committed.
+ * Events are only persisted here; their inserts are batched with the rest of the transaction at flush.
+ */
+@Component
+public class OutboxWriter {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final Map<OutboxEventType, Counter> written = new EnumMap<>(OutboxEventType.class);
+
+    public OutboxWriter(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper,
+                        MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        for (OutboxEventType type : OutboxEventType.values()) {
+            written.put(type, Counter.builder("outbox.events.written")
+                    .tag("type", type.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Record a change in the outbox. Must be called inside the transaction making the change.
+     *
+     * @param type the kind of change
+     * @param aggregateId the ID of the task or project that changed
+     * @param payload the state of the task or project after the change, serialized as JSON
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(OutboxEventType type, Long aggregateId, Object payload) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .type(type)
+                .aggregateId(aggregateId)
+                .payload(serialize(payload))
+                .build());
+        written.get(type).increment();
+    }
+
+    private String serialize(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize outbox event payload", e);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.entity.ArchivedTask;
+import com.example.demo.repository.projection.TaskVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Repository interface for ArchivedTask entity.
+ * Provides methods to move tasks into the archived_tasks table, to read archived tasks by ID and to clean it up with the
+ * projects and users it references.
+ */
+@Repository
+public interface ArchivedTaskRepository extends JpaRepository<ArchivedTask, Long> {
+
+    /**
+     * Copy tasks into the archive with a single insert, keeping their IDs.
+     *
+     * @param ids the IDs of the tasks to copy
+     * @return the number of tasks copied
+     */
+    @Modifying
+    @Query("insert into ArchivedTask (id, title, description, status, dueDate, priority, project, assignedUser, " +
+            "createDate, updateDate, archiveDate) " +
+            "select t.id, t.title, t.description, t.status, t.dueDate, t.priority, t.project, t.assignedUser, " +
+            "t.createDate, t.updateDate, local datetime from Task t where t.id in :ids")
+    int copyFromTasks(Collection<Long> ids);
+
+    /**
+     * Find the version and access columns of an archived task without loading it, as for active tasks.
+     *
+     * @param id the ID of the archived task
+     * @return an Optional containing the task version if found, or empty if not found
+     */
+    @Query("select a.id as id, a.updateDate as updateDate, p.id as projectId, p.updateDate as projectUpdateDate, " +
+            "o.id as projectOwnerId, o.updateDate as projectOwnerUpdateDate, " +
+            "u.id as assignedUserId, u.updateDate as assignedUserUpdateDate " +
+            "from ArchivedTask a join a.project p join p.owner o left join a.assignedUser u where a.id = :id")
+    Optional<TaskVersion> findVersionById(Long id);
+
+    /**
+     * Check whether a user is assigned to an archived task of a project.
+     *
+     * @param assignedUserId the ID of the user
+     * @param projectId the ID of the project
+     * @return true if the user is assigned to an archived task of the project
+     */
+    boolean existsByAssignedUserIdAndProjectId(Long assignedUserId, Long projectId);
+
+    @Modifying
+    @Query("delete from ArchivedTask a where a.project.id = :projectId")
+    int deleteByProjectId(Long projectId);
+
+    @Modifying
+    @Query("delete from ArchivedTask a where a.project.id in (select p.id from Project p where p.owner.id = :ownerId)")
+    int deleteByProjectOwnerId(Long ownerId);
+
+    @Modifying
+    @Query("update ArchivedTask a set a.assignedUser = null where a.assignedUser.id = :userId")
+    int unassignAllFromUser(Long userId);
+}
@@ -0,0 +1,79 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository interface for IdempotencyKey entity.
+ * Keys are claimed and completed with single statements, each committed on its own, so the claim is visible to
+ * other instances before the request runs.
+ */
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    /**
+     * Claim a key for a request about to run.
+     *
+     * @param id the ID of the key
+     * @param requestHash the hash of the request body
+     * @param createDate the time of the claim
+     * @return the number of keys inserted
+     * @throws org.springframework.dao.DataIntegrityViolationException if the key is already claimed
+     */
+    @Modifying
+    @Transactional
+    @Query("insert into IdempotencyKey (id, requestHash, createDate) values (:id, :requestHash, :createDate)")
+    int insertPending(String id, String requestHash, LocalDateTime createDate);
+
+    /**
+     * Store the response of the request holding a key.
+     *
+     * @param id the ID of the key
+     * @param response the serialized response
+     * @return the number of keys updated, 0 if the claim was taken over or expired meanwhile
+     */
+    @Modifying
+    @Transactional
+    @Query("update IdempotencyKey k set k.response = :response where k.id = :id and k.response is null")
+    int complete(String id, String response);
+
+    /**
+     * Release a key whose request failed, so that it can be retried.
+     *
+     * @param id the ID of the key
+     * @return the number of keys deleted
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotencyKey k where k.id = :id and k.response is null")
+    int deletePending(String id);
+
+    /**
+     * Delete a key if it was claimed before the given time.
+     *
+     * @param id the ID of the key
+     * @param before the time the key must have been claimed before
+     * @return the number of keys deleted
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotencyKey k where k.id = :id and k.createDate < :before")
+    int deleteIfCreatedBefore(String id, LocalDateTime before);
+
+    /**
+     * Delete all keys claimed before the given time.
+     *
+     * @param before the time the keys must have been claimed before
+     * @return the number of keys deleted
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotencyKey k where k.createDate < :before")
+    int deleteAllCreatedBefore(LocalDateTime before);
+}
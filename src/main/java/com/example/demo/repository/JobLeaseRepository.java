@@ -0,0 +1,77 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.entity.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository interface for JobLease entity.
+ * Leases are taken, renewed and released with single conditional statements, each committed on its own, so that
+ * two instances never both see themselves holding a lease.
+ */
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    /**
+     * Create the lease of a job run for the first time, held by the given instance.
+     *
+     * @param name the name of the job
+     * @param owner the instance taking the lease
+     * @param leaseUntil the time the lease expires
+     * @return the number of leases inserted
+     * @throws org.springframework.dao.DataIntegrityViolationException if the lease already exists
+     */
+    @Modifying
+    @Transactional
+    @Query("insert into JobLease (name, owner, leaseUntil) values (:name, :owner, :leaseUntil)")
+    int insert(String name, String owner, LocalDateTime leaseUntil);
+
+    /**
+     * Renew the lease of a job if the given instance holds it, or take it over if it has expired.
+     * The checkpoint is kept for the new holder.
+     *
+     * @param name the name of the job
+     * @param owner the instance taking the lease
+     * @param now the current time
+     * @param leaseUntil the time the lease expires
+     * @return the number of leases updated, 0 if another instance holds the lease
+     */
+    @Modifying
+    @Transactional
+    @Query("update JobLease l set l.owner = :owner, l.leaseUntil = :leaseUntil "
+            + "where l.name = :name and (l.owner = :owner or l.leaseUntil < :now)")
+    int take(String name, String owner, LocalDateTime now, LocalDateTime leaseUntil);
+
+    /**
+     * Store the checkpoint of a job and renew its lease, if the given instance still holds it.
+     *
+     * @param name the name of the job
+     * @param owner the instance holding the lease
+     * @param checkpoint the checkpoint, or null if the run finished
+     * @param now the current time
+     * @param leaseUntil the time the lease expires
+     * @return the number of leases updated, 0 if the lease was lost
+     */
+    @Modifying
+    @Transactional
+    @Query("update JobLease l set l.checkpoint = :checkpoint, l.leaseUntil = :leaseUntil "
+            + "where l.name = :name and l.owner = :owner and l.leaseUntil >= :now")
+    int saveCheckpoint(String name, String owner, String checkpoint, LocalDateTime now, LocalDateTime leaseUntil);
+
+    /**
+     * Expire the leases held by the given instance, so that other instances take them over at once.
+     *
+     * @param owner the instance holding the leases
+     * @param now the current time
+     * @return the number of leases released
+     */
+    @Modifying
+    @Transactional
+    @Query("update JobLease l set l.leaseUntil = :now where l.owner = :owner and l.leaseUntil > :now")
+    int releaseAll(String owner, LocalDateTime now);
+}
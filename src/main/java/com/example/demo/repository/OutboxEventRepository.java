@@ -0,0 +1,34 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for OutboxEvent entity.
+ * Provides the claiming query used by the outbox relay.
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Lock the oldest events, skipping events already locked by another relay,
+     * so concurrent relays claim disjoint batches.
+     *
+     * @param limit the maximum number of events to claim
+     * @return the claimed events in the order they were recorded
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "-2"))
+    @Query("select e from OutboxEvent e order by e.id")
+    List<OutboxEvent> findForUpdate(Limit limit);
+}
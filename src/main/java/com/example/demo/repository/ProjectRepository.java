@@ -1,24 +1,37 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.entity.Project;
-import com.example.demo.model.entity.User;
+import com.example.demo.repository.projection.ProjectVersion;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for Project entity.
  * Provides methods to interact with the projects table in the database.
  */
 @Repository
-public interface ProjectRepository extends JpaRepository<Project, Long> {
-    
+public interface ProjectRepository extends JpaRepository<Project, Long>, ProjectSelectionRepository {
+
+    /**
+     * Find a project together with its owner in a single query.
+     *
+     * @param id the ID of the project
+     * @return an Optional containing the project if found, or empty if not found
+     */
+    @EntityGraph(attributePaths = "owner")
+    Optional<Project> findWithOwnerById(Long id);
+
     /**
-     * Find all projects owned by a specific user.
+     * Find the version and owner columns of a project without loading the project entity.
      *
-     * @param owner the user who owns the projects
-     * @return a list of projects owned by the user
+     * @param id the ID of the project
+     * @return an Optional containing the project version if found, or empty if not found
      */
-    List<Project> findByOwner(User owner);
-}
\ No newline at end of file
+    @Query("select p.id as id, p.updateDate as updateDate, o.id as ownerId, o.updateDate as ownerUpdateDate " +
+            "from Project p join p.owner o where p.id = :id")
+    Optional<ProjectVersion> findVersionById(Long id);
+}
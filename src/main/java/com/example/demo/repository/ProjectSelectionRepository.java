@@ -0,0 +1,34 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.FieldSelection;
+import com.example.demo.model.entity.Project;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository fragment for querying projects with a field selection.
+ * Reads by ID only query the shards holding the projects, other reads query every shard and merge the results.
+ */
+public interface ProjectSelectionRepository {
+
+    /**
+     * Find projects, optionally restricted to an owner, loading only the columns and associations in the selection.
+     * The owner is only joined when expanded, otherwise it only carries its id.
+     * The returned projects are detached and only populated with the selected fields, so they must not be saved.
+     *
+     * @param ownerId the ID of the owner to restrict to, or null for all projects
+     * @param selection the fields and associations to load
+     * @return a list of partially loaded projects
+     */
+    List<Project> findSelected(Long ownerId, FieldSelection selection);
+
+    /**
+     * Find projects by id, loading only the columns and associations in the selection, like {@link #findSelected}.
+     *
+     * @param ids the IDs of the projects
+     * @param selection the fields and associations to load
+     * @return a list of partially loaded projects, ordered by ID
+     */
+    List<Project> findSelectedByIds(Collection<Long> ids, FieldSelection selection);
+}
@@ -0,0 +1,122 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.FieldSelection;
+import com.example.demo.model.entity.Project;
+import com.example.demo.model.entity.User;
+import com.example.demo.shard.ShardRouter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Criteria API implementation of {@link ProjectSelectionRepository}.
+ */
+public class ProjectSelectionRepositoryImpl implements ProjectSelectionRepository {
+
+    private static final List<String> COLUMNS = List.of("name", "description", "createDate", "updateDate");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ShardRouter shardRouter;
+
+    public ProjectSelectionRepositoryImpl(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    public List<Project> findSelected(Long ownerId, FieldSelection selection) {
+        // Projects of an owner can be on any shard
+        return merge(shardRouter.query(shardRouter.allShards(), shard -> findSelected(selection,
+                (project, cb) -> ownerId != null
+                        ? cb.equal(project.get("owner").get("id"), ownerId)
+                        : cb.conjunction())));
+    }
+
+    @Override
+    public List<Project> findSelectedByIds(Collection<Long> ids, FieldSelection selection) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, List<Long>> shards = shardRouter.groupByShard(ids);
+        return merge(shardRouter.query(shards.keySet(), shard -> findSelected(selection,
+                (project, cb) -> project.get("id").in(shards.get(shard)))));
+    }
+
+    private static List<Project> merge(List<List<Project>> shards) {
+        if (shards.size() == 1) {
+            return shards.get(0);
+        }
+        return shards.stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparing(Project::getId))
+                .toList();
+    }
+
+    private List<Project> findSelected(FieldSelection selection,
+                                       BiFunction<Root<Project>, CriteriaBuilder, Predicate> restriction) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Project> project = query.from(Project.class);
+
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(project.get("id").alias("id"));
+        for (String column : COLUMNS) {
+            if (selection.includes(column)) {
+                selections.add(project.get(column).alias(column));
+            }
+        }
+
+        if (selection.isExpanded("owner")) {
+            selections.add(project.join("owner").alias("owner"));
+        } else if (selection.includes("owner")) {
+            selections.add(project.get("owner").get("id").alias("ownerId"));
+        }
+
+        query.multiselect(selections)
+                .where(restriction.apply(project, cb))
+                .orderBy(cb.asc(project.get("id")));
+
+        return entityManager.createQuery(query).getResultList().stream()
+                .map(row -> toProject(row, selection))
+                .toList();
+    }
+
+    private Project toProject(Tuple row, FieldSelection selection) {
+        Project.ProjectBuilder project = Project.builder().id(row.get("id", Long.class));
+
+        if (selection.includes("name")) {
+            project.name(row.get("name", String.class));
+        }
+        if (selection.includes("description")) {
+            project.description(row.get("description", String.class));
+        }
+        if (selection.includes("createDate")) {
+            project.createDate(row.get("createDate", LocalDateTime.class));
+        }
+        if (selection.includes("updateDate")) {
+            project.updateDate(row.get("updateDate", LocalDateTime.class));
+        }
+
+        if (selection.isExpanded("owner")) {
+            project.owner(row.get("owner", User.class));
+        } else if (selection.includes("owner")) {
+            project.owner(User.builder().id(row.get("ownerId", Long.class)).build());
+        }
+
+        return project.build();
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.entity.TaskAudit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for TaskAudit entity.
+ * Provides the history of a task, read through the (task_id, changed_at) index.
+ */
+@Repository
+public interface TaskAuditRepository extends JpaRepository<TaskAudit, Long> {
+
+    Page<TaskAudit> findByTaskId(Long taskId, Pageable pageable);
+}
@@ -0,0 +1,37 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.enums.Priority;
+import com.example.demo.model.enums.TaskStatus;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Collection;
+
+/**
+ * Criteria for querying tasks. Criteria that are null are not applied.
+ */
+@Getter
+@Builder(toBuilder = true)
+public class TaskCriteria {
+
+    private final Collection<Long> ids;
+    private final TaskStatus status;
+    private final Priority priority;
+    private final Collection<Long> projectIds;
+    private final Long assignedUserId;
+
+    /**
+     * Only match tasks with a greater ID.
+     */
+    private final Long afterId;
+
+    /**
+     * Check whether the criteria can match archived tasks. Only completed tasks are archived,
+     * so only queries for DONE tasks read the archive, and all other queries stay on the tasks table.
+     *
+     * @return true if archived tasks have to be queried along with active ones
+     */
+    public boolean includesArchived() {
+        return status == TaskStatus.DONE;
+    }
+}
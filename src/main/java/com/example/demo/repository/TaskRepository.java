@@ -2,159 +2,130 @@ package com.example.demo.repository;
 
 import com.example.demo.model.entity.Task;
 import com.example.demo.model.entity.User;
-import com.example.demo.model.enums.Priority;
 import com.example.demo.model.enums.TaskStatus;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import com.example.demo.repository.projection.TaskDueDate;
+import com.example.demo.repository.projection.TaskReference;
+import com.example.demo.repository.projection.TaskVersion;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for Task entity.
  * Provides methods to interact with the tasks table in the database.
  */
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskSelectionRepository {
 
     /**
-     * Find all tasks in a specific project with pagination.
-     * Non-paginated access can be achieved using findByProjectId(id, Pageable.unpaged())
+     * Check whether a user is assigned to a task in a specific project, without loading the tasks.
      *
-     * @param projectId the ID of the project to find tasks for
-     * @param pageable the pagination information
-     * @return a page of tasks in the project
+     * @param assignedUser the user assigned to the tasks
+     * @param projectId the ID of the project to check
+     * @return true if the user is assigned to a task in the project
      */
-    Page<Task> findByProjectId(Long projectId, Pageable pageable);
+    boolean existsByAssignedUserAndProjectId(User assignedUser, Long projectId);
 
     /**
-     * Find all tasks assigned to a specific user with pagination.
-     * Non-paginated access can be achieved using findByAssignedUserId(id, Pageable.unpaged())
+     * Find a task together with its project, project owner and assigned user in a single query.
      *
-     * @param assignedUserId the ID of the user assigned to the tasks
-     * @param pageable the pagination information
-     * @return a page of tasks assigned to the user
+     * @param id the ID of the task
+     * @return an Optional containing the task if found, or empty if not found
      */
-    Page<Task> findByAssignedUserId(Long assignedUserId, Pageable pageable);
+    @EntityGraph(attributePaths = {"project.owner", "assignedUser"})
+    Optional<Task> findWithAssociationsById(Long id);
 
     /**
-     * Find all tasks with a specific status with pagination.
-     * Non-paginated access can be achieved using findByStatus(status, Pageable.unpaged())
+     * Find the version and access columns of a task without loading the task entity.
      *
-     * @param status the status to find tasks for
-     * @param pageable the pagination information
-     * @return a page of tasks with the specified status
+     * @param id the ID of the task
+     * @return an Optional containing the task version if found, or empty if not found
      */
-    Page<Task> findByStatus(TaskStatus status, Pageable pageable);
+    @Query("select t.id as id, t.updateDate as updateDate, p.id as projectId, p.updateDate as projectUpdateDate, " +
+            "o.id as projectOwnerId, o.updateDate as projectOwnerUpdateDate, " +
+            "u.id as assignedUserId, u.updateDate as assignedUserUpdateDate " +
+            "from Task t join t.project p join p.owner o left join t.assignedUser u where t.id = :id")
+    Optional<TaskVersion> findVersionById(Long id);
 
     /**
-     * Find all tasks with a specific priority with pagination.
+     * Find the IDs of the tasks assigned to a user and lock them, so they are not reassigned before the caller
+     * unassigns them.
      *
-     * @param priority the priority to find tasks for
-     * @param pageable the pagination information
-     * @return a page of tasks with the specified priority
+     * @param userId the ID of the user
+     * @return the IDs of the tasks assigned to the user
      */
-    Page<Task> findByPriority(Priority priority, Pageable pageable);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t.id from Task t where t.assignedUser.id = :userId order by t.id")
+    List<Long> findIdsForUpdateByAssignedUserId(Long userId);
 
     /**
-     * Find all tasks with a specific status and priority with pagination.
+     * Unassign all tasks of a user with a single update, bumping their update timestamps as an entity update would.
      *
-     * @param status the status to find tasks for
-     * @param priority the priority to find tasks for
-     * @param pageable the pagination information
-     * @return a page of tasks with the specified status and priority
+     * @param userId the ID of the user
+     * @return the number of tasks unassigned
      */
-    Page<Task> findByStatusAndPriority(TaskStatus status, Priority priority, Pageable pageable);
+    @Modifying
+    @Query("update Task t set t.assignedUser = null, t.updateDate = local datetime where t.assignedUser.id = :userId")
+    int unassignAllFromUser(Long userId);
 
     /**
-     * Find all tasks in projects with the specified IDs with pagination.
-     *
-     * @param projectIds the IDs of the projects to find tasks for
-     * @param pageable the pagination information
-     * @return a page of tasks in the specified projects
-     */
-    Page<Task> findByProjectIdIn(List<Long> projectIds, Pageable pageable);
-    
-    /**
-     * Find tasks with a specific status in projects with specified IDs with pagination.
-     *
-     * @param status the status to find tasks for
-     * @param projectIds the IDs of the projects to find tasks for
-     * @param pageable the pagination information
-     * @return a page of tasks with the specified status in the specified projects
-     */
-    Page<Task> findByStatusAndProjectIdIn(TaskStatus status, List<Long> projectIds, Pageable pageable);
-    
-    /**
-     * Find tasks with a specific status assigned to a specific user with pagination.
-     *
-     * @param status the status to find tasks for
-     * @param assignedUserId the ID of the user assigned to the tasks
-     * @param pageable the pagination information
-     * @return a page of tasks with the specified status assigned to the specified user
-     */
-    Page<Task> findByStatusAndAssignedUserId(TaskStatus status, Long assignedUserId, Pageable pageable);
-    
-    /**
-     * Find tasks with a specific priority in projects with specified IDs with pagination.
+     * Find tasks with a status that were last updated before a point in time, oldest IDs first, and lock them.
+     * Rows locked by other transactions, such as a concurrent update, are skipped and picked up by a later call;
+     * Hibernate maps the lock timeout of -2 to {@code SKIP LOCKED}.
      *
-     * @param priority the priority to find tasks for
-     * @param projectIds the IDs of the projects to find tasks for
-     * @param pageable the pagination information
-     * @return a page of tasks with the specified priority in the specified projects
+     * @param status the status of the tasks
+     * @param updatedBefore only tasks last updated before this time are returned
+     * @param limit the maximum number of tasks to return
+     * @return references to the locked tasks
      */
-    Page<Task> findByPriorityAndProjectIdIn(Priority priority, List<Long> projectIds, Pageable pageable);
-    
-    /**
-     * Find tasks with a specific priority assigned to a specific user with pagination.
-     *
-     * @param priority the priority to find tasks for
-     * @param assignedUserId the ID of the user assigned to the tasks
-     * @param pageable the pagination information
-     * @return a page of tasks with the specified priority assigned to the specified user
-     */
-    Page<Task> findByPriorityAndAssignedUserId(Priority priority, Long assignedUserId, Pageable pageable);
-    
-    /**
-     * Find tasks with a specific status and priority in projects with specified IDs with pagination.
-     *
-     * @param status the status to find tasks for
-     * @param priority the priority to find tasks for
-     * @param projectIds the IDs of the projects to find tasks for
-     * @param pageable the pagination information
-     * @return a page of tasks with the specified status and priority in the specified projects
-     */
-    Page<Task> findByStatusAndPriorityAndProjectIdIn(TaskStatus status, Priority priority, List<Long> projectIds, Pageable pageable);
-    
-    /**
-     * Find tasks with a specific status and priority assigned to a specific user with pagination.
-     *
-     * @param status the status to find tasks for
-     * @param priority the priority to find tasks for
-     * @param assignedUserId the ID of the user assigned to the tasks
-     * @param pageable the pagination information
-     * @return a page of tasks with the specified status and priority assigned to the specified user
-     */
-    Page<Task> findByStatusAndPriorityAndAssignedUserId(TaskStatus status, Priority priority, Long assignedUserId, Pageable pageable);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "-2"))
+    @Query("select t.id as id, t.project.id as projectId, t.assignedUser.id as assignedUserId from Task t " +
+            "where t.status = :status and t.updateDate < :updatedBefore order by t.id")
+    List<TaskReference> findForUpdateByStatusAndUpdateDateBefore(TaskStatus status, LocalDateTime updatedBefore,
+                                                                 Limit limit);
 
     /**
-     * Find tasks assigned to a specific user that belong to any of the specified projects.
+     * Find the open tasks due in a range of dates, in due date and ID order after a given task, for paging through
+     * the range by key.
      *
-     * @param userId the ID of the user assigned to the tasks
-     * @param projectIds the list of project IDs to search within
-     * @param pageable the pagination information
-     * @return a page of tasks assigned to the user within the specified projects
+     * @param excludedStatus the status of the tasks to leave out, which are closed
+     * @param from the first due date of the range
+     * @param to the due date the range ends before
+     * @param afterDueDate the due date of the last task of the previous page
+     * @param afterId the ID of the last task of the previous page
+     * @param limit the maximum number of tasks to return
+     * @return the IDs and due dates of the tasks
      */
-    Page<Task> findByAssignedUserIdAndProjectIdIn(Long userId, List<Long> projectIds, Pageable pageable);
+    @Query("select t.id as id, t.dueDate as dueDate from Task t " +
+            "where t.status <> :excludedStatus and t.dueDate >= :from and t.dueDate < :to " +
+            "and (t.dueDate > :afterDueDate or (t.dueDate = :afterDueDate and t.id > :afterId)) " +
+            "order by t.dueDate, t.id")
+    List<TaskDueDate> findDueBetween(TaskStatus excludedStatus, LocalDate from, LocalDate to,
+                                     LocalDate afterDueDate, Long afterId, Limit limit);
 
     /**
-     * Find tasks assigned to a specific user in a specific project.
+     * Find the due dates of the given tasks that are still open and have one.
      *
-     * @param assignedUser the user assigned to the tasks
-     * @param projectId the ID of the project to find tasks for
-     * @return a list of tasks assigned to the user in the specified project
+     * @param ids the IDs of the tasks
+     * @param excludedStatus the status of the tasks to leave out, which are closed
+     * @return the IDs and due dates of the tasks found
      */
-    List<Task> findByAssignedUserAndProjectId(User assignedUser, Long projectId);
+    @Query("select t.id as id, t.dueDate as dueDate from Task t " +
+            "where t.id in :ids and t.status <> :excludedStatus and t.dueDate is not null")
+    List<TaskDueDate> findDueDatesByIdIn(Collection<Long> ids, TaskStatus excludedStatus);
 }
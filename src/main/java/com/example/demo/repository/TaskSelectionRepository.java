@@ -0,0 +1,61 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.FieldSelection;
+import com.example.demo.model.entity.Task;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Repository fragment for querying tasks with a field selection, and for reads that span projects.
+ * Reads restricted to task or project IDs only query the shards holding them, all other reads query every shard
+ * and merge the results, see {@link com.example.demo.shard.ShardRouter}.
+ */
+public interface TaskSelectionRepository {
+
+    /**
+     * Find tasks matching the given criteria, loading only the columns and associations in the selection.
+     * Associations that are not expanded are not joined and only carry their id.
+     * The returned tasks are detached and only populated with the selected fields, so they must not be saved.
+     * When several shards can hold matching tasks, each returns its first {@code offset + size} tasks in the order of
+     * the pageable and these are merged, so reading a deep page costs more the more shards are queried.
+     *
+     * @param criteria the criteria the tasks must match
+     * @param selection the fields and associations to load
+     * @param pageable the pagination information
+     * @return a page of partially loaded tasks
+     */
+    Page<Task> findSelected(TaskCriteria criteria, FieldSelection selection, Pageable pageable);
+
+    /**
+     * Find the first tasks by ID matching the given criteria, without counting the total.
+     * Combined with {@link TaskCriteria#getAfterId()} this pages through large result sets by key instead of offset.
+     *
+     * @param criteria the criteria the tasks must match
+     * @param selection the fields and associations to load
+     * @param limit the maximum number of tasks to return
+     * @return the partially loaded tasks, ordered by ID
+     */
+    List<Task> findSelected(TaskCriteria criteria, FieldSelection selection, int limit);
+
+    /**
+     * Find which of the given projects have active or archived tasks assigned to a user.
+     *
+     * @param userId the ID of the assigned user
+     * @param projectIds the IDs of the projects to check
+     * @return the IDs of the projects with tasks assigned to the user
+     */
+    Set<Long> findProjectIdsWithTasksAssignedTo(Long userId, Collection<Long> projectIds);
+
+    /**
+     * Find the IDs of the first tasks by ID of each of the given projects.
+     *
+     * @param projectIds the IDs of the projects
+     * @param limit the maximum number of tasks per project
+     * @return the IDs of the tasks, ordered by ID
+     */
+    List<Long> findFirstIdsByProjectIdIn(Collection<Long> projectIds, long limit);
+}
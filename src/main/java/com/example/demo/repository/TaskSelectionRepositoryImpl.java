@@ -0,0 +1,410 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.FieldSelection;
+import com.example.demo.model.entity.Project;
+import com.example.demo.model.entity.Task;
+import com.example.demo.model.entity.TaskView;
+import com.example.demo.model.entity.User;
+import com.example.demo.model.enums.Priority;
+import com.example.demo.model.enums.TaskStatus;
+import com.example.demo.shard.ShardRouter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Criteria API implementation of {@link TaskSelectionRepository}.
+ */
+public class TaskSelectionRepositoryImpl implements TaskSelectionRepository {
+
+    /**
+     * A task read for merging with the tasks of other shards, with the values it was sorted by on its shard.
+     */
+    private record SortedTask(Task task, List<Object> sortKeys) {
+    }
+
+    private static final List<String> COLUMNS =
+            List.of("title", "description", "status", "dueDate", "priority", "createDate", "updateDate");
+
+    /**
+     * Columns of an expanded project. They are selected individually rather than as the entity,
+     * as the entity would leave its lazy description to be loaded with one query per project.
+     */
+    private static final List<String> PROJECT_COLUMNS = List.of("name", "description", "createDate", "updateDate");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ShardRouter shardRouter;
+
+    public TaskSelectionRepositoryImpl(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    public Page<Task> findSelected(TaskCriteria criteria, FieldSelection selection, Pageable pageable) {
+        Map<Integer, TaskCriteria> shards = route(criteria);
+        if (shards.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, 0);
+        }
+        if (isLocal(shards)) {
+            return findSelectedOnShard(criteria, selection, pageable);
+        }
+
+        // Any task of the requested page is among the first offset + size tasks of its shard
+        Pageable top = pageable.isPaged()
+                ? PageRequest.of(0, (int) pageable.getOffset() + pageable.getPageSize(), pageable.getSort())
+                : pageable;
+        List<Page<SortedTask>> pages = shardRouter.query(shards.keySet(),
+                shard -> findSortedOnShard(shards.get(shard), selection, top));
+
+        List<Task> tasks = pages.stream()
+                .flatMap(page -> page.getContent().stream())
+                .sorted(comparator(pageable.getSort()))
+                .skip(pageable.isPaged() ? pageable.getOffset() : 0)
+                .limit(pageable.isPaged() ? pageable.getPageSize() : Long.MAX_VALUE)
+                .map(SortedTask::task)
+                .toList();
+        long total = pages.stream().mapToLong(Page::getTotalElements).sum();
+        return new PageImpl<>(tasks, pageable, total);
+    }
+
+    @Override
+    public List<Task> findSelected(TaskCriteria criteria, FieldSelection selection, int limit) {
+        Map<Integer, TaskCriteria> shards = route(criteria);
+        if (isLocal(shards)) {
+            return findSelectedOnShard(criteria, selection, limit);
+        }
+
+        return shardRouter.query(shards.keySet(), shard -> findSelectedOnShard(shards.get(shard), selection, limit))
+                .stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparing(Task::getId))
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public Set<Long> findProjectIdsWithTasksAssignedTo(Long userId, Collection<Long> projectIds) {
+        Set<Long> assignedProjectIds = new HashSet<>();
+        queryByProject(projectIds, ids -> entityManager.createQuery(
+                        "select distinct t.project.id from TaskView t where t.assignedUser.id = :userId and t.project.id in :projectIds",
+                        Long.class)
+                .setParameter("userId", userId)
+                .setParameter("projectIds", ids)
+                .getResultList())
+                .forEach(assignedProjectIds::addAll);
+        return assignedProjectIds;
+    }
+
+    @Override
+    public List<Long> findFirstIdsByProjectIdIn(Collection<Long> projectIds, long limit) {
+        // Numbers the tasks of each project in one pass over the (project_id, id) index
+        return queryByProject(projectIds, ids -> (List<?>) entityManager.createNativeQuery(
+                        "select id from (select t.id, row_number() over (partition by t.project_id order by t.id) as position " +
+                                "from tasks t where t.project_id in (:projectIds)) ranked where position <= :limit order by id",
+                        Long.class)
+                .setParameter("projectIds", ids)
+                .setParameter("limit", limit)
+                .getResultList())
+                .stream()
+                .flatMap(List::stream)
+                .map(Long.class::cast)
+                .sorted()
+                .toList();
+    }
+
+    private Page<Task> findSelectedOnShard(TaskCriteria criteria, FieldSelection selection, Pageable pageable) {
+        TypedQuery<Tuple> query = createQuery(criteria, selection, pageable.getSort(), null);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+
+        List<Task> tasks = query.getResultList().stream()
+                .map(row -> toTask(row, selection))
+                .toList();
+
+        return PageableExecutionUtils.getPage(tasks, pageable, () -> count(criteria));
+    }
+
+    /**
+     * Read a page from the current shard along with the values of the sort properties, which may not be selected.
+     */
+    private Page<SortedTask> findSortedOnShard(TaskCriteria criteria, FieldSelection selection, Pageable pageable) {
+        List<String> sortKeyAliases = new ArrayList<>();
+        TypedQuery<Tuple> query = createQuery(criteria, selection, pageable.getSort(), sortKeyAliases);
+        if (pageable.isPaged()) {
+            query.setMaxResults(pageable.getPageSize());
+        }
+
+        List<SortedTask> tasks = query.getResultList().stream()
+                .map(row -> new SortedTask(toTask(row, selection), sortKeys(row, sortKeyAliases)))
+                .toList();
+
+        return PageableExecutionUtils.getPage(tasks, pageable, () -> count(criteria));
+    }
+
+    private List<Task> findSelectedOnShard(TaskCriteria criteria, FieldSelection selection, int limit) {
+        return createQuery(criteria, selection, Sort.by("id"), null)
+                .setMaxResults(limit)
+                .getResultList().stream()
+                .map(row -> toTask(row, selection))
+                .toList();
+    }
+
+    /**
+     * Split the criteria by the shards that can hold matching tasks, narrowing task and project IDs
+     * to the ones on each shard.
+     */
+    private Map<Integer, TaskCriteria> route(TaskCriteria criteria) {
+        if (shardRouter.getShardCount() == 1) {
+            return Map.of(0, criteria);
+        }
+
+        Map<Integer, List<Long>> ids = criteria.getIds() != null ? shardRouter.groupByShard(criteria.getIds()) : null;
+        Map<Integer, List<Long>> projectIds = criteria.getProjectIds() != null
+                ? shardRouter.groupByShard(criteria.getProjectIds())
+                : null;
+
+        Map<Integer, TaskCriteria> shards = new TreeMap<>();
+        for (int shard : shardRouter.allShards()) {
+            if ((ids == null || ids.containsKey(shard)) && (projectIds == null || projectIds.containsKey(shard))) {
+                shards.put(shard, criteria.toBuilder()
+                        .ids(ids != null ? ids.get(shard) : null)
+                        .projectIds(projectIds != null ? projectIds.get(shard) : null)
+                        .build());
+            }
+        }
+        return shards;
+    }
+
+    private boolean isLocal(Map<Integer, TaskCriteria> shards) {
+        return shards.size() == 1 && shards.containsKey(shardRouter.currentShard());
+    }
+
+    /**
+     * Run a query with the IDs of the given projects on each shard holding some of them.
+     */
+    private <T> List<T> queryByProject(Collection<Long> projectIds, Function<Collection<Long>, T> query) {
+        if (shardRouter.getShardCount() == 1) {
+            return List.of(query.apply(projectIds));
+        }
+
+        Map<Integer, List<Long>> shards = shardRouter.groupByShard(projectIds);
+        return shardRouter.query(shards.keySet(), shard -> query.apply(shards.get(shard)));
+    }
+
+    /**
+     * Build the query for the selection. When a list for the sort key aliases is given, the values of the sort
+     * properties are selected as well and the list is filled with the alias of each, in the order of the sort.
+     */
+    private TypedQuery<Tuple> createQuery(TaskCriteria criteria, FieldSelection selection, Sort sort,
+                                          List<String> sortKeyAliases) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<?> task = query.from(rootType(criteria));
+
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(task.get("id").alias("id"));
+        for (String column : COLUMNS) {
+            if (selection.includes(column)) {
+                selections.add(task.get(column).alias(column));
+            }
+        }
+
+        if (selection.isExpanded("project")) {
+            Join<?, Project> project = task.join("project");
+            Join<Project, User> owner = project.join("owner");
+            selections.add(project.get("id").alias("projectId"));
+            for (String column : PROJECT_COLUMNS) {
+                selections.add(project.get(column).alias("project." + column));
+            }
+            selections.add(owner.alias("owner"));
+        } else if (selection.includes("project")) {
+            selections.add(task.get("project").get("id").alias("projectId"));
+        }
+
+        if (selection.isExpanded("assignedUser")) {
+            selections.add(task.join("assignedUser", JoinType.LEFT).alias("assignedUser"));
+        } else if (selection.includes("assignedUser")) {
+            selections.add(task.get("assignedUser").get("id").alias("assignedUserId"));
+        }
+
+        List<Order> orders = QueryUtils.toOrders(sort, task, cb);
+        if (sortKeyAliases != null) {
+            for (Sort.Order order : sort) {
+                // Paths are shared, so a sort property that is already selected keeps its alias
+                Path<?> path = toPath(task, order.getProperty());
+                if (path.getAlias() == null) {
+                    selections.add(path.alias("sortKey" + sortKeyAliases.size()));
+                }
+                sortKeyAliases.add(path.getAlias());
+            }
+        }
+
+        query.multiselect(selections)
+                .where(toPredicates(criteria, task, cb))
+                .orderBy(orders);
+
+        return entityManager.createQuery(query);
+    }
+
+    private long count(TaskCriteria criteria) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<?> task = query.from(rootType(criteria));
+        query.select(cb.count(task)).where(toPredicates(criteria, task, cb));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    /**
+     * Order merged tasks as the databases order them. Nulls sort as the largest value, as they do in PostgreSQL.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<SortedTask> comparator(Sort sort) {
+        Comparator<SortedTask> comparator = (first, second) -> 0;
+        int index = 0;
+        for (Sort.Order order : sort) {
+            int key = index++;
+            Comparator<Comparable> values = Comparator.nullsLast(Comparator.naturalOrder());
+            comparator = comparator.thenComparing(task -> (Comparable) task.sortKeys().get(key),
+                    order.isAscending() ? values : values.reversed());
+        }
+        return comparator;
+    }
+
+    /**
+     * Resolve a dotted sort property, reusing the outer joins the ordering created for it.
+     */
+    private static Path<?> toPath(From<?, ?> root, String property) {
+        String[] parts = property.split("\\.");
+        From<?, ?> from = root;
+        for (int index = 0; index < parts.length - 1; index++) {
+            From<?, ?> parent = from;
+            String association = parts[index];
+            from = parent.getJoins().stream()
+                    .filter(join -> join.getAttribute().getName().equals(association))
+                    .<From<?, ?>>map(join -> join)
+                    .findFirst()
+                    .orElseGet(() -> parent.join(association, JoinType.LEFT));
+        }
+        return from.get(parts[parts.length - 1]);
+    }
+
+    private static List<Object> sortKeys(Tuple row, List<String> aliases) {
+        List<Object> keys = new ArrayList<>(aliases.size());
+        for (String alias : aliases) {
+            keys.add(row.get(alias));
+        }
+        return keys;
+    }
+
+    /**
+     * Read from the view over active and archived tasks only when the criteria can match archived tasks.
+     */
+    private static Class<?> rootType(TaskCriteria criteria) {
+        return criteria.includesArchived() ? TaskView.class : Task.class;
+    }
+
+    private Predicate[] toPredicates(TaskCriteria criteria, Root<?> task, CriteriaBuilder cb) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.getIds() != null) {
+            predicates.add(task.get("id").in(criteria.getIds()));
+        }
+        if (criteria.getStatus() != null) {
+            predicates.add(cb.equal(task.get("status"), criteria.getStatus()));
+        }
+        if (criteria.getPriority() != null) {
+            predicates.add(cb.equal(task.get("priority"), criteria.getPriority()));
+        }
+        if (criteria.getProjectIds() != null) {
+            predicates.add(task.get("project").get("id").in(criteria.getProjectIds()));
+        }
+        if (criteria.getAssignedUserId() != null) {
+            predicates.add(cb.equal(task.get("assignedUser").get("id"), criteria.getAssignedUserId()));
+        }
+        if (criteria.getAfterId() != null) {
+            predicates.add(cb.greaterThan(task.get("id"), criteria.getAfterId()));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    private Task toTask(Tuple row, FieldSelection selection) {
+        Task.TaskBuilder task = Task.builder().id(row.get("id", Long.class));
+
+        if (selection.includes("title")) {
+            task.title(row.get("title", String.class));
+        }
+        if (selection.includes("description")) {
+            task.description(row.get("description", String.class));
+        }
+        if (selection.includes("status")) {
+            task.status(row.get("status", TaskStatus.class));
+        }
+        if (selection.includes("dueDate")) {
+            task.dueDate(row.get("dueDate", LocalDate.class));
+        }
+        if (selection.includes("priority")) {
+            task.priority(row.get("priority", Priority.class));
+        }
+        if (selection.includes("createDate")) {
+            task.createDate(row.get("createDate", LocalDateTime.class));
+        }
+        if (selection.includes("updateDate")) {
+            task.updateDate(row.get("updateDate", LocalDateTime.class));
+        }
+
+        if (selection.isExpanded("project")) {
+            task.project(Project.builder()
+                    .id(row.get("projectId", Long.class))
+                    .name(row.get("project.name", String.class))
+                    .description(row.get("project.description", String.class))
+                    .createDate(row.get("project.createDate", LocalDateTime.class))
+                    .updateDate(row.get("project.updateDate", LocalDateTime.class))
+                    .owner(row.get("owner", User.class))
+                    .build());
+        } else if (selection.includes("project")) {
+            task.project(Project.builder().id(row.get("projectId", Long.class)).build());
+        }
+
+        if (selection.isExpanded("assignedUser")) {
+            task.assignedUser(row.get("assignedUser", User.class));
+        } else if (selection.includes("assignedUser")) {
+            Long assignedUserId = row.get("assignedUserId", Long.class);
+            task.assignedUser(assignedUserId != null ? User.builder().id(assignedUserId).build() : null);
+        }
+
+        return task.build();
+    }
+}
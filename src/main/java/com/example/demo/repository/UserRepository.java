@@ -1,9 +1,13 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.entity.User;
+import com.example.demo.model.enums.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 /**
@@ -28,4 +32,37 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return true if a user with the email exists, false otherwise
      */
     boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    /**
+     * Write a copy of a user, keeping its ID, to the database of the current shard.
+     * Users are created on shard 0 and copied to the other shards, which reference them from projects and tasks.
+     * Copying a user again updates the existing copy in place, so a failed or repeated copy can simply be retried,
+     * and a row left behind under the same email by another user is replaced.
+     *
+     * @param user the user to copy
+     */
+    default void replicate(User user) {
+        deleteByEmailAndIdNot(user.getEmail(), user.getId());
+        if (updateCopy(user.getId(), user.getEmail(), user.getPassword(), user.getRole(), user.getCreateDate(),
+                user.getUpdateDate()) == 0) {
+            insertCopy(user.getId(), user.getEmail(), user.getPassword(), user.getRole(), user.getCreateDate(),
+                    user.getUpdateDate());
+        }
+    }
+
+    @Modifying
+    @Query("delete from User u where u.email = :email and u.id <> :id")
+    int deleteByEmailAndIdNot(String email, Long id);
+
+    @Modifying
+    @Query("update User u set u.email = :email, u.password = :password, u.role = :role, " +
+            "u.createDate = :createDate, u.updateDate = :updateDate where u.id = :id")
+    int updateCopy(Long id, String email, String password, Role role, LocalDateTime createDate,
+                   LocalDateTime updateDate);
+
+    @Modifying
+    @Query("insert into User (id, email, password, role, createDate, updateDate) " +
+            "values (:id, :email, :password, :role, :createDate, :updateDate)")
+    int insertCopy(Long id, String email, String password, Role role, LocalDateTime createDate,
+                   LocalDateTime updateDate);
+}
@@ -0,0 +1,12 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.entity.WebhookDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for WebhookDeadLetter entity.
+ */
+@Repository
+public interface WebhookDeadLetterRepository extends JpaRepository<WebhookDeadLetter, Long> {
+}
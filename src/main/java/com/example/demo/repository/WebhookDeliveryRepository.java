@@ -0,0 +1,61 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.entity.WebhookDelivery;
+import com.example.demo.model.enums.OutboxEventType;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for WebhookDelivery entity.
+ * Provides the claiming query used by the webhook dispatcher and the lookup used to coalesce changes.
+ */
+@Repository
+public interface WebhookDeliveryRepository extends JpaRepository<WebhookDelivery, Long> {
+
+    /**
+     * Lock the deliveries due for an attempt, skipping deliveries already locked by another dispatcher,
+     * so concurrent dispatchers claim disjoint batches.
+     *
+     * @param now the current time
+     * @param limit the maximum number of deliveries to claim
+     * @return the claimed deliveries, longest due first
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "-2"))
+    @Query("select d from WebhookDelivery d where d.nextAttemptAt <= :now order by d.nextAttemptAt")
+    List<WebhookDelivery> findDueForUpdate(LocalDateTime now, Limit limit);
+
+    /**
+     * Find the unclaimed deliveries for the given subscriptions and tasks, which new changes may replace.
+     *
+     * @param subscriptionIds the IDs of the subscriptions
+     * @param taskIds the IDs of the tasks
+     * @return the waiting deliveries
+     */
+    @Query("select d from WebhookDelivery d where d.claimedAt is null "
+            + "and d.subscription.id in :subscriptionIds and d.taskId in :taskIds")
+    List<WebhookDelivery> findWaiting(Collection<Long> subscriptionIds, Collection<Long> taskIds);
+
+    /**
+     * Check whether a newer event of the same kind for a task is waiting to be sent to a subscription, which
+     * supersedes a failed delivery of an older one.
+     *
+     * @param subscriptionId the ID of the subscription
+     * @param taskId the ID of the task
+     * @param eventTypes the event types coalesced with the failed delivery
+     * @return true if an unclaimed delivery exists
+     */
+    boolean existsBySubscriptionIdAndTaskIdAndEventTypeInAndClaimedAtIsNull(Long subscriptionId, Long taskId,
+                                                                            Collection<OutboxEventType> eventTypes);
+}
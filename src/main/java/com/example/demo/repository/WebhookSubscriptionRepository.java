@@ -0,0 +1,41 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.entity.WebhookSubscription;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for WebhookSubscription entity.
+ */
+@Repository
+public interface WebhookSubscriptionRepository extends JpaRepository<WebhookSubscription, Long> {
+
+    /**
+     * Find the subscriptions of a project.
+     *
+     * @param projectId the ID of the project
+     * @return the subscriptions, oldest first
+     */
+    List<WebhookSubscription> findByProjectIdOrderById(Long projectId);
+
+    /**
+     * Find the subscriptions of any of the given projects.
+     *
+     * @param projectIds the IDs of the projects
+     * @return the subscriptions
+     */
+    List<WebhookSubscription> findByProjectIdIn(Collection<Long> projectIds);
+
+    /**
+     * Find a subscription of a project.
+     *
+     * @param id the ID of the subscription
+     * @param projectId the ID of the project
+     * @return an Optional containing the subscription if found, or empty if not found
+     */
+    Optional<WebhookSubscription> findByIdAndProjectId(Long id, Long projectId);
+}
@@ -0,0 +1,18 @@
+package com.example.demo.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of the columns needed to version a project and check access to it,
+ * without loading the project or its owner.
+ */
+public interface ProjectVersion {
+
+    Long getId();
+
+    LocalDateTime getUpdateDate();
+
+    Long getOwnerId();
+
+    LocalDateTime getOwnerUpdateDate();
+}
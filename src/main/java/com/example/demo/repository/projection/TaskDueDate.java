@@ -0,0 +1,13 @@
+package com.example.demo.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Projection of a task's ID and due date, read from the due date index without loading the task.
+ */
+public interface TaskDueDate {
+
+    Long getId();
+
+    LocalDate getDueDate();
+}
@@ -0,0 +1,13 @@
+package com.example.demo.repository.projection;
+
+/**
+ * Projection of a task's ID and the IDs it is referenced by in caches, without loading the task.
+ */
+public interface TaskReference {
+
+    Long getId();
+
+    Long getProjectId();
+
+    Long getAssignedUserId();
+}
@@ -0,0 +1,26 @@
+package com.example.demo.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of the columns needed to version a task and check access to it,
+ * without loading the task, its project or its users.
+ */
+public interface TaskVersion {
+
+    Long getId();
+
+    LocalDateTime getUpdateDate();
+
+    Long getProjectId();
+
+    LocalDateTime getProjectUpdateDate();
+
+    Long getProjectOwnerId();
+
+    LocalDateTime getProjectOwnerUpdateDate();
+
+    Long getAssignedUserId();
+
+    LocalDateTime getAssignedUserUpdateDate();
+}
@@ -0,0 +1,47 @@
+package com.example.demo.security;
+
+import com.example.demo.model.entity.User;
+
+import java.util.function.Supplier;
+
+/**
+ * Pins the authenticated user for the duration of a unit of work, such as a batch request,
+ * so that it is looked up once instead of on every service call.
+ */
+public final class CurrentUserScope {
+
+    private static final ThreadLocal<User> CURRENT_USER = new ThreadLocal<>();
+
+    private CurrentUserScope() {
+    }
+
+    /**
+     * Run an action with the given user pinned as the current user.
+     *
+     * @param user the authenticated user
+     * @param action the action to run
+     * @return the result of the action
+     */
+    public static <T> T callAs(User user, Supplier<T> action) {
+        User previous = CURRENT_USER.get();
+        CURRENT_USER.set(user);
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                CURRENT_USER.set(previous);
+            } else {
+                CURRENT_USER.remove();
+            }
+        }
+    }
+
+    /**
+     * Get the pinned user.
+     *
+     * @return the pinned user, or null outside of a pinned scope
+     */
+    public static User get() {
+        return CURRENT_USER.get();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.changelog.ChangeLogPageDto;
+
+import java.time.Duration;
+
+/**
+ * Service interface for replaying the change log.
+ */
+public interface ChangeLogService {
+
+    /**
+     * Read records from the change log in order. Offsets before the start of the log, which have been deleted
+     * by retention, are read from the start instead.
+     *
+     * @param offset the offset of the first record to read, or null to read from the start of the log
+     * @param limit the maximum number of records to read
+     * @param wait how long to wait for new records when none are available from the offset
+     * @return the records read and the offset to continue from
+     */
+    ChangeLogPageDto getChanges(Long offset, int limit, Duration wait);
+}
@@ -0,0 +1,44 @@
+package com.example.demo.service;
+
+import com.example.demo.model.enums.OutboxEventType;
+import com.example.demo.repository.projection.TaskDueDate;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service interface for reading task due dates and recording due date events, on the current shard.
+ */
+public interface DueDateService {
+
+    /**
+     * Get a page of the open tasks due in a range of dates, read by key in due date and ID order.
+     *
+     * @param from the first due date of the range
+     * @param to the due date the range ends before
+     * @param after the last task of the previous page, or null for the first page
+     * @param limit the maximum number of tasks to return
+     * @return the IDs and due dates of the tasks
+     */
+    List<TaskDueDate> getOpenTasksDueBetween(LocalDate from, LocalDate to, TaskDueDate after, int limit);
+
+    /**
+     * Get the due dates of the given tasks that are still open and have one.
+     *
+     * @param ids the IDs of the tasks
+     * @return the IDs and due dates of the tasks found
+     */
+    List<TaskDueDate> getOpenTaskDueDates(Collection<Long> ids);
+
+    /**
+     * Record a due date event in the outbox for each task that is still open and still due on the date its timer
+     * was scheduled for. Tasks closed, rescheduled or deleted since are skipped.
+     *
+     * @param type {@link OutboxEventType#TASK_DUE_SOON} or {@link OutboxEventType#TASK_OVERDUE}
+     * @param dueDates the due date each task's timer was scheduled for, by task ID
+     * @return the number of events recorded
+     */
+    int recordDueEvents(OutboxEventType type, Map<Long, LocalDate> dueDates);
+}
@@ -0,0 +1,39 @@
+package com.example.demo.service;
+
+import java.util.function.Supplier;
+
+/**
+ * Service interface for running create requests at most once per idempotency key.
+ */
+public interface IdempotencyService {
+
+    /**
+     * Request header carrying the idempotency key.
+     */
+    String KEY_HEADER = "Idempotency-Key";
+
+    /**
+     * Run a request once for its idempotency key and return the response of that run to every replay of it.
+     * Keys are scoped to the operation and the current user. A replay arriving while the first run is in progress
+     * waits for it instead of running in parallel. A failed run releases the key, so that the request can be retried.
+     *
+     * @param key the idempotency key sent with the request, or null to run it without deduplication
+     * @param operation names the endpoint the key is used on
+     * @param request the request body, which replays must repeat
+     * @param responseType the type of the response, used to read stored responses back
+     * @param action runs the request
+     * @param <T> the type of the response
+     * @return the response of the request, or of its first run for a replay
+     * @throws IllegalArgumentException if the key is blank or too long, or was used with a different request
+     * @throws com.example.demo.exception.ConflictException if the first run is still in progress on another instance
+     *         after the wait timeout
+     */
+    <T> T execute(String key, String operation, Object request, Class<T> responseType, Supplier<T> action);
+
+    /**
+     * Delete the keys older than the retention period, after which they may be reused.
+     *
+     * @return the number of keys deleted
+     */
+    int deleteExpiredKeys();
+}
@@ -0,0 +1,40 @@
+package com.example.demo.service;
+
+/**
+ * Service interface for electing the single instance that runs each background job, through leases stored on
+ * shard 0, and for keeping the checkpoints of jobs processed in chunks.
+ */
+public interface JobLeaseService {
+
+    /**
+     * Check whether this instance holds the lease of a job. The lease is taken if it is free or expired, and renewed
+     * once a third of it has passed. Until then the answer is given without a query.
+     *
+     * @param job the name of the job
+     * @return true if this instance may run the job
+     */
+    boolean holdLease(String job);
+
+    /**
+     * Get the checkpoint the last run of a job stored before it stopped, possibly on another instance.
+     *
+     * @param job the name of the job
+     * @return the checkpoint, or null if the last run finished
+     */
+    String getCheckpoint(String job);
+
+    /**
+     * Store the checkpoint of a job and renew its lease.
+     *
+     * @param job the name of the job
+     * @param checkpoint the checkpoint to resume from, or null if the run finished
+     * @return true if the checkpoint was stored, false if the lease was lost meanwhile
+     */
+    boolean saveCheckpoint(String job, String checkpoint);
+
+    /**
+     * Release the leases held by this instance, so that other instances take over its jobs without waiting for the
+     * leases to expire.
+     */
+    void releaseLeases();
+}
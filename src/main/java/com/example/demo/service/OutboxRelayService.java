@@ -0,0 +1,16 @@
+package com.example.demo.service;
+
+/**
+ * Service interface for relaying events recorded in the outbox to the outbox sinks.
+ */
+public interface OutboxRelayService {
+
+    /**
+     * Claim the oldest batch of events on the current shard, deliver it to every sink and delete it,
+     * in a single transaction. Events claimed by a concurrent relay are skipped.
+     *
+     * @param limit the maximum number of events to relay
+     * @return the number of events relayed, less than the limit once the outbox is drained
+     */
+    int relayEvents(int limit);
+}
@@ -1,8 +1,12 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.BatchResponseDto;
+import com.example.demo.dto.FieldSelection;
 import com.example.demo.dto.project.ProjectRequestDto;
 import com.example.demo.dto.project.ProjectResponseDto;
+import com.example.demo.dto.project.ProjectSummaryDto;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -20,6 +24,16 @@ public interface ProjectService {
      */
     List<ProjectResponseDto> getAllProjects();
 
+    /**
+     * Get all projects, returning only the selected fields.
+     * Access is restricted based on user role, as for getAllProjects.
+     * Only the columns and associations in the selection are loaded.
+     *
+     * @param selection the fields and associations to return
+     * @return a list of projects containing the selected fields
+     */
+    List<ProjectResponseDto> getAllProjects(FieldSelection selection);
+
     /**
      * Get a project by ID.
      * Access is restricted based on user role.
@@ -29,6 +43,26 @@ public interface ProjectService {
      */
     ProjectResponseDto getProjectById(Long id);
 
+    /**
+     * Get several projects by ID in one lookup.
+     * Access is checked for each project as for getProjectById.
+     *
+     * @param ids the IDs of the projects to get
+     * @return the accessible projects and the IDs that are forbidden or missing
+     * @throws IllegalArgumentException if more IDs than allowed are requested
+     */
+    BatchResponseDto<ProjectResponseDto> getProjectsByIds(List<Long> ids);
+
+    /**
+     * Get the version of a project, used to answer conditional requests.
+     * The version covers the project and its embedded owner, and changes whenever either of them is updated.
+     * Access is restricted based on user role, but the project itself is not loaded.
+     *
+     * @param id the ID of the project
+     * @return the current version of the project
+     */
+    String getProjectVersion(Long id);
+
     /**
      * Create a new project.
      * Only accessible to managers and admins.
@@ -74,4 +108,32 @@ public interface ProjectService {
      * @return true if the current user has access, false otherwise
      */
     boolean hasProjectAccess(Long projectId);
-}
\ No newline at end of file
+
+    /**
+     * Get all projects, with owners referenced by id.
+     * Access is restricted based on user role, as for getAllProjects.
+     *
+     * @return a list of project summaries
+     */
+    List<ProjectSummaryDto> getProjectSummaries();
+
+    /**
+     * Get a project by ID, with the owner referenced by id.
+     * Access is restricted based on user role, as for getProjectById.
+     *
+     * @param id the ID of the project to get
+     * @return the project summary
+     * @throws com.example.demo.exception.ResourceNotFoundException if the project is not found
+     * @throws com.example.demo.exception.AccessDeniedException if the user doesn't have access to the project
+     */
+    ProjectSummaryDto getProjectSummaryById(Long id);
+
+    /**
+     * Get the projects referenced by resources the current user has already been granted access to,
+     * such as the projects of accessible tasks. No further access check is made.
+     *
+     * @param ids the IDs of the projects
+     * @return the project summaries found, in no particular order
+     */
+    List<ProjectSummaryDto> getReferencedProjects(Collection<Long> ids);
+}
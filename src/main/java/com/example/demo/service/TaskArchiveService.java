@@ -0,0 +1,19 @@
+package com.example.demo.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Service interface for moving completed tasks out of the tasks table into the archive.
+ */
+public interface TaskArchiveService {
+
+    /**
+     * Move one batch of DONE tasks last updated before a point in time into the archive, in a single transaction.
+     * Archived tasks keep their IDs and are still returned by task lists filtered on the DONE status.
+     *
+     * @param completedBefore only tasks last updated before this time are archived
+     * @param limit the maximum number of tasks to archive
+     * @return the number of tasks archived, less than the limit once no more tasks are due
+     */
+    int archiveCompletedTasks(LocalDateTime completedBefore, int limit);
+}
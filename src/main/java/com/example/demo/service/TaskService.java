@@ -1,19 +1,28 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.BatchResponseDto;
+import com.example.demo.dto.FieldSelection;
+import com.example.demo.dto.task.TaskAuditDto;
+import com.example.demo.dto.task.TaskListResponseDto;
 import com.example.demo.dto.task.TaskRequestDto;
 import com.example.demo.dto.task.TaskResponseDto;
+import com.example.demo.dto.task.TaskSummaryDto;
 import com.example.demo.model.enums.Priority;
 import com.example.demo.model.enums.TaskStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Service interface for managing tasks.
  */
 public interface TaskService {
 
     /**
-     * Get a task by ID.
+     * Get a task by ID, active or archived.
      * Access is restricted based on user role.
      *
      * @param id the ID of the task to get
@@ -21,6 +30,36 @@ public interface TaskService {
      */
     TaskResponseDto getTaskById(Long id);
 
+    /**
+     * Get several tasks by ID in one lookup.
+     * Access is checked for each task as for getTaskById.
+     *
+     * @param ids the IDs of the tasks to get
+     * @return the accessible tasks and the IDs that are forbidden or missing
+     * @throws IllegalArgumentException if more IDs than allowed are requested
+     */
+    BatchResponseDto<TaskResponseDto> getTasksByIds(List<Long> ids);
+
+    /**
+     * Get the version of a task, used to answer conditional requests.
+     * The version covers the task and its embedded project, project owner and assigned user, and changes whenever
+     * any of them is updated.
+     * Access is restricted based on user role, but the task itself is not loaded. Archived tasks are versioned too.
+     *
+     * @param id the ID of the task
+     * @return the current version of the task
+     */
+    String getTaskVersion(Long id);
+
+    /**
+     * Get the version of the task lists visible to the current user, used to answer conditional requests.
+     * The version covers the tasks in the user's scope, all tasks for admins, the tasks of owned projects for managers
+     * and assigned tasks for users, and the projects and users they embed.
+     *
+     * @return the current version of the task lists of the current user
+     */
+    String getTaskListVersion();
+
     /**
      * Create a new task.
      * Only accessible to project owners or admins.
@@ -32,7 +71,7 @@ public interface TaskService {
 
     /**
      * Update an existing task.
-     * Access is restricted based on user role.
+     * Access is restricted based on user role. Archived tasks are read-only and cannot be updated.
      *
      * @param id the ID of the task to update
      * @param requestDto the new task data
@@ -45,6 +84,7 @@ public interface TaskService {
      * Regular users can only update status of tasks assigned to them.
      * Managers can update status of tasks in their projects.
      * Admins can update any task.
+     * Archived tasks are read-only and cannot be updated.
      *
      * @param id the ID of the task to update
      * @param status the new status
@@ -53,7 +93,7 @@ public interface TaskService {
     TaskResponseDto updateTaskStatus(Long id, TaskStatus status);
 
     /**
-     * Delete a task.
+     * Delete a task, or remove an archived task from the archive.
      * Only accessible to project owners or admins.
      *
      * @param id the ID of the task to delete
@@ -73,6 +113,7 @@ public interface TaskService {
      * Admins have access to all tasks.
      * Managers have access to tasks in their own projects.
      * Users have access to their own assigned tasks.
+     * The same rules apply to archived tasks.
      *
      * @param taskId the ID of the task to check
      * @return true if the current user has access, false otherwise
@@ -140,4 +181,131 @@ public interface TaskService {
      * @return a page of tasks with the specified status and priority
      */
     Page<TaskResponseDto> getTasksByStatusAndPriority(TaskStatus status, Priority priority, Pageable pageable);
+
+    /**
+     * Get tasks with optional status and priority filters, returning only the selected fields.
+     * Access is restricted based on user role, as for getAllTasks.
+     * Only the columns and associations in the selection are loaded.
+     *
+     * @param status the status to filter by, or null for any status
+     * @param priority the priority to filter by, or null for any priority
+     * @param selection the fields and associations to return
+     * @param pageable the pagination information
+     * @return a page of tasks containing the selected fields
+     */
+    Page<TaskResponseDto> getTasks(TaskStatus status, Priority priority, FieldSelection selection, Pageable pageable);
+
+    /**
+     * Get all tasks in a specific project with pagination, returning only the selected fields.
+     * Access is restricted based on user role.
+     * Only the columns and associations in the selection are loaded.
+     *
+     * @param projectId the ID of the project to get tasks for
+     * @param selection the fields and associations to return
+     * @param pageable the pagination information
+     * @return a page of tasks in the project containing the selected fields
+     */
+    Page<TaskResponseDto> getTasksByProjectId(Long projectId, FieldSelection selection, Pageable pageable);
+
+    /**
+     * Get all tasks assigned to a specific user with pagination, returning only the selected fields.
+     * Access is restricted based on user role.
+     * Only the columns and associations in the selection are loaded.
+     *
+     * @param userId the ID of the user to get tasks for
+     * @param selection the fields and associations to return
+     * @param pageable the pagination information
+     * @return a page of tasks assigned to the user containing the selected fields
+     */
+    Page<TaskResponseDto> getTasksByAssignedUserId(Long userId, FieldSelection selection, Pageable pageable);
+
+    /**
+     * Get tasks with optional status and priority filters as a normalized page.
+     * Access is restricted based on user role, as for getAllTasks.
+     * Tasks reference their project and assigned user by id, each referenced project and user is included once.
+     *
+     * @param status the status to filter by, or null for any status
+     * @param priority the priority to filter by, or null for any priority
+     * @param pageable the pagination information
+     * @return a normalized page of tasks
+     */
+    TaskListResponseDto getTasksNormalized(TaskStatus status, Priority priority, Pageable pageable);
+
+    /**
+     * Get all tasks in a specific project as a normalized page.
+     * Access is restricted based on user role.
+     *
+     * @param projectId the ID of the project to get tasks for
+     * @param pageable the pagination information
+     * @return a normalized page of tasks in the project
+     */
+    TaskListResponseDto getTasksByProjectIdNormalized(Long projectId, Pageable pageable);
+
+    /**
+     * Get all tasks assigned to a specific user as a normalized page.
+     * Access is restricted based on user role.
+     *
+     * @param userId the ID of the user to get tasks for
+     * @param pageable the pagination information
+     * @return a normalized page of tasks assigned to the user
+     */
+    TaskListResponseDto getTasksByAssignedUserIdNormalized(Long userId, Pageable pageable);
+
+    /**
+     * Get a task by ID, with the project and assigned user referenced by id.
+     * Access is restricted based on user role, as for getTaskById.
+     *
+     * @param id the ID of the task to get
+     * @return the task summary
+     * @throws com.example.demo.exception.ResourceNotFoundException if the task is not found
+     * @throws com.example.demo.exception.AccessDeniedException if the user doesn't have access to the task
+     */
+    TaskSummaryDto getTaskSummaryById(Long id);
+
+    /**
+     * Get the history of field changes of a task, newest first by default.
+     * Access is restricted as for getTaskById; admins can also read the history of archived and deleted tasks.
+     * Changes are written shortly after they commit, so the latest change may not be listed yet.
+     *
+     * @param id the ID of the task
+     * @param pageable the pagination information
+     * @return a page of field changes
+     * @throws com.example.demo.exception.ResourceNotFoundException if the task is not found
+     * @throws com.example.demo.exception.AccessDeniedException if the user doesn't have access to the task
+     */
+    Page<TaskAuditDto> getTaskHistory(Long id, Pageable pageable);
+
+    /**
+     * Get tasks with optional status and priority filters, with projects and assigned users referenced by id.
+     * Access is restricted based on user role, as for getAllTasks.
+     *
+     * @param status the status to filter by, or null for any status
+     * @param priority the priority to filter by, or null for any priority
+     * @param pageable the pagination information
+     * @return a page of task summaries
+     */
+    Page<TaskSummaryDto> getTaskSummaries(TaskStatus status, Priority priority, Pageable pageable);
+
+    /**
+     * Get the next tasks by ID with optional status and priority filters, for scanning large task lists.
+     * Tasks are paged by key rather than offset and no total is counted, so every call costs the same.
+     * Access is restricted based on user role, as for getAllTasks.
+     *
+     * @param status the status to filter by, or null for any status
+     * @param priority the priority to filter by, or null for any priority
+     * @param afterId the ID of the last task already returned, or null to start from the first task
+     * @param limit the maximum number of tasks to return
+     * @return the tasks, ordered by ID
+     */
+    List<TaskResponseDto> scanTasks(TaskStatus status, Priority priority, Long afterId, int limit);
+
+    /**
+     * Get the first tasks, by ID, of several projects in one query.
+     * Projects the current user has no access to get no tasks.
+     *
+     * @param projectIds the IDs of the projects
+     * @param limit the maximum number of tasks per project
+     * @return the task summaries of each accessible project that has tasks
+     */
+    Map<Long, List<TaskSummaryDto>> getTaskSummariesByProjectIds(Collection<Long> projectIds, int limit);
 }
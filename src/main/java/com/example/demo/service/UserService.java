@@ -1,9 +1,11 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.BatchResponseDto;
 import com.example.demo.dto.user.UserRequestDto;
 import com.example.demo.dto.user.UserResponseDto;
 import com.example.demo.model.entity.User;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -26,6 +28,24 @@ public interface UserService {
      */
     UserResponseDto getUserById(Long id);
 
+    /**
+     * Get several users by ID in one lookup.
+     *
+     * @param ids the IDs of the users to get
+     * @return the users found and the IDs that are missing
+     * @throws IllegalArgumentException if more IDs than allowed are requested
+     */
+    BatchResponseDto<UserResponseDto> getUsersByIds(List<Long> ids);
+
+    /**
+     * Get the users referenced by resources the current user has already been granted access to,
+     * such as project owners and task assignees. No further access check is made.
+     *
+     * @param ids the IDs of the users
+     * @return the users found, in no particular order
+     */
+    List<UserResponseDto> getReferencedUsers(Collection<Long> ids);
+
     /**
      * Create a new user.
      *
@@ -0,0 +1,59 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.webhook.WebhookSubscriptionRequestDto;
+import com.example.demo.dto.webhook.WebhookSubscriptionResponseDto;
+import com.example.demo.model.entity.OutboxEvent;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Service interface for webhook subscriptions and the delivery of task changes to them.
+ */
+public interface WebhookService {
+
+    /**
+     * Subscribe an endpoint to the task changes of a project. Only the project owner or an admin may subscribe.
+     *
+     * @param projectId the ID of the project
+     * @param requestDto the endpoint to call
+     * @return the subscription, with the secret signing its callbacks
+     * @throws IllegalArgumentException if the URL resolves to an internal address that is not allowed
+     */
+    WebhookSubscriptionResponseDto createSubscription(Long projectId, WebhookSubscriptionRequestDto requestDto);
+
+    /**
+     * List the subscriptions of a project. Only the project owner or an admin may list them.
+     *
+     * @param projectId the ID of the project
+     * @return the subscriptions, without their secrets
+     */
+    List<WebhookSubscriptionResponseDto> getSubscriptions(Long projectId);
+
+    /**
+     * Delete a subscription with its pending deliveries. Only the project owner or an admin may delete it.
+     *
+     * @param projectId the ID of the project
+     * @param id the ID of the subscription
+     */
+    void deleteSubscription(Long projectId, Long id);
+
+    /**
+     * Queue deliveries of relayed task events to the subscriptions of their projects, in the transaction of the
+     * outbox relay on the current shard. A change to a task replaces a delivery of the same task that is still
+     * waiting to be sent.
+     *
+     * @param events the relayed events
+     */
+    void enqueueDeliveries(List<OutboxEvent> events);
+
+    /**
+     * Claim the deliveries due on the current shard and send them without waiting for the responses.
+     * Successful deliveries are deleted. Failed ones are retried with exponential backoff and moved to the dead
+     * letters after the last attempt.
+     *
+     * @param limit the maximum number of deliveries to claim
+     * @return completes once the results of all claimed deliveries are recorded
+     */
+    CompletableFuture<Void> dispatchDueDeliveries(int limit);
+}
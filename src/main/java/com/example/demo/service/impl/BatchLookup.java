@@ -0,0 +1,76 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.dto.BatchResponseDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Loads resources for multi-get requests and sorts the requested ids into found, forbidden and missing.
+ * The whole set is loaded with a single query and access is checked in memory, in the order the ids were requested.
+ */
+@Component
+public class BatchLookup {
+
+    private final int maxIds;
+
+    public BatchLookup(@Value("${app.batch.max-ids}") int maxIds) {
+        this.maxIds = maxIds;
+    }
+
+    /**
+     * Look up resources by id.
+     *
+     * @param ids the requested ids, duplicates are ignored
+     * @param loader loads the entities for a set of ids with one query
+     * @param idOf extracts the id of an entity
+     * @param accessCheck given all loaded entities, returns whether the current user may read each of them
+     * @param mapper converts an entity to its response DTO
+     * @return the found, forbidden and missing ids
+     * @throws IllegalArgumentException if more ids than allowed are requested
+     */
+    public <E, T> BatchResponseDto<T> lookup(Collection<Long> ids,
+                                             Function<Set<Long>, List<E>> loader,
+                                             Function<E, Long> idOf,
+                                             Function<List<E>, Predicate<E>> accessCheck,
+                                             Function<E, T> mapper) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        if (requested.size() > maxIds) {
+            throw new IllegalArgumentException("At most " + maxIds + " ids can be requested at once");
+        }
+
+        List<E> entities = requested.isEmpty() ? List.of() : loader.apply(requested);
+        Map<Long, E> loaded = entities.stream().collect(Collectors.toMap(idOf, Function.identity()));
+        Predicate<E> accessible = accessCheck.apply(entities);
+
+        List<T> found = new ArrayList<>();
+        List<Long> forbidden = new ArrayList<>();
+        List<Long> missing = new ArrayList<>();
+
+        for (Long id : requested) {
+            E entity = loaded.get(id);
+            if (entity == null) {
+                missing.add(id);
+            } else if (!accessible.test(entity)) {
+                forbidden.add(id);
+            } else {
+                found.add(mapper.apply(entity));
+            }
+        }
+
+        return BatchResponseDto.<T>builder()
+                .found(found)
+                .forbidden(forbidden)
+                .missing(missing)
+                .build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.changelog.ChangeLog;
+import com.example.demo.changelog.ChangeLogRecord;
+import com.example.demo.dto.changelog.ChangeLogPageDto;
+import com.example.demo.service.ChangeLogService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@ConditionalOnProperty(name = "app.change-log.enabled", havingValue = "true", matchIfMissing = true)
+public class ChangeLogServiceImpl implements ChangeLogService {
+
+    private final ChangeLog changeLog;
+    private final int maxPageSize;
+    private final Duration maxWait;
+
+    public ChangeLogServiceImpl(ChangeLog changeLog,
+                                @Value("${app.change-log.max-page-size}") int maxPageSize,
+                                @Value("${app.change-log.max-wait}") Duration maxWait) {
+        this.changeLog = changeLog;
+        this.maxPageSize = maxPageSize;
+        this.maxWait = maxWait;
+    }
+
+    @Override
+    public ChangeLogPageDto getChanges(Long offset, int limit, Duration wait) {
+        if (limit < 1 || limit > maxPageSize) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxPageSize);
+        }
+        if (wait.isNegative() || wait.compareTo(maxWait) > 0) {
+            throw new IllegalArgumentException("Wait must be at most " + maxWait);
+        }
+        long startOffset = changeLog.getStartOffset();
+        long next = offset == null ? startOffset : Math.max(offset, startOffset);
+        if (next > changeLog.getEndOffset()) {
+            throw new IllegalArgumentException("Offset " + offset + " is beyond the end of the change log");
+        }
+
+        if (!wait.isZero()) {
+            try {
+                changeLog.awaitRecords(next, wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        List<ChangeLogRecord> records = new ArrayList<>();
+        while (records.size() < limit) {
+            ByteBuffer chunk = changeLog.read(next, limit - records.size());
+            if (!chunk.hasRemaining()) {
+                break;
+            }
+            for (int position = 0; position < chunk.limit(); position += ChangeLogRecord.SIZE) {
+                records.add(ChangeLogRecord.read(chunk, position, next++));
+            }
+        }
+
+        return ChangeLogPageDto.builder()
+                .startOffset(startOffset)
+                .nextOffset(next)
+                .records(records)
+                .build();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.dto.FieldSelection;
+import com.example.demo.mapper.TaskMapper;
+import com.example.demo.model.entity.Task;
+import com.example.demo.model.enums.OutboxEventType;
+import com.example.demo.model.enums.TaskStatus;
+import com.example.demo.outbox.OutboxWriter;
+import com.example.demo.repository.TaskCriteria;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.repository.projection.TaskDueDate;
+import com.example.demo.service.DueDateService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class DueDateServiceImpl implements DueDateService {
+
+    private final TaskRepository taskRepository;
+    private final TaskMapper taskMapper;
+    private final OutboxWriter outboxWriter;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskDueDate> getOpenTasksDueBetween(LocalDate from, LocalDate to, TaskDueDate after, int limit) {
+        LocalDate afterDueDate = after != null ? after.getDueDate() : from.minusDays(1);
+        Long afterId = after != null ? after.getId() : 0L;
+        return taskRepository.findDueBetween(TaskStatus.DONE, from, to, afterDueDate, afterId, Limit.of(limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskDueDate> getOpenTaskDueDates(Collection<Long> ids) {
+        return taskRepository.findDueDatesByIdIn(ids, TaskStatus.DONE);
+    }
+
+    @Override
+    @Transactional
+    public int recordDueEvents(OutboxEventType type, Map<Long, LocalDate> dueDates) {
+        if (type != OutboxEventType.TASK_DUE_SOON && type != OutboxEventType.TASK_OVERDUE) {
+            throw new IllegalArgumentException("Not a due date event: " + type);
+        }
+
+        List<Task> tasks = taskRepository.findSelected(TaskCriteria.builder().ids(dueDates.keySet()).build(),
+                FieldSelection.ALL, dueDates.size());
+        int recorded = 0;
+        for (Task task : tasks) {
+            if (task.getStatus() != TaskStatus.DONE && dueDates.get(task.getId()).equals(task.getDueDate())) {
+                outboxWriter.record(type, task.getId(), taskMapper.toSummaryDto(task));
+                recorded++;
+            }
+        }
+        return recorded;
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.cache.AfterCommit;
+import com.example.demo.exception.ConflictException;
+import com.example.demo.model.entity.IdempotencyKey;
+import com.example.demo.repository.IdempotencyKeyRepository;
+import com.example.demo.service.IdempotencyService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Keys are claimed in the database before the request runs, so a replay sent to another instance finds the claim
+ * and waits for the response. Replays on the same instance join the running request in memory, and completed keys
+ * are kept in a bounded LRU map so that repeated replays are answered without a query. A claim held longer than
+ * {@code app.idempotency.lease} is taken to be abandoned by a crashed instance and may be taken over.
+ */
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyServiceImpl.class);
+
+    static final int MAX_KEY_LENGTH = 255;
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration lease;
+    private final Duration waitTimeout;
+
+    private final Map<String, IdempotencyKey> completed;
+    private final Map<String, CompletableFuture<IdempotencyKey>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter joined;
+
+    public IdempotencyServiceImpl(IdempotencyKeyRepository idempotencyKeyRepository, ObjectMapper objectMapper,
+                                  @Value("${app.idempotency.ttl}") Duration ttl,
+                                  @Value("${app.idempotency.lease}") Duration lease,
+                                  @Value("${app.idempotency.wait-timeout}") Duration waitTimeout,
+                                  @Value("${app.idempotency.cache-size}") int cacheSize,
+                                  MeterRegistry meterRegistry) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.lease = lease;
+        this.waitTimeout = waitTimeout;
+        this.completed = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IdempotencyKey> eldest) {
+                return size() > cacheSize;
+            }
+        });
+        this.executed = Counter.builder("idempotency.requests").tag("result", "executed").register(meterRegistry);
+        this.replayed = Counter.builder("idempotency.requests").tag("result", "replayed").register(meterRegistry);
+        this.joined = Counter.builder("idempotency.requests").tag("result", "joined").register(meterRegistry);
+    }
+
+    @Override
+    public <T> T execute(String key, String operation, Object request, Class<T> responseType, Supplier<T> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String id = hash(operation + '\n' + currentPrincipal() + '\n' + key);
+        String requestHash = hash(serialize(request));
+
+        IdempotencyKey stored = completed.get(id);
+        if (stored != null && !isExpired(stored, LocalDateTime.now())) {
+            replayed.increment();
+            return replay(stored, requestHash, responseType);
+        }
+
+        CompletableFuture<IdempotencyKey> call = new CompletableFuture<>();
+        CompletableFuture<IdempotencyKey> running = inFlight.putIfAbsent(id, call);
+        if (running != null) {
+            joined.increment();
+            return replay(await(running), requestHash, responseType);
+        }
+
+        try {
+            return executeOnce(id, requestHash, responseType, action, call);
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, call);
+        }
+    }
+
+    @Override
+    public int deleteExpiredKeys() {
+        return idempotencyKeyRepository.deleteAllCreatedBefore(LocalDateTime.now().minus(ttl));
+    }
+
+    private <T> T executeOnce(String id, String requestHash, Class<T> responseType, Supplier<T> action,
+                              CompletableFuture<IdempotencyKey> call) {
+        IdempotencyKey claimed = claim(id, requestHash);
+        if (claimed.isCompleted()) {
+            completed.put(id, claimed);
+            call.complete(claimed);
+            replayed.increment();
+            return replay(claimed, requestHash, responseType);
+        }
+
+        T result;
+        try {
+            result = action.get();
+        } catch (RuntimeException | Error e) {
+            try {
+                idempotencyKeyRepository.deletePending(id);
+            } catch (RuntimeException releaseFailure) {
+                e.addSuppressed(releaseFailure);
+            }
+            throw e;
+        }
+        executed.increment();
+
+        String response = serialize(result);
+        IdempotencyKey stored = IdempotencyKey.builder()
+                .id(id)
+                .requestHash(requestHash)
+                .response(response)
+                .createDate(claimed.getCreateDate())
+                .build();
+        boolean recorded = idempotencyKeyRepository.complete(id, response) > 0;
+        if (!recorded) {
+            logger.warn("Idempotency key claim was taken over before its request completed, response not stored");
+        }
+        // Inside a surrounding transaction, such as a transactional batch, the response only counts once committed
+        AfterCommit.run(() -> {
+            if (recorded) {
+                completed.put(id, stored);
+            }
+            call.complete(stored);
+        }, () -> call.completeExceptionally(
+                new ConflictException("The request with this Idempotency-Key was rolled back, send it again")));
+        return result;
+    }
+
+    /**
+     * Claim the key, or find its stored response. A claim held by another instance is waited for until it
+     * completes, is released or times out.
+     *
+     * @return the pending claim made, or the completed key found
+     */
+    private IdempotencyKey claim(String id, String requestHash) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            Optional<IdempotencyKey> found = idempotencyKeyRepository.findById(id);
+            if (found.isEmpty()) {
+                try {
+                    idempotencyKeyRepository.insertPending(id, requestHash, now);
+                    return IdempotencyKey.builder().id(id).requestHash(requestHash).createDate(now).build();
+                } catch (DataIntegrityViolationException e) {
+                    // Claimed by another instance since the lookup
+                    continue;
+                }
+            }
+
+            IdempotencyKey existing = found.get();
+            LocalDateTime staleBefore = now.minus(existing.isCompleted() ? ttl : lease);
+            if (existing.getCreateDate().isBefore(staleBefore)) {
+                idempotencyKeyRepository.deleteIfCreatedBefore(id, staleBefore);
+                continue;
+            }
+            if (existing.isCompleted()) {
+                return existing;
+            }
+
+            if (System.nanoTime() >= deadline) {
+                throw new ConflictException("A request with this Idempotency-Key is still being processed");
+            }
+            pause();
+        }
+    }
+
+    private <T> T replay(IdempotencyKey stored, String requestHash, Class<T> responseType) {
+        if (!stored.getRequestHash().equals(requestHash)) {
+            throw new IllegalArgumentException("Idempotency-Key was already used with a different request");
+        }
+        try {
+            return objectMapper.readValue(stored.getResponse(), responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read stored idempotent response", e);
+        }
+    }
+
+    private boolean isExpired(IdempotencyKey key, LocalDateTime now) {
+        return key.getCreateDate().isBefore(now.minus(ttl));
+    }
+
+    private String serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize idempotent request", e);
+        }
+    }
+
+    private static String currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "";
+    }
+
+    private static String hash(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an idempotent request", e);
+        }
+    }
+
+    private static IdempotencyKey await(CompletableFuture<IdempotencyKey> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
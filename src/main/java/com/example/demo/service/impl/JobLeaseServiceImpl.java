@@ -0,0 +1,132 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.model.entity.JobLease;
+import com.example.demo.repository.JobLeaseRepository;
+import com.example.demo.service.JobLeaseService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Each lease is a row of {@code job_leases} naming the instance holding it until a given time. An instance takes a
+ * lease that is free or has expired with a single conditional update, so at most one instance holds it at a time.
+ * The holder renews the lease once a third of {@code app.jobs.lease} has passed, and stops running the job if the
+ * renewal fails, well before the lease expires. Instances must keep their clocks in sync to well within the lease.
+ * Leases held by an instance that is shut down are released, and those of a crashed instance expire.
+ */
+@Service
+public class JobLeaseServiceImpl implements JobLeaseService {
+    private static final Logger logger = LoggerFactory.getLogger(JobLeaseServiceImpl.class);
+
+    private final JobLeaseRepository jobLeaseRepository;
+    private final Duration lease;
+    private final String owner;
+
+    // When each lease held by this instance is due for renewal, in System.nanoTime()
+    private final Map<String, Long> renewAt = new ConcurrentHashMap<>();
+
+    public JobLeaseServiceImpl(JobLeaseRepository jobLeaseRepository,
+                               @Value("${app.jobs.lease}") Duration lease,
+                               MeterRegistry meterRegistry) {
+        this.jobLeaseRepository = jobLeaseRepository;
+        this.lease = lease;
+        this.owner = hostName() + "/" + UUID.randomUUID();
+        Gauge.builder("jobs.leases", renewAt, Map::size)
+                .description("Job leases held by this instance")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean holdLease(String job) {
+        long started = System.nanoTime();
+        Long renewal = renewAt.get(job);
+        if (renewal != null && started - renewal < 0) {
+            return true;
+        }
+
+        boolean held;
+        try {
+            held = take(job);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to renew the lease of job {}", job, e);
+            held = false;
+        }
+        if (held) {
+            renewAt.put(job, started + lease.toNanos() / 3);
+            if (renewal == null) {
+                logger.info("Took the lease of job {}", job);
+            }
+        } else if (renewAt.remove(job) != null) {
+            logger.info("Lost the lease of job {}", job);
+        }
+        return held;
+    }
+
+    private boolean take(String job) {
+        LocalDateTime now = LocalDateTime.now();
+        if (jobLeaseRepository.take(job, owner, now, now.plus(lease)) > 0) {
+            return true;
+        }
+        if (jobLeaseRepository.existsById(job)) {
+            return false;
+        }
+        try {
+            return jobLeaseRepository.insert(job, owner, now.plus(lease)) > 0;
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created the lease first
+            return false;
+        }
+    }
+
+    @Override
+    public String getCheckpoint(String job) {
+        return jobLeaseRepository.findById(job).map(JobLease::getCheckpoint).orElse(null);
+    }
+
+    @Override
+    public boolean saveCheckpoint(String job, String checkpoint) {
+        long started = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        if (jobLeaseRepository.saveCheckpoint(job, owner, checkpoint, now, now.plus(lease)) > 0) {
+            renewAt.put(job, started + lease.toNanos() / 3);
+            return true;
+        }
+        if (renewAt.remove(job) != null) {
+            logger.info("Lost the lease of job {}", job);
+        }
+        return false;
+    }
+
+    @Override
+    @PreDestroy
+    public void releaseLeases() {
+        renewAt.clear();
+        try {
+            jobLeaseRepository.releaseAll(owner, LocalDateTime.now());
+        } catch (RuntimeException e) {
+            logger.warn("Failed to release job leases, they are taken over when they expire", e);
+        }
+    }
+
+    private static String hostName() {
+        try {
+            String hostName = InetAddress.getLocalHost().getHostName();
+            return hostName.length() > 64 ? hostName.substring(0, 64) : hostName;
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
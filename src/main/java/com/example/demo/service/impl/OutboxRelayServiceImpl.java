@@ -0,0 +1,64 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.model.entity.OutboxEvent;
+import com.example.demo.outbox.OutboxSink;
+import com.example.demo.repository.OutboxEventRepository;
+import com.example.demo.service.OutboxRelayService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+public class OutboxRelayServiceImpl implements OutboxRelayService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxSink> sinks;
+
+    private final Counter relayed;
+    private final Timer lag;
+    private final Timer batches;
+
+    public OutboxRelayServiceImpl(OutboxEventRepository outboxEventRepository, List<OutboxSink> sinks,
+                                  MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sinks = sinks;
+        this.relayed = Counter.builder("outbox.events.relayed").register(meterRegistry);
+        this.lag = Timer.builder("outbox.relay.lag")
+                .description("Time from recording an event to its delivery")
+                .register(meterRegistry);
+        this.batches = Timer.builder("outbox.relay.batches")
+                .description("Time to deliver and delete a batch of events")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Transactional
+    public int relayEvents(int limit) {
+        // The claimed rows stay locked until commit, so no other relay delivers them concurrently
+        List<OutboxEvent> events = outboxEventRepository.findForUpdate(Limit.of(limit));
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        batches.record(() -> {
+            for (OutboxSink sink : sinks) {
+                sink.deliver(events);
+            }
+            outboxEventRepository.deleteAllByIdInBatch(events.stream().map(OutboxEvent::getId).toList());
+        });
+
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxEvent event : events) {
+            lag.record(Duration.between(event.getCreateDate(), now));
+        }
+        relayed.increment(events.size());
+        return events.size();
+    }
+}
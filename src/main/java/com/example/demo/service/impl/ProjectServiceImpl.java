@@ -1,22 +1,38 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.cache.ChangeTracker;
+import com.example.demo.cache.ChangeTracker.ResourceType;
+import com.example.demo.cache.SerializedResponseCache;
+import com.example.demo.dto.BatchResponseDto;
+import com.example.demo.dto.FieldSelection;
 import com.example.demo.dto.project.ProjectRequestDto;
 import com.example.demo.dto.project.ProjectResponseDto;
+import com.example.demo.dto.project.ProjectSummaryDto;
+import com.example.demo.event.ChangeEvent.ChangeType;
+import com.example.demo.event.ChangeEventBus;
 import com.example.demo.exception.AccessDeniedException;
 import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.mapper.ProjectMapper;
 import com.example.demo.model.entity.Project;
 import com.example.demo.model.entity.User;
+import com.example.demo.model.enums.OutboxEventType;
 import com.example.demo.model.enums.Role;
+import com.example.demo.outbox.OutboxWriter;
+import com.example.demo.repository.ArchivedTaskRepository;
 import com.example.demo.repository.ProjectRepository;
 import com.example.demo.repository.TaskRepository;
+import com.example.demo.repository.projection.ProjectVersion;
 import com.example.demo.service.ProjectService;
 import com.example.demo.service.UserService;
+import com.example.demo.shard.ShardRouted;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -28,31 +44,38 @@ public class ProjectServiceImpl implements ProjectService {
 
     private final ProjectRepository projectRepository;
     private final TaskRepository taskRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
     private final ProjectMapper projectMapper;
     private final UserService userService;
+    private final ChangeTracker changeTracker;
+    private final SerializedResponseCache responseCache;
+    private final BatchLookup batchLookup;
+    private final OutboxWriter outboxWriter;
+    private final ChangeEventBus changeEventBus;
 
     @Override
     @Transactional(readOnly = true)
     public List<ProjectResponseDto> getAllProjects() {
-        User currentUser = userService.getCurrentUser();
-        List<Project> projects;
+        return getAllProjects(FieldSelection.ALL);
+    }
 
-        if (currentUser.getRole() == Role.ADMIN) {
-            projects = projectRepository.findAll();
-        } else {
-            projects = projectRepository.findByOwner(currentUser);
-        }
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProjectResponseDto> getAllProjects(FieldSelection selection) {
+        selection.validate(ProjectResponseDto.class);
+        User currentUser = userService.getCurrentUser();
+        Long ownerId = currentUser.getRole() == Role.ADMIN ? null : currentUser.getId();
 
-        return projects.stream()
+        return projectRepository.findSelected(ownerId, selection).stream()
                 .map(projectMapper::toResponseDto)
                 .collect(Collectors.toList());
     }
 
     @Override
+    @ShardRouted("#id")
     @Transactional(readOnly = true)
     public ProjectResponseDto getProjectById(Long id) {
-        Project project = projectRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Project", "id", id));
+        Project project = findProjectById(id, FieldSelection.ALL);
 
         if (!hasProjectAccess(id)) {
             throw new AccessDeniedException("You don't have access to this project");
@@ -62,31 +85,74 @@ public class ProjectServiceImpl implements ProjectService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public BatchResponseDto<ProjectResponseDto> getProjectsByIds(List<Long> ids) {
+        User currentUser = userService.getCurrentUser();
+
+        return batchLookup.lookup(ids,
+                projectIds -> projectRepository.findSelectedByIds(projectIds, FieldSelection.ALL),
+                Project::getId,
+                projects -> projectAccessCheck(currentUser, projects),
+                projectMapper::toResponseDto);
+    }
+
+    @Override
+    @ShardRouted("#id")
+    @Transactional(readOnly = true)
+    public String getProjectVersion(Long id) {
+        ProjectVersion version = projectRepository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Project", "id", id));
+
+        User currentUser = userService.getCurrentUser();
+        boolean hasAccess = currentUser.getRole() == Role.ADMIN
+                || (currentUser.getRole() == Role.MANAGER && currentUser.getId().equals(version.getOwnerId()))
+                || (currentUser.getRole() == Role.USER && isAssignedToProjectTask(currentUser, id));
+
+        if (!hasAccess) {
+            throw new AccessDeniedException("You don't have access to this project");
+        }
+
+        return version.getId() + ":" + version.getUpdateDate() + ":" + version.getOwnerUpdateDate();
+    }
+
+    @Override
+    @ShardRouted
     @Transactional
     public ProjectResponseDto createProject(ProjectRequestDto requestDto) {
         User currentUser = userService.getCurrentUser();
 
         Project project = projectMapper.toEntity(requestDto, currentUser);
         Project savedProject = projectRepository.save(project);
+        outboxWriter.record(OutboxEventType.PROJECT_CREATED, savedProject.getId(),
+                projectMapper.toSummaryDto(savedProject));
+        changeEventBus.publish(ResourceType.PROJECT, ChangeType.CREATED, savedProject.getId());
+        changeTracker.markProjectChanged();
         return projectMapper.toResponseDto(savedProject);
     }
 
     @Override
+    @ShardRouted("#id")
     @Transactional
     public ProjectResponseDto updateProject(Long id, ProjectRequestDto requestDto) {
-        Project project = projectRepository.findById(id)
+        Project project = projectRepository.findWithOwnerById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Project", "id", id));
 
-        if (!userService.isAdmin() && !isProjectOwner(id)) {
+        User currentUser = userService.getCurrentUser();
+        if (currentUser.getRole() != Role.ADMIN && !project.getOwner().getId().equals(currentUser.getId())) {
             throw new AccessDeniedException("You don't have permission to update this project");
         }
 
-        Project updatedProject = projectMapper.updateEntity(project, requestDto);
-        Project savedProject = projectRepository.save(updatedProject);
-        return projectMapper.toResponseDto(savedProject);
+        // The project is managed, so the changes are flushed by dirty checking on commit
+        projectMapper.updateEntity(requestDto, project);
+        outboxWriter.record(OutboxEventType.PROJECT_UPDATED, id, projectMapper.toSummaryDto(project));
+        changeEventBus.publish(ResourceType.PROJECT, ChangeType.UPDATED, id);
+        changeTracker.markProjectChanged();
+        responseCache.evict(ResourceType.PROJECT, id);
+        return projectMapper.toResponseDto(project);
     }
 
     @Override
+    @ShardRouted("#id")
     @Transactional
     public void deleteProject(Long id) {
         Project project = projectRepository.findById(id)
@@ -96,11 +162,22 @@ public class ProjectServiceImpl implements ProjectService {
             throw new AccessDeniedException("You don't have permission to delete this project");
         }
 
-
+        archivedTaskRepository.deleteByProjectId(id);
         projectRepository.delete(project);
+        // One event covers the project and its tasks, which are deleted with it
+        outboxWriter.record(OutboxEventType.PROJECT_DELETED, id, ProjectSummaryDto.builder()
+                .id(id)
+                .ownerId(project.getOwner().getId())
+                .build());
+        changeEventBus.publish(ResourceType.PROJECT, ChangeType.DELETED, id);
+        changeTracker.markProjectChanged();
+        changeTracker.markTaskChanged(id);
+        responseCache.evict(ResourceType.PROJECT, id);
+        responseCache.evictAll(ResourceType.TASK);
     }
 
     @Override
+    @ShardRouted("#projectId")
     public boolean isProjectOwner(Long projectId) {
         User currentUser = userService.getCurrentUser();
         Project project = projectRepository.findById(projectId)
@@ -109,6 +186,7 @@ public class ProjectServiceImpl implements ProjectService {
     }
 
     @Override
+    @ShardRouted("#projectId")
     public boolean hasProjectAccess(Long projectId) {
         User currentUser = userService.getCurrentUser();
 
@@ -121,9 +199,82 @@ public class ProjectServiceImpl implements ProjectService {
         }
 
         if (currentUser.getRole() == Role.USER) {
-            return !taskRepository.findByAssignedUserAndProjectId(currentUser, projectId).isEmpty();
+            return isAssignedToProjectTask(currentUser, projectId);
         }
 
         return false;
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProjectSummaryDto> getProjectSummaries() {
+        User currentUser = userService.getCurrentUser();
+        Long ownerId = currentUser.getRole() == Role.ADMIN ? null : currentUser.getId();
+
+        return projectRepository.findSelected(ownerId, FieldSelection.REFERENCES).stream()
+                .map(projectMapper::toSummaryDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @ShardRouted("#id")
+    @Transactional(readOnly = true)
+    public ProjectSummaryDto getProjectSummaryById(Long id) {
+        Project project = findProjectById(id, FieldSelection.REFERENCES);
+
+        if (!hasProjectAccess(id)) {
+            throw new AccessDeniedException("You don't have access to this project");
+        }
+
+        return projectMapper.toSummaryDto(project);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProjectSummaryDto> getReferencedProjects(Collection<Long> ids) {
+        return projectRepository.findSelectedByIds(ids, FieldSelection.REFERENCES).stream()
+                .map(projectMapper::toSummaryDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Load a project through a column selection, which reads its lazy description in the same query.
+     */
+    private Project findProjectById(Long id, FieldSelection selection) {
+        return projectRepository.findSelectedByIds(List.of(id), selection).stream()
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Project", "id", id));
+    }
+
+    /**
+     * Check whether a user is assigned to an active or archived task of a project, which lets it read the project.
+     */
+    private boolean isAssignedToProjectTask(User user, Long projectId) {
+        return taskRepository.existsByAssignedUserAndProjectId(user, projectId)
+                || archivedTaskRepository.existsByAssignedUserIdAndProjectId(user.getId(), projectId);
+    }
+
+    /**
+     * Build the access check for a set of projects, as hasProjectAccess does for a single one.
+     * Regular users need at most one query to find the projects they have tasks in.
+     */
+    private Predicate<Project> projectAccessCheck(User currentUser, List<Project> projects) {
+        if (currentUser.getRole() == Role.ADMIN) {
+            return project -> true;
+        }
+
+        if (currentUser.getRole() == Role.MANAGER) {
+            return project -> project.getOwner().getId().equals(currentUser.getId());
+        }
+
+        if (projects.isEmpty()) {
+            return project -> false;
+        }
+
+        List<Long> projectIds = projects.stream()
+                .map(Project::getId)
+                .collect(Collectors.toList());
+        Set<Long> assignedProjectIds = taskRepository.findProjectIdsWithTasksAssignedTo(currentUser.getId(), projectIds);
+        return project -> assignedProjectIds.contains(project.getId());
+    }
 }
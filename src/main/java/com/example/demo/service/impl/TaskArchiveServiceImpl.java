@@ -0,0 +1,49 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.cache.ChangeTracker;
+import com.example.demo.cache.ChangeTracker.ResourceType;
+import com.example.demo.cache.SerializedResponseCache;
+import com.example.demo.model.enums.TaskStatus;
+import com.example.demo.repository.ArchivedTaskRepository;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.repository.projection.TaskReference;
+import com.example.demo.service.TaskArchiveService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class TaskArchiveServiceImpl implements TaskArchiveService {
+
+    private final TaskRepository taskRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final ChangeTracker changeTracker;
+    private final SerializedResponseCache responseCache;
+
+    @Override
+    @Transactional
+    public int archiveCompletedTasks(LocalDateTime completedBefore, int limit) {
+        // The selected rows stay locked until commit, so they cannot change between the copy and the delete
+        List<TaskReference> tasks = taskRepository.findForUpdateByStatusAndUpdateDateBefore(
+                TaskStatus.DONE, completedBefore, Limit.of(limit));
+        if (tasks.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = tasks.stream().map(TaskReference::getId).toList();
+        archivedTaskRepository.copyFromTasks(ids);
+        taskRepository.deleteAllByIdInBatch(ids);
+
+        // Archived tasks leave the unfiltered lists and single task reads, but not the lists of DONE tasks
+        for (TaskReference task : tasks) {
+            responseCache.evict(ResourceType.TASK, task.getId());
+            changeTracker.markTaskChanged(task.getProjectId(), task.getAssignedUserId());
+        }
+        return tasks.size();
+    }
+}
@@ -1,22 +1,45 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.audit.TaskAuditTrail;
+import com.example.demo.audit.TaskSnapshot;
+import com.example.demo.cache.ChangeTracker;
+import com.example.demo.cache.ChangeTracker.ResourceType;
+import com.example.demo.cache.SerializedResponseCache;
+import com.example.demo.cache.TaskPageCache;
+import com.example.demo.dto.BatchResponseDto;
+import com.example.demo.dto.FieldSelection;
+import com.example.demo.dto.task.TaskAuditDto;
+import com.example.demo.dto.task.TaskListResponseDto;
 import com.example.demo.dto.task.TaskRequestDto;
 import com.example.demo.dto.task.TaskResponseDto;
+import com.example.demo.dto.task.TaskSummaryDto;
+import com.example.demo.event.ChangeEvent.ChangeType;
+import com.example.demo.event.ChangeEventBus;
 import com.example.demo.exception.AccessDeniedException;
+import com.example.demo.exception.ConflictException;
 import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.mapper.ProjectMapper;
 import com.example.demo.mapper.TaskMapper;
+import com.example.demo.mapper.UserMapper;
 import com.example.demo.model.entity.Project;
 import com.example.demo.model.entity.Task;
 import com.example.demo.model.entity.User;
+import com.example.demo.model.enums.OutboxEventType;
 import com.example.demo.model.enums.Priority;
 import com.example.demo.model.enums.Role;
 import com.example.demo.model.enums.TaskStatus;
+import com.example.demo.outbox.OutboxWriter;
+import com.example.demo.repository.ArchivedTaskRepository;
 import com.example.demo.repository.ProjectRepository;
+import com.example.demo.repository.TaskAuditRepository;
+import com.example.demo.repository.TaskCriteria;
 import com.example.demo.repository.TaskRepository;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.repository.projection.TaskVersion;
 import com.example.demo.service.ProjectService;
 import com.example.demo.service.TaskService;
 import com.example.demo.service.UserService;
+import com.example.demo.shard.ShardRouted;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -24,7 +47,14 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -38,17 +68,28 @@ public class TaskServiceImpl implements TaskService {
     private final ProjectRepository projectRepository;
     private final UserRepository userRepository;
     private final TaskMapper taskMapper;
+    private final ProjectMapper projectMapper;
+    private final UserMapper userMapper;
     private final UserService userService;
     private final ProjectService projectService;
+    private final ChangeTracker changeTracker;
+    private final SerializedResponseCache responseCache;
+    private final TaskPageCache taskPageCache;
+    private final BatchLookup batchLookup;
+    private final OutboxWriter outboxWriter;
+    private final ChangeEventBus changeEventBus;
+    private final TaskAuditRepository taskAuditRepository;
+    private final TaskAuditTrail taskAuditTrail;
+    private final ArchivedTaskRepository archivedTaskRepository;
 
 
     // Non-paginated methods have been removed
 
     @Override
+    @ShardRouted("#id")
     @Transactional(readOnly = true)
     public TaskResponseDto getTaskById(Long id) {
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Task", "id", id));
+        Task task = findTaskById(id);
 
         if (!hasTaskAccess(id)) {
             throw new AccessDeniedException("You don't have access to this task");
@@ -58,12 +99,52 @@ public class TaskServiceImpl implements TaskService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public BatchResponseDto<TaskResponseDto> getTasksByIds(List<Long> ids) {
+        User currentUser = userService.getCurrentUser();
+
+        return batchLookup.lookup(ids,
+                taskIds -> taskRepository.findSelected(
+                        TaskCriteria.builder().ids(taskIds).build(), FieldSelection.ALL, taskIds.size()),
+                Task::getId,
+                tasks -> task -> canRead(currentUser, task),
+                taskMapper::toResponseDto);
+    }
+
+    @Override
+    @ShardRouted("#id")
+    @Transactional(readOnly = true)
+    public String getTaskVersion(Long id) {
+        TaskVersion version = taskRepository.findVersionById(id)
+                .or(() -> archivedTaskRepository.findVersionById(id))
+                .orElseThrow(() -> new ResourceNotFoundException("Task", "id", id));
+
+        if (!canRead(userService.getCurrentUser(), version)) {
+            throw new AccessDeniedException("You don't have access to this task");
+        }
+
+        return version.getId() + ":" + version.getUpdateDate() + ":" + version.getProjectUpdateDate()
+                + ":" + version.getProjectOwnerUpdateDate() + ":" + version.getAssignedUserUpdateDate();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getTaskListVersion() {
+        return visibleTasks(userService.getCurrentUser())
+                .map(TaskCriteria.TaskCriteriaBuilder::build)
+                .map(criteria -> changeTracker.taskVersion(criteria.getProjectIds(), criteria.getAssignedUserId()))
+                .orElseGet(() -> changeTracker.taskVersion(List.of(), null));
+    }
+
+    @Override
+    @ShardRouted("#requestDto.projectId")
     @Transactional
     public TaskResponseDto createTask(TaskRequestDto requestDto) {
-        Project project = projectRepository.findById(requestDto.getProjectId())
+        Project project = projectRepository.findWithOwnerById(requestDto.getProjectId())
                 .orElseThrow(() -> new ResourceNotFoundException("Project", "id", requestDto.getProjectId()));
 
-        if (!userService.isAdmin() && !projectService.isProjectOwner(requestDto.getProjectId())) {
+        User currentUser = userService.getCurrentUser();
+        if (currentUser.getRole() != Role.ADMIN && !isOwner(project, currentUser)) {
             throw new AccessDeniedException("You don't have permission to create tasks in this project");
         }
 
@@ -79,19 +160,23 @@ public class TaskServiceImpl implements TaskService {
 
         Task task = taskMapper.toEntity(requestDto, project, assignedUser);
         Task savedTask = taskRepository.save(task);
+        outboxWriter.record(OutboxEventType.TASK_CREATED, savedTask.getId(), taskMapper.toSummaryDto(savedTask));
+        changeEventBus.publish(ResourceType.TASK, ChangeType.CREATED, savedTask.getId());
+        changeTracker.markTaskChanged(project.getId(), assigneeIdOf(task));
         return taskMapper.toResponseDto(savedTask);
     }
 
     @Override
+    @ShardRouted("#id")
     @Transactional
     public TaskResponseDto updateTask(Long id, TaskRequestDto requestDto) {
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Task", "id", id));
+        Task task = taskRepository.findWithAssociationsById(id)
+                .orElseThrow(() -> notActive(id));
 
         User currentUser = userService.getCurrentUser();
-        if (currentUser.getRole() == Role.USER && !isAssignedToTask(id)) {
+        if (currentUser.getRole() == Role.USER && !isAssignee(task, currentUser)) {
             throw new AccessDeniedException("You don't have permission to update this task");
-        } else if (currentUser.getRole() == Role.MANAGER && !projectService.isProjectOwner(task.getProject().getId())) {
+        } else if (currentUser.getRole() == Role.MANAGER && !isOwner(task.getProject(), currentUser)) {
             throw new AccessDeniedException("You don't have permission to update tasks in this project");
         }
 
@@ -99,66 +184,101 @@ public class TaskServiceImpl implements TaskService {
             throw new IllegalArgumentException("Cannot change the project of an existing task");
         }
 
+        Long previousAssigneeId = assigneeIdOf(task);
         User assignedUser = null;
         if (requestDto.getAssignedUserId() != null) {
-            assignedUser = userRepository.findById(requestDto.getAssignedUserId())
-                    .orElseThrow(() -> new ResourceNotFoundException("User", "id", requestDto.getAssignedUserId()));
+            assignedUser = requestDto.getAssignedUserId().equals(previousAssigneeId)
+                    ? task.getAssignedUser()
+                    : userRepository.findById(requestDto.getAssignedUserId())
+                            .orElseThrow(() -> new ResourceNotFoundException("User", "id", requestDto.getAssignedUserId()));
         }
 
-        Task updatedTask = taskMapper.updateEntity(task, requestDto, task.getProject(), assignedUser);
-        Task savedTask = taskRepository.save(updatedTask);
-        return taskMapper.toResponseDto(savedTask);
+        TaskSnapshot before = TaskSnapshot.of(task);
+        // The task is managed, so the changes are flushed by dirty checking on commit
+        taskMapper.updateEntity(requestDto, assignedUser, task);
+        taskAuditTrail.recordChanges(before, TaskSnapshot.of(task), currentUser.getId());
+        outboxWriter.record(OutboxEventType.TASK_UPDATED, id, taskMapper.toSummaryDto(task));
+        changeEventBus.publish(ResourceType.TASK, ChangeType.UPDATED, id);
+        responseCache.evict(ResourceType.TASK, id);
+        changeTracker.markTaskChanged(task.getProject().getId(), previousAssigneeId, assigneeIdOf(task));
+        return taskMapper.toResponseDto(task);
     }
 
     @Override
+    @ShardRouted("#id")
     @Transactional
     public TaskResponseDto updateTaskStatus(Long id, TaskStatus status) {
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Task", "id", id));
+        Task task = taskRepository.findWithAssociationsById(id)
+                .orElseThrow(() -> notActive(id));
 
         User currentUser = userService.getCurrentUser();
         
-        if (currentUser.getRole() == Role.USER && !isAssignedToTask(id)) {
+        if (currentUser.getRole() == Role.USER && !isAssignee(task, currentUser)) {
             throw new AccessDeniedException("You can only update status of tasks assigned to you");
         }
 
-        else if (currentUser.getRole() == Role.MANAGER &&
-                !projectService.isProjectOwner(task.getProject().getId())) {
+        else if (currentUser.getRole() == Role.MANAGER && !isOwner(task.getProject(), currentUser)) {
             throw new AccessDeniedException("You don't have permission to update tasks in this project");
         }
 
+        taskAuditTrail.recordChange(id, "status", task.getStatus(), status, currentUser.getId());
         task.setStatus(status);
-        Task updatedTask = taskRepository.save(task);
+        outboxWriter.record(OutboxEventType.TASK_UPDATED, id, taskMapper.toSummaryDto(task));
+        changeEventBus.publish(ResourceType.TASK, ChangeType.UPDATED, id);
+        responseCache.evict(ResourceType.TASK, id);
+        changeTracker.markTaskChanged(task.getProject().getId(), assigneeIdOf(task));
 
-        return taskMapper.toResponseDto(updatedTask);
+        return taskMapper.toResponseDto(task);
     }
 
     @Override
+    @ShardRouted("#id")
     @Transactional
     public void deleteTask(Long id) {
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Task", "id", id));
+        Task task = taskRepository.findById(id).orElse(null);
+        // Archived tasks are deleted from the archive, with the same rules
+        TaskVersion archived = task == null ? findArchivedTask(id) : null;
+        Long projectId = task != null ? task.getProject().getId() : archived.getProjectId();
+        Long assigneeId = task != null ? assigneeIdOf(task) : archived.getAssignedUserId();
 
-        if (!userService.isAdmin() && !projectService.isProjectOwner(task.getProject().getId())) {
+        if (!userService.isAdmin() && !projectService.isProjectOwner(projectId)) {
             throw new AccessDeniedException("Only project owners and admins can delete tasks");
         }
 
-        taskRepository.deleteById(id);
+        if (task != null) {
+            taskRepository.deleteById(id);
+        } else {
+            archivedTaskRepository.deleteById(id);
+        }
+        // Deleted tasks are referenced by their IDs only, without loading the description
+        outboxWriter.record(OutboxEventType.TASK_DELETED, id, TaskSummaryDto.builder()
+                .id(id)
+                .projectId(projectId)
+                .assignedUserId(assigneeId)
+                .build());
+        changeEventBus.publish(ResourceType.TASK, ChangeType.DELETED, id);
+        responseCache.evict(ResourceType.TASK, id);
+        changeTracker.markTaskChanged(projectId, assigneeId);
     }
 
     @Override
+    @ShardRouted("#taskId")
     public boolean isAssignedToTask(Long taskId) {
         User currentUser = userService.getCurrentUser();
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new ResourceNotFoundException("Task", "id", taskId));
-        return task.getAssignedUser() != null && task.getAssignedUser().getId().equals(currentUser.getId());
+        Long assigneeId = taskRepository.findById(taskId)
+                .map(TaskServiceImpl::assigneeIdOf)
+                .orElseGet(() -> findArchivedTask(taskId).getAssignedUserId());
+        return currentUser.getId().equals(assigneeId);
     }
 
     @Override
+    @ShardRouted("#taskId")
     public boolean hasTaskAccess(Long taskId) {
         User currentUser = userService.getCurrentUser();
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new ResourceNotFoundException("Task", "id", taskId));
+        Task task = taskRepository.findById(taskId).orElse(null);
+        if (task == null) {
+            return canRead(currentUser, findArchivedTask(taskId));
+        }
 
         if (currentUser.getRole() == Role.ADMIN) {
             return true;
@@ -173,130 +293,257 @@ public class TaskServiceImpl implements TaskService {
     }
 
     @Override
-    @Transactional(readOnly = true)
     public Page<TaskResponseDto> getAllTasks(Pageable pageable) {
-        User currentUser = userService.getCurrentUser();
-        Page<Task> tasksPage;
+        return findTaskPage(null, null, pageable);
+    }
 
-        if (currentUser.getRole() == Role.ADMIN) {
-            tasksPage = taskRepository.findAll(pageable);
-        } else if (currentUser.getRole() == Role.MANAGER) {
-            List<Project> projects = projectRepository.findByOwner(currentUser);
+    @Override
+    public Page<TaskResponseDto> getTasksByStatus(TaskStatus status, Pageable pageable) {
+        return findTaskPage(status, null, pageable);
+    }
 
-            if (projects.isEmpty()) {
-                return new PageImpl<>(List.of(), pageable, 0);
-            }
-    
-            List<Long> projectIds = projects.stream()
-                    .map(Project::getId)
-                    .collect(Collectors.toList());
-    
-            tasksPage = taskRepository.findByProjectIdIn(projectIds, pageable);
-        } else {
-            tasksPage = taskRepository.findByAssignedUserId(currentUser.getId(), pageable);
-        }
-    
-        return tasksPage.map(taskMapper::toResponseDto);
+    @Override
+    public Page<TaskResponseDto> getTasksByPriority(Priority priority, Pageable pageable) {
+        return findTaskPage(null, priority, pageable);
+    }
+
+    @Override
+    public Page<TaskResponseDto> getTasksByStatusAndPriority(TaskStatus status, Priority priority, Pageable pageable) {
+        return findTaskPage(status, priority, pageable);
     }
-    
+
+    @Override
+    @ShardRouted("#projectId")
+    public Page<TaskResponseDto> getTasksByProjectId(Long projectId, Pageable pageable) {
+        checkProjectTasksAccess(projectId);
+
+        // Everyone with access to the project sees the same tasks, so the page can be shared once access is checked
+        TaskCriteria criteria = TaskCriteria.builder()
+                .projectIds(List.of(projectId))
+                .build();
+        return findCachedTaskPage(criteria, pageable);
+    }
+
     @Override
     @Transactional(readOnly = true)
-    public Page<TaskResponseDto> getTasksByStatus(TaskStatus status, Pageable pageable) {
-        User currentUser = userService.getCurrentUser();
-        Page<Task> tasksPage;
-    
-        if (currentUser.getRole() == Role.ADMIN) {
-            tasksPage = taskRepository.findByStatus(status, pageable);
-        } else if (currentUser.getRole() == Role.MANAGER) {
-            List<Project> projects = projectRepository.findByOwner(currentUser);
-    
-            if (projects.isEmpty()) {
-                return new org.springframework.data.domain.PageImpl<>(List.of(), pageable, 0);
-            }
-    
-            List<Long> projectIds = projects.stream()
-                    .map(Project::getId)
-                    .collect(Collectors.toList());
-    
-            tasksPage = taskRepository.findByStatusAndProjectIdIn(status, projectIds, pageable);
-        } else {
-            tasksPage = taskRepository.findByStatusAndAssignedUserId(status, currentUser.getId(), pageable);
+    public Page<TaskResponseDto> getTasksByAssignedUserId(Long userId, Pageable pageable) {
+        return findTasksByAssignedUserId(userId, FieldSelection.ALL, pageable).map(taskMapper::toResponseDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<TaskResponseDto> getTasks(TaskStatus status, Priority priority, FieldSelection selection, Pageable pageable) {
+        selection.validate(TaskResponseDto.class);
+        return findTasks(status, priority, selection, pageable).map(taskMapper::toResponseDto);
+    }
+
+    @Override
+    @ShardRouted("#projectId")
+    @Transactional(readOnly = true)
+    public Page<TaskResponseDto> getTasksByProjectId(Long projectId, FieldSelection selection, Pageable pageable) {
+        selection.validate(TaskResponseDto.class);
+        return findTasksByProjectId(projectId, selection, pageable).map(taskMapper::toResponseDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<TaskResponseDto> getTasksByAssignedUserId(Long userId, FieldSelection selection, Pageable pageable) {
+        selection.validate(TaskResponseDto.class);
+        return findTasksByAssignedUserId(userId, selection, pageable).map(taskMapper::toResponseDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskListResponseDto getTasksNormalized(TaskStatus status, Priority priority, Pageable pageable) {
+        return toListResponseDto(findTasks(status, priority, FieldSelection.REFERENCES, pageable));
+    }
+
+    @Override
+    @ShardRouted("#projectId")
+    @Transactional(readOnly = true)
+    public TaskListResponseDto getTasksByProjectIdNormalized(Long projectId, Pageable pageable) {
+        return toListResponseDto(findTasksByProjectId(projectId, FieldSelection.REFERENCES, pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskListResponseDto getTasksByAssignedUserIdNormalized(Long userId, Pageable pageable) {
+        return toListResponseDto(findTasksByAssignedUserId(userId, FieldSelection.REFERENCES, pageable));
+    }
+
+    @Override
+    @ShardRouted("#id")
+    @Transactional(readOnly = true)
+    public Page<TaskAuditDto> getTaskHistory(Long id, Pageable pageable) {
+        // The history outlives the task, so admins can read it once the task is archived or deleted
+        if (!userService.isAdmin() && !hasTaskAccess(id)) {
+            throw new AccessDeniedException("You don't have access to this task");
         }
-    
-        return tasksPage.map(taskMapper::toResponseDto);
+        return taskAuditRepository.findByTaskId(id, pageable).map(taskMapper::toAuditDto);
     }
-    
+
     @Override
+    @ShardRouted("#id")
     @Transactional(readOnly = true)
-    public Page<TaskResponseDto> getTasksByPriority(Priority priority, Pageable pageable) {
-        User currentUser = userService.getCurrentUser();
-        Page<Task> tasksPage;
-    
-        if (currentUser.getRole() == Role.ADMIN) {
-            tasksPage = taskRepository.findByPriority(priority, pageable);
-        } else if (currentUser.getRole() == Role.MANAGER) {
-            List<Project> projects = projectRepository.findByOwner(currentUser);
-    
-            if (projects.isEmpty()) {
-                return new org.springframework.data.domain.PageImpl<>(List.of(), pageable, 0);
-            }
-    
-            List<Long> projectIds = projects.stream()
-                    .map(Project::getId)
-                    .collect(Collectors.toList());
-    
-            tasksPage = taskRepository.findByPriorityAndProjectIdIn(priority, projectIds, pageable);
-        } else {
-            tasksPage = taskRepository.findByPriorityAndAssignedUserId(priority, currentUser.getId(), pageable);
+    public TaskSummaryDto getTaskSummaryById(Long id) {
+        Task task = findTaskById(id);
+
+        if (!canRead(userService.getCurrentUser(), task)) {
+            throw new AccessDeniedException("You don't have access to this task");
         }
-    
-        return tasksPage.map(taskMapper::toResponseDto);
+
+        return taskMapper.toSummaryDto(task);
     }
-    
+
     @Override
     @Transactional(readOnly = true)
-    public Page<TaskResponseDto> getTasksByStatusAndPriority(TaskStatus status, Priority priority, Pageable pageable) {
+    public Page<TaskSummaryDto> getTaskSummaries(TaskStatus status, Priority priority, Pageable pageable) {
+        return findTasks(status, priority, FieldSelection.REFERENCES, pageable).map(taskMapper::toSummaryDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskResponseDto> scanTasks(TaskStatus status, Priority priority, Long afterId, int limit) {
+        return visibleTasks(userService.getCurrentUser())
+                .map(criteria -> taskRepository.findSelected(
+                        criteria.status(status).priority(priority).afterId(afterId).build(), FieldSelection.ALL, limit))
+                .orElseGet(List::of)
+                .stream()
+                .map(taskMapper::toResponseDto)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, List<TaskSummaryDto>> getTaskSummariesByProjectIds(Collection<Long> projectIds, int limit) {
         User currentUser = userService.getCurrentUser();
-        Page<Task> tasksPage;
-    
+        Collection<Long> accessibleIds;
+
         if (currentUser.getRole() == Role.ADMIN) {
-            tasksPage = taskRepository.findByStatusAndPriority(status, priority, pageable);
+            accessibleIds = projectIds;
         } else if (currentUser.getRole() == Role.MANAGER) {
-            List<Project> projects = projectRepository.findByOwner(currentUser);
-    
-            if (projects.isEmpty()) {
-                return new org.springframework.data.domain.PageImpl<>(List.of(), pageable, 0);
-            }
-    
-            List<Long> projectIds = projects.stream()
-                    .map(Project::getId)
+            accessibleIds = ownedProjectIds(currentUser).stream()
+                    .filter(projectIds::contains)
                     .collect(Collectors.toList());
-    
-            tasksPage = taskRepository.findByStatusAndPriorityAndProjectIdIn(status, priority, projectIds, pageable);
         } else {
-            tasksPage = taskRepository.findByStatusAndPriorityAndAssignedUserId(status, priority, currentUser.getId(), pageable);
+            accessibleIds = taskRepository.findProjectIdsWithTasksAssignedTo(currentUser.getId(), projectIds);
+        }
+
+        if (accessibleIds.isEmpty()) {
+            return Map.of();
         }
-    
-        return tasksPage.map(taskMapper::toResponseDto);
+
+        List<Long> taskIds = taskRepository.findFirstIdsByProjectIdIn(accessibleIds, limit);
+        TaskCriteria criteria = TaskCriteria.builder().ids(taskIds).build();
+        return taskRepository.findSelected(criteria, FieldSelection.REFERENCES, taskIds.size()).stream()
+                .map(taskMapper::toSummaryDto)
+                .collect(Collectors.groupingBy(TaskSummaryDto::getProjectId));
     }
 
-    @Override
-    @Transactional(readOnly = true)
-    public Page<TaskResponseDto> getTasksByProjectId(Long projectId, Pageable pageable) {
-        projectRepository.findById(projectId)
-                .orElseThrow(() -> new ResourceNotFoundException("Project", "id", projectId));
+    /**
+     * Load a task with its project, project owner and assigned user. Descriptions are lazy attributes of the entities,
+     * so the task is read through a column selection, which loads them in the same query.
+     */
+    private Task findTaskById(Long id) {
+        return findSelectedTask(TaskCriteria.builder().ids(List.of(id)).build())
+                // Only queries for completed tasks read the archive, so an archived task is looked up as one
+                .or(() -> findSelectedTask(TaskCriteria.builder().ids(List.of(id)).status(TaskStatus.DONE).build()))
+                .orElseThrow(() -> new ResourceNotFoundException("Task", "id", id));
+    }
 
-        if (!projectService.hasProjectAccess(projectId)) {
-            throw new AccessDeniedException("You don't have access to this project");
+    private Optional<Task> findSelectedTask(TaskCriteria criteria) {
+        return taskRepository.findSelected(criteria, FieldSelection.ALL, 1).stream().findFirst();
+    }
+
+    /**
+     * Load the access columns of an archived task, for the checks of reads and deletes of tasks no longer active.
+     */
+    private TaskVersion findArchivedTask(Long id) {
+        return archivedTaskRepository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Task", "id", id));
+    }
+
+    /**
+     * Build the exception for an update of a task that is not active: archived tasks are read-only,
+     * and other IDs are not found.
+     */
+    private RuntimeException notActive(Long id) {
+        return archivedTaskRepository.existsById(id)
+                ? new ConflictException("Archived tasks are read-only")
+                : new ResourceNotFoundException("Task", "id", id);
+    }
+
+    private Page<Task> findTasks(TaskStatus status, Priority priority, FieldSelection selection, Pageable pageable) {
+        return visibleTasks(userService.getCurrentUser())
+                .map(criteria -> taskRepository.findSelected(criteria.status(status).priority(priority).build(), selection, pageable))
+                .orElseGet(() -> new PageImpl<>(List.of(), pageable, 0));
+    }
+
+    /**
+     * Page of tasks visible to the current user, served from the task page cache while none of the
+     * projects or assignees in the user's scope have changed.
+     */
+    private Page<TaskResponseDto> findTaskPage(TaskStatus status, Priority priority, Pageable pageable) {
+        Optional<TaskCriteria> visible = visibleTasks(userService.getCurrentUser())
+                .map(criteria -> criteria.status(status).priority(priority).build());
+        if (visible.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, 0);
         }
 
-        Page<Task> tasksPage = taskRepository.findByProjectId(projectId, pageable);
-        return tasksPage.map(taskMapper::toResponseDto);
+        return findCachedTaskPage(visible.get(), pageable);
     }
 
-    @Override
-    @Transactional(readOnly = true)
-    public Page<TaskResponseDto> getTasksByAssignedUserId(Long userId, Pageable pageable) {
+    /**
+     * Page of tasks matching criteria the current user is known to have access to, served from the task page cache.
+     * Concurrent identical reads of the same scope share one query. Callers resolve the scope and check access
+     * without a transaction, and the cache opens one only to run the query, so requests waiting for a shared query
+     * hold no connection.
+     */
+    private Page<TaskResponseDto> findCachedTaskPage(TaskCriteria criteria, Pageable pageable) {
+        return taskPageCache.get(criteria, pageable, () -> taskRepository.findSelected(criteria, FieldSelection.ALL, pageable)
+                .map(taskMapper::toResponseDto));
+    }
+
+    /**
+     * Criteria restricting tasks to the ones the user can see, or empty if the user can see no tasks at all.
+     */
+    private Optional<TaskCriteria.TaskCriteriaBuilder> visibleTasks(User currentUser) {
+        TaskCriteria.TaskCriteriaBuilder criteria = TaskCriteria.builder();
+
+        if (currentUser.getRole() == Role.MANAGER) {
+            List<Long> projectIds = ownedProjectIds(currentUser);
+
+            if (projectIds.isEmpty()) {
+                return Optional.empty();
+            }
+
+            criteria.projectIds(projectIds);
+        } else if (currentUser.getRole() == Role.USER) {
+            criteria.assignedUserId(currentUser.getId());
+        }
+
+        return Optional.of(criteria);
+    }
+
+    /**
+     * IDs of the projects owned by a manager, which may be spread over all shards.
+     */
+    private List<Long> ownedProjectIds(User manager) {
+        return projectRepository.findSelected(manager.getId(), FieldSelection.of("id", null)).stream()
+                .map(Project::getId)
+                .collect(Collectors.toList());
+    }
+
+    private Page<Task> findTasksByProjectId(Long projectId, FieldSelection selection, Pageable pageable) {
+        checkProjectTasksAccess(projectId);
+
+        TaskCriteria criteria = TaskCriteria.builder()
+                .projectIds(List.of(projectId))
+                .build();
+        return taskRepository.findSelected(criteria, selection, pageable);
+    }
+
+    private Page<Task> findTasksByAssignedUserId(Long userId, FieldSelection selection, Pageable pageable) {
         userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
 
@@ -306,23 +553,102 @@ public class TaskServiceImpl implements TaskService {
             throw new AccessDeniedException("You can only view your own tasks");
         }
 
-        Page<Task> tasksPage;
+        TaskCriteria.TaskCriteriaBuilder criteria = TaskCriteria.builder()
+                .assignedUserId(userId);
 
         if (currentUser.getRole() == Role.MANAGER && !currentUser.getId().equals(userId)) {
-            List<Project> managerProjects = projectRepository.findByOwner(currentUser);
-            List<Long> projectIds = managerProjects.stream()
-                    .map(Project::getId)
-                    .collect(Collectors.toList());
+            List<Long> projectIds = ownedProjectIds(currentUser);
 
             if (projectIds.isEmpty()) {
                 return new PageImpl<>(List.of(), pageable, 0);
             }
 
-            tasksPage = taskRepository.findByAssignedUserIdAndProjectIdIn(userId, projectIds, pageable);
-        } else {
-            tasksPage = taskRepository.findByAssignedUserId(userId, pageable);
+            criteria.projectIds(projectIds);
+        }
+
+        return taskRepository.findSelected(criteria.build(), selection, pageable);
+    }
+
+    /**
+     * Build a normalized page from tasks whose project and assigned user only carry their id.
+     * Every distinct project and user is loaded with a single query and mapped once.
+     */
+    private TaskListResponseDto toListResponseDto(Page<Task> tasksPage) {
+        Set<Long> projectIds = tasksPage.stream()
+                .map(task -> task.getProject().getId())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        List<Project> projects = projectRepository.findSelectedByIds(projectIds, FieldSelection.REFERENCES);
+
+        Set<Long> userIds = tasksPage.stream()
+                .map(Task::getAssignedUser)
+                .filter(Objects::nonNull)
+                .map(User::getId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        projects.forEach(project -> userIds.add(project.getOwner().getId()));
+        List<User> users = userIds.isEmpty() ? List.of() : userRepository.findAllById(userIds);
+
+        TaskListResponseDto.Included included = TaskListResponseDto.Included.builder()
+                .projects(projects.stream()
+                        .sorted(Comparator.comparing(Project::getId))
+                        .map(projectMapper::toSummaryDto)
+                        .collect(Collectors.toList()))
+                .users(users.stream()
+                        .sorted(Comparator.comparing(User::getId))
+                        .map(userMapper::toResponseDto)
+                        .collect(Collectors.toList()))
+                .build();
+
+        return TaskListResponseDto.builder()
+                .content(tasksPage.map(taskMapper::toSummaryDto).getContent())
+                .included(included)
+                .number(tasksPage.getNumber())
+                .size(tasksPage.getSize())
+                .totalElements(tasksPage.getTotalElements())
+                .totalPages(tasksPage.getTotalPages())
+                .build();
+    }
+
+    /**
+     * Check read access to a task whose project owner and assigned user are already loaded,
+     * with the same rules as hasTaskAccess but without further queries.
+     */
+    private boolean canRead(User currentUser, Task task) {
+        return switch (currentUser.getRole()) {
+            case ADMIN -> true;
+            case MANAGER -> task.getProject().getOwner().getId().equals(currentUser.getId());
+            case USER -> task.getAssignedUser() != null && task.getAssignedUser().getId().equals(currentUser.getId());
+        };
+    }
+
+    /**
+     * Check read access to a task from its version columns, with the same rules as hasTaskAccess.
+     */
+    private static boolean canRead(User currentUser, TaskVersion version) {
+        return switch (currentUser.getRole()) {
+            case ADMIN -> true;
+            case MANAGER -> currentUser.getId().equals(version.getProjectOwnerId());
+            case USER -> currentUser.getId().equals(version.getAssignedUserId());
+        };
+    }
+
+    private void checkProjectTasksAccess(Long projectId) {
+        projectRepository.findById(projectId)
+                .orElseThrow(() -> new ResourceNotFoundException("Project", "id", projectId));
+
+        if (!projectService.hasProjectAccess(projectId)) {
+            throw new AccessDeniedException("You don't have access to this project");
         }
+    }
+
+    private static boolean isOwner(Project project, User user) {
+        return project.getOwner().getId().equals(user.getId());
+    }
+
+    private static boolean isAssignee(Task task, User user) {
+        return task.getAssignedUser() != null && task.getAssignedUser().getId().equals(user.getId());
+    }
 
-        return tasksPage.map(taskMapper::toResponseDto);
+    private static Long assigneeIdOf(Task task) {
+        return task.getAssignedUser() != null ? task.getAssignedUser().getId() : null;
     }
-}
\ No newline at end of file
+}
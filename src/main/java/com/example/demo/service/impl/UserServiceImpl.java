@@ -1,20 +1,36 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.audit.TaskAuditTrail;
+import com.example.demo.cache.AfterCommit;
+import com.example.demo.cache.ChangeTracker;
+import com.example.demo.cache.ChangeTracker.ResourceType;
+import com.example.demo.cache.SerializedResponseCache;
+import com.example.demo.dto.BatchResponseDto;
+import com.example.demo.dto.project.ProjectSummaryDto;
+import com.example.demo.dto.task.TaskSummaryDto;
 import com.example.demo.dto.user.UserRequestDto;
 import com.example.demo.dto.user.UserResponseDto;
+import com.example.demo.event.ChangeEvent.ChangeType;
+import com.example.demo.event.ChangeEventBus;
 import com.example.demo.exception.AccessDeniedException;
 import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.mapper.UserMapper;
+import com.example.demo.model.entity.Project;
 import com.example.demo.model.entity.Task;
 import com.example.demo.model.entity.User;
+import com.example.demo.model.enums.OutboxEventType;
 import com.example.demo.model.enums.Role;
+import com.example.demo.outbox.OutboxWriter;
+import com.example.demo.repository.ArchivedTaskRepository;
 import com.example.demo.repository.ProjectRepository;
 import com.example.demo.repository.TaskRepository;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.security.CurrentUserScope;
 import com.example.demo.service.UserService;
+import com.example.demo.shard.ShardRouter;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -22,6 +38,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -29,11 +46,20 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
+    private static final Logger logger = LoggerFactory.getLogger(UserServiceImpl.class);
 
     private final UserRepository userRepository;
     private final TaskRepository taskRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final ChangeTracker changeTracker;
+    private final SerializedResponseCache responseCache;
+    private final BatchLookup batchLookup;
+    private final ShardRouter shardRouter;
+    private final ChangeEventBus changeEventBus;
+    private final TaskAuditTrail taskAuditTrail;
+    private final OutboxWriter outboxWriter;
 
     @Override
     @Transactional(readOnly = true)
@@ -51,6 +77,24 @@ public class UserServiceImpl implements UserService {
         return userMapper.toResponseDto(user);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public BatchResponseDto<UserResponseDto> getUsersByIds(List<Long> ids) {
+        return batchLookup.lookup(ids,
+                userRepository::findAllById,
+                User::getId,
+                users -> user -> true,
+                userMapper::toResponseDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserResponseDto> getReferencedUsers(Collection<Long> ids) {
+        return userRepository.findAllById(ids).stream()
+                .map(userMapper::toResponseDto)
+                .collect(Collectors.toList());
+    }
+
     @Override
     @Transactional
     public UserResponseDto createUser(UserRequestDto requestDto) {
@@ -61,27 +105,33 @@ public class UserServiceImpl implements UserService {
         User user = userMapper.toEntity(requestDto);
         user.setPassword(passwordEncoder.encode(requestDto.getPassword()));
         User savedUser = userRepository.save(user);
+        // Projects and tasks reference users on every shard, so each shard gets a copy once the user is committed
+        AfterCommit.run(() -> replicateToOtherShards(savedUser));
+        changeEventBus.publish(ResourceType.USER, ChangeType.CREATED, savedUser.getId());
+        changeTracker.markUserChanged();
         return userMapper.toResponseDto(savedUser);
     }
 
     @Override
     @Transactional
     public void deleteUser(Long id) {
-        if (!isAdmin()) {
+        User currentUser = getCurrentUser();
+        if (currentUser == null || currentUser.getRole() != Role.ADMIN) {
             throw new AccessDeniedException("Only administrators can delete users");
         }
 
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
 
-        Page<Task> assignedTasks = taskRepository.findByAssignedUserId(id, Pageable.unpaged());
-        if (!assignedTasks.isEmpty()) {
-            List<Task> tasksToUpdate = assignedTasks.getContent();
-            tasksToUpdate.forEach(task -> task.setAssignedUser(null));
-            taskRepository.saveAll(tasksToUpdate);
-        }
-
-        userRepository.delete(user);
+        deleteFromCurrentShard(user, currentUser.getId());
+        // The copies on the other shards and the projects they own there are removed in their own transactions
+        shardRouter.inTransactionOnOtherShards(() -> userRepository.findById(id)
+                .ifPresent(copy -> deleteFromCurrentShard(copy, currentUser.getId())));
+        changeEventBus.publish(ResourceType.USER, ChangeType.DELETED, id);
+        // Every list embeds users, so their versions all change with this one
+        changeTracker.markUserChanged();
+        responseCache.evictAll(ResourceType.PROJECT);
+        responseCache.evictAll(ResourceType.TASK);
     }
 
     @Override
@@ -99,6 +149,11 @@ public class UserServiceImpl implements UserService {
             email = principal.toString();
         }
 
+        User pinned = CurrentUserScope.get();
+        if (pinned != null && pinned.getEmail().equals(email)) {
+            return pinned;
+        }
+
         return userRepository.findByEmail(email)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
     }
@@ -108,4 +163,54 @@ public class UserServiceImpl implements UserService {
         User currentUser = getCurrentUser();
         return currentUser != null && currentUser.getRole() == Role.ADMIN;
     }
+
+    /**
+     * Copy a committed user to the other shards. A failure leaves the user without copies on some shards, where it
+     * cannot own projects or be assigned tasks until the copy is retried, which is safe as copying is idempotent.
+     */
+    private void replicateToOtherShards(User user) {
+        try {
+            shardRouter.inTransactionOnOtherShards(() -> userRepository.replicate(user));
+        } catch (RuntimeException e) {
+            logger.error("Could not copy user {} to the other shards", user.getId(), e);
+        }
+    }
+
+    /**
+     * Delete a user with the projects it owns and unassign it from tasks, on the shard of the current thread.
+     * The tasks are unassigned with a single update, so their audit changes are recorded from the IDs locked before.
+     */
+    private void deleteFromCurrentShard(User user, Long changedBy) {
+        List<Long> assignedTaskIds = taskRepository.findIdsForUpdateByAssignedUserId(user.getId());
+        taskRepository.unassignAllFromUser(user.getId());
+        for (Long taskId : assignedTaskIds) {
+            taskAuditTrail.recordChange(taskId, "assignedUserId", user.getId(), null, changedBy);
+        }
+        archivedTaskRepository.unassignAllFromUser(user.getId());
+        archivedTaskRepository.deleteByProjectOwnerId(user.getId());
+        recordOwnedProjectDeletions(user);
+        userRepository.delete(user);
+    }
+
+    /**
+     * Record the deletion of the projects a user owns and of their tasks, which are deleted with the user,
+     * as deleting them one by one would.
+     */
+    private void recordOwnedProjectDeletions(User user) {
+        for (Project project : user.getOwnedProjects()) {
+            for (Task task : project.getTasks()) {
+                outboxWriter.record(OutboxEventType.TASK_DELETED, task.getId(), TaskSummaryDto.builder()
+                        .id(task.getId())
+                        .projectId(project.getId())
+                        .assignedUserId(task.getAssignedUser() != null ? task.getAssignedUser().getId() : null)
+                        .build());
+                changeEventBus.publish(ResourceType.TASK, ChangeType.DELETED, task.getId());
+            }
+            outboxWriter.record(OutboxEventType.PROJECT_DELETED, project.getId(), ProjectSummaryDto.builder()
+                    .id(project.getId())
+                    .ownerId(user.getId())
+                    .build());
+            changeEventBus.publish(ResourceType.PROJECT, ChangeType.DELETED, project.getId());
+        }
+    }
 }
@@ -0,0 +1,425 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.dto.webhook.WebhookSubscriptionRequestDto;
+import com.example.demo.dto.webhook.WebhookSubscriptionResponseDto;
+import com.example.demo.exception.AccessDeniedException;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.mapper.WebhookMapper;
+import com.example.demo.model.entity.OutboxEvent;
+import com.example.demo.model.entity.Project;
+import com.example.demo.model.entity.User;
+import com.example.demo.model.entity.WebhookDeadLetter;
+import com.example.demo.model.entity.WebhookDelivery;
+import com.example.demo.model.entity.WebhookSubscription;
+import com.example.demo.model.enums.OutboxEventType;
+import com.example.demo.model.enums.Role;
+import com.example.demo.repository.ProjectRepository;
+import com.example.demo.repository.WebhookDeadLetterRepository;
+import com.example.demo.repository.WebhookDeliveryRepository;
+import com.example.demo.repository.WebhookSubscriptionRepository;
+import com.example.demo.service.UserService;
+import com.example.demo.service.WebhookService;
+import com.example.demo.shard.ShardContext;
+import com.example.demo.shard.ShardRouted;
+import com.example.demo.shard.ShardRouter;
+import com.example.demo.webhook.WebhookClient;
+import com.example.demo.webhook.WebhookUrlPolicy;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Webhook calls never run inside the transaction of a task change. Relayed task events are queued as deliveries in
+ * the outbox relay transaction, and a dispatcher claims due deliveries in a short transaction, sends them through
+ * {@link WebhookClient} and records each result in another short transaction when its response arrives.
+ */
+@Service
+public class WebhookServiceImpl implements WebhookService {
+    private static final Logger logger = LoggerFactory.getLogger(WebhookServiceImpl.class);
+
+    private static final Set<OutboxEventType> TASK_CHANGE_EVENTS = EnumSet.of(OutboxEventType.TASK_CREATED,
+            OutboxEventType.TASK_UPDATED, OutboxEventType.TASK_DELETED);
+    private static final Set<OutboxEventType> TASK_EVENTS = EnumSet.of(OutboxEventType.TASK_CREATED,
+            OutboxEventType.TASK_UPDATED, OutboxEventType.TASK_DELETED, OutboxEventType.TASK_DUE_SOON,
+            OutboxEventType.TASK_OVERDUE);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final WebhookSubscriptionRepository subscriptionRepository;
+    private final WebhookDeliveryRepository deliveryRepository;
+    private final WebhookDeadLetterRepository deadLetterRepository;
+    private final ProjectRepository projectRepository;
+    private final UserService userService;
+    private final WebhookMapper webhookMapper;
+    private final WebhookClient webhookClient;
+    private final WebhookUrlPolicy urlPolicy;
+    private final ObjectMapper objectMapper;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private final Duration coalesceDelay;
+    private final Duration claimLease;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    private final Counter delivered;
+    private final Counter failed;
+    private final Counter deadLettered;
+    private final Counter coalesced;
+
+    public WebhookServiceImpl(WebhookSubscriptionRepository subscriptionRepository,
+                              WebhookDeliveryRepository deliveryRepository,
+                              WebhookDeadLetterRepository deadLetterRepository,
+                              ProjectRepository projectRepository,
+                              UserService userService,
+                              WebhookMapper webhookMapper,
+                              WebhookClient webhookClient,
+                              WebhookUrlPolicy urlPolicy,
+                              ObjectMapper objectMapper,
+                              ShardRouter shardRouter,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.webhooks.coalesce-delay}") Duration coalesceDelay,
+                              @Value("${app.webhooks.claim-lease}") Duration claimLease,
+                              @Value("${app.webhooks.max-attempts}") int maxAttempts,
+                              @Value("${app.webhooks.initial-backoff}") Duration initialBackoff,
+                              @Value("${app.webhooks.max-backoff}") Duration maxBackoff,
+                              MeterRegistry meterRegistry) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.deliveryRepository = deliveryRepository;
+        this.deadLetterRepository = deadLetterRepository;
+        this.projectRepository = projectRepository;
+        this.userService = userService;
+        this.webhookMapper = webhookMapper;
+        this.webhookClient = webhookClient;
+        this.urlPolicy = urlPolicy;
+        this.objectMapper = objectMapper;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.coalesceDelay = coalesceDelay;
+        this.claimLease = claimLease;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.delivered = Counter.builder("webhook.deliveries").tag("result", "delivered").register(meterRegistry);
+        this.failed = Counter.builder("webhook.deliveries").tag("result", "failed").register(meterRegistry);
+        this.deadLettered = Counter.builder("webhook.deliveries").tag("result", "dead_lettered")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("webhook.deliveries").tag("result", "coalesced").register(meterRegistry);
+    }
+
+    @Override
+    @ShardRouted("#projectId")
+    @Transactional
+    public WebhookSubscriptionResponseDto createSubscription(Long projectId, WebhookSubscriptionRequestDto requestDto) {
+        Project project = findManagedProject(projectId);
+        urlPolicy.check(requestDto.getUrl());
+
+        byte[] secret = new byte[32];
+        secureRandom.nextBytes(secret);
+        WebhookSubscription subscription = subscriptionRepository.saveAndFlush(WebhookSubscription.builder()
+                .project(project)
+                .url(requestDto.getUrl())
+                .secret(HexFormat.of().formatHex(secret))
+                .build());
+
+        WebhookSubscriptionResponseDto responseDto = webhookMapper.toResponseDto(subscription);
+        responseDto.setSecret(subscription.getSecret());
+        return responseDto;
+    }
+
+    @Override
+    @ShardRouted("#projectId")
+    @Transactional(readOnly = true)
+    public List<WebhookSubscriptionResponseDto> getSubscriptions(Long projectId) {
+        findManagedProject(projectId);
+        return subscriptionRepository.findByProjectIdOrderById(projectId).stream()
+                .map(webhookMapper::toResponseDto)
+                .toList();
+    }
+
+    @Override
+    @ShardRouted("#projectId")
+    @Transactional
+    public void deleteSubscription(Long projectId, Long id) {
+        findManagedProject(projectId);
+        WebhookSubscription subscription = subscriptionRepository.findByIdAndProjectId(id, projectId)
+                .orElseThrow(() -> new ResourceNotFoundException("Webhook subscription", "id", id));
+        // Pending deliveries are deleted by the database with the subscription
+        subscriptionRepository.delete(subscription);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueDeliveries(List<OutboxEvent> events) {
+        // Events arrive in the order they were recorded, so the last one per task and kind is its latest state
+        Map<ChangeKey, TaskChange> changes = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            if (TASK_EVENTS.contains(event.getType())) {
+                TaskChange change = TaskChange.of(event, readTree(event.getPayload()));
+                if (change.projectId() != null) {
+                    ChangeKey key = new ChangeKey(change.taskId(), coalescingKind(event.getType()));
+                    changes.remove(key);
+                    changes.put(key, change);
+                }
+            }
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        Set<Long> projectIds = changes.values().stream().map(TaskChange::projectId).collect(Collectors.toSet());
+        Map<Long, List<WebhookSubscription>> subscriptionsByProject = subscriptionRepository.findByProjectIdIn(projectIds)
+                .stream()
+                .collect(Collectors.groupingBy(subscription -> subscription.getProject().getId()));
+        if (subscriptionsByProject.isEmpty()) {
+            return;
+        }
+
+        List<Long> subscriptionIds = subscriptionsByProject.values().stream()
+                .flatMap(List::stream)
+                .map(WebhookSubscription::getId)
+                .toList();
+        Set<Long> taskIds = changes.keySet().stream().map(ChangeKey::taskId).collect(Collectors.toSet());
+        Map<DeliveryKey, WebhookDelivery> waiting = deliveryRepository.findWaiting(subscriptionIds, taskIds)
+                .stream()
+                .collect(Collectors.toMap(
+                        delivery -> new DeliveryKey(delivery.getSubscription().getId(), delivery.getTaskId(),
+                                coalescingKind(delivery.getEventType())),
+                        Function.identity(),
+                        (first, second) -> first.getId() > second.getId() ? first : second));
+
+        LocalDateTime firstAttemptAt = LocalDateTime.now().plus(coalesceDelay);
+        List<WebhookDelivery> created = new ArrayList<>();
+        for (TaskChange change : changes.values()) {
+            String payload = toPayload(change);
+            for (WebhookSubscription subscription : subscriptionsByProject.getOrDefault(change.projectId(), List.of())) {
+                WebhookDelivery delivery = waiting.get(new DeliveryKey(subscription.getId(), change.taskId(),
+                        coalescingKind(change.event().getType())));
+                if (delivery != null) {
+                    // The delivery is managed, so the replaced payload is flushed by dirty checking on commit
+                    delivery.setEventType(change.event().getType());
+                    delivery.setPayload(payload);
+                    coalesced.increment();
+                } else {
+                    created.add(WebhookDelivery.builder()
+                            .subscription(subscription)
+                            .taskId(change.taskId())
+                            .eventType(change.event().getType())
+                            .payload(payload)
+                            .nextAttemptAt(firstAttemptAt)
+                            .build());
+                }
+            }
+        }
+        deliveryRepository.saveAll(created);
+    }
+
+    @Override
+    public CompletableFuture<Void> dispatchDueDeliveries(int limit) {
+        int shard = shardRouter.currentShard();
+        List<Dispatch> claimed = transactionTemplate.execute(status -> claim(limit));
+
+        List<CompletableFuture<Void>> results = new ArrayList<>(claimed.size());
+        for (Dispatch dispatch : claimed) {
+            results.add(webhookClient.send(dispatch.url(), dispatch.secret(), dispatch.eventType().name(),
+                            dispatch.deliveryId(), dispatch.payload())
+                    .handle((statusCode, error) -> {
+                        try {
+                            ShardContext.run(shard, () -> transactionTemplate.executeWithoutResult(status ->
+                                    recordResult(dispatch, statusCode, error)));
+                        } catch (RuntimeException e) {
+                            // The claim lease expires and the delivery is sent again
+                            logger.warn("Could not record the result of webhook delivery {}", dispatch.deliveryId(), e);
+                        }
+                        return null;
+                    }));
+        }
+        return CompletableFuture.allOf(results.toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Claim the due deliveries by pushing their next attempt out by the claim lease.
+     */
+    private List<Dispatch> claim(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<WebhookDelivery> due = deliveryRepository.findDueForUpdate(now, Limit.of(limit));
+        if (due.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, WebhookSubscription> subscriptions = subscriptionRepository.findAllById(due.stream()
+                        .map(delivery -> delivery.getSubscription().getId())
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(WebhookSubscription::getId, Function.identity()));
+
+        List<Dispatch> claimed = new ArrayList<>(due.size());
+        for (WebhookDelivery delivery : due) {
+            WebhookSubscription subscription = subscriptions.get(delivery.getSubscription().getId());
+            delivery.setClaimedAt(now);
+            delivery.setNextAttemptAt(now.plus(claimLease));
+            claimed.add(new Dispatch(delivery.getId(), subscription.getId(), subscription.getUrl(),
+                    subscription.getSecret(), delivery.getTaskId(), delivery.getEventType(), delivery.getPayload()));
+        }
+        return claimed;
+    }
+
+    private void recordResult(Dispatch dispatch, Integer statusCode, Throwable error) {
+        WebhookDelivery delivery = deliveryRepository.findById(dispatch.deliveryId()).orElse(null);
+        if (delivery == null) {
+            // The subscription was deleted while the delivery was being sent
+            return;
+        }
+
+        if (error == null && statusCode >= 200 && statusCode < 300) {
+            deliveryRepository.delete(delivery);
+            delivered.increment();
+            return;
+        }
+
+        int attempts = delivery.getAttempts() + 1;
+        String lastError = error != null ? describe(error) : "HTTP " + statusCode;
+        if (deliveryRepository.existsBySubscriptionIdAndTaskIdAndEventTypeInAndClaimedAtIsNull(
+                dispatch.subscriptionId(), dispatch.taskId(), coalescedWith(dispatch.eventType()))) {
+            // A newer event of the same kind for the task is waiting and will be sent instead
+            deliveryRepository.delete(delivery);
+            coalesced.increment();
+            failed.increment();
+            return;
+        }
+        if (attempts >= maxAttempts) {
+            deadLetterRepository.save(WebhookDeadLetter.builder()
+                    .subscriptionId(dispatch.subscriptionId())
+                    .url(dispatch.url())
+                    .taskId(dispatch.taskId())
+                    .eventType(delivery.getEventType())
+                    .payload(delivery.getPayload())
+                    .attempts(attempts)
+                    .lastError(lastError)
+                    .build());
+            deliveryRepository.delete(delivery);
+            deadLettered.increment();
+            logger.warn("Gave up webhook delivery {} to {} after {} attempts: {}", dispatch.deliveryId(),
+                    dispatch.url(), attempts, lastError);
+            return;
+        }
+
+        delivery.setAttempts(attempts);
+        delivery.setLastError(lastError);
+        delivery.setClaimedAt(null);
+        delivery.setNextAttemptAt(LocalDateTime.now().plus(backoff(attempts)));
+        failed.increment();
+    }
+
+    /**
+     * Delay before the next attempt, doubling with every failed attempt up to {@code app.webhooks.max-backoff}.
+     */
+    Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 30));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    /**
+     * The kind of event a delivery is coalesced with. Creations, updates and deletions of a task replace each other,
+     * while a due-date event is only replaced by a later event of its own type, so a task change made meanwhile
+     * does not swallow the reminder or overdue notification.
+     */
+    private static OutboxEventType coalescingKind(OutboxEventType type) {
+        return TASK_CHANGE_EVENTS.contains(type) ? OutboxEventType.TASK_UPDATED : type;
+    }
+
+    private static Set<OutboxEventType> coalescedWith(OutboxEventType type) {
+        return TASK_CHANGE_EVENTS.contains(type) ? TASK_CHANGE_EVENTS : EnumSet.of(type);
+    }
+
+    private Project findManagedProject(Long projectId) {
+        Project project = projectRepository.findWithOwnerById(projectId)
+                .orElseThrow(() -> new ResourceNotFoundException("Project", "id", projectId));
+
+        User currentUser = userService.getCurrentUser();
+        if (currentUser.getRole() != Role.ADMIN && !project.getOwner().getId().equals(currentUser.getId())) {
+            throw new AccessDeniedException("You don't have permission to manage the webhooks of this project");
+        }
+        return project;
+    }
+
+    private String toPayload(TaskChange change) {
+        ObjectNode body = objectMapper.createObjectNode();
+        body.put("event", change.event().getType().name());
+        body.put("occurredAt", change.event().getCreateDate().toString());
+        body.set("task", change.task());
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize webhook payload", e);
+        }
+    }
+
+    private JsonNode readTree(String payload) {
+        try {
+            return objectMapper.readTree(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read outbox event payload", e);
+        }
+    }
+
+    private static String describe(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        String description = cause.getClass().getSimpleName()
+                + (cause.getMessage() != null ? ": " + cause.getMessage() : "");
+        return description.length() > MAX_ERROR_LENGTH ? description.substring(0, MAX_ERROR_LENGTH) : description;
+    }
+
+    /**
+     * The latest relayed change to a task, with the project it belongs to.
+     */
+    private record TaskChange(OutboxEvent event, JsonNode task, Long taskId, Long projectId) {
+
+        static TaskChange of(OutboxEvent event, JsonNode task) {
+            JsonNode projectId = task.path("projectId");
+            return new TaskChange(event, task, event.getAggregateId(),
+                    projectId.isNumber() ? projectId.asLong() : null);
+        }
+    }
+
+    private record ChangeKey(Long taskId, OutboxEventType kind) {
+    }
+
+    private record DeliveryKey(Long subscriptionId, Long taskId, OutboxEventType kind) {
+    }
+
+    /**
+     * A claimed delivery with what is needed to send it outside the claiming transaction.
+     */
+    private record Dispatch(long deliveryId, Long subscriptionId, String url, String secret, Long taskId,
+                            OutboxEventType eventType, String payload) {
+    }
+}
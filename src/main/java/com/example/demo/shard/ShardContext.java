@@ -0,0 +1,69 @@
+package com.example.demo.shard;
+
+import java.util.function.Supplier;
+
+/**
+ * Holds the shard the current thread works on. Connections are taken from the datasource of this shard,
+ * so the shard must be set before a transaction starts and must not change while it is active.
+ * Threads without a shard work on shard 0.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT_SHARD = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * Run an action on the given shard, restoring the previous shard afterwards.
+     *
+     * @param shard the index of the shard
+     * @param action the action to run
+     * @return the result of the action
+     */
+    public static <T> T call(int shard, Supplier<T> action) {
+        Integer previous = CURRENT_SHARD.get();
+        CURRENT_SHARD.set(shard);
+        try {
+            return action.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Run an action on the given shard, restoring the previous shard afterwards.
+     *
+     * @param shard the index of the shard
+     * @param action the action to run
+     */
+    public static void run(int shard, Runnable action) {
+        call(shard, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Get the shard of the current thread.
+     *
+     * @return the index of the shard, or null if none was set
+     */
+    public static Integer get() {
+        return CURRENT_SHARD.get();
+    }
+
+    static void restore(Integer previous) {
+        if (previous != null) {
+            CURRENT_SHARD.set(previous);
+        } else {
+            CURRENT_SHARD.remove();
+        }
+    }
+
+    static Integer set(int shard) {
+        Integer previous = CURRENT_SHARD.get();
+        CURRENT_SHARD.set(shard);
+        return previous;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.demo.shard;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs a service method on the shard of the project or task it works on. The shard is set before the transaction
+ * of the method starts, so every repository call inside the method reads and writes that shard.
+ * Calls made while a transaction on another shard is active are rejected.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ShardRouted {
+
+    /**
+     * SpEL expression over the method parameters giving the ID of the project or task, such as {@code #id}.
+     * Without an expression the method creates a new project, which is placed on the next shard in turn,
+     * or on the shard of the surrounding transaction if there is one.
+     *
+     * @return the expression giving the ID of the project or task
+     */
+    String value() default "";
+}
@@ -0,0 +1,206 @@
+package com.example.demo.shard;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Maps projects and tasks to the shards configured in {@code app.sharding.urls} and runs work on them.
+ * <p>
+ * Every project lives on one shard together with its tasks and archived tasks. Each shard hands out IDs of projects
+ * and tasks from its own residue class, ID {@code k + 1} modulo the shard count on shard {@code k}, so the shard of
+ * a project or task follows from its ID alone. Users are replicated to every shard with the same IDs.
+ * <p>
+ * Without configured shards, or with a single one, everything runs on shard 0 and no work is handed to other threads.
+ */
+@Component
+public class ShardRouter {
+
+    private final int shardCount;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicInteger nextShard = new AtomicInteger();
+    private final ExecutorService executor;
+
+    public ShardRouter(@Value("${app.sharding.urls:}") List<String> urls, PlatformTransactionManager transactionManager) {
+        this.shardCount = Math.max(1, urls.size());
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = shardCount > 1
+                ? Executors.newCachedThreadPool(runnable -> {
+                    Thread thread = new Thread(runnable, "shard-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+    }
+
+    /**
+     * Get the number of shards.
+     *
+     * @return the number of shards, at least 1
+     */
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * Get the indexes of all shards.
+     *
+     * @return the indexes of all shards, in order
+     */
+    public List<Integer> allShards() {
+        return IntStream.range(0, shardCount).boxed().toList();
+    }
+
+    /**
+     * Get the shard holding a project or task.
+     *
+     * @param id the ID of the project or task
+     * @return the index of the shard
+     */
+    public int shardOf(long id) {
+        return Math.floorMod(id - 1, shardCount);
+    }
+
+    /**
+     * Group project or task IDs by the shard holding them.
+     *
+     * @param ids the IDs of projects or tasks
+     * @return the IDs by shard index, ordered by shard
+     */
+    public Map<Integer, List<Long>> groupByShard(Collection<Long> ids) {
+        Map<Integer, List<Long>> groups = new TreeMap<>();
+        for (Long id : ids) {
+            groups.computeIfAbsent(shardOf(id), shard -> new ArrayList<>()).add(id);
+        }
+        return groups;
+    }
+
+    /**
+     * Get the shard the current thread works on.
+     *
+     * @return the index of the current shard
+     */
+    public int currentShard() {
+        Integer shard = ShardContext.get();
+        return shard != null ? shard : 0;
+    }
+
+    /**
+     * Pick the shard for a new project, going round the shards in turn.
+     *
+     * @return the index of the shard
+     */
+    public int nextShard() {
+        return Math.floorMod(nextShard.getAndIncrement(), shardCount);
+    }
+
+    /**
+     * Run an action on the given shard.
+     *
+     * @param shard the index of the shard
+     * @param action the action to run
+     * @return the result of the action
+     * @throws IllegalArgumentException if a transaction on another shard is active
+     */
+    public <T> T callOn(int shard, Supplier<T> action) {
+        checkSwitch(shard);
+        return ShardContext.call(shard, action);
+    }
+
+    /**
+     * Run a read on each of the given shards and collect the results. The read on the current shard runs on the
+     * calling thread, inside its transaction if there is one, the others run in parallel outside any transaction.
+     *
+     * @param shards the indexes of the shards
+     * @param query the read, given the index of the shard it runs on
+     * @return the results, in the order of the shards
+     */
+    public <T> List<T> query(Collection<Integer> shards, IntFunction<T> query) {
+        int current = currentShard();
+        List<CompletableFuture<T>> results = new ArrayList<>();
+        for (int shard : shards) {
+            results.add(shard == current
+                    ? null
+                    : CompletableFuture.supplyAsync(() -> ShardContext.call(shard, () -> query.apply(shard)), executor));
+        }
+
+        List<T> values = new ArrayList<>();
+        int index = 0;
+        for (int shard : shards) {
+            CompletableFuture<T> result = results.get(index++);
+            values.add(result == null ? query.apply(shard) : await(result));
+        }
+        return values;
+    }
+
+    /**
+     * Run an action in a new transaction on every shard but the current one, in parallel, and wait for all of them.
+     * The transactions commit independently of each other and of the current one.
+     *
+     * @param action the action to run on each shard
+     */
+    public void inTransactionOnOtherShards(Runnable action) {
+        int current = currentShard();
+        List<CompletableFuture<Void>> results = allShards().stream()
+                .filter(shard -> shard != current)
+                .map(shard -> CompletableFuture.runAsync(() ->
+                        ShardContext.run(shard, () -> transactionTemplate.executeWithoutResult(status -> action.run())),
+                        executor))
+                .toList();
+        results.forEach(ShardRouter::await);
+    }
+
+    /**
+     * Check that the current thread may switch to the given shard, which it may not while a transaction on another
+     * shard is active, as the transaction holds a connection to that shard.
+     *
+     * @param shard the index of the shard to switch to
+     * @throws IllegalArgumentException if a transaction on another shard is active
+     */
+    void checkSwitch(int shard) {
+        if (shard != currentShard() && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalArgumentException("Projects and tasks on different shards cannot be used in one transaction");
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.demo.shard;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.Order;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sets the shard for methods annotated with {@link ShardRouted}. It runs before the transaction interceptor,
+ * which has the lowest precedence, so the transaction takes its connection from the chosen shard.
+ * It must not take the highest precedence itself, which would put it ahead of the interceptor exposing the
+ * invocation that binds the annotation.
+ */
+@Aspect
+@Component
+@Order(0)
+public class ShardRoutingAspect {
+
+    private final ShardRouter shardRouter;
+    private final ExpressionParser parser = new SpelExpressionParser();
+    private final ParameterNameDiscoverer parameterNames = new DefaultParameterNameDiscoverer();
+    private final Map<String, Expression> expressions = new ConcurrentHashMap<>();
+
+    public ShardRoutingAspect(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    @Around("@annotation(shardRouted)")
+    public Object route(ProceedingJoinPoint joinPoint, ShardRouted shardRouted) throws Throwable {
+        if (shardRouter.getShardCount() == 1) {
+            return joinPoint.proceed();
+        }
+
+        int shard = resolveShard(joinPoint, shardRouted);
+        shardRouter.checkSwitch(shard);
+        Integer previous = ShardContext.set(shard);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ShardContext.restore(previous);
+        }
+    }
+
+    private int resolveShard(ProceedingJoinPoint joinPoint, ShardRouted shardRouted) {
+        if (shardRouted.value().isEmpty()) {
+            return TransactionSynchronizationManager.isActualTransactionActive()
+                    ? shardRouter.currentShard()
+                    : shardRouter.nextShard();
+        }
+
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        MethodBasedEvaluationContext context = new MethodBasedEvaluationContext(
+                joinPoint.getTarget(), signature.getMethod(), joinPoint.getArgs(), parameterNames);
+        Object id = expressions.computeIfAbsent(shardRouted.value(), parser::parseExpression).getValue(context);
+        // Missing IDs fail validation or lookup inside the method, on whichever shard is current
+        return id instanceof Number number ? shardRouter.shardOf(number.longValue()) : shardRouter.currentShard();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.demo.shard;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Prepares the shards at startup. Hibernate only generates the schema on shard 0, so with {@code ddl-auto}
+ * {@code create} or {@code create-drop} the schema is generated on the other shards the same way.
+ * The identity columns of projects and tasks are then set to step by the shard count from an offset of the shard
+ * index, continuing above the highest existing ID, so every shard hands out IDs that route back to it.
+ */
+public class ShardSchemaInitializer implements InitializingBean {
+    private static final Logger logger = LoggerFactory.getLogger(ShardSchemaInitializer.class);
+
+    private static final List<String> SHARDED_TABLES = List.of("projects", "tasks");
+    private static final Set<String> GENERATING_DDL_MODES = Set.of("create", "create-drop");
+
+    private final ShardRoutingDataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+    private final String ddlAuto;
+
+    public ShardSchemaInitializer(ShardRoutingDataSource dataSource, EntityManagerFactory entityManagerFactory,
+                                  String ddlAuto) {
+        this.dataSource = dataSource;
+        this.entityManagerFactory = entityManagerFactory;
+        this.ddlAuto = ddlAuto;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        List<DataSource> shards = dataSource.getShards();
+
+        if (GENERATING_DDL_MODES.contains(ddlAuto)) {
+            var schemaManager = entityManagerFactory.unwrap(SessionFactory.class).getSchemaManager();
+            for (int shard = 1; shard < shards.size(); shard++) {
+                ShardContext.run(shard, () -> {
+                    schemaManager.dropMappedObjects(false);
+                    schemaManager.exportMappedObjects(false);
+                });
+            }
+        }
+
+        for (int shard = 0; shard < shards.size(); shard++) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(shards.get(shard));
+            for (String table : SHARDED_TABLES) {
+                long maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + table, Long.class);
+                long nextId = nextIdOnShard(maxId, shard, shards.size());
+                jdbcTemplate.execute("alter table " + table + " alter column id set increment by " + shards.size()
+                        + " restart with " + nextId);
+            }
+        }
+        logger.info("Initialized {} shards", shards.size());
+    }
+
+    /**
+     * Smallest ID above the given one that belongs to the shard.
+     */
+    static long nextIdOnShard(long maxId, int shard, int shardCount) {
+        long nextId = maxId + 1;
+        return nextId + Math.floorMod(shard - (nextId - 1), shardCount);
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.demo.web;
+
+import com.example.demo.dto.batch.BatchOperationDto;
+import com.example.demo.dto.batch.BatchOperationResultDto;
+import com.example.demo.dto.batch.BatchRequestDto;
+import com.example.demo.dto.batch.BatchResultDto;
+import com.example.demo.exception.AccessDeniedException;
+import com.example.demo.model.entity.User;
+import com.example.demo.security.CurrentUserScope;
+import com.example.demo.service.UserService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Executes the operations of a batch request in order, within the enclosing HTTP request.
+ * Each operation is dispatched to the regular controllers through the DispatcherServlet, so it gets the same
+ * argument resolution, validation, method security and error handling as a standalone call, while authentication
+ * and the lookup of the current user happen once for the whole batch.
+ * <p>
+ * Operations do not pass through the servlet filters, including the Spring Security filter chain. Instead, every
+ * operation runs with the security context of the enclosing request, which the filter chain has already
+ * authenticated, and a batch without an authenticated caller is rejected. As every path allowed in a batch only
+ * requires authentication in the filter chain, an operation gets the same access as a standalone call, with role
+ * and ownership checks applied by method security and the services.
+ */
+@Component
+public class BatchRequestExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchRequestExecutor.class);
+
+    private static final Set<String> METHODS = Set.of("GET", "POST", "PUT", "DELETE");
+    private static final List<String> RESOURCES = List.of("/api/v1/tasks", "/api/v1/projects", "/api/v1/users");
+    private static final Pattern REFERENCE = Pattern.compile("\\$\\{(\\d+)\\.([A-Za-z0-9_.]+)}");
+
+    private final ObjectProvider<DispatcherServlet> dispatcherServlet;
+    private final TransactionTemplate transactionTemplate;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final int maxOperations;
+
+    public BatchRequestExecutor(ObjectProvider<DispatcherServlet> dispatcherServlet,
+                                PlatformTransactionManager transactionManager,
+                                UserService userService,
+                                ObjectMapper objectMapper,
+                                @Value("${app.batch.max-operations}") int maxOperations) {
+        this.dispatcherServlet = dispatcherServlet;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.userService = userService;
+        this.objectMapper = objectMapper;
+        this.maxOperations = maxOperations;
+    }
+
+    /**
+     * Execute a batch request.
+     * Without shared transaction every operation runs on its own and later operations run even if earlier ones fail.
+     * With a shared transaction the first failing operation rolls back all changes and the remaining operations are
+     * skipped with status 424.
+     *
+     * @param batch the operations to execute
+     * @param request the enclosing request
+     * @param response the enclosing response
+     * @return the status and body of every operation, in order
+     * @throws IllegalArgumentException if the batch is too large or contains an unsupported operation
+     * @throws AccessDeniedException if the caller is not authenticated
+     */
+    public BatchResultDto execute(BatchRequestDto batch, HttpServletRequest request, HttpServletResponse response) {
+        if (batch.getOperations().size() > maxOperations) {
+            throw new IllegalArgumentException("At most " + maxOperations + " operations can be sent in one batch");
+        }
+        batch.getOperations().forEach(operation -> {
+            checkMethod(operation.getMethod());
+            checkPath(operation.getPath());
+        });
+
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        Authentication authentication = securityContext.getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            throw new AccessDeniedException("Batch requests require an authenticated user");
+        }
+
+        User currentUser = userService.getCurrentUser();
+        return CurrentUserScope.callAs(currentUser, () -> batch.isTransactional()
+                ? transactionTemplate.execute(transaction ->
+                        executeAll(batch, request, response, securityContext, transaction))
+                : executeAll(batch, request, response, securityContext, null));
+    }
+
+    private BatchResultDto executeAll(BatchRequestDto batch, HttpServletRequest request, HttpServletResponse response,
+                                      SecurityContext securityContext, TransactionStatus transaction) {
+        List<BatchOperationResultDto> results = new ArrayList<>();
+        boolean rolledBack = false;
+
+        for (BatchOperationDto operation : batch.getOperations()) {
+            if (rolledBack) {
+                results.add(error(HttpStatus.FAILED_DEPENDENCY, "Skipped because an earlier operation failed"));
+                continue;
+            }
+
+            BatchOperationResultDto result = dispatch(operation, results, request, response, securityContext);
+            results.add(result);
+
+            if (transaction != null && result.getStatus() >= 400) {
+                transaction.setRollbackOnly();
+                rolledBack = true;
+            }
+        }
+
+        return BatchResultDto.builder()
+                .results(results)
+                .committed(!rolledBack)
+                .build();
+    }
+
+    private BatchOperationResultDto dispatch(BatchOperationDto operation, List<BatchOperationResultDto> results,
+                                             HttpServletRequest request, HttpServletResponse response,
+                                             SecurityContext securityContext) {
+        String path;
+        byte[] body;
+        try {
+            path = resolveReferences(operation.getPath(), results);
+            checkPath(path);
+            body = operation.getBody() == null || operation.getBody().isNull()
+                    ? null
+                    : objectMapper.writeValueAsBytes(operation.getBody());
+        } catch (IllegalArgumentException | IOException e) {
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+
+        SubRequest subRequest = new SubRequest(request, operation.getMethod().toUpperCase(Locale.ROOT), path, body);
+        SubResponse subResponse = new SubResponse(response);
+        // Each operation starts from the caller's security context, whatever an earlier one left behind
+        SecurityContext previous = SecurityContextHolder.getContext();
+        SecurityContextHolder.setContext(securityContext);
+        try {
+            dispatcherServlet.getObject().service(subRequest, subResponse);
+        } catch (ServletException | IOException | RuntimeException e) {
+            logger.error("Batch operation {} {} failed", operation.getMethod(), path, e);
+            return error(HttpStatus.INTERNAL_SERVER_ERROR, "An unexpected error occurred");
+        } finally {
+            SecurityContextHolder.setContext(previous);
+        }
+
+        return BatchOperationResultDto.builder()
+                .status(subResponse.getStatus())
+                .body(readBody(subResponse.getContentAsByteArray()))
+                .build();
+    }
+
+    /**
+     * Replace references such as {@code ${0.id}} with the value of a field in the body of an earlier result.
+     */
+    private String resolveReferences(String path, List<BatchOperationResultDto> results) {
+        Matcher matcher = REFERENCE.matcher(path);
+        StringBuilder resolved = new StringBuilder();
+
+        while (matcher.find()) {
+            int index = Integer.parseInt(matcher.group(1));
+            if (index >= results.size()) {
+                throw new IllegalArgumentException("Reference to operation " + index + " which has not run yet");
+            }
+
+            JsonNode value = results.get(index).getBody();
+            for (String field : matcher.group(2).split("\\.")) {
+                value = value != null ? value.get(field) : null;
+            }
+            if (value == null || !value.isValueNode() || value.isNull()) {
+                throw new IllegalArgumentException("Unresolved reference " + matcher.group());
+            }
+
+            String segment = UriUtils.encodePathSegment(value.asText(), StandardCharsets.UTF_8);
+            matcher.appendReplacement(resolved, Matcher.quoteReplacement(segment));
+        }
+        matcher.appendTail(resolved);
+
+        return resolved.toString();
+    }
+
+    private JsonNode readBody(byte[] content) {
+        if (content.length == 0) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(content);
+        } catch (IOException e) {
+            return TextNode.valueOf(new String(content, StandardCharsets.UTF_8));
+        }
+    }
+
+    private BatchOperationResultDto error(HttpStatus status, String message) {
+        ObjectNode body = objectMapper.createObjectNode()
+                .put("status", status.value())
+                .put("error", status.getReasonPhrase())
+                .put("message", message);
+        return BatchOperationResultDto.builder()
+                .status(status.value())
+                .body(body)
+                .build();
+    }
+
+    private static void checkMethod(String method) {
+        if (!METHODS.contains(method.toUpperCase(Locale.ROOT))) {
+            throw new IllegalArgumentException("Unsupported method in batch: " + method);
+        }
+    }
+
+    private static void checkPath(String path) {
+        boolean supported = RESOURCES.stream().anyMatch(resource -> path.equals(resource)
+                || path.startsWith(resource + "/") || path.startsWith(resource + "?"));
+        if (!supported || path.contains("..") || path.contains("//") || path.contains(";")) {
+            throw new IllegalArgumentException("Unsupported path in batch: " + path);
+        }
+    }
+}
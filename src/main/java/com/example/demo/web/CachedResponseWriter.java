@@ -0,0 +1,184 @@
+package com.example.demo.web;
+
+import com.example.demo.cache.ChangeTracker.ResourceType;
+import com.example.demo.cache.SerializedResponseCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.NativeWebRequest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Writes JSON responses of single resources straight from the {@link SerializedResponseCache},
+ * so repeated reads of an unchanged resource skip the mapper and Jackson.
+ * Callers must check access and resolve the current version before calling, as the cached bytes are shared by all users.
+ */
+@Component
+@RequiredArgsConstructor
+public class CachedResponseWriter {
+
+    private static final List<MediaType> PRODUCIBLE_TYPES = List.of(
+            MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, MediaType.valueOf("application/x-jackson-smile"));
+
+    private final SerializedResponseCache cache;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Build the ETag of the response {@link #write} sends for a version, which differs for gzip-compressed bodies,
+     * and mark the response as varying by Accept-Encoding, so a 304 carries the same Vary header as the body.
+     * The ETag is chosen by whether the client accepts gzip, so bodies too small to compress simply get their own tag.
+     *
+     * @param version the current version of the resource
+     * @param request the current request
+     * @return a quoted strong ETag
+     */
+    public String eTag(String version, NativeWebRequest request) {
+        varyByAcceptEncoding(request.getNativeResponse(HttpServletResponse.class));
+        return ETags.strong(request, version, acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING)) ? "gzip" : null);
+    }
+
+    /**
+     * Write the JSON representation of a resource, from the cache if it holds the given version,
+     * otherwise by serializing the body and caching the result.
+     * Nothing is written when the client prefers another format, which is then left to the message converters.
+     *
+     * @param type the resource type
+     * @param id the ID of the resource
+     * @param version the current version of the resource
+     * @param request the current request
+     * @param body loads the response body on a cache miss
+     * @return true if the response was written
+     */
+    public boolean write(ResourceType type, Long id, String version, NativeWebRequest request, Supplier<?> body) {
+        if (!prefersJson(request.getHeader(HttpHeaders.ACCEPT))) {
+            return false;
+        }
+
+        SerializedResponseCache.Entry entry = cache.get(type, id, version);
+        if (entry == null) {
+            entry = cache.put(type, id, version, serialize(body.get()));
+        }
+
+        try {
+            writeEntry(entry, request);
+        } finally {
+            entry.release();
+        }
+        return true;
+    }
+
+    private static void writeEntry(SerializedResponseCache.Entry entry, NativeWebRequest request) {
+        HttpServletResponse response = request.getNativeResponse(HttpServletResponse.class);
+        boolean gzip = entry.gzipBody() != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        ByteBuffer bytes = (gzip ? entry.gzipBody() : entry.body()).duplicate();
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLengthLong(bytes.remaining());
+        varyByAcceptEncoding(response);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        try {
+            WritableByteChannel channel = Channels.newChannel(response.getOutputStream());
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] serialize(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize response body", e);
+        }
+    }
+
+    /**
+     * Check whether the most preferred producible type in the Accept header is JSON, as content negotiation would pick.
+     */
+    private static boolean prefersJson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+
+        List<MediaType> acceptable;
+        try {
+            acceptable = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        MimeTypeUtils.sortBySpecificity(acceptable);
+
+        for (MediaType mediaType : acceptable) {
+            for (MediaType producible : PRODUCIBLE_TYPES) {
+                if (mediaType.getQualityValue() > 0 && mediaType.isCompatibleWith(producible)) {
+                    return producible.equals(MediaType.APPLICATION_JSON);
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void varyByAcceptEncoding(HttpServletResponse response) {
+        boolean varies = response.getHeaders(HttpHeaders.VARY).stream()
+                .anyMatch(vary -> vary.toLowerCase(Locale.ROOT).contains("accept-encoding"));
+        if (!varies) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+    }
+
+    /**
+     * Check whether the Accept-Encoding header allows gzip with a non-zero quality, by name or through {@code *}.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        Double gzip = null;
+        Double any = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = quality(parts);
+            } else if (coding.equals("*")) {
+                any = quality(parts);
+            }
+        }
+        Double quality = gzip != null ? gzip : any;
+        return quality != null && quality > 0;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
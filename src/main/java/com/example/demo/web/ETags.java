@@ -0,0 +1,56 @@
+package com.example.demo.web;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Helper for building strong ETags for conditional GET requests.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * Build a strong ETag from a version and the parts of the request that shape the response:
+     * the request URI, the accepted media types, the authenticated user and the query parameters
+     * (paging, sorting and filters).
+     *
+     * @param request the current request
+     * @param version the version of the data the response is built from
+     * @return a quoted strong ETag
+     */
+    public static String strong(WebRequest request, String version) {
+        return strong(request, version, null);
+    }
+
+    /**
+     * Build a strong ETag as {@link #strong(WebRequest, String)} does, for a response body sent with a content coding.
+     * A compressed body is another representation than the identity body, so it must not share its strong ETag.
+     *
+     * @param request the current request
+     * @param version the version of the data the response is built from
+     * @param contentCoding the content coding of the response body, or null for the identity body
+     * @return a quoted strong ETag
+     */
+    public static String strong(WebRequest request, String version, String contentCoding) {
+        StringBuilder source = new StringBuilder(version)
+                .append('|').append(request.getDescription(false))
+                .append('|').append(request.getHeader(HttpHeaders.ACCEPT))
+                .append('|').append(request.getRemoteUser());
+
+        Map<String, String[]> parameters = new TreeMap<>(request.getParameterMap());
+        parameters.forEach((name, values) -> source.append('|').append(name).append('=').append(Arrays.toString(values)));
+        if (contentCoding != null) {
+            source.append("|coding=").append(contentCoding);
+        }
+
+        return "\"" + DigestUtils.md5DigestAsHex(source.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
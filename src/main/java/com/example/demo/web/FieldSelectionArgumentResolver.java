@@ -0,0 +1,32 @@
+package com.example.demo.web;
+
+import com.example.demo.dto.FieldSelection;
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Resolves {@link FieldSelection} handler arguments from the {@code fields} and {@code expand} query parameters.
+ * The selection is also stored as a request attribute, so {@link FieldSelectionResponseBodyAdvice}
+ * can apply it to the response body.
+ */
+public class FieldSelectionArgumentResolver implements HandlerMethodArgumentResolver {
+
+    public static final String ATTRIBUTE = FieldSelection.class.getName();
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return FieldSelection.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        FieldSelection selection = FieldSelection.of(webRequest.getParameter("fields"), webRequest.getParameter("expand"));
+        webRequest.setAttribute(ATTRIBUTE, selection, RequestAttributes.SCOPE_REQUEST);
+        return selection;
+    }
+}
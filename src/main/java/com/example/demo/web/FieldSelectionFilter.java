@@ -0,0 +1,49 @@
+package com.example.demo.web;
+
+import com.example.demo.dto.FieldSelection;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+
+/**
+ * Jackson filter that writes only the properties allowed by a {@link FieldSelection}.
+ * The path of each property is resolved from the generator's output context, so a nested DTO such as
+ * the project of a task is filtered as {@code project.name} rather than {@code name}.
+ */
+public class FieldSelectionFilter extends SimpleBeanPropertyFilter {
+
+    private final FieldSelection selection;
+
+    public FieldSelectionFilter(FieldSelection selection) {
+        this.selection = selection;
+    }
+
+    @Override
+    public void serializeAsField(Object pojo, JsonGenerator gen, SerializerProvider provider, PropertyWriter writer)
+            throws Exception {
+        if (selection.allows(pathOf(gen, writer.getName()))) {
+            writer.serializeAsField(pojo, gen, provider);
+        } else if (!gen.canOmitFields()) {
+            writer.serializeAsOmittedField(pojo, gen, provider);
+        }
+    }
+
+    private String pathOf(JsonGenerator gen, String name) {
+        StringBuilder path = new StringBuilder(name);
+        JsonStreamContext parent = gen.getOutputContext().getParent();
+
+        while (parent != null && parent.inObject() && isFiltered(parent.getCurrentValue())) {
+            path.insert(0, parent.getCurrentName() + ".");
+            parent = parent.getParent();
+        }
+
+        return path.toString();
+    }
+
+    private boolean isFiltered(Object value) {
+        return value != null && value.getClass().isAnnotationPresent(JsonFilter.class);
+    }
+}
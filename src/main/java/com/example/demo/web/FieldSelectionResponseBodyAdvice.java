@@ -0,0 +1,42 @@
+package com.example.demo.web;
+
+import com.example.demo.dto.FieldSelection;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.util.Arrays;
+
+/**
+ * Applies the {@link FieldSelection} of the current request to the response body,
+ * for handler methods that accept a field selection.
+ */
+@RestControllerAdvice
+public class FieldSelectionResponseBodyAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return super.supports(returnType, converterType)
+                && Arrays.asList(returnType.getExecutable().getParameterTypes()).contains(FieldSelection.class);
+    }
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        Object attribute = ((ServletServerHttpRequest) request).getServletRequest()
+                .getAttribute(FieldSelectionArgumentResolver.ATTRIBUTE);
+
+        if (attribute instanceof FieldSelection selection && !selection.isDefault()) {
+            bodyContainer.setFilters(new SimpleFilterProvider()
+                    .addFilter(FieldSelection.FILTER_ID, new FieldSelectionFilter(selection)));
+        }
+    }
+}
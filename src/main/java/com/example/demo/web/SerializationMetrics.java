@@ -0,0 +1,80 @@
+package com.example.demo.web;
+
+import com.fasterxml.jackson.core.io.IOContext;
+import com.fasterxml.jackson.core.io.OutputDecorator;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson output decorator that records, per data format, how long each serialization takes
+ * and how many bytes it produces.
+ * The measurement starts when Jackson creates a generator on a stream and ends when the generator closes it.
+ */
+public class SerializationMetrics extends OutputDecorator {
+
+    private final transient Timer timer;
+    private final transient DistributionSummary bytes;
+
+    public SerializationMetrics(MeterRegistry registry, String format) {
+        this.timer = Timer.builder("jackson.serialization")
+                .description("Time spent serializing response bodies")
+                .tag("format", format)
+                .register(registry);
+        this.bytes = DistributionSummary.builder("jackson.serialization.bytes")
+                .description("Size of serialized response bodies")
+                .baseUnit("bytes")
+                .tag("format", format)
+                .register(registry);
+    }
+
+    @Override
+    public OutputStream decorate(IOContext context, OutputStream out) {
+        return new MeteredOutputStream(out, System.nanoTime());
+    }
+
+    @Override
+    public Writer decorate(IOContext context, Writer writer) {
+        return writer;
+    }
+
+    private class MeteredOutputStream extends FilterOutputStream {
+
+        private final long startNanos;
+        private long count;
+        private boolean closed;
+
+        MeteredOutputStream(OutputStream out, long startNanos) {
+            super(out);
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                bytes.record(count);
+            }
+            super.close();
+        }
+    }
+}
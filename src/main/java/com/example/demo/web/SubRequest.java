@@ -0,0 +1,252 @@
+package com.example.demo.web;
+
+import com.example.demo.service.IdempotencyService;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A sub-request of a batch, dispatched in the thread of the enclosing request.
+ * Method, path, query parameters and body come from the batch operation, request attributes are private to the
+ * sub-request, and all other headers, including authentication, are those of the enclosing request.
+ * The idempotency key of the enclosing request is not passed on, as it identifies no single operation.
+ */
+final class SubRequest extends HttpServletRequestWrapper {
+
+    private static final Set<String> HIDDEN_HEADERS = Set.of(
+            HttpHeaders.CONTENT_TYPE.toLowerCase(), HttpHeaders.CONTENT_LENGTH.toLowerCase(), HttpHeaders.ACCEPT.toLowerCase(),
+            HttpHeaders.ACCEPT_ENCODING.toLowerCase(),
+            HttpHeaders.IF_NONE_MATCH.toLowerCase(), HttpHeaders.IF_MATCH.toLowerCase(),
+            HttpHeaders.IF_MODIFIED_SINCE.toLowerCase(), HttpHeaders.IF_UNMODIFIED_SINCE.toLowerCase(),
+            IdempotencyService.KEY_HEADER.toLowerCase());
+
+    private final String method;
+    private final String path;
+    private final String query;
+    private final Map<String, String[]> parameters;
+    private final byte[] body;
+    private final Map<String, Object> attributes = new HashMap<>();
+
+    SubRequest(HttpServletRequest request, String method, String pathAndQuery, byte[] body) {
+        super(request);
+        UriComponents uri = UriComponentsBuilder.fromUriString(pathAndQuery).build();
+        this.method = method;
+        this.path = uri.getPath();
+        this.query = uri.getQuery();
+        this.parameters = toParameterMap(uri.getQueryParams());
+        this.body = body;
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public String getRequestURI() {
+        return getContextPath() + path;
+    }
+
+    @Override
+    public StringBuffer getRequestURL() {
+        StringBuffer url = new StringBuffer(getScheme()).append("://").append(getServerName());
+        url.append(':').append(getServerPort()).append(getRequestURI());
+        return url;
+    }
+
+    @Override
+    public String getServletPath() {
+        return path;
+    }
+
+    @Override
+    public String getPathInfo() {
+        return null;
+    }
+
+    @Override
+    public String getQueryString() {
+        return query;
+    }
+
+    @Override
+    public String getParameter(String name) {
+        String[] values = parameters.get(name);
+        return values != null && values.length > 0 ? values[0] : null;
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        return Collections.unmodifiableMap(parameters);
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        return Collections.enumeration(parameters.keySet());
+    }
+
+    @Override
+    public String[] getParameterValues(String name) {
+        return parameters.get(name);
+    }
+
+    @Override
+    public String getHeader(String name) {
+        if (HIDDEN_HEADERS.contains(name.toLowerCase())) {
+            return ownHeader(name);
+        }
+        return super.getHeader(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        if (HIDDEN_HEADERS.contains(name.toLowerCase())) {
+            String value = ownHeader(name);
+            return Collections.enumeration(value != null ? List.of(value) : List.of());
+        }
+        return super.getHeaders(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        List<String> names = Collections.list(super.getHeaderNames()).stream()
+                .filter(name -> !HIDDEN_HEADERS.contains(name.toLowerCase()))
+                .collect(Collectors.toCollection(ArrayList::new));
+        names.add(HttpHeaders.ACCEPT);
+        if (body != null) {
+            names.add(HttpHeaders.CONTENT_TYPE);
+            names.add(HttpHeaders.CONTENT_LENGTH);
+        }
+        return Collections.enumeration(names);
+    }
+
+    @Override
+    public String getContentType() {
+        return body != null ? MediaType.APPLICATION_JSON_VALUE : null;
+    }
+
+    @Override
+    public int getContentLength() {
+        return body != null ? body.length : -1;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return getContentLength();
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return StandardCharsets.UTF_8.name();
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        ByteArrayInputStream input = new ByteArrayInputStream(body != null ? body : new byte[0]);
+        return new ServletInputStream() {
+            @Override
+            public boolean isFinished() {
+                return input.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener readListener) {
+                // The body is held in memory, so all of it is available at once
+                try {
+                    if (!isFinished()) {
+                        readListener.onDataAvailable();
+                    }
+                    if (isFinished()) {
+                        readListener.onAllDataRead();
+                    }
+                } catch (IOException e) {
+                    readListener.onError(e);
+                }
+            }
+
+            @Override
+            public int read() {
+                return input.read();
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(attributes.keySet());
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        if (value == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, value);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        attributes.remove(name);
+    }
+
+    private String ownHeader(String name) {
+        if (HttpHeaders.ACCEPT.equalsIgnoreCase(name)) {
+            return MediaType.APPLICATION_JSON_VALUE;
+        }
+        if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+            return getContentType();
+        }
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name) && body != null) {
+            return String.valueOf(body.length);
+        }
+        return null;
+    }
+
+    private static Map<String, String[]> toParameterMap(MultiValueMap<String, String> queryParams) {
+        Map<String, String[]> parameters = new LinkedHashMap<>();
+        queryParams.forEach((name, values) -> parameters.put(
+                UriUtils.decode(name, StandardCharsets.UTF_8),
+                values.stream()
+                        .map(value -> value != null ? UriUtils.decode(value, StandardCharsets.UTF_8) : "")
+                        .toArray(String[]::new)));
+        return parameters;
+    }
+}
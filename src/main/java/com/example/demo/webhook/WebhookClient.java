@@ -0,0 +1,256 @@
+package com.example.demo.webhook;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.net.ssl.SNIHostName;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Sends webhook callbacks with the asynchronous JDK HTTP client, so no thread waits for a response.
+ * At most {@code app.webhooks.max-concurrency-per-endpoint} requests are in flight per endpoint (scheme, host
+ * and port); further requests queue in memory and are sent as earlier ones complete, so a slow endpoint neither
+ * gets flooded nor holds up the others. An endpoint is forgotten once no request is queued or in flight for it, so
+ * endpoints called once do not accumulate.
+ * <p>
+ * Every request carries the event type, the delivery ID, which stays the same across retries, and an
+ * HMAC-SHA256 signature of the body with the subscription secret in {@value #SIGNATURE_HEADER}. The URL is checked
+ * against {@link WebhookUrlPolicy} before every request, and redirects are not followed.
+ * <p>
+ * Requests connect to the address the policy checked rather than resolving the host again, which a host could answer
+ * with an internal address. They name the host in the Host header and, over TLS, in SNI, against which the server
+ * certificate is verified. Pinned requests use HTTP/1.1, where the Host header is the host the server sees, and need
+ * the client to allow setting it, which this class enables through {@value #ALLOW_RESTRICTED_HEADERS} before the
+ * first client is built.
+ */
+@Component
+public class WebhookClient {
+
+    public static final String EVENT_HEADER = "X-Webhook-Event";
+    public static final String DELIVERY_HEADER = "X-Webhook-Delivery";
+    public static final String SIGNATURE_HEADER = "X-Webhook-Signature";
+
+    private static final String ALLOW_RESTRICTED_HEADERS = "jdk.httpclient.allowRestrictedHeaders";
+
+    static {
+        String allowed = System.getProperty(ALLOW_RESTRICTED_HEADERS);
+        if (allowed == null || allowed.isBlank()) {
+            System.setProperty(ALLOW_RESTRICTED_HEADERS, "host");
+        } else if (Arrays.stream(allowed.split(",")).noneMatch(header -> header.trim().equalsIgnoreCase("host"))) {
+            System.setProperty(ALLOW_RESTRICTED_HEADERS, allowed.trim() + ",host");
+        }
+    }
+
+    private final HttpClient httpClient;
+    private final WebhookUrlPolicy urlPolicy;
+    private final Duration requestTimeout;
+    private final int maxConcurrencyPerEndpoint;
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public WebhookClient(WebhookUrlPolicy urlPolicy,
+                         @Value("${app.webhooks.request-timeout}") Duration requestTimeout,
+                         @Value("${app.webhooks.max-concurrency-per-endpoint}") int maxConcurrencyPerEndpoint) {
+        this.urlPolicy = urlPolicy;
+        this.requestTimeout = requestTimeout;
+        this.httpClient = newClient().build();
+        this.maxConcurrencyPerEndpoint = maxConcurrencyPerEndpoint;
+    }
+
+    /**
+     * Post a callback once the endpoint has a free slot.
+     *
+     * @param url the URL of the subscription
+     * @param secret the secret of the subscription
+     * @param event the type of the event
+     * @param deliveryId the ID of the delivery
+     * @param body the JSON body
+     * @return the status code of the response, or a failed future if no response was received or the URL is
+     * not allowed
+     */
+    public CompletableFuture<Integer> send(String url, String secret, String event, long deliveryId, String body) {
+        URI uri;
+        boolean pinned;
+        HttpRequest request;
+        try {
+            WebhookUrlPolicy.Target target = urlPolicy.resolve(url);
+            uri = target.uri();
+            pinned = target.address() != null && !isLiteral(uri.getHost());
+            HttpRequest.Builder builder = HttpRequest.newBuilder(pinned ? pin(uri, target.address()) : uri)
+                    .timeout(requestTimeout)
+                    .header("Content-Type", "application/json")
+                    .header(EVENT_HEADER, event)
+                    .header(DELIVERY_HEADER, Long.toString(deliveryId))
+                    .header(SIGNATURE_HEADER, "sha256=" + sign(secret, body))
+                    .POST(HttpRequest.BodyPublishers.ofString(body));
+            if (pinned) {
+                builder.version(HttpClient.Version.HTTP_1_1)
+                        .header("Host", uri.getPort() != -1 ? uri.getHost() + ":" + uri.getPort() : uri.getHost());
+            }
+            request = builder.build();
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        Consumer<Endpoint> call = endpoint -> {
+            try {
+                endpoint.client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                        .whenComplete((response, error) -> {
+                            release(endpoint);
+                            if (error != null) {
+                                result.completeExceptionally(error);
+                            } else {
+                                result.complete(response.statusCode());
+                            }
+                        });
+            } catch (RuntimeException e) {
+                release(endpoint);
+                result.completeExceptionally(e);
+            }
+        };
+        // Queue under the lock of the key, so an endpoint is never queued on after it was found idle and removed
+        Endpoint endpoint = endpoints.compute(uri.getScheme() + "://" + uri.getRawAuthority(), (key, existing) -> {
+            Endpoint current = existing != null ? existing : new Endpoint(key, maxConcurrencyPerEndpoint,
+                    pinned && "https".equalsIgnoreCase(uri.getScheme()) ? tlsClient(uri.getHost()) : httpClient);
+            current.waiting.add(call);
+            return current;
+        });
+        endpoint.drain();
+        return result;
+    }
+
+    /**
+     * Count the endpoints with requests queued or in flight.
+     */
+    int endpointCount() {
+        return endpoints.size();
+    }
+
+    private void release(Endpoint endpoint) {
+        endpoint.release();
+        endpoints.computeIfPresent(endpoint.key,
+                (key, current) -> current == endpoint && current.isIdle() ? null : current);
+    }
+
+    /**
+     * Compute the signature of a body, as receivers should to verify a callback.
+     *
+     * @param secret the secret of the subscription
+     * @param body the body of the callback
+     * @return the hex encoded HMAC-SHA256 of the body
+     */
+    public static String sign(String secret, String body) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal(body.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    /**
+     * Replace the host of a URL with an address, keeping the scheme, port, path and query.
+     */
+    static URI pin(URI uri, InetAddress address) {
+        String host = address instanceof Inet6Address
+                ? "[" + address.getHostAddress() + "]"
+                : address.getHostAddress();
+        return URI.create(uri.getScheme() + "://" + host
+                + (uri.getPort() != -1 ? ":" + uri.getPort() : "")
+                + uri.getRawPath()
+                + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : ""));
+    }
+
+    private static boolean isLiteral(String host) {
+        return host.startsWith("[") || host.chars().allMatch(c -> c == '.' || Character.isDigit(c));
+    }
+
+    private HttpClient.Builder newClient() {
+        return HttpClient.newBuilder()
+                .connectTimeout(requestTimeout)
+                .followRedirects(HttpClient.Redirect.NEVER);
+    }
+
+    /**
+     * Build a client for TLS connections to addresses of a host, which sends the host name in SNI. The server
+     * certificate is then verified against that name, not against the address connected to.
+     */
+    private HttpClient tlsClient(String host) {
+        SSLParameters parameters;
+        try {
+            parameters = SSLContext.getDefault().getDefaultSSLParameters();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("TLS is not available", e);
+        }
+        parameters.setServerNames(List.of(new SNIHostName(host)));
+        return newClient().sslParameters(parameters).build();
+    }
+
+    /**
+     * Requests waiting for an endpoint, the slots they take and the client they are sent with.
+     */
+    private static final class Endpoint {
+
+        private final String key;
+        private final int maxSlots;
+        private final Semaphore slots;
+        private final Queue<Consumer<Endpoint>> waiting = new ConcurrentLinkedQueue<>();
+        private final HttpClient client;
+
+        Endpoint(String key, int slots, HttpClient client) {
+            this.key = key;
+            this.maxSlots = slots;
+            this.slots = new Semaphore(slots);
+            this.client = client;
+        }
+
+        void release() {
+            slots.release();
+            drain();
+        }
+
+        boolean isIdle() {
+            return waiting.isEmpty() && slots.availablePermits() == maxSlots;
+        }
+
+        /**
+         * Start waiting requests while slots are free. Both submitting and releasing drain, so a request queued
+         * while the last slot is released is started by one or the other.
+         */
+        private void drain() {
+            while (!waiting.isEmpty() && slots.tryAcquire()) {
+                Consumer<Endpoint> request = waiting.poll();
+                if (request == null) {
+                    // Taken by a concurrent drain, check again for requests queued meanwhile
+                    slots.release();
+                    continue;
+                }
+                request.accept(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.demo.webhook;
+
+import com.example.demo.model.entity.OutboxEvent;
+import com.example.demo.outbox.OutboxSink;
+import com.example.demo.service.WebhookService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Turns relayed task events into webhook deliveries. The deliveries are inserted in the relay transaction,
+ * so an event is removed from the outbox exactly when its deliveries are queued.
+ */
+@Component
+@ConditionalOnProperty(name = "app.webhooks.enabled", havingValue = "true", matchIfMissing = true)
+public class WebhookOutboxSink implements OutboxSink {
+
+    private final WebhookService webhookService;
+
+    public WebhookOutboxSink(WebhookService webhookService) {
+        this.webhookService = webhookService;
+    }
+
+    @Override
+    public void deliver(List<OutboxEvent> events) {
+        webhookService.enqueueDeliveries(events);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.demo.webhook;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Decides which URLs webhooks may be sent to, so a subscription cannot make the server call into its own network.
+ * The host of a URL is resolved, and the URL is refused if any of its addresses is a loopback, link-local (such as
+ * the 169.254.169.254 metadata endpoint), site-local, unique local or wildcard address. Hosts listed in
+ * {@code app.webhooks.allowed-hosts} are allowed whatever they resolve to.
+ * <p>
+ * URLs are checked when a subscription is created and again before every callback, as the addresses a host name
+ * resolves to may have changed in between. Callbacks then connect to the address that was checked, see
+ * {@link #resolve(String)}, so the host cannot be made to resolve elsewhere between the check and the connection.
+ */
+@Component
+public class WebhookUrlPolicy {
+
+    private final Set<String> allowedHosts;
+
+    public WebhookUrlPolicy(@Value("${app.webhooks.allowed-hosts:}") List<String> allowedHosts) {
+        this.allowedHosts = allowedHosts.stream()
+                .map(String::trim)
+                .filter(host -> !host.isEmpty())
+                .map(WebhookUrlPolicy::normalize)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * A URL webhooks may be sent to, with the address its host was checked at.
+     *
+     * @param uri the parsed URL
+     * @param address the checked address to connect to, or null if the host is allowed whatever it resolves to
+     */
+    public record Target(URI uri, InetAddress address) {
+    }
+
+    /**
+     * Check that webhooks may be sent to a URL.
+     *
+     * @param url the URL of a subscription
+     * @return the parsed URL
+     * @throws IllegalArgumentException if the URL is malformed, its host cannot be resolved or it resolves to an
+     *                                  internal address
+     */
+    public URI check(String url) {
+        return resolve(url).uri();
+    }
+
+    /**
+     * Check that webhooks may be sent to a URL and pick the address to connect to, one of those that were checked.
+     *
+     * @param url the URL of a subscription
+     * @return the parsed URL with the address to connect to
+     * @throws IllegalArgumentException if the URL is malformed, its host cannot be resolved or it resolves to an
+     *                                  internal address
+     */
+    public Target resolve(String url) {
+        URI uri = URI.create(url);
+        String scheme = uri.getScheme();
+        if (!"http".equalsIgnoreCase(scheme) && !"https".equalsIgnoreCase(scheme)) {
+            throw new IllegalArgumentException("Webhook URL must be an http or https URL");
+        }
+        String host = uri.getHost();
+        if (host == null || host.isEmpty()) {
+            throw new IllegalArgumentException("Webhook URL must name a host");
+        }
+        if (allowedHosts.contains(normalize(host))) {
+            return new Target(uri, null);
+        }
+
+        InetAddress[] addresses;
+        try {
+            addresses = InetAddress.getAllByName(host);
+        } catch (UnknownHostException e) {
+            throw new IllegalArgumentException("Webhook host " + host + " cannot be resolved");
+        }
+        for (InetAddress address : addresses) {
+            if (isInternal(address)) {
+                throw new IllegalArgumentException("Webhook host " + host + " resolves to an internal address");
+            }
+        }
+        return new Target(uri, addresses[0]);
+    }
+
+    private static boolean isInternal(InetAddress address) {
+        return address.isAnyLocalAddress()
+                || address.isLoopbackAddress()
+                || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress()
+                // Unique local IPv6 addresses, fc00::/7, which isSiteLocalAddress does not cover
+                || address instanceof Inet6Address && (address.getAddress()[0] & 0xfe) == 0xfc;
+    }
+
+    private static String normalize(String host) {
+        String bare = host.startsWith("[") && host.endsWith("]") ? host.substring(1, host.length() - 1) : host;
+        return bare.toLowerCase(Locale.ROOT);
+    }
+}
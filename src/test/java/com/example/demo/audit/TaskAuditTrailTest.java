@@ -0,0 +1,93 @@
+package com.example.demo.audit;
+
+import com.example.demo.model.entity.TaskAudit;
+import com.example.demo.repository.TaskAuditRepository;
+import com.example.demo.shard.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskAuditTrailTest {
+
+    @Mock
+    private TaskAuditRepository taskAuditRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ShardRouter shardRouter;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private TaskAuditTrail taskAuditTrail;
+
+    @BeforeEach
+    void setUp() {
+        when(shardRouter.shardOf(anyLong())).thenReturn(0);
+        when(shardRouter.callOn(anyInt(), any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        taskAuditTrail = new TaskAuditTrail(taskAuditRepository, transactionManager, shardRouter, 100, 10,
+                Duration.ofMillis(10), Duration.ofMillis(10), meterRegistry);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordChange_WhileRunning_ShouldBeWrittenByTheWriterBeforeStopReturns() {
+        // Arrange
+        taskAuditTrail.start();
+
+        // Act
+        taskAuditTrail.recordChange(1L, "status", "TODO", "DONE", 7L);
+        taskAuditTrail.stop();
+
+        // Assert
+        ArgumentCaptor<List<TaskAudit>> written = ArgumentCaptor.forClass(List.class);
+        verify(taskAuditRepository).saveAll(written.capture());
+        assertEquals("DONE", written.getValue().get(0).getNewValue());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordChange_AfterStop_ShouldBeWrittenOnTheCallingThread() {
+        // Arrange
+        taskAuditTrail.start();
+        taskAuditTrail.stop();
+
+        // Act
+        taskAuditTrail.recordChange(1L, "title", "Old", "New", 7L);
+
+        // Assert
+        ArgumentCaptor<List<TaskAudit>> written = ArgumentCaptor.forClass(List.class);
+        verify(taskAuditRepository).saveAll(written.capture());
+        assertEquals("New", written.getValue().get(0).getNewValue());
+        assertEquals(0, meterRegistry.get("audit.changes.dropped").counter().count());
+    }
+
+    @Test
+    void recordChange_AfterStopWhenWriteFails_ShouldCountTheChangeAsDropped() {
+        // Arrange
+        when(taskAuditRepository.saveAll(any())).thenThrow(new IllegalStateException("database down"));
+        taskAuditTrail.start();
+        taskAuditTrail.stop();
+
+        // Act
+        taskAuditTrail.recordChange(1L, "title", "Old", "New", 7L);
+
+        // Assert
+        assertEquals(1, meterRegistry.get("audit.changes.dropped").counter().count());
+    }
+}
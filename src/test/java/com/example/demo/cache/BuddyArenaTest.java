@@ -0,0 +1,71 @@
+package com.example.demo.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BuddyArenaTest {
+
+    @Test
+    void allocate_ShouldRoundUpToPowerOfTwoBlocks() {
+        // Arrange
+        BuddyArena arena = new BuddyArena(4096);
+
+        // Act
+        int first = arena.allocate(100);
+        int second = arena.allocate(1);
+
+        // Assert
+        assertEquals(0, first);
+        assertEquals(128, second);
+        assertEquals(128 + BuddyArena.MIN_BLOCK, arena.getUsedBytes());
+    }
+
+    @Test
+    void allocate_WhenFull_ShouldFail() {
+        // Arrange
+        BuddyArena arena = new BuddyArena(4096);
+        arena.allocate(2048);
+        arena.allocate(1024);
+
+        // Act
+        int tooLarge = arena.allocate(1025);
+        int fits = arena.allocate(1024);
+
+        // Assert
+        assertEquals(-1, tooLarge);
+        assertEquals(3072, fits);
+        assertEquals(4096, arena.getUsedBytes());
+    }
+
+    @Test
+    void free_ShouldMergeBuddiesBackIntoTheWholeArena() {
+        // Arrange
+        BuddyArena arena = new BuddyArena(4096);
+        List<Integer> offsets = new ArrayList<>();
+        for (int i = 0; i < 4096 / BuddyArena.MIN_BLOCK; i++) {
+            offsets.add(arena.allocate(BuddyArena.MIN_BLOCK));
+        }
+        Set<Integer> distinct = new HashSet<>(offsets);
+
+        // Act
+        int whileFull = arena.allocate(1);
+        for (int i = offsets.size() - 1; i >= 0; i -= 2) {
+            arena.free(offsets.get(i), BuddyArena.MIN_BLOCK);
+        }
+        for (int i = 0; i < offsets.size(); i += 2) {
+            arena.free(offsets.get(i), BuddyArena.MIN_BLOCK);
+        }
+
+        // Assert
+        assertEquals(offsets.size(), distinct.size());
+        assertEquals(-1, whileFull);
+        assertEquals(0, arena.getUsedBytes());
+        assertEquals(0, arena.allocate(4096));
+    }
+}
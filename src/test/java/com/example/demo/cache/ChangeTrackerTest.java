@@ -0,0 +1,115 @@
+package com.example.demo.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeTrackerTest {
+
+    private final ChangeTracker changeTracker = new ChangeTracker(Duration.ofHours(1));
+
+    @Test
+    void markTaskChanged_ShouldChangeTheVersionsOfItsProjectAndAssigneesOnly() {
+        // Arrange
+        String projectOne = changeTracker.taskVersion(List.of(1L), null);
+        String projectTwo = changeTracker.taskVersion(List.of(2L), null);
+        String previousAssignee = changeTracker.taskVersion(null, 7L);
+        String assignee = changeTracker.taskVersion(null, 8L);
+        String otherAssignee = changeTracker.taskVersion(null, 9L);
+        String allTasks = changeTracker.taskVersion(null, null);
+        String projects = changeTracker.projectVersion();
+
+        // Act
+        changeTracker.markTaskChanged(1L, 7L, 8L, null);
+
+        // Assert
+        assertNotEquals(projectOne, changeTracker.taskVersion(List.of(1L), null));
+        assertEquals(projectTwo, changeTracker.taskVersion(List.of(2L), null));
+        assertNotEquals(previousAssignee, changeTracker.taskVersion(null, 7L));
+        assertNotEquals(assignee, changeTracker.taskVersion(null, 8L));
+        assertEquals(otherAssignee, changeTracker.taskVersion(null, 9L));
+        assertNotEquals(allTasks, changeTracker.taskVersion(null, null));
+        assertEquals(projects, changeTracker.projectVersion());
+    }
+
+    @Test
+    void markProjectChanged_ShouldChangeTheVersionsOfAllLists() {
+        // Arrange
+        String projectTasks = changeTracker.taskVersion(List.of(1L), null);
+        String assignedTasks = changeTracker.taskVersion(null, 7L);
+        String projects = changeTracker.projectVersion();
+
+        // Act
+        changeTracker.markProjectChanged();
+
+        // Assert
+        assertNotEquals(projectTasks, changeTracker.taskVersion(List.of(1L), null));
+        assertNotEquals(assignedTasks, changeTracker.taskVersion(null, 7L));
+        assertNotEquals(projects, changeTracker.projectVersion());
+    }
+
+    @Test
+    void markUserChanged_ShouldChangeTheVersionsOfAllLists() {
+        // Arrange
+        String allTasks = changeTracker.taskVersion(null, null);
+        String projects = changeTracker.projectVersion();
+
+        // Act
+        changeTracker.markUserChanged();
+
+        // Assert
+        assertNotEquals(allTasks, changeTracker.taskVersion(null, null));
+        assertNotEquals(projects, changeTracker.projectVersion());
+    }
+
+    @Test
+    void markTaskChanged_InATransaction_ShouldChangeTheVersionOnlyAfterCommit() {
+        // Arrange
+        String before = changeTracker.taskVersion(List.of(1L), null);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            changeTracker.markTaskChanged(1L);
+
+            // Assert
+            assertEquals(before, changeTracker.taskVersion(List.of(1L), null));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertNotEquals(before, changeTracker.taskVersion(List.of(1L), null));
+    }
+
+    @Test
+    void taskVersion_OnAnotherInstance_ShouldDiffer() {
+        // Arrange
+        String version = changeTracker.taskVersion(null, null);
+
+        // Act
+        // Another instance or a restart counts from zero again, under another epoch
+        ChangeTracker otherInstance = new ChangeTracker(Duration.ofHours(1));
+
+        // Assert
+        assertNotEquals(version, otherInstance.taskVersion(null, null));
+    }
+
+    @Test
+    void taskVersion_AfterTheStalenessWindow_ShouldChangeWithoutWrites() throws InterruptedException {
+        // Arrange
+        ChangeTracker shortWindow = new ChangeTracker(Duration.ofMillis(20));
+        String version = shortWindow.taskVersion(null, null);
+        long generation = shortWindow.taskGeneration(null, null);
+
+        // Act
+        Thread.sleep(50);
+
+        // Assert
+        assertNotEquals(version, shortWindow.taskVersion(null, null));
+        assertEquals(generation, shortWindow.taskGeneration(null, null));
+    }
+}
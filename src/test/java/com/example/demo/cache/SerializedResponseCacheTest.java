@@ -0,0 +1,167 @@
+package com.example.demo.cache;
+
+import com.example.demo.cache.ChangeTracker.ResourceType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SerializedResponseCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Random random = new Random(42);
+
+    @Test
+    void put_WhenArenaIsFull_ShouldEvictLeastRecentlyUsedEntry() {
+        // Arrange
+        SerializedResponseCache cache = new SerializedResponseCache(4096, true, meterRegistry);
+        for (long id = 1; id <= 4; id++) {
+            cache.put(ResourceType.TASK, id, "v1", randomBytes(1000)).release();
+        }
+        cache.get(ResourceType.TASK, 1L, "v1").release();
+
+        // Act
+        cache.put(ResourceType.TASK, 5L, "v1", randomBytes(1000)).release();
+
+        // Assert
+        assertNull(cache.get(ResourceType.TASK, 2L, "v1"));
+        for (long id : new long[]{1, 3, 4, 5}) {
+            SerializedResponseCache.Entry entry = cache.get(ResourceType.TASK, id, "v1");
+            assertNotNull(entry, "entry " + id);
+            entry.release();
+        }
+        assertEquals(1, meterRegistry.get("response.cache.evictions").counter().count());
+    }
+
+    @Test
+    void put_ShouldAccountEntriesByTheirBlocksWithinTheBudget() {
+        // Arrange
+        SerializedResponseCache cache = new SerializedResponseCache(5000, true, meterRegistry);
+
+        // Act
+        for (long id = 1; id <= 10; id++) {
+            cache.put(ResourceType.TASK, id, "v1", randomBytes(1000)).release();
+        }
+        long full = cache.getUsedBytes();
+        cache.evict(ResourceType.TASK, 10L);
+        long afterEvict = cache.getUsedBytes();
+        cache.evictAll(ResourceType.TASK);
+
+        // Assert
+        assertEquals(4096, full);
+        assertEquals(3072, afterEvict);
+        assertEquals(0, cache.getUsedBytes());
+        assertEquals(6, meterRegistry.get("response.cache.evictions").counter().count());
+    }
+
+    @Test
+    void put_BodyLargerThanArena_ShouldReturnUncachedEntry() {
+        // Arrange
+        SerializedResponseCache cache = new SerializedResponseCache(4096, true, meterRegistry);
+        byte[] body = randomBytes(5000);
+
+        // Act
+        SerializedResponseCache.Entry entry = cache.put(ResourceType.TASK, 1L, "v1", body);
+
+        // Assert
+        assertArrayEquals(body, toBytes(entry.body()));
+        entry.release();
+        assertNull(cache.get(ResourceType.TASK, 1L, "v1"));
+        assertEquals(0, cache.getUsedBytes());
+    }
+
+    @Test
+    void get_OtherVersion_ShouldMiss() {
+        // Arrange
+        SerializedResponseCache cache = new SerializedResponseCache(4096, true, meterRegistry);
+        cache.put(ResourceType.TASK, 1L, "v1", randomBytes(100)).release();
+
+        // Act
+        SerializedResponseCache.Entry entry = cache.get(ResourceType.TASK, 1L, "v2");
+
+        // Assert
+        assertNull(entry);
+        assertEquals(1, meterRegistry.get("response.cache.requests").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void put_CompressibleBody_ShouldStoreGzipVariant() throws IOException {
+        // Arrange
+        SerializedResponseCache cache = new SerializedResponseCache(8192, true, meterRegistry);
+        byte[] body = "{\"title\":\"Task\",\"status\":\"TODO\"}".repeat(60).getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        cache.put(ResourceType.TASK, 1L, "v1", body).release();
+        SerializedResponseCache.Entry entry = cache.get(ResourceType.TASK, 1L, "v1");
+
+        // Assert
+        assertArrayEquals(body, toBytes(entry.body()));
+        assertNotNull(entry.gzipBody());
+        assertTrue(entry.gzipBody().remaining() < body.length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(toBytes(entry.gzipBody())))) {
+            assertArrayEquals(body, in.readAllBytes());
+        }
+        entry.release();
+    }
+
+    @Test
+    void put_SmallOrIncompressibleBodyOrGzipDisabled_ShouldNotStoreGzipVariant() {
+        // Arrange
+        SerializedResponseCache cache = new SerializedResponseCache(8192, true, meterRegistry);
+        SerializedResponseCache disabled = new SerializedResponseCache(8192, false, new SimpleMeterRegistry());
+        byte[] compressible = "{\"title\":\"Task\"}".repeat(100).getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        SerializedResponseCache.Entry small = cache.put(ResourceType.TASK, 1L, "v1", "{\"title\":\"Task\"}".repeat(20).getBytes(StandardCharsets.UTF_8));
+        SerializedResponseCache.Entry incompressible = cache.put(ResourceType.TASK, 2L, "v1", randomBytes(1000));
+        SerializedResponseCache.Entry uncompressed = disabled.put(ResourceType.TASK, 1L, "v1", compressible);
+
+        // Assert
+        assertNull(small.gzipBody());
+        assertNull(incompressible.gzipBody());
+        assertNull(uncompressed.gzipBody());
+        small.release();
+        incompressible.release();
+        uncompressed.release();
+    }
+
+    @Test
+    void evict_WhileEntryIsBeingWritten_ShouldKeepItsBytesUntilReleased() {
+        // Arrange
+        SerializedResponseCache cache = new SerializedResponseCache(4096, true, meterRegistry);
+        byte[] body = randomBytes(1000);
+        cache.put(ResourceType.TASK, 1L, "v1", body).release();
+        SerializedResponseCache.Entry reading = cache.get(ResourceType.TASK, 1L, "v1");
+
+        // Act
+        cache.evict(ResourceType.TASK, 1L);
+        for (long id = 2; id <= 10; id++) {
+            cache.put(ResourceType.TASK, id, "v1", randomBytes(1000)).release();
+        }
+
+        // Assert
+        assertArrayEquals(body, toBytes(reading.body()));
+        assertEquals(4096, cache.getUsedBytes());
+        reading.release();
+        assertEquals(3072, cache.getUsedBytes());
+    }
+
+    private byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    private static byte[] toBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+}
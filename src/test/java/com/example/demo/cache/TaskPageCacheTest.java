@@ -0,0 +1,156 @@
+package com.example.demo.cache;
+
+import com.example.demo.dto.task.TaskResponseDto;
+import com.example.demo.model.entity.OutboxEvent;
+import com.example.demo.model.enums.OutboxEventType;
+import com.example.demo.repository.TaskCriteria;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TaskPageCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ChangeTracker changeTracker = new ChangeTracker(Duration.ofMinutes(1));
+    private final Pageable pageable = PageRequest.of(0, 10);
+    private final TaskCriteria projectOne = TaskCriteria.builder().projectIds(List.of(1L)).build();
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void get_Unchanged_ShouldServeCachedPage() {
+        // Arrange
+        TaskPageCache cache = cache(Duration.ofMinutes(1));
+        cache.get(projectOne, pageable, this::load);
+
+        // Act
+        cache.get(projectOne, pageable, this::load);
+
+        // Assert
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_AfterExpiry_ShouldReload() throws InterruptedException {
+        // Arrange
+        TaskPageCache cache = cache(Duration.ofMillis(50));
+        cache.get(projectOne, pageable, this::load);
+
+        // Act
+        Thread.sleep(150);
+        cache.get(projectOne, pageable, this::load);
+
+        // Assert
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_WhileTheSamePageIsLoading_ShouldWaitWithoutATransaction() throws Exception {
+        // Arrange
+        TaskPageCache cache = cache(Duration.ofMinutes(1));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Page<TaskResponseDto>> first = executor.submit(() -> cache.get(projectOne, pageable, () -> {
+                loading.countDown();
+                await(release);
+                return load();
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            // Act
+            Thread joiner = new Thread(() -> cache.get(projectOne, pageable, this::load));
+            joiner.start();
+            Thread.sleep(100);
+            release.countDown();
+            joiner.join(5000);
+
+            // Assert
+            assertEquals(1, first.get(5, TimeUnit.SECONDS).getTotalElements());
+            assertEquals(1, loads.get());
+            // Only the load that ran opened a transaction, the joiner waited outside of one
+            verify(transactionManager, times(1)).getTransaction(any());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void deliver_RelayedTaskEvent_ShouldInvalidatePagesOfItsProjectOnly() {
+        // Arrange
+        TaskPageCache cache = cache(Duration.ofMinutes(1));
+        ChangeTrackerOutboxSink sink = new ChangeTrackerOutboxSink(changeTracker, new ObjectMapper());
+        TaskCriteria projectTwo = TaskCriteria.builder().projectIds(List.of(2L)).build();
+        cache.get(projectOne, pageable, this::load);
+        cache.get(projectTwo, pageable, this::load);
+
+        // Act
+        sink.deliver(List.of(event(OutboxEventType.TASK_UPDATED, "{\"id\":5,\"projectId\":1,\"assignedUserId\":7}")));
+        cache.get(projectOne, pageable, this::load);
+        cache.get(projectTwo, pageable, this::load);
+
+        // Assert
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void deliver_RelayedProjectUpdate_ShouldInvalidateAllPages() {
+        // Arrange
+        TaskPageCache cache = cache(Duration.ofMinutes(1));
+        ChangeTrackerOutboxSink sink = new ChangeTrackerOutboxSink(changeTracker, new ObjectMapper());
+        TaskCriteria assigned = TaskCriteria.builder().assignedUserId(7L).build();
+        cache.get(projectOne, pageable, this::load);
+        cache.get(assigned, pageable, this::load);
+
+        // Act
+        sink.deliver(List.of(event(OutboxEventType.PROJECT_UPDATED, "{\"id\":3}"),
+                event(OutboxEventType.TASK_DUE_SOON, "{\"id\":5,\"projectId\":1}")));
+        cache.get(projectOne, pageable, this::load);
+        cache.get(assigned, pageable, this::load);
+
+        // Assert
+        assertEquals(4, loads.get());
+    }
+
+    private TaskPageCache cache(Duration expireAfterWrite) {
+        return new TaskPageCache(1 << 20, expireAfterWrite, changeTracker, new SingleFlight(meterRegistry),
+                transactionManager, meterRegistry);
+    }
+
+    private Page<TaskResponseDto> load() {
+        loads.incrementAndGet();
+        return new PageImpl<>(List.of(TaskResponseDto.builder().id(5L).title("Task").build()), pageable, 1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static OutboxEvent event(OutboxEventType type, String payload) {
+        return OutboxEvent.builder().type(type).aggregateId(5L).payload(payload).build();
+    }
+}
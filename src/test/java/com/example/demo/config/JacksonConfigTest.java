@@ -0,0 +1,148 @@
+package com.example.demo.config;
+
+import com.example.demo.dto.task.TaskSummaryDto;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class JacksonConfigTest {
+
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private JacksonConfig jacksonConfig;
+    private MockMvc mockMvc;
+
+    @RestController
+    static class TaskController {
+
+        @GetMapping("/tasks/1")
+        TaskSummaryDto get() {
+            return TaskSummaryDto.builder().id(1L).title("Write tests").dueDate(LocalDate.of(2026, 10, 19)).build();
+        }
+
+        @PostMapping("/tasks")
+        TaskSummaryDto create(@RequestBody TaskSummaryDto task) {
+            return task;
+        }
+    }
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ObjectProvider<Jackson2ObjectMapperBuilder> builders = mock(ObjectProvider.class);
+        jacksonConfig = new JacksonConfig(builders, meterRegistry);
+        when(builders.getObject()).thenAnswer(invocation -> builder());
+
+        List<HttpMessageConverter<?>> converters = new ArrayList<>();
+        converters.add(new MappingJackson2HttpMessageConverter(builder().build()));
+        converters.add(new MappingJackson2CborHttpMessageConverter());
+        jacksonConfig.extendMessageConverters(converters);
+
+        mockMvc = MockMvcBuilders.standaloneSetup(new TaskController())
+                .setMessageConverters(converters.toArray(HttpMessageConverter[]::new))
+                .build();
+    }
+
+    @Test
+    void get_AcceptCbor_ShouldRespondWithCborAndRecordItsMetrics() throws Exception {
+        // Act
+        MvcResult result = mockMvc.perform(get("/tasks/1").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        // Assert
+        JsonNode task = new ObjectMapper(new CBORFactory()).readTree(result.getResponse().getContentAsByteArray());
+        assertEquals("Write tests", task.get("title").asText());
+        assertTrue(task.get("dueDate").isArray());
+        assertEquals(1, meterRegistry.get("jackson.serialization").tag("format", CBORFactory.FORMAT_NAME).timer().count());
+    }
+
+    @Test
+    void get_AcceptSmile_ShouldRespondWithSmileAndRecordItsMetrics() throws Exception {
+        // Act
+        MvcResult result = mockMvc.perform(get("/tasks/1").accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SMILE))
+                .andReturn();
+
+        // Assert
+        JsonNode task = new ObjectMapper(new SmileFactory()).readTree(result.getResponse().getContentAsByteArray());
+        assertEquals("Write tests", task.get("title").asText());
+        assertEquals(1, meterRegistry.get("jackson.serialization").tag("format", SmileFactory.FORMAT_NAME_SMILE).timer().count());
+    }
+
+    @Test
+    void get_AcceptAny_ShouldPreferJson() throws Exception {
+        // Act
+        MvcResult result = mockMvc.perform(get("/tasks/1").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        // Assert
+        JsonNode task = new ObjectMapper().readTree(result.getResponse().getContentAsByteArray());
+        assertEquals("2026-10-19", task.get("dueDate").asText());
+        assertEquals(1, meterRegistry.get("jackson.serialization").tag("format", "JSON").timer().count());
+    }
+
+    @Test
+    void post_CborBody_ShouldBeReadAndAnsweredInAcceptedFormat() throws Exception {
+        // Arrange
+        ObjectMapper cborMapper = new ObjectMapper(new CBORFactory()).registerModule(new JavaTimeModule());
+        byte[] body = cborMapper.writeValueAsBytes(TaskSummaryDto.builder().title("From CBOR").build());
+
+        // Act
+        MvcResult result = mockMvc.perform(post("/tasks")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(SMILE)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SMILE))
+                .andReturn();
+
+        // Assert
+        JsonNode task = new ObjectMapper(new SmileFactory()).readTree(result.getResponse().getContentAsByteArray());
+        assertEquals("From CBOR", task.get("title").asText());
+    }
+
+    private Jackson2ObjectMapperBuilder builder() {
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder();
+        jacksonConfig.serializationMetricsCustomizer().customize(builder);
+        jacksonConfig.fieldSelectionFilterCustomizer().customize(builder);
+        // As configured by Spring Boot
+        builder.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return builder;
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.demo.controller;
+
+import com.example.demo.model.entity.Project;
+import com.example.demo.model.entity.Task;
+import com.example.demo.model.entity.User;
+import com.example.demo.model.enums.Priority;
+import com.example.demo.model.enums.Role;
+import com.example.demo.model.enums.TaskStatus;
+import com.example.demo.repository.ProjectRepository;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.repository.UserRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.graphql.tester.AutoConfigureGraphQlTester;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.graphql.test.tester.GraphQlTester;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs GraphQL documents against the services and an in-memory database, as the signed-in user.
+ * The SQL statements Hibernate prepares are recorded to count queries.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.demo.controller.GraphQlControllerTest$RecordingStatementInspector")
+@ActiveProfiles("test")
+@AutoConfigureGraphQlTester
+class GraphQlControllerTest {
+
+    @Autowired
+    private GraphQlTester graphQlTester;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User admin;
+    private User manager;
+    private User otherManager;
+    private User assignee;
+    private Project project;
+    private Project otherProject;
+    private Task assignedTask;
+    private Task unassignedTask;
+    private Task otherTask;
+
+    @BeforeEach
+    void setUp() {
+        // Start without the sample data of DataInitializer
+        deleteAll();
+        admin = saveUser("admin@example.com", Role.ADMIN);
+        manager = saveUser("manager@example.com", Role.MANAGER);
+        otherManager = saveUser("other.manager@example.com", Role.MANAGER);
+        assignee = saveUser("user@example.com", Role.USER);
+        project = saveProject("Project", manager);
+        otherProject = saveProject("Other project", otherManager);
+        assignedTask = saveTask("Assigned task", project, assignee);
+        unassignedTask = saveTask("Unassigned task", project, null);
+        otherTask = saveTask("Other task", otherProject, null);
+        RecordingStatementInspector.STATEMENTS.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        deleteAll();
+    }
+
+    @Test
+    void tasks_ShouldOnlyReturnTheTasksVisibleToTheRole() {
+        String document = "{ tasks { content { id } totalElements } }";
+
+        signIn(admin);
+        graphQlTester.document(document).execute()
+                .path("tasks.content[*].id").entityList(Long.class)
+                .containsExactly(assignedTask.getId(), unassignedTask.getId(), otherTask.getId());
+
+        signIn(manager);
+        graphQlTester.document(document).execute()
+                .path("tasks.content[*].id").entityList(Long.class)
+                .containsExactly(assignedTask.getId(), unassignedTask.getId())
+                .path("tasks.totalElements").entity(Long.class).isEqualTo(2L);
+
+        signIn(assignee);
+        graphQlTester.document(document).execute()
+                .path("tasks.content[*].id").entityList(Long.class).containsExactly(assignedTask.getId());
+    }
+
+    @Test
+    void task_WhenTheRoleCannotReadIt_ShouldReturnAForbiddenError() {
+        // Arrange
+        signIn(assignee);
+
+        // Act & Assert
+        graphQlTester.document("{ task(id: " + unassignedTask.getId() + ") { id } }").execute()
+                .errors().expect(error -> error.getErrorType() == ErrorType.FORBIDDEN).verify()
+                .path("task").valueIsNull();
+        graphQlTester.document("{ task(id: " + assignedTask.getId() + ") { title } }").execute()
+                .path("task.title").entity(String.class).isEqualTo("Assigned task");
+    }
+
+    @Test
+    void projects_ShouldOnlyReturnTheProjectsVisibleToTheRole() {
+        String document = "{ projects { id } }";
+
+        signIn(admin);
+        graphQlTester.document(document).execute()
+                .path("projects[*].id").entityList(Long.class).containsExactly(project.getId(), otherProject.getId());
+
+        signIn(otherManager);
+        graphQlTester.document(document).execute()
+                .path("projects[*].id").entityList(Long.class).containsExactly(otherProject.getId());
+        graphQlTester.document("{ project(id: " + project.getId() + ") { id } }").execute()
+                .errors().expect(error -> error.getErrorType() == ErrorType.FORBIDDEN).verify()
+                .path("project").valueIsNull();
+
+        signIn(assignee);
+        graphQlTester.document(document).execute()
+                .path("projects").entityList(Object.class).hasSize(0);
+    }
+
+    @Test
+    void projectTasks_AsManager_ShouldOnlyReturnTasksOfOwnedProjects() {
+        // Arrange
+        signIn(manager);
+
+        // Act & Assert
+        graphQlTester.document("{ projects { id tasks { id } } }").execute()
+                .path("projects[0].tasks[*].id").entityList(Long.class)
+                .containsExactly(assignedTask.getId(), unassignedTask.getId());
+    }
+
+    @Test
+    void query_NestedDeeperThanTheMaximumDepth_ShouldBeRejectedBeforeExecution() {
+        // Arrange
+        signIn(admin);
+
+        // Act & Assert
+        // tasks > content > project > tasks > project > tasks > id is 7 levels deep
+        graphQlTester.document("{ tasks { content { project { tasks { project { tasks { id } } } } } } }").execute()
+                .errors().expect(error -> error.getMessage().contains("maximum query depth exceeded")).verify()
+                .path("tasks").pathDoesNotExist();
+        assertEquals(List.of(), RecordingStatementInspector.STATEMENTS);
+    }
+
+    @Test
+    void query_MoreComplexThanTheMaximum_ShouldBeRejectedBeforeExecution() {
+        // Arrange
+        signIn(admin);
+
+        // Act & Assert
+        // 100 tasks with 100 tasks of their project, each with two fields
+        graphQlTester.document("{ tasks(size: 100) { content { project { tasks(first: 100) { id title } } } } }")
+                .execute()
+                .errors().expect(error -> error.getMessage().contains("maximum query complexity exceeded")).verify()
+                .path("tasks").pathDoesNotExist();
+        assertEquals(List.of(), RecordingStatementInspector.STATEMENTS);
+    }
+
+    @Test
+    void tasks_WithAssociations_ShouldLoadEachAssociationWithOneQueryForAllTasks() {
+        // Arrange
+        for (int index = 0; index < 5; index++) {
+            User owner = saveUser("owner" + index + "@example.com", Role.MANAGER);
+            User user = saveUser("user" + index + "@example.com", Role.USER);
+            saveTask("Extra task " + index, saveProject("Extra project " + index, owner), user);
+        }
+        RecordingStatementInspector.STATEMENTS.clear();
+        signIn(admin);
+
+        // Act
+        graphQlTester.document("""
+                        { tasks { content {
+                            id
+                            assignedUser { email }
+                            project { name owner { email } tasks(first: 5) { id } }
+                        } } }""")
+                .execute()
+                .path("tasks.content").entityList(Object.class).hasSize(8)
+                .path("tasks.content[0].project.owner.email").entity(String.class).isEqualTo(manager.getEmail())
+                .path("tasks.content[0].assignedUser.email").entity(String.class).isEqualTo(assignee.getEmail())
+                .path("tasks.content[0].project.tasks[*].id").entityList(Long.class)
+                .containsExactly(assignedTask.getId(), unassignedTask.getId());
+
+        // Assert
+        // Assignees and project owners are both users, but separate associations loaded at different levels
+        assertEquals(1, count("from projects", " in "));
+        assertEquals(2, count("from users", " in "));
+        assertEquals(1, count("row_number()"));
+    }
+
+    private void signIn(User user) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                user.getEmail(), null, AuthorityUtils.createAuthorityList("ROLE_" + user.getRole().name())));
+    }
+
+    private static long count(String... fragments) {
+        return RecordingStatementInspector.STATEMENTS.stream()
+                .map(sql -> sql.toLowerCase(Locale.ROOT))
+                .filter(sql -> List.of(fragments).stream().allMatch(sql::contains))
+                .count();
+    }
+
+    private void deleteAll() {
+        taskRepository.deleteAll();
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private User saveUser(String email, Role role) {
+        return userRepository.save(User.builder()
+                .email(email)
+                .password("password")
+                .role(role)
+                .build());
+    }
+
+    private Project saveProject(String name, User owner) {
+        return projectRepository.save(Project.builder()
+                .name(name)
+                .owner(owner)
+                .build());
+    }
+
+    private Task saveTask(String title, Project project, User assignedUser) {
+        return taskRepository.save(Task.builder()
+                .title(title)
+                .status(TaskStatus.TODO)
+                .priority(Priority.MEDIUM)
+                .project(project)
+                .assignedUser(assignedUser)
+                .build());
+    }
+
+    /**
+     * Records the SQL of every statement Hibernate prepares.
+     */
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.demo.controller;
+
+import com.example.demo.mapper.ProjectMapper;
+import com.example.demo.model.entity.Project;
+import com.example.demo.model.entity.User;
+import com.example.demo.model.enums.Role;
+import com.example.demo.repository.ProjectRepository;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.ProjectService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Sends conditional requests for projects through the full application, on an in-memory database.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class ProjectControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoSpyBean
+    private ProjectService projectService;
+
+    @MockitoSpyBean
+    private ProjectMapper projectMapper;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User manager;
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        // Start without the sample data of DataInitializer
+        deleteAll();
+        manager = userRepository.save(User.builder()
+                .email("manager@example.com")
+                .password("password")
+                .role(Role.MANAGER)
+                .build());
+        project = projectRepository.save(Project.builder()
+                .name("Project")
+                .owner(manager)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteAll();
+    }
+
+    @Test
+    void getProjectById_ShouldSendAnETag() throws Exception {
+        mockMvc.perform(get("/api/v1/projects/{id}", project.getId()).with(asManager()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.name").value("Project"));
+    }
+
+    @Test
+    void getProjectById_WithMatchingIfNoneMatch_ShouldReturnNotModifiedWithoutLoadingTheProject() throws Exception {
+        // Arrange
+        String eTag = getETag("/api/v1/projects/" + project.getId());
+        clearInvocations(projectService, projectMapper);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/projects/{id}", project.getId()).with(asManager())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+        verify(projectService).getProjectVersion(project.getId());
+        verify(projectService, never()).getProjectById(anyLong());
+        verifyNoInteractions(projectMapper);
+    }
+
+    @Test
+    void getProjectById_AfterAnUpdate_ShouldSendANewETag() throws Exception {
+        // Arrange
+        String eTag = getETag("/api/v1/projects/" + project.getId());
+
+        // Act
+        updateProject("Renamed project");
+
+        // Assert
+        String newETag = mockMvc.perform(get("/api/v1/projects/{id}", project.getId()).with(asManager())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Renamed project"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(eTag, newETag);
+    }
+
+    @Test
+    void getAllProjects_WithMatchingIfNoneMatch_ShouldReturnNotModifiedWithoutLoadingProjects() throws Exception {
+        // Arrange
+        String eTag = getETag("/api/v1/projects");
+        clearInvocations(projectService, projectMapper);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/projects").with(asManager()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verifyNoInteractions(projectService, projectMapper);
+    }
+
+    @Test
+    void getAllProjects_AfterAnUpdate_ShouldSendANewETag() throws Exception {
+        // Arrange
+        String eTag = getETag("/api/v1/projects");
+
+        // Act
+        updateProject("Renamed project");
+
+        // Assert
+        String newETag = mockMvc.perform(get("/api/v1/projects").with(asManager())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Renamed project"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(eTag, newETag);
+    }
+
+    private String getETag(String uri) throws Exception {
+        return mockMvc.perform(get(uri).with(asManager()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private void updateProject(String name) throws Exception {
+        mockMvc.perform(put("/api/v1/projects/{id}", project.getId()).with(asManager())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name": "%s"}
+                                """.formatted(name)))
+                .andExpect(status().isOk());
+    }
+
+    private RequestPostProcessor asManager() {
+        return user(manager.getEmail()).roles(manager.getRole().name());
+    }
+
+    private void deleteAll() {
+        taskRepository.deleteAll();
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+}
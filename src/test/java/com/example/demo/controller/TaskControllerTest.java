@@ -0,0 +1,260 @@
+package com.example.demo.controller;
+
+import com.example.demo.mapper.TaskMapper;
+import com.example.demo.model.entity.Project;
+import com.example.demo.model.entity.Task;
+import com.example.demo.model.entity.User;
+import com.example.demo.model.enums.Priority;
+import com.example.demo.model.enums.Role;
+import com.example.demo.model.enums.TaskStatus;
+import com.example.demo.repository.ProjectRepository;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.TaskService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Sends conditional requests for tasks through the full application, on an in-memory database.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class TaskControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoSpyBean
+    private TaskService taskService;
+
+    @MockitoSpyBean
+    private TaskMapper taskMapper;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User manager;
+    private Project project;
+    private Task task;
+
+    @BeforeEach
+    void setUp() {
+        // Start without the sample data of DataInitializer
+        deleteAll();
+        manager = userRepository.save(User.builder()
+                .email("manager@example.com")
+                .password("password")
+                .role(Role.MANAGER)
+                .build());
+        project = projectRepository.save(Project.builder()
+                .name("Project")
+                .owner(manager)
+                .build());
+        task = taskRepository.save(Task.builder()
+                .title("Task")
+                .status(TaskStatus.TODO)
+                .priority(Priority.MEDIUM)
+                .project(project)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteAll();
+    }
+
+    @Test
+    void getTaskById_ShouldSendAnETag() throws Exception {
+        mockMvc.perform(get("/api/v1/tasks/{id}", task.getId()).with(asManager()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.title").value("Task"));
+    }
+
+    @Test
+    void getTaskById_WithMatchingIfNoneMatch_ShouldReturnNotModifiedWithoutLoadingTheTask() throws Exception {
+        // Arrange
+        String eTag = getETag("/api/v1/tasks/" + task.getId());
+        clearInvocations(taskService, taskMapper);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/tasks/{id}", task.getId()).with(asManager())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+        verify(taskService).getTaskVersion(task.getId());
+        verify(taskService, never()).getTaskById(anyLong());
+        verifyNoInteractions(taskMapper);
+    }
+
+    @Test
+    void getTaskById_AfterAnUpdate_ShouldSendANewETag() throws Exception {
+        // Arrange
+        String eTag = getETag("/api/v1/tasks/" + task.getId());
+
+        // Act
+        updateTask("Renamed task");
+
+        // Assert
+        String newETag = mockMvc.perform(get("/api/v1/tasks/{id}", task.getId()).with(asManager())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Renamed task"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(eTag, newETag);
+    }
+
+    @Test
+    void getTaskById_AcceptingGzip_ShouldSendTheCompressedBodyUnderItsOwnETag() throws Exception {
+        // Arrange
+        task.setDescription("A description long enough to be worth compressing. ".repeat(20));
+        taskRepository.save(task);
+        String identityETag = getETag("/api/v1/tasks/" + task.getId());
+
+        // Act
+        String gzipETag = mockMvc.perform(get("/api/v1/tasks/{id}", task.getId()).with(asManager())
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Assert
+        assertNotEquals(identityETag, gzipETag);
+        mockMvc.perform(get("/api/v1/tasks/{id}", task.getId()).with(asManager())
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate")
+                        .header(HttpHeaders.IF_NONE_MATCH, gzipETag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING));
+        mockMvc.perform(get("/api/v1/tasks/{id}", task.getId()).with(asManager())
+                        .header(HttpHeaders.IF_NONE_MATCH, gzipETag))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void getTaskById_WithGzipRefused_ShouldSendTheIdentityBody() throws Exception {
+        // Arrange
+        task.setDescription("A description long enough to be worth compressing. ".repeat(20));
+        taskRepository.save(task);
+        String identityETag = getETag("/api/v1/tasks/" + task.getId());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/tasks/{id}", task.getId()).with(asManager())
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().string(HttpHeaders.ETAG, identityETag))
+                .andExpect(jsonPath("$.title").value("Task"));
+    }
+
+    @Test
+    void getAllTasks_WithMatchingIfNoneMatch_ShouldReturnNotModifiedWithoutLoadingTasks() throws Exception {
+        // Arrange
+        String eTag = getETag("/api/v1/tasks");
+        clearInvocations(taskService, taskMapper);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/tasks").with(asManager()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(taskService).getTaskListVersion();
+        verifyNoMoreInteractions(taskService);
+        verifyNoInteractions(taskMapper);
+    }
+
+    @Test
+    void getAllTasks_AfterATaskChangeOutsideTheScope_ShouldKeepTheETag() throws Exception {
+        // Arrange
+        String eTag = getETag("/api/v1/tasks");
+        User otherManager = userRepository.save(User.builder()
+                .email("other.manager@example.com")
+                .password("password")
+                .role(Role.MANAGER)
+                .build());
+        Project otherProject = projectRepository.save(Project.builder()
+                .name("Other project")
+                .owner(otherManager)
+                .build());
+
+        // Act
+        mockMvc.perform(post("/api/v1/tasks").with(user(otherManager.getEmail()).roles(Role.MANAGER.name()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"title": "Other task", "status": "TODO", "priority": "LOW", "projectId": %d}
+                                """.formatted(otherProject.getId())))
+                .andExpect(status().isCreated());
+
+        // Assert
+        mockMvc.perform(get("/api/v1/tasks").with(asManager()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getAllTasks_AfterAnUpdate_ShouldSendANewETag() throws Exception {
+        // Arrange
+        String eTag = getETag("/api/v1/tasks");
+
+        // Act
+        updateTask("Renamed task");
+
+        // Assert
+        String newETag = mockMvc.perform(get("/api/v1/tasks").with(asManager()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("Renamed task"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(eTag, newETag);
+    }
+
+    private String getETag(String uri) throws Exception {
+        return mockMvc.perform(get(uri).with(asManager()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private void updateTask(String title) throws Exception {
+        mockMvc.perform(put("/api/v1/tasks/{id}", task.getId()).with(asManager())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"title": "%s", "status": "TODO", "priority": "MEDIUM", "projectId": %d}
+                                """.formatted(title, project.getId())))
+                .andExpect(status().isOk());
+    }
+
+    private RequestPostProcessor asManager() {
+        return user(manager.getEmail()).roles(manager.getRole().name());
+    }
+
+    private void deleteAll() {
+        taskRepository.deleteAll();
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.demo.duedate;
+
+import com.example.demo.cache.ChangeTracker.ResourceType;
+import com.example.demo.event.ChangeEvent;
+import com.example.demo.job.JobRunner;
+import com.example.demo.model.enums.OutboxEventType;
+import com.example.demo.repository.projection.TaskDueDate;
+import com.example.demo.service.DueDateService;
+import com.example.demo.shard.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Drives the scheduler tick by tick on a settable clock, without its thread or the job lease.
+ */
+@ExtendWith(MockitoExtension.class)
+class DueDateSchedulerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 19);
+    private static final LocalDate TOMORROW = TODAY.plusDays(1);
+
+    @Mock
+    private DueDateService dueDateService;
+
+    @Mock
+    private JobRunner jobRunner;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SettableClock clock = new SettableClock(TODAY.atTime(8, 0).toInstant(ZoneOffset.UTC));
+    private DueDateScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new DueDateScheduler(dueDateService, new ShardRouter(List.of(), transactionManager), jobRunner,
+                Duration.ofSeconds(1), Duration.ofHours(24), Duration.ofDays(7), 100, Duration.ofDays(30),
+                meterRegistry, clock);
+    }
+
+    @Test
+    void tick_ShouldLoadTheHorizonAndFireReminderAndOverdueEventsOnTime() {
+        // Arrange
+        List<TaskDueDate> due = List.of(dueDate(1L, TOMORROW));
+        stubHorizon(due);
+        when(dueDateService.recordDueEvents(any(), any())).thenReturn(1);
+        scheduler.tick();
+
+        // Act & Assert
+        advanceTo(TOMORROW.atStartOfDay(ZoneOffset.UTC).toInstant().minusSeconds(2));
+        verify(dueDateService, never()).recordDueEvents(any(), any());
+
+        advanceTo(TOMORROW.atStartOfDay(ZoneOffset.UTC).toInstant().plusSeconds(1));
+        verify(dueDateService).recordDueEvents(OutboxEventType.TASK_DUE_SOON, Map.of(1L, TOMORROW));
+
+        advanceTo(TOMORROW.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().plusSeconds(1));
+        verify(dueDateService).recordDueEvents(OutboxEventType.TASK_OVERDUE, Map.of(1L, TOMORROW));
+        assertEquals(1.0, meterRegistry.get("due.dates.fired").tag("type", "due_soon").counter().count());
+        assertEquals(1.0, meterRegistry.get("due.dates.fired").tag("type", "overdue").counter().count());
+    }
+
+    @Test
+    void tick_WhenTheReminderMomentHasPassed_ShouldOnlyFireTheOverdueEvent() {
+        // Arrange
+        // The reminder of a task due today was due at midnight, before the scheduler started
+        List<TaskDueDate> due = List.of(dueDate(1L, TODAY));
+        stubHorizon(due);
+        when(dueDateService.recordDueEvents(any(), any())).thenReturn(1);
+        scheduler.tick();
+
+        // Act
+        advanceTo(TOMORROW.atStartOfDay(ZoneOffset.UTC).toInstant().plusSeconds(1));
+
+        // Assert
+        verify(dueDateService, never()).recordDueEvents(eq(OutboxEventType.TASK_DUE_SOON), any());
+        verify(dueDateService).recordDueEvents(OutboxEventType.TASK_OVERDUE, Map.of(1L, TODAY));
+    }
+
+    @Test
+    void tick_WhenTheDueDateChanges_ShouldDropTheTimersOfTheOldDate() {
+        // Arrange
+        LocalDate rescheduled = TODAY.plusDays(3);
+        List<TaskDueDate> due = List.of(dueDate(1L, TOMORROW));
+        stubHorizon(due);
+        List<TaskDueDate> changed = List.of(dueDate(1L, rescheduled));
+        when(dueDateService.getOpenTaskDueDates(List.of(1L))).thenReturn(changed);
+        when(dueDateService.recordDueEvents(any(), any())).thenReturn(1);
+        scheduler.tick();
+
+        // Act
+        scheduler.onEvent(taskEvent(ChangeEvent.ChangeType.UPDATED, 1L), 0, true);
+        advanceTo(rescheduled.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().plusSeconds(1));
+
+        // Assert
+        verify(dueDateService, never()).recordDueEvents(any(), eq(Map.of(1L, TOMORROW)));
+        verify(dueDateService).recordDueEvents(OutboxEventType.TASK_DUE_SOON, Map.of(1L, rescheduled));
+        verify(dueDateService).recordDueEvents(OutboxEventType.TASK_OVERDUE, Map.of(1L, rescheduled));
+    }
+
+    @Test
+    void tick_WhenTheDueDateIsClearedOrTheTaskDeleted_ShouldNotFire() {
+        // Arrange
+        List<TaskDueDate> due = List.of(dueDate(1L, TOMORROW), dueDate(2L, TOMORROW));
+        stubHorizon(due);
+        // Task 1 no longer has a due date or is done, so it is not returned
+        when(dueDateService.getOpenTaskDueDates(List.of(1L))).thenReturn(List.of());
+        scheduler.tick();
+
+        // Act
+        scheduler.onEvent(taskEvent(ChangeEvent.ChangeType.UPDATED, 1L), 0, true);
+        scheduler.onEvent(taskEvent(ChangeEvent.ChangeType.DELETED, 2L), 1, true);
+        advanceTo(TOMORROW.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().plusSeconds(1));
+
+        // Assert
+        verify(dueDateService, never()).recordDueEvents(any(), any());
+    }
+
+    @Test
+    void onEvent_ForProjectChanges_ShouldNotReadDueDates() {
+        // Arrange
+        scheduler.tick();
+        ChangeEvent event = mock(ChangeEvent.class);
+        when(event.getResourceType()).thenReturn(ResourceType.PROJECT);
+
+        // Act
+        scheduler.onEvent(event, 0, true);
+        scheduler.tick();
+
+        // Assert
+        verify(dueDateService, never()).getOpenTaskDueDates(any());
+    }
+
+    /**
+     * Return the given tasks for the horizon loaded on the first tick, and none for the days added later.
+     */
+    private void stubHorizon(List<TaskDueDate> due) {
+        when(dueDateService.getOpenTasksDueBetween(any(), any(), any(), anyInt())).thenAnswer(invocation ->
+                TODAY.equals(invocation.getArgument(0)) && TODAY.plusDays(7).equals(invocation.getArgument(1))
+                        ? due : List.of());
+    }
+
+    /**
+     * Move the clock to a time and run a tick there, as the scheduler thread would after falling behind.
+     */
+    private void advanceTo(Instant instant) {
+        clock.instant = instant;
+        scheduler.tick();
+    }
+
+    private static ChangeEvent taskEvent(ChangeEvent.ChangeType changeType, long taskId) {
+        ChangeEvent event = mock(ChangeEvent.class);
+        when(event.getResourceType()).thenReturn(ResourceType.TASK);
+        when(event.getChangeType()).thenReturn(changeType);
+        when(event.getResourceId()).thenReturn(taskId);
+        return event;
+    }
+
+    private static TaskDueDate dueDate(Long id, LocalDate dueDate) {
+        return new TaskDueDate() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDate getDueDate() {
+                return dueDate;
+            }
+        };
+    }
+
+    private static final class SettableClock extends Clock {
+
+        private Instant instant;
+
+        SettableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return Clock.fixed(instant, zone);
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
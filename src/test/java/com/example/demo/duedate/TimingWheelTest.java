@@ -0,0 +1,138 @@
+package com.example.demo.duedate;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    private static final long TICK = 10;
+
+    @Test
+    void advanceTo_ShouldExpireTimersOnceTheirTickHasPassed() {
+        // Arrange
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 4, 0);
+        assertTrue(wheel.add(25, "first"));
+        assertTrue(wheel.add(35, "second"));
+        List<String> expired = new ArrayList<>();
+
+        // Act & Assert
+        wheel.advanceTo(29, expired::add);
+        assertEquals(List.of(), expired);
+        assertEquals(2, wheel.size());
+
+        wheel.advanceTo(30, expired::add);
+        assertEquals(List.of("first"), expired);
+        assertEquals(1, wheel.size());
+
+        wheel.advanceTo(40, expired::add);
+        assertEquals(List.of("first", "second"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advanceTo_ShouldExpireTimersInDeadlineOrderWhenAdvancingManyTicksAtOnce() {
+        // Arrange
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 4, 0);
+        wheel.add(95, "third");
+        wheel.add(12, "first");
+        wheel.add(41, "second");
+        List<String> expired = new ArrayList<>();
+
+        // Act
+        wheel.advanceTo(1_000, expired::add);
+
+        // Assert
+        assertEquals(List.of("first", "second", "third"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advanceTo_WithTimersBeyondTheFirstLevel_ShouldMoveThemDownAndExpireWithinOneTick() {
+        // Arrange
+        // Levels cover 40, 160, 640 and 2560 ms, so these deadlines start out on every level and on bucket edges
+        long[] deadlines = {15, 39, 40, 47, 159, 160, 161, 639, 640, 2_000, 2_559, 2_560, 5_003};
+        TimingWheel<Long> wheel = new TimingWheel<>(TICK, 4, 0);
+        for (long deadline : deadlines) {
+            assertTrue(wheel.add(deadline, deadline));
+        }
+        Map<Long, Long> expiredAt = new LinkedHashMap<>();
+
+        // Act
+        for (long now = 0; now <= 6_000; now++) {
+            long time = now;
+            wheel.advanceTo(time, deadline -> expiredAt.put(deadline, time));
+        }
+
+        // Assert
+        assertEquals(deadlines.length, expiredAt.size());
+        for (long deadline : deadlines) {
+            long at = expiredAt.get(deadline);
+            assertTrue(at > deadline && at <= deadline + TICK, deadline + " expired at " + at);
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void add_AfterAdvancing_ShouldPlaceTimersRelativeToTheCurrentTime() {
+        // Arrange
+        TimingWheel<Long> wheel = new TimingWheel<>(TICK, 4, 0);
+        wheel.advanceTo(1_234, deadline -> fail("Nothing is scheduled"));
+        wheel.add(1_300, 1_300L);
+        wheel.add(9_999, 9_999L);
+        Map<Long, Long> expiredAt = new LinkedHashMap<>();
+
+        // Act
+        for (long now = 1_234; now <= 11_000; now++) {
+            long time = now;
+            wheel.advanceTo(time, deadline -> expiredAt.put(deadline, time));
+        }
+
+        // Assert
+        assertEquals(1_310L, expiredAt.get(1_300L));
+        assertEquals(10_000L, expiredAt.get(9_999L));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void add_WhenDeadlineFallsInTheCurrentTick_ShouldExpireTheTimerOnceTheTickHasPassed() {
+        // Arrange
+        // The wheel starts at the beginning of the tick holding the start time
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 4, 7);
+        assertTrue(wheel.add(0, "start of the tick"));
+        assertTrue(wheel.add(9, "end of the tick"));
+        List<String> expired = new ArrayList<>();
+
+        // Act & Assert
+        wheel.advanceTo(9, expired::add);
+        assertEquals(List.of(), expired);
+
+        wheel.advanceTo(10, expired::add);
+        assertEquals(List.of("start of the tick", "end of the tick"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void add_WhenDeadlineIsBeforeTheCurrentTick_ShouldNotScheduleTheTimer() {
+        // Arrange
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 4, 0);
+        wheel.advanceTo(105, deadline -> fail("Nothing is scheduled"));
+
+        // Act & Assert
+        assertFalse(wheel.add(99, "previous tick"));
+        assertFalse(wheel.add(-50, "long passed"));
+        assertTrue(wheel.add(100, "current tick"));
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void constructor_WithoutPositiveTickOrEnoughBuckets_ShouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel<>(0, 4, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel<>(TICK, 1, 0));
+    }
+}
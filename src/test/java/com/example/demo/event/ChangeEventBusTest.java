@@ -0,0 +1,240 @@
+package com.example.demo.event;
+
+import com.example.demo.cache.ChangeTracker.ResourceType;
+import com.example.demo.event.ChangeEvent.ChangeType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ChangeEventBusTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ChangeEventBus bus;
+
+    @AfterEach
+    void tearDown() {
+        if (bus != null && bus.isRunning()) {
+            bus.stop();
+        }
+    }
+
+    @Test
+    void publish_FromConcurrentPublishers_ShouldDeliverEveryEventInSequenceToEachConsumer() throws Exception {
+        // Arrange
+        RecordingConsumer first = new RecordingConsumer();
+        RecordingConsumer second = new RecordingConsumer();
+        bus = startBus(64, WaitStrategy.BLOCKING, first, second);
+        int publishers = 4;
+        int perPublisher = 5_000;
+
+        // Act
+        List<Thread> threads = new ArrayList<>();
+        for (int publisher = 0; publisher < publishers; publisher++) {
+            long base = (long) publisher * perPublisher;
+            Thread thread = new Thread(() -> {
+                for (int index = 0; index < perPublisher; index++) {
+                    bus.publish(ResourceType.TASK, ChangeType.UPDATED, base + index);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        bus.stop();
+
+        // Assert
+        for (RecordingConsumer consumer : List.of(first, second)) {
+            assertEquals(publishers * perPublisher, consumer.ids.size());
+            for (int index = 0; index < consumer.sequences.size(); index++) {
+                assertEquals(index, consumer.sequences.get(index));
+            }
+            // Events of one publisher arrive in the order it published them
+            Map<Long, Long> lastByPublisher = new HashMap<>();
+            for (long id : consumer.ids) {
+                Long last = lastByPublisher.put(id / perPublisher, id);
+                assertTrue(last == null || last < id);
+            }
+        }
+    }
+
+    @Test
+    void publish_BeyondTheBufferSize_ShouldWrapAroundTheSlots() {
+        // Arrange
+        RecordingConsumer consumer = new RecordingConsumer();
+        bus = startBus(4, WaitStrategy.SLEEPING, consumer);
+
+        // Act
+        for (long id = 0; id < 11; id++) {
+            bus.publish(ResourceType.PROJECT, ChangeType.CREATED, id);
+        }
+        bus.stop();
+
+        // Assert
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L), consumer.ids);
+        assertEquals(consumer.ids, consumer.sequences);
+    }
+
+    @Test
+    void publish_WhenSlowestConsumerIsAFullBufferBehind_ShouldWaitForItToFreeASlot() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingConsumer slow = new RecordingConsumer(release);
+        bus = startBus(4, WaitStrategy.BLOCKING, slow);
+        CountDownLatch done = new CountDownLatch(1);
+
+        // Act
+        Thread publisher = new Thread(() -> {
+            for (long id = 0; id < 10; id++) {
+                bus.publish(ResourceType.TASK, ChangeType.UPDATED, id);
+            }
+            done.countDown();
+        });
+        publisher.start();
+        boolean finishedWhileBlocked = done.await(200, TimeUnit.MILLISECONDS);
+        release.countDown();
+        boolean finished = done.await(5, TimeUnit.SECONDS);
+        bus.stop();
+
+        // Assert
+        assertFalse(finishedWhileBlocked);
+        assertTrue(finished);
+        assertTrue(meterRegistry.get("event.bus.publish.waits").counter().count() > 0);
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L), slow.ids);
+    }
+
+    @Test
+    void stop_ShouldDrainTheEventsAlreadyPublished() {
+        // Arrange
+        RecordingConsumer consumer = new RecordingConsumer();
+        consumer.delayMillis = 1;
+        bus = startBus(128, WaitStrategy.BLOCKING, consumer);
+
+        // Act
+        for (long id = 0; id < 100; id++) {
+            bus.publish(ResourceType.USER, ChangeType.DELETED, id);
+        }
+        bus.stop();
+
+        // Assert
+        assertEquals(100, consumer.ids.size());
+        assertFalse(bus.isRunning());
+    }
+
+    @Test
+    void stop_WhilePublisherWaitsForASlot_ShouldDropTheEventInsteadOfOverwritingAPendingOne() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingConsumer slow = new RecordingConsumer(release);
+        bus = startBus(2, WaitStrategy.BLOCKING, slow);
+        Thread publisher = new Thread(() -> {
+            for (long id = 0; id < 3; id++) {
+                bus.publish(ResourceType.TASK, ChangeType.UPDATED, id);
+            }
+        });
+        publisher.start();
+        awaitPublishWait();
+
+        // Act
+        Thread stopper = new Thread(bus::stop);
+        stopper.start();
+        publisher.join(5_000);
+        release.countDown();
+        stopper.join(5_000);
+
+        // Assert
+        assertFalse(publisher.isAlive());
+        assertEquals(List.of(0L, 1L), slow.ids);
+    }
+
+    @Test
+    void publish_AfterAConsumerThrowsAnError_ShouldKeepDeliveringWithoutBlockingPublishers() throws Exception {
+        // Arrange
+        RecordingConsumer consumer = new RecordingConsumer();
+        ChangeEventConsumer failing = (event, sequence, endOfBatch) -> {
+            if (event.getResourceId() == 0) {
+                throw new AssertionError("Consumer failed");
+            }
+            consumer.onEvent(event, sequence, endOfBatch);
+        };
+        bus = startBus(2, WaitStrategy.BLOCKING, failing);
+        CountDownLatch done = new CountDownLatch(1);
+
+        // Act
+        Thread publisher = new Thread(() -> {
+            for (long id = 0; id < 6; id++) {
+                bus.publish(ResourceType.TASK, ChangeType.UPDATED, id);
+            }
+            done.countDown();
+        });
+        publisher.start();
+        boolean finished = done.await(5, TimeUnit.SECONDS);
+        bus.stop();
+
+        // Assert
+        assertTrue(finished);
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), consumer.ids);
+    }
+
+    private void awaitPublishWait() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("event.bus.publish.waits").counter().count() == 0) {
+            assertTrue(System.nanoTime() < deadline, "Publisher never waited");
+            Thread.sleep(5);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private ChangeEventBus startBus(int bufferSize, WaitStrategy waitStrategy, ChangeEventConsumer... consumers) {
+        ObjectProvider<ChangeEventConsumer> provider = mock(ObjectProvider.class);
+        when(provider.orderedStream()).thenAnswer(invocation -> Stream.of(consumers));
+        ChangeEventBus started = new ChangeEventBus(bufferSize, waitStrategy, provider, meterRegistry);
+        started.start();
+        return started;
+    }
+
+    private static final class RecordingConsumer implements ChangeEventConsumer {
+
+        private final List<Long> ids = new CopyOnWriteArrayList<>();
+        private final List<Long> sequences = new CopyOnWriteArrayList<>();
+        private final CountDownLatch release;
+        private volatile long delayMillis;
+
+        private RecordingConsumer() {
+            this(new CountDownLatch(0));
+        }
+
+        private RecordingConsumer(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void onEvent(ChangeEvent event, long sequence, boolean endOfBatch) {
+            try {
+                release.await();
+                if (delayMillis > 0) {
+                    Thread.sleep(delayMillis);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            // Read after waiting, so an overwritten slot would show
+            ids.add(event.getResourceId());
+            sequences.add(sequence);
+        }
+    }
+}
@@ -0,0 +1,463 @@
+package com.example.demo.grpc;
+
+import com.example.demo.dto.project.ProjectRequestDto;
+import com.example.demo.dto.project.ProjectResponseDto;
+import com.example.demo.dto.task.TaskRequestDto;
+import com.example.demo.dto.task.TaskResponseDto;
+import com.example.demo.dto.user.UserResponseDto;
+import com.example.demo.exception.AccessDeniedException;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.grpc.proto.DeleteProjectRequest;
+import com.example.demo.grpc.proto.DeleteTaskRequest;
+import com.example.demo.grpc.proto.GetProjectRequest;
+import com.example.demo.grpc.proto.GetTaskRequest;
+import com.example.demo.grpc.proto.ListProjectsResponse;
+import com.example.demo.grpc.proto.Project;
+import com.example.demo.grpc.proto.ProjectRequest;
+import com.example.demo.grpc.proto.ProjectsGrpc;
+import com.example.demo.grpc.proto.ScanTasksRequest;
+import com.example.demo.grpc.proto.Task;
+import com.example.demo.grpc.proto.TaskRequest;
+import com.example.demo.grpc.proto.TasksGrpc;
+import com.example.demo.grpc.proto.UpdateProjectRequest;
+import com.example.demo.grpc.proto.UpdateTaskRequest;
+import com.example.demo.grpc.proto.UpdateTaskStatusRequest;
+import com.example.demo.model.enums.Priority;
+import com.example.demo.model.enums.Role;
+import com.example.demo.model.enums.TaskStatus;
+import com.example.demo.security.CustomUserDetailsService;
+import com.example.demo.security.jwt.JwtUtils;
+import com.example.demo.service.ProjectService;
+import com.example.demo.service.TaskService;
+import com.google.protobuf.Empty;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import io.grpc.stub.MetadataUtils;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Calls the gRPC services through an in-process server bound as {@link GrpcServer} binds them, with the services
+ * proxied for {@code @PreAuthorize} as Spring does. Tokens are accepted by a stub of {@link JwtUtils} and name the
+ * role of the user they authenticate.
+ */
+@ExtendWith(MockitoExtension.class)
+class GrpcServerTest {
+
+    private static final int SCAN_PAGE_SIZE = 2;
+
+    @Mock
+    private TaskService taskService;
+
+    @Mock
+    private ProjectService projectService;
+
+    @Mock
+    private JwtUtils jwtUtils;
+
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        lenient().when(jwtUtils.validateJwtToken(anyString()))
+                .thenAnswer(invocation -> !invocation.getArgument(0).equals("expired"));
+        lenient().when(jwtUtils.getUsernameFromJwtToken(anyString()))
+                .thenAnswer(invocation -> invocation.getArgument(0) + "@example.com");
+        lenient().when(userDetailsService.loadUserByUsername(anyString())).thenAnswer(invocation -> {
+            String email = invocation.getArgument(0);
+            String role = email.substring(0, email.indexOf('@')).toUpperCase();
+            if (List.of(Role.values()).stream().noneMatch(value -> value.name().equals(role))) {
+                throw new UsernameNotFoundException("User not found with email: " + email);
+            }
+            return new User(email, "password", AuthorityUtils.createAuthorityList("ROLE_" + role));
+        });
+
+        GrpcMessageMapper mapper = new GrpcMessageMapper(Validation.buildDefaultValidatorFactory().getValidator());
+        GrpcServer grpcServer = new GrpcServer(0,
+                secured(new TaskGrpcService(taskService, mapper, SCAN_PAGE_SIZE)),
+                secured(new ProjectGrpcService(projectService, mapper)),
+                new GrpcAuthInterceptor(jwtUtils, userDetailsService),
+                new GrpcExceptionInterceptor());
+
+        String name = InProcessServerBuilder.generateName();
+        InProcessServerBuilder builder = InProcessServerBuilder.forName(name);
+        grpcServer.services().forEach(builder::addService);
+        server = builder.build().start();
+        channel = InProcessChannelBuilder.forName(name).build();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        channel.shutdownNow();
+        server.shutdownNow();
+        channel.awaitTermination(5, TimeUnit.SECONDS);
+        server.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void call_WithoutValidToken_ShouldFailUnauthenticated() {
+        for (String authorization : new String[]{null, "Basic dXNlcjpwYXNz", "Bearer expired", "Bearer unknown"}) {
+            StatusRuntimeException exception = assertThrows(StatusRuntimeException.class,
+                    () -> tasks(authorization).getTask(GetTaskRequest.newBuilder().setId(1L).build()));
+            assertEquals(Status.Code.UNAUTHENTICATED, exception.getStatus().getCode(), authorization);
+        }
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    void getTask_WithValidToken_ShouldRunAsTheAuthenticatedUser() {
+        // Arrange
+        AtomicReference<Authentication> seen = new AtomicReference<>();
+        when(taskService.getTaskById(1L)).thenAnswer(invocation -> {
+            seen.set(SecurityContextHolder.getContext().getAuthentication());
+            return task(1L);
+        });
+
+        // Act
+        Task task = tasks("Bearer user").getTask(GetTaskRequest.newBuilder().setId(1L).build());
+
+        // Assert
+        assertEquals(1L, task.getId());
+        assertEquals("Task 1", task.getTitle());
+        assertEquals(com.example.demo.grpc.proto.TaskStatus.TASK_STATUS_TODO, task.getStatus());
+        assertEquals("2026-10-19", task.getDueDate());
+        assertEquals("user@example.com", task.getProject().getOwner().getEmail());
+        assertFalse(task.hasAssignedUser());
+        assertEquals("user@example.com", seen.get().getName());
+    }
+
+    @Test
+    void createTask_AsManager_ShouldPassTheValidatedRequestToTheService() {
+        // Arrange
+        when(taskService.createTask(any(TaskRequestDto.class))).thenReturn(task(7L));
+
+        // Act
+        Task task = tasks("Bearer manager").createTask(TaskRequest.newBuilder()
+                .setTitle("New task")
+                .setStatus(com.example.demo.grpc.proto.TaskStatus.TASK_STATUS_TODO)
+                .setPriority(com.example.demo.grpc.proto.Priority.PRIORITY_HIGH)
+                .setDueDate("2026-10-19")
+                .setProjectId(3L)
+                .build());
+
+        // Assert
+        assertEquals(7L, task.getId());
+        ArgumentCaptor<TaskRequestDto> request = ArgumentCaptor.forClass(TaskRequestDto.class);
+        verify(taskService).createTask(request.capture());
+        assertEquals("New task", request.getValue().getTitle());
+        assertEquals(Priority.HIGH, request.getValue().getPriority());
+        assertEquals(LocalDate.of(2026, 10, 19), request.getValue().getDueDate());
+        assertEquals(3L, request.getValue().getProjectId());
+        assertNull(request.getValue().getAssignedUserId());
+        assertNull(request.getValue().getDescription());
+    }
+
+    @Test
+    void updateTaskAndDeleteTask_AsAdmin_ShouldCallTheService() {
+        // Arrange
+        when(taskService.updateTask(eq(7L), any(TaskRequestDto.class))).thenReturn(task(7L));
+        TaskRequest request = TaskRequest.newBuilder()
+                .setTitle("Renamed")
+                .setStatus(com.example.demo.grpc.proto.TaskStatus.TASK_STATUS_IN_PROGRESS)
+                .setPriority(com.example.demo.grpc.proto.Priority.PRIORITY_LOW)
+                .setProjectId(3L)
+                .setAssignedUserId(4L)
+                .build();
+
+        // Act
+        Task updated = tasks("Bearer admin").updateTask(UpdateTaskRequest.newBuilder()
+                .setId(7L)
+                .setTask(request)
+                .build());
+        Empty deleted = tasks("Bearer admin").deleteTask(DeleteTaskRequest.newBuilder().setId(7L).build());
+
+        // Assert
+        assertEquals(7L, updated.getId());
+        assertEquals(Empty.getDefaultInstance(), deleted);
+        ArgumentCaptor<TaskRequestDto> captured = ArgumentCaptor.forClass(TaskRequestDto.class);
+        verify(taskService).updateTask(eq(7L), captured.capture());
+        assertEquals(4L, captured.getValue().getAssignedUserId());
+        verify(taskService).deleteTask(7L);
+    }
+
+    @Test
+    void updateTaskStatus_AsUser_ShouldBeAllowed() {
+        // Arrange
+        when(taskService.updateTaskStatus(7L, TaskStatus.DONE)).thenReturn(task(7L));
+
+        // Act
+        Task task = tasks("Bearer user").updateTaskStatus(UpdateTaskStatusRequest.newBuilder()
+                .setId(7L)
+                .setStatus(com.example.demo.grpc.proto.TaskStatus.TASK_STATUS_DONE)
+                .build());
+
+        // Assert
+        assertEquals(7L, task.getId());
+    }
+
+    @Test
+    void writes_AsUserWithoutTheRole_ShouldFailPermissionDenied() {
+        // Arrange
+        TaskRequest request = TaskRequest.newBuilder()
+                .setTitle("New task")
+                .setStatus(com.example.demo.grpc.proto.TaskStatus.TASK_STATUS_TODO)
+                .setPriority(com.example.demo.grpc.proto.Priority.PRIORITY_LOW)
+                .setProjectId(3L)
+                .build();
+
+        // Act & Assert
+        assertStatus(Status.Code.PERMISSION_DENIED, () -> tasks("Bearer user").createTask(request));
+        assertStatus(Status.Code.PERMISSION_DENIED, () -> tasks("Bearer user").deleteTask(
+                DeleteTaskRequest.newBuilder().setId(7L).build()));
+        assertStatus(Status.Code.PERMISSION_DENIED, () -> projects("Bearer user").getProject(
+                GetProjectRequest.newBuilder().setId(3L).build()));
+        verifyNoInteractions(taskService, projectService);
+    }
+
+    @Test
+    void call_WhenServiceOrMapperThrows_ShouldMapTheExceptionToAStatus() {
+        // Arrange
+        when(taskService.getTaskById(1L)).thenThrow(new ResourceNotFoundException("Task", "id", 1L));
+        when(taskService.getTaskById(2L)).thenThrow(new AccessDeniedException("You don't have permission"));
+        when(taskService.getTaskById(3L)).thenThrow(new IllegalStateException("Connection lost"));
+        TasksGrpc.TasksBlockingStub stub = tasks("Bearer user");
+
+        // Act & Assert
+        StatusRuntimeException notFound = assertStatus(Status.Code.NOT_FOUND,
+                () -> stub.getTask(GetTaskRequest.newBuilder().setId(1L).build()));
+        assertEquals("Task not found with id: '1'", notFound.getStatus().getDescription());
+        assertStatus(Status.Code.PERMISSION_DENIED, () -> stub.getTask(GetTaskRequest.newBuilder().setId(2L).build()));
+        StatusRuntimeException internal = assertStatus(Status.Code.INTERNAL,
+                () -> stub.getTask(GetTaskRequest.newBuilder().setId(3L).build()));
+        assertEquals("An unexpected error occurred", internal.getStatus().getDescription());
+        assertStatus(Status.Code.INVALID_ARGUMENT, () -> stub.updateTaskStatus(
+                UpdateTaskStatusRequest.newBuilder().setId(7L).build()));
+        StatusRuntimeException invalid = assertStatus(Status.Code.INVALID_ARGUMENT,
+                () -> tasks("Bearer admin").createTask(TaskRequest.newBuilder().setProjectId(3L).build()));
+        assertTrue(invalid.getStatus().getDescription().contains("title: Task title is required"));
+        assertStatus(Status.Code.INVALID_ARGUMENT, () -> tasks("Bearer admin").createTask(TaskRequest.newBuilder()
+                .setTitle("New task")
+                .setStatus(com.example.demo.grpc.proto.TaskStatus.TASK_STATUS_TODO)
+                .setPriority(com.example.demo.grpc.proto.Priority.PRIORITY_LOW)
+                .setProjectId(3L)
+                .setDueDate("19.10.2026")
+                .build()));
+    }
+
+    @Test
+    void projectCrud_AsManager_ShouldCallTheService() {
+        // Arrange
+        when(projectService.getAllProjects()).thenReturn(List.of(project(3L), project(4L)));
+        when(projectService.getProjectById(3L)).thenReturn(project(3L));
+        when(projectService.createProject(any(ProjectRequestDto.class))).thenReturn(project(5L));
+        when(projectService.updateProject(eq(5L), any(ProjectRequestDto.class))).thenReturn(project(5L));
+        ProjectsGrpc.ProjectsBlockingStub stub = projects("Bearer manager");
+        ProjectRequest request = ProjectRequest.newBuilder().setName("Project").build();
+
+        // Act
+        ListProjectsResponse listed = stub.listProjects(Empty.getDefaultInstance());
+        Project project = stub.getProject(GetProjectRequest.newBuilder().setId(3L).build());
+        Project created = stub.createProject(request);
+        Project updated = stub.updateProject(UpdateProjectRequest.newBuilder().setId(5L).setProject(request).build());
+        stub.deleteProject(DeleteProjectRequest.newBuilder().setId(5L).build());
+
+        // Assert
+        assertEquals(List.of(3L, 4L), listed.getProjectsList().stream().map(Project::getId).toList());
+        assertEquals("Project 3", project.getName());
+        assertEquals(com.example.demo.grpc.proto.Role.ROLE_USER, project.getOwner().getRole());
+        assertEquals(5L, created.getId());
+        assertEquals(5L, updated.getId());
+        verify(projectService).deleteProject(5L);
+        assertStatus(Status.Code.INVALID_ARGUMENT, () -> stub.createProject(ProjectRequest.getDefaultInstance()));
+    }
+
+    @Test
+    void scanTasks_ShouldReadPagesOnlyAsFastAsTheClientRequestsTasks() throws Exception {
+        // Arrange
+        when(taskService.scanTasks(null, null, null, SCAN_PAGE_SIZE)).thenReturn(List.of(task(1L), task(2L)));
+        when(taskService.scanTasks(null, null, 2L, SCAN_PAGE_SIZE)).thenReturn(List.of(task(3L), task(4L)));
+        when(taskService.scanTasks(null, null, 4L, SCAN_PAGE_SIZE)).thenReturn(List.of(task(5L)));
+        BlockingQueue<Long> received = new LinkedBlockingQueue<>();
+        CountDownLatch completed = new CountDownLatch(1);
+        AtomicReference<ClientCallStreamObserver<ScanTasksRequest>> requests = new AtomicReference<>();
+
+        // Act
+        TasksGrpc.newStub(channel)
+                .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(authorization("Bearer user")))
+                .scanTasks(ScanTasksRequest.getDefaultInstance(), new ClientResponseObserver<ScanTasksRequest, Task>() {
+                    @Override
+                    public void beforeStart(ClientCallStreamObserver<ScanTasksRequest> requestStream) {
+                        requestStream.disableAutoRequestWithInitial(1);
+                        requests.set(requestStream);
+                    }
+
+                    @Override
+                    public void onNext(Task task) {
+                        received.add(task.getId());
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        received.add(-1L);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        completed.countDown();
+                    }
+                });
+
+        // Assert
+        // A page is read only when the client is ready for a task and none is buffered
+        assertEquals(1L, received.poll(5, TimeUnit.SECONDS));
+        verify(taskService, times(1)).scanTasks(any(), any(), any(), anyInt());
+
+        requests.get().request(1);
+        assertEquals(2L, received.poll(5, TimeUnit.SECONDS));
+        verify(taskService, times(1)).scanTasks(any(), any(), any(), anyInt());
+
+        requests.get().request(1);
+        assertEquals(3L, received.poll(5, TimeUnit.SECONDS));
+        verify(taskService, times(2)).scanTasks(any(), any(), any(), anyInt());
+
+        requests.get().request(10);
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(4L, 5L), List.copyOf(received));
+        verify(taskService, times(3)).scanTasks(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void scanTasks_WithFiltersAndAfterId_ShouldResumeTheScan() {
+        // Arrange
+        when(taskService.scanTasks(TaskStatus.DONE, Priority.HIGH, 10L, SCAN_PAGE_SIZE))
+                .thenReturn(List.of(task(11L)));
+
+        // Act
+        List<Long> scanned = new ArrayList<>();
+        tasks("Bearer admin").scanTasks(ScanTasksRequest.newBuilder()
+                .setStatus(com.example.demo.grpc.proto.TaskStatus.TASK_STATUS_DONE)
+                .setPriority(com.example.demo.grpc.proto.Priority.PRIORITY_HIGH)
+                .setAfterId(10L)
+                .build()).forEachRemaining(task -> scanned.add(task.getId()));
+
+        // Assert
+        assertEquals(List.of(11L), scanned);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exceptionInterceptor_WhenCancelOrCompleteCallbackThrows_ShouldMapTheExceptionInsteadOfThrowing() {
+        // Arrange
+        ServerCall<Object, Object> call = mock(ServerCall.class);
+        ServerCall.Listener<Object> listener = mock(ServerCall.Listener.class);
+        doThrow(new ResourceNotFoundException("Task", "id", 1L)).when(listener).onCancel();
+        doThrow(new IllegalStateException("Cleanup failed")).when(listener).onComplete();
+        ServerCallHandler<Object, Object> handler = (serverCall, headers) -> listener;
+        ServerCall.Listener<Object> intercepted = new GrpcExceptionInterceptor()
+                .interceptCall(call, new Metadata(), handler);
+
+        // Act
+        intercepted.onCancel();
+        doThrow(new IllegalStateException("call already closed")).when(call).close(any(), any());
+        assertDoesNotThrow(intercepted::onComplete);
+
+        // Assert
+        ArgumentCaptor<Status> status = ArgumentCaptor.forClass(Status.class);
+        verify(call, times(2)).close(status.capture(), any());
+        assertEquals(List.of(Status.Code.NOT_FOUND, Status.Code.INTERNAL),
+                status.getAllValues().stream().map(Status::getCode).toList());
+    }
+
+    private TasksGrpc.TasksBlockingStub tasks(String authorization) {
+        return TasksGrpc.newBlockingStub(channel)
+                .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(authorization(authorization)));
+    }
+
+    private ProjectsGrpc.ProjectsBlockingStub projects(String authorization) {
+        return ProjectsGrpc.newBlockingStub(channel)
+                .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(authorization(authorization)));
+    }
+
+    private static Metadata authorization(String authorization) {
+        Metadata headers = new Metadata();
+        if (authorization != null) {
+            headers.put(Metadata.Key.of("authorization", Metadata.ASCII_STRING_MARSHALLER), authorization);
+        }
+        return headers;
+    }
+
+    private static StatusRuntimeException assertStatus(Status.Code code, Runnable call) {
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class, call::run);
+        assertEquals(code, exception.getStatus().getCode(), exception.getStatus().toString());
+        return exception;
+    }
+
+    /**
+     * Proxy a service with the {@code @PreAuthorize} interceptor, as method security does for the Spring bean.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T secured(T service) {
+        ProxyFactory proxyFactory = new ProxyFactory(service);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvisor(AuthorizationManagerBeforeMethodInterceptor.preAuthorize());
+        return (T) proxyFactory.getProxy();
+    }
+
+    private static TaskResponseDto task(Long id) {
+        return TaskResponseDto.builder()
+                .id(id)
+                .title("Task " + id)
+                .status(TaskStatus.TODO)
+                .priority(Priority.MEDIUM)
+                .dueDate(LocalDate.of(2026, 10, 19))
+                .project(project(3L))
+                .build();
+    }
+
+    private static ProjectResponseDto project(Long id) {
+        return ProjectResponseDto.builder()
+                .id(id)
+                .name("Project " + id)
+                .owner(UserResponseDto.builder().id(2L).email("user@example.com").role(Role.USER).build())
+                .build();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.FieldSelection;
+import com.example.demo.model.converter.PriorityConverter;
+import com.example.demo.model.entity.Project;
+import com.example.demo.model.entity.Task;
+import com.example.demo.model.entity.User;
+import com.example.demo.model.enums.Priority;
+import com.example.demo.model.enums.Role;
+import com.example.demo.model.enums.TaskStatus;
+import com.example.demo.shard.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that status, priority and role are stored as their codes and that priority sorts by urgency.
+ */
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import(ShardRouter.class)
+class EnumEncodingRepositoryTest {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        User manager = userRepository.save(User.builder()
+                .email("manager@example.com")
+                .password("password")
+                .role(Role.MANAGER)
+                .build());
+        project = projectRepository.save(Project.builder()
+                .name("Test Project")
+                .owner(manager)
+                .build());
+        for (Priority priority : List.of(Priority.MEDIUM, Priority.HIGH, Priority.LOW)) {
+            taskRepository.save(Task.builder()
+                    .title(priority + " Task")
+                    .status(TaskStatus.IN_PROGRESS)
+                    .priority(priority)
+                    .project(project)
+                    .build());
+        }
+        taskRepository.flush();
+    }
+
+    @Test
+    void save_ShouldStoreCodes() {
+        // Act
+        List<Short> priorities = jdbcTemplate.queryForList("select priority from tasks order by id", Short.class);
+        List<Short> statuses = jdbcTemplate.queryForList("select distinct status from tasks", Short.class);
+        Short role = jdbcTemplate.queryForObject("select role from users", Short.class);
+
+        // Assert
+        assertEquals(List.<Short>of((short) 2, (short) 3, (short) 1), priorities);
+        assertEquals(List.of(TaskStatus.IN_PROGRESS.getCode()), statuses);
+        assertEquals(Role.MANAGER.getCode(), role);
+    }
+
+    @Test
+    void findSelected_WhenSortedByPriorityDescending_ShouldReturnMostUrgentFirst() {
+        // Arrange
+        TaskCriteria criteria = TaskCriteria.builder()
+                .projectIds(List.of(project.getId()))
+                .status(TaskStatus.IN_PROGRESS)
+                .build();
+        PageRequest pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "priority"));
+
+        // Act
+        List<Task> tasks = taskRepository.findSelected(criteria, FieldSelection.ALL, pageable).getContent();
+
+        // Assert
+        assertEquals(List.of(Priority.HIGH, Priority.MEDIUM, Priority.LOW), tasks.stream().map(Task::getPriority).toList());
+    }
+
+    @Test
+    void convertToEntityAttribute_WhenCodeIsUnknown_ShouldThrowIllegalStateException() {
+        // Arrange
+        PriorityConverter converter = new PriorityConverter();
+
+        // Act & Assert
+        assertEquals(Priority.HIGH, converter.convertToEntityAttribute((short) 3));
+        assertThrows(IllegalStateException.class, () -> converter.convertToEntityAttribute((short) 9));
+    }
+}
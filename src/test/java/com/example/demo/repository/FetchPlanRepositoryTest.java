@@ -0,0 +1,168 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.FieldSelection;
+import com.example.demo.dto.project.ProjectResponseDto;
+import com.example.demo.dto.task.TaskResponseDto;
+import com.example.demo.mapper.ProjectMapper;
+import com.example.demo.mapper.ProjectMapperImpl;
+import com.example.demo.mapper.TaskMapper;
+import com.example.demo.mapper.TaskMapperImpl;
+import com.example.demo.model.entity.Project;
+import com.example.demo.model.entity.Task;
+import com.example.demo.model.entity.User;
+import com.example.demo.model.enums.Priority;
+import com.example.demo.model.enums.Role;
+import com.example.demo.model.enums.TaskStatus;
+import com.example.demo.shard.ShardRouter;
+import org.hibernate.Hibernate;
+import org.hibernate.LazyInitializationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the fetch plans used by the services load everything the response DTOs need.
+ * Tests run without a surrounding transaction, so entities are detached once a repository call returns,
+ * as they are with open-session-in-view disabled, and any lazy access during mapping fails.
+ */
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import(ShardRouter.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FetchPlanRepositoryTest {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final TaskMapper taskMapper = new TaskMapperImpl();
+    private final ProjectMapper projectMapper = new ProjectMapperImpl();
+
+    private User manager;
+    private User assignee;
+    private Project project;
+    private Task task;
+
+    @BeforeEach
+    void setUp() {
+        manager = userRepository.save(User.builder()
+                .email("manager@example.com")
+                .password("password")
+                .role(Role.MANAGER)
+                .build());
+        assignee = userRepository.save(User.builder()
+                .email("user@example.com")
+                .password("password")
+                .role(Role.USER)
+                .build());
+        project = projectRepository.save(Project.builder()
+                .name("Test Project")
+                .description("Project description")
+                .owner(manager)
+                .build());
+        task = taskRepository.save(Task.builder()
+                .title("Test Task")
+                .description("Task description")
+                .status(TaskStatus.TODO)
+                .priority(Priority.MEDIUM)
+                .project(project)
+                .assignedUser(assignee)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAll();
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void findById_WhenMappedAfterTransaction_ShouldThrowLazyInitializationException() {
+        // Arrange
+        Task detached = taskRepository.findById(task.getId()).orElseThrow();
+
+        // Act & Assert
+        assertThrows(LazyInitializationException.class, () -> taskMapper.toResponseDto(detached));
+    }
+
+    @Test
+    void findWithAssociationsById_ShouldLoadAssociationsButNotDescription() {
+        // Act
+        Task detached = taskRepository.findWithAssociationsById(task.getId()).orElseThrow();
+
+        // Assert
+        assertTrue(Hibernate.isInitialized(detached.getProject().getOwner()));
+        assertTrue(Hibernate.isInitialized(detached.getAssignedUser()));
+        assertFalse(Hibernate.isPropertyInitialized(detached, "description"));
+    }
+
+    @Test
+    void findSelected_WhenMappedAfterTransaction_ShouldMapAssociations() {
+        // Arrange
+        TaskCriteria criteria = TaskCriteria.builder()
+                .projectIds(List.of(project.getId()))
+                .build();
+        List<Task> detached = taskRepository.findSelected(criteria, FieldSelection.ALL, Pageable.ofSize(10)).getContent();
+
+        // Act
+        TaskResponseDto result = assertDoesNotThrow(() -> taskMapper.toResponseDto(detached.get(0)));
+
+        // Assert
+        assertEquals("Task description", result.getDescription());
+        assertEquals("Project description", result.getProject().getDescription());
+        assertEquals(manager.getEmail(), result.getProject().getOwner().getEmail());
+        assertEquals(assignee.getEmail(), result.getAssignedUser().getEmail());
+    }
+
+    @Test
+    void findSelected_WhenFilteredByIdsOrAssignee_ShouldMapAssociations() {
+        // Arrange
+        TaskCriteria byIds = TaskCriteria.builder()
+                .ids(List.of(task.getId()))
+                .build();
+        TaskCriteria byAssignee = TaskCriteria.builder()
+                .assignedUserId(assignee.getId())
+                .projectIds(List.of(project.getId()))
+                .build();
+        List<Task> detached = taskRepository.findSelected(byIds, FieldSelection.ALL, 1);
+        List<Task> detachedByAssignee = taskRepository.findSelected(byAssignee, FieldSelection.ALL, Pageable.ofSize(10))
+                .getContent();
+
+        // Act & Assert
+        assertEquals(1, detached.size());
+        assertDoesNotThrow(() -> detached.forEach(taskMapper::toResponseDto));
+        assertEquals(1, detachedByAssignee.size());
+        assertDoesNotThrow(() -> detachedByAssignee.forEach(taskMapper::toResponseDto));
+    }
+
+    @Test
+    void findSelectedProjects_WhenMappedAfterTransaction_ShouldMapOwner() {
+        // Arrange
+        List<Project> byIds = projectRepository.findSelectedByIds(List.of(project.getId()), FieldSelection.ALL);
+        List<Project> owned = projectRepository.findSelected(manager.getId(), FieldSelection.ALL);
+
+        // Act
+        ProjectResponseDto result = assertDoesNotThrow(() -> projectMapper.toResponseDto(byIds.get(0)));
+
+        // Assert
+        assertEquals("Project description", result.getDescription());
+        assertEquals(manager.getEmail(), result.getOwner().getEmail());
+        assertDoesNotThrow(() -> owned.forEach(projectMapper::toResponseDto));
+        assertTrue(projectRepository.findSelectedByIds(List.of(), FieldSelection.ALL).isEmpty());
+    }
+}
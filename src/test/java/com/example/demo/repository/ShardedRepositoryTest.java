@@ -0,0 +1,212 @@
+package com.example.demo.repository;
+
+import com.example.demo.config.ShardingConfig;
+import com.example.demo.dto.FieldSelection;
+import com.example.demo.model.entity.Project;
+import com.example.demo.model.entity.Task;
+import com.example.demo.model.entity.User;
+import com.example.demo.model.enums.Priority;
+import com.example.demo.model.enums.Role;
+import com.example.demo.model.enums.TaskStatus;
+import com.example.demo.shard.ShardContext;
+import com.example.demo.shard.ShardRouter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the repositories against three in-memory databases, one per shard. Nulls sort last as in PostgreSQL.
+ * Tests run without a surrounding transaction so that every shard is written to.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "app.sharding.urls=jdbc:h2:mem:shard0;DEFAULT_NULL_ORDERING=HIGH,"
+                + "jdbc:h2:mem:shard1;DEFAULT_NULL_ORDERING=HIGH,"
+                + "jdbc:h2:mem:shard2;DEFAULT_NULL_ORDERING=HIGH"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ShardingConfig.class, ShardRouter.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ShardedRepositoryTest {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    private User manager;
+    private User assignee;
+    private final List<Project> projects = new ArrayList<>();
+    private final List<Task> tasks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        manager = userRepository.save(User.builder()
+                .email("manager@example.com")
+                .password("password")
+                .role(Role.MANAGER)
+                .build());
+        assignee = userRepository.save(User.builder()
+                .email("user@example.com")
+                .password("password")
+                .role(Role.USER)
+                .build());
+        shardRouter.inTransactionOnOtherShards(() -> {
+            userRepository.replicate(manager);
+            userRepository.replicate(assignee);
+        });
+
+        String[] titles = {"Beta", "Echo", "Alpha", "Foxtrot", "Delta", "Charlie"};
+        for (int shard = 0; shard < 3; shard++) {
+            Project project = ShardContext.call(shard, () -> projectRepository.save(Project.builder()
+                    .name("Project")
+                    .owner(manager)
+                    .build()));
+            projects.add(project);
+            for (int index = 0; index < 2; index++) {
+                String title = titles[2 * shard + index];
+                Priority priority = index == 0 ? Priority.HIGH : Priority.LOW;
+                tasks.add(ShardContext.call(shard, () -> taskRepository.save(Task.builder()
+                        .title(title)
+                        .status(TaskStatus.TODO)
+                        .priority(priority)
+                        .project(project)
+                        .assignedUser(assignee)
+                        .build())));
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (int shard : shardRouter.allShards()) {
+            ShardContext.run(shard, () -> {
+                taskRepository.deleteAll();
+                projectRepository.deleteAll();
+                userRepository.deleteAll();
+            });
+        }
+    }
+
+    @Test
+    void replicate_ACopyReferencedByProjects_ShouldUpdateItInPlace() {
+        // Arrange
+        manager.setRole(Role.ADMIN);
+
+        // Act
+        shardRouter.inTransactionOnOtherShards(() -> userRepository.replicate(manager));
+
+        // Assert
+        for (int shard = 1; shard < 3; shard++) {
+            User copy = ShardContext.call(shard, () -> userRepository.findById(manager.getId()).orElseThrow());
+            long userCount = ShardContext.call(shard, userRepository::count);
+            assertEquals(Role.ADMIN, copy.getRole());
+            assertEquals(2, userCount);
+        }
+    }
+
+    @Test
+    void save_ShouldHandOutIdsThatRouteBackToTheShard() {
+        for (int shard = 0; shard < 3; shard++) {
+            long projectCount = ShardContext.call(shard, projectRepository::count);
+            long taskCount = ShardContext.call(shard, taskRepository::count);
+
+            assertEquals(shard, shardRouter.shardOf(projects.get(shard).getId()));
+            assertEquals(shard, shardRouter.shardOf(tasks.get(2 * shard).getId()));
+            assertEquals(shard, shardRouter.shardOf(tasks.get(2 * shard + 1).getId()));
+            assertEquals(1, projectCount);
+            assertEquals(2, taskCount);
+        }
+    }
+
+    @Test
+    void findSelected_WhenTasksSpanShards_ShouldMergePagesInSortOrder() {
+        // Arrange
+        TaskCriteria criteria = TaskCriteria.builder().build();
+
+        // Act
+        Page<Task> first = taskRepository.findSelected(criteria, FieldSelection.of("title", null),
+                PageRequest.of(0, 4, Sort.by("title")));
+        Page<Task> second = taskRepository.findSelected(criteria, FieldSelection.of("title", null),
+                PageRequest.of(1, 4, Sort.by("title")));
+        Page<Task> byPriority = taskRepository.findSelected(criteria, FieldSelection.of("title", null),
+                PageRequest.of(0, 6, Sort.by(Sort.Order.desc("priority"), Sort.Order.asc("title"))));
+
+        // Assert
+        assertEquals(List.of("Alpha", "Beta", "Charlie", "Delta"), first.map(Task::getTitle).getContent());
+        assertEquals(List.of("Echo", "Foxtrot"), second.map(Task::getTitle).getContent());
+        assertEquals(6, first.getTotalElements());
+        assertEquals(2, first.getTotalPages());
+        assertEquals(List.of("Alpha", "Beta", "Delta", "Charlie", "Echo", "Foxtrot"),
+                byPriority.map(Task::getTitle).getContent());
+    }
+
+    @Test
+    void findSelected_WhenFilteredByIdsOrProjects_ShouldReadTheOwningShards() {
+        // Arrange
+        TaskCriteria byIds = TaskCriteria.builder()
+                .ids(List.of(tasks.get(0).getId(), tasks.get(5).getId()))
+                .build();
+        TaskCriteria byProject = TaskCriteria.builder()
+                .projectIds(List.of(projects.get(1).getId()))
+                .build();
+
+        // Act
+        List<Task> found = taskRepository.findSelected(byIds, FieldSelection.ALL, 10);
+        Page<Task> inProject = taskRepository.findSelected(byProject, FieldSelection.ALL, PageRequest.of(0, 10));
+        List<Task> scanned = taskRepository.findSelected(TaskCriteria.builder().build(), FieldSelection.REFERENCES, 4);
+
+        // Assert
+        assertEquals(List.of(tasks.get(0).getId(), tasks.get(5).getId()), found.stream().map(Task::getId).toList());
+        assertEquals(manager.getEmail(), found.get(1).getProject().getOwner().getEmail());
+        assertEquals(List.of(tasks.get(2).getId(), tasks.get(3).getId()), inProject.map(Task::getId).getContent());
+        assertEquals(tasks.stream().map(Task::getId).sorted().limit(4).toList(),
+                scanned.stream().map(Task::getId).toList());
+    }
+
+    @Test
+    void crossProjectReads_ShouldQueryEveryShardHoldingTheProjects() {
+        // Arrange
+        List<Long> projectIds = projects.stream().map(Project::getId).toList();
+
+        // Act
+        List<Project> owned = projectRepository.findSelected(manager.getId(), FieldSelection.REFERENCES);
+        List<Project> byIds = projectRepository.findSelectedByIds(projectIds, FieldSelection.ALL);
+        Set<Long> assigned = taskRepository.findProjectIdsWithTasksAssignedTo(assignee.getId(), projectIds);
+        List<Long> firstIds = taskRepository.findFirstIdsByProjectIdIn(projectIds, 1);
+        List<Long> allIds = taskRepository.findFirstIdsByProjectIdIn(projectIds, 2);
+
+        // Assert
+        assertEquals(projectIds.stream().sorted().toList(), owned.stream().map(Project::getId).toList());
+        assertEquals(projectIds.stream().sorted().toList(), byIds.stream().map(Project::getId).toList());
+        assertEquals(Set.copyOf(projectIds), assigned);
+        assertEquals(List.of(tasks.get(0).getId(), tasks.get(2).getId(), tasks.get(4).getId()).stream().sorted().toList(),
+                firstIds);
+        assertEquals(tasks.stream().map(Task::getId).sorted().toList(), allIds);
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.FieldSelection;
+import com.example.demo.model.entity.Project;
+import com.example.demo.model.entity.Task;
+import com.example.demo.model.entity.User;
+import com.example.demo.model.enums.Priority;
+import com.example.demo.model.enums.Role;
+import com.example.demo.model.enums.TaskStatus;
+import com.example.demo.repository.projection.TaskReference;
+import com.example.demo.shard.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks moving completed tasks into the archive and reading them back through task lists filtered on DONE.
+ */
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import(ShardRouter.class)
+class TaskArchiveRepositoryTest {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ArchivedTaskRepository archivedTaskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Project project;
+    private User assignee;
+    private Task doneTask;
+    private Task activeTask;
+
+    @BeforeEach
+    void setUp() {
+        User manager = userRepository.save(User.builder()
+                .email("manager@example.com")
+                .password("password")
+                .role(Role.MANAGER)
+                .build());
+        assignee = userRepository.save(User.builder()
+                .email("user@example.com")
+                .password("password")
+                .role(Role.USER)
+                .build());
+        project = projectRepository.save(Project.builder()
+                .name("Test Project")
+                .owner(manager)
+                .build());
+        doneTask = taskRepository.save(task("Done Task", TaskStatus.DONE));
+        activeTask = taskRepository.save(task("Active Task", TaskStatus.IN_PROGRESS));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findForUpdateByStatusAndUpdateDateBefore_ShouldOnlyReturnDueTasksWithStatus() {
+        // Act
+        List<TaskReference> due = taskRepository.findForUpdateByStatusAndUpdateDateBefore(
+                TaskStatus.DONE, LocalDateTime.now().plusMinutes(1), Limit.of(10));
+        List<TaskReference> notDue = taskRepository.findForUpdateByStatusAndUpdateDateBefore(
+                TaskStatus.DONE, LocalDateTime.now().minusDays(1), Limit.of(10));
+
+        // Assert
+        assertEquals(1, due.size());
+        assertEquals(doneTask.getId(), due.get(0).getId());
+        assertEquals(project.getId(), due.get(0).getProjectId());
+        assertEquals(assignee.getId(), due.get(0).getAssignedUserId());
+        assertTrue(notDue.isEmpty());
+    }
+
+    @Test
+    void copyFromTasks_WhenTaskIsDeleted_ShouldOnlyListItWhenFilteringOnDone() {
+        // Arrange
+        archivedTaskRepository.copyFromTasks(List.of(doneTask.getId()));
+        taskRepository.deleteAllByIdInBatch(List.of(doneTask.getId()));
+
+        // Act
+        Page<Task> done = taskRepository.findSelected(
+                TaskCriteria.builder().status(TaskStatus.DONE).build(), FieldSelection.ALL, Pageable.ofSize(10));
+        Page<Task> all = taskRepository.findSelected(
+                TaskCriteria.builder().build(), FieldSelection.ALL, Pageable.ofSize(10));
+
+        // Assert
+        assertTrue(taskRepository.findById(doneTask.getId()).isEmpty());
+        assertEquals(1, done.getTotalElements());
+        Task archived = done.getContent().get(0);
+        assertEquals(doneTask.getId(), archived.getId());
+        assertEquals("Done Task description", archived.getDescription());
+        assertEquals(project.getId(), archived.getProject().getId());
+        assertEquals(assignee.getEmail(), archived.getAssignedUser().getEmail());
+        assertEquals(List.of(activeTask.getId()), all.getContent().stream().map(Task::getId).toList());
+    }
+
+    @Test
+    void deleteByProjectOwnerId_ShouldRemoveArchivedTasksOfOwnedProjects() {
+        // Arrange
+        archivedTaskRepository.copyFromTasks(List.of(doneTask.getId()));
+        archivedTaskRepository.unassignAllFromUser(assignee.getId());
+
+        // Act
+        int deleted = archivedTaskRepository.deleteByProjectOwnerId(project.getOwner().getId());
+
+        // Assert
+        assertEquals(1, deleted);
+        assertEquals(0, archivedTaskRepository.count());
+    }
+
+    private Task task(String title, TaskStatus status) {
+        return Task.builder()
+                .title(title)
+                .description(title + " description")
+                .status(status)
+                .priority(Priority.MEDIUM)
+                .project(project)
+                .assignedUser(assignee)
+                .build();
+    }
+}
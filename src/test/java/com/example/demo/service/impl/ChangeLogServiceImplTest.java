@@ -0,0 +1,115 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.cache.ChangeTracker.ResourceType;
+import com.example.demo.changelog.ChangeLog;
+import com.example.demo.changelog.ChangeLogRecord;
+import com.example.demo.dto.changelog.ChangeLogPageDto;
+import com.example.demo.event.ChangeEvent;
+import com.example.demo.event.ChangeEvent.ChangeType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the service against a change log on disk with segments of four records.
+ */
+class ChangeLogServiceImplTest {
+
+    @TempDir
+    private Path directory;
+
+    private ChangeLog changeLog;
+    private ChangeLogServiceImpl changeLogService;
+    private final long now = System.currentTimeMillis();
+    private long sequence;
+
+    @BeforeEach
+    void setUp() {
+        changeLog = new ChangeLog(directory, 4, new SimpleMeterRegistry());
+        changeLogService = new ChangeLogServiceImpl(changeLog, 100, Duration.ofSeconds(1));
+    }
+
+    @Test
+    void getChanges_WhenRecordsSpanSegments_ShouldReturnThemInOrderWithTheNextOffset() {
+        // Arrange
+        for (long id = 1; id <= 6; id++) {
+            append(ResourceType.TASK, ChangeType.UPDATED, id);
+        }
+        append(ResourceType.PROJECT, ChangeType.DELETED, 9L);
+
+        // Act
+        ChangeLogPageDto first = changeLogService.getChanges(null, 5, Duration.ZERO);
+        ChangeLogPageDto rest = changeLogService.getChanges(first.getNextOffset(), 5, Duration.ZERO);
+        ChangeLogPageDto caughtUp = changeLogService.getChanges(rest.getNextOffset(), 5, Duration.ZERO);
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), first.getRecords().stream().map(ChangeLogRecord::resourceId).toList());
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L), first.getRecords().stream().map(ChangeLogRecord::offset).toList());
+        assertEquals(5, first.getNextOffset());
+        assertEquals(2, rest.getRecords().size());
+        assertEquals(new ChangeLogRecord(6, ResourceType.PROJECT, ChangeType.DELETED, 9L, now + 7),
+                rest.getRecords().get(1));
+        assertTrue(caughtUp.getRecords().isEmpty());
+        assertEquals(7, caughtUp.getNextOffset());
+    }
+
+    @Test
+    void getChanges_WhenLogIsReopened_ShouldContinueAfterTheLastRecord() {
+        // Arrange
+        for (long id = 1; id <= 5; id++) {
+            append(ResourceType.USER, ChangeType.CREATED, id);
+        }
+        changeLog.destroy();
+        changeLog = new ChangeLog(directory, 4, new SimpleMeterRegistry());
+        changeLogService = new ChangeLogServiceImpl(changeLog, 100, Duration.ofSeconds(1));
+        append(ResourceType.USER, ChangeType.CREATED, 6L);
+
+        // Act
+        ChangeLogPageDto page = changeLogService.getChanges(4L, 10, Duration.ZERO);
+
+        // Assert
+        assertEquals(6, changeLog.getEndOffset());
+        assertEquals(List.of(5L, 6L), page.getRecords().stream().map(ChangeLogRecord::resourceId).toList());
+    }
+
+    @Test
+    void getChanges_WhenOldSegmentsAreDeleted_ShouldReadFromTheNewStart() {
+        // Arrange
+        for (long id = 1; id <= 10; id++) {
+            append(ResourceType.TASK, ChangeType.CREATED, id);
+        }
+
+        // Act
+        int deleted = changeLog.deleteExpiredSegments(Duration.ofDays(1), 4 * ChangeLogRecord.SIZE);
+        ChangeLogPageDto page = changeLogService.getChanges(0L, 10, Duration.ZERO);
+
+        // Assert
+        assertEquals(2, deleted);
+        assertEquals(8, page.getStartOffset());
+        assertEquals(List.of(9L, 10L), page.getRecords().stream().map(ChangeLogRecord::resourceId).toList());
+    }
+
+    @Test
+    void getChanges_WhenLimitOrOffsetIsInvalid_ShouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> changeLogService.getChanges(null, 101, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> changeLogService.getChanges(1L, 10, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> changeLogService.getChanges(0L, 10, Duration.ofSeconds(2)));
+    }
+
+    private void append(ResourceType resourceType, ChangeType changeType, Long resourceId) {
+        ChangeEvent event = mock(ChangeEvent.class);
+        when(event.getResourceType()).thenReturn(resourceType);
+        when(event.getChangeType()).thenReturn(changeType);
+        when(event.getResourceId()).thenReturn(resourceId);
+        when(event.getTimestamp()).thenReturn(now + ++sequence);
+        changeLog.onEvent(event, sequence, true);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.dto.FieldSelection;
+import com.example.demo.dto.task.TaskSummaryDto;
+import com.example.demo.mapper.TaskMapper;
+import com.example.demo.model.entity.Task;
+import com.example.demo.model.enums.OutboxEventType;
+import com.example.demo.model.enums.TaskStatus;
+import com.example.demo.outbox.OutboxWriter;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.repository.projection.TaskDueDate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DueDateServiceImplTest {
+
+    private static final LocalDate DUE_DATE = LocalDate.of(2025, 6, 2);
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskMapper taskMapper;
+
+    @Mock
+    private OutboxWriter outboxWriter;
+
+    @InjectMocks
+    private DueDateServiceImpl dueDateService;
+
+    @Test
+    void getOpenTasksDueBetween_ShouldContinueAfterTheLastTaskOfThePreviousPage() {
+        // Arrange
+        TaskDueDate last = mock(TaskDueDate.class);
+        when(last.getId()).thenReturn(7L);
+        when(last.getDueDate()).thenReturn(DUE_DATE);
+        LocalDate to = DUE_DATE.plusDays(7);
+
+        // Act
+        dueDateService.getOpenTasksDueBetween(DUE_DATE, to, null, 100);
+        dueDateService.getOpenTasksDueBetween(DUE_DATE, to, last, 100);
+
+        // Assert
+        verify(taskRepository).findDueBetween(TaskStatus.DONE, DUE_DATE, to, DUE_DATE.minusDays(1), 0L,
+                Limit.of(100));
+        verify(taskRepository).findDueBetween(TaskStatus.DONE, DUE_DATE, to, DUE_DATE, 7L, Limit.of(100));
+    }
+
+    @Test
+    void recordDueEvents_ShouldSkipTasksClosedOrRescheduledSinceTheTimerWasSet() {
+        // Arrange
+        Task open = Task.builder().id(1L).status(TaskStatus.TODO).dueDate(DUE_DATE).build();
+        Task done = Task.builder().id(2L).status(TaskStatus.DONE).dueDate(DUE_DATE).build();
+        Task rescheduled = Task.builder().id(3L).status(TaskStatus.IN_PROGRESS).dueDate(DUE_DATE.plusDays(1)).build();
+        TaskSummaryDto summary = TaskSummaryDto.builder().id(1L).build();
+        when(taskRepository.findSelected(any(), eq(FieldSelection.ALL), eq(4)))
+                .thenReturn(List.of(open, done, rescheduled));
+        when(taskMapper.toSummaryDto(open)).thenReturn(summary);
+
+        // Act
+        int recorded = dueDateService.recordDueEvents(OutboxEventType.TASK_OVERDUE,
+                Map.of(1L, DUE_DATE, 2L, DUE_DATE, 3L, DUE_DATE, 4L, DUE_DATE));
+
+        // Assert
+        assertEquals(1, recorded);
+        verify(outboxWriter).record(OutboxEventType.TASK_OVERDUE, 1L, summary);
+        verifyNoMoreInteractions(outboxWriter);
+    }
+
+    @Test
+    void recordDueEvents_WithOtherEventType_ShouldThrowIllegalArgumentException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> dueDateService.recordDueEvents(OutboxEventType.TASK_UPDATED, Map.of(1L, DUE_DATE)));
+        verifyNoInteractions(taskRepository, outboxWriter);
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.dto.task.TaskRequestDto;
+import com.example.demo.dto.task.TaskResponseDto;
+import com.example.demo.exception.ConflictException;
+import com.example.demo.model.entity.IdempotencyKey;
+import com.example.demo.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceImplTest {
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .setFilterProvider(new SimpleFilterProvider().setFailOnUnknownId(false));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private IdempotencyServiceImpl idempotencyService;
+    private TaskRequestDto request;
+    private TaskResponseDto response;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyServiceImpl(idempotencyKeyRepository, objectMapper, Duration.ofHours(24),
+                Duration.ofMinutes(1), Duration.ZERO, 100, meterRegistry);
+        request = TaskRequestDto.builder().title("Write report").projectId(1L).build();
+        response = TaskResponseDto.builder().id(10L).title("Write report").build();
+    }
+
+    @Test
+    void execute_WithoutKey_ShouldRunTheRequest() {
+        // Act
+        TaskResponseDto result = idempotencyService.execute(null, "createTask", request, TaskResponseDto.class,
+                () -> response);
+
+        // Assert
+        assertSame(response, result);
+        verifyNoInteractions(idempotencyKeyRepository);
+    }
+
+    @Test
+    void execute_WhenReplayed_ShouldReturnTheFirstResponseWithoutRunningAgain() {
+        // Arrange
+        AtomicInteger runs = new AtomicInteger();
+        when(idempotencyKeyRepository.findById(anyString())).thenReturn(Optional.empty());
+        when(idempotencyKeyRepository.complete(anyString(), anyString())).thenReturn(1);
+
+        // Act
+        TaskResponseDto first = idempotencyService.execute("key-1", "createTask", request, TaskResponseDto.class, () -> {
+            runs.incrementAndGet();
+            return response;
+        });
+        TaskResponseDto replay = idempotencyService.execute("key-1", "createTask", request, TaskResponseDto.class, () -> {
+            runs.incrementAndGet();
+            return response;
+        });
+
+        // Assert
+        assertEquals(1, runs.get());
+        assertSame(response, first);
+        assertEquals(response, replay);
+        verify(idempotencyKeyRepository).insertPending(anyString(), anyString(), any(LocalDateTime.class));
+        verify(idempotencyKeyRepository, times(1)).findById(anyString());
+        assertEquals(1, meterRegistry.get("idempotency.requests").tag("result", "replayed").counter().count());
+    }
+
+    @Test
+    void execute_WhenReplayedWithDifferentRequest_ShouldThrowException() {
+        // Arrange
+        when(idempotencyKeyRepository.findById(anyString())).thenReturn(Optional.empty());
+        when(idempotencyKeyRepository.complete(anyString(), anyString())).thenReturn(1);
+        idempotencyService.execute("key-1", "createTask", request, TaskResponseDto.class, () -> response);
+        TaskRequestDto changed = TaskRequestDto.builder().title("Other report").projectId(1L).build();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> idempotencyService.execute("key-1", "createTask", changed,
+                TaskResponseDto.class, () -> fail("Request must not run again")));
+    }
+
+    @Test
+    void execute_WhenKeyWasCompletedOnAnotherInstance_ShouldReturnStoredResponse() throws Exception {
+        // Arrange
+        ArgumentCaptor<String> requestHash = ArgumentCaptor.forClass(String.class);
+        when(idempotencyKeyRepository.findById(anyString())).thenReturn(Optional.empty());
+        when(idempotencyKeyRepository.complete(anyString(), anyString())).thenReturn(1);
+        idempotencyService.execute("key-1", "createTask", request, TaskResponseDto.class, () -> response);
+        verify(idempotencyKeyRepository).insertPending(anyString(), requestHash.capture(), any());
+
+        IdempotencyServiceImpl otherInstance = new IdempotencyServiceImpl(idempotencyKeyRepository, objectMapper,
+                Duration.ofHours(24), Duration.ofMinutes(1), Duration.ZERO, 100, new SimpleMeterRegistry());
+        when(idempotencyKeyRepository.findById(anyString())).thenReturn(Optional.of(IdempotencyKey.builder()
+                .requestHash(requestHash.getValue())
+                .response(objectMapper.writeValueAsString(response))
+                .createDate(LocalDateTime.now())
+                .build()));
+
+        // Act
+        TaskResponseDto replay = otherInstance.execute("key-1", "createTask", request, TaskResponseDto.class,
+                () -> fail("Request must not run again"));
+
+        // Assert
+        assertEquals(response, replay);
+    }
+
+    @Test
+    void execute_WhenSurroundingTransactionRollsBack_ShouldNotReplayTheResponse() {
+        // Arrange
+        when(idempotencyKeyRepository.findById(anyString())).thenReturn(Optional.empty());
+        when(idempotencyKeyRepository.complete(anyString(), anyString())).thenReturn(1);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            idempotencyService.execute("key-1", "createTask", request, TaskResponseDto.class, () -> response);
+
+            // Act
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        AtomicInteger runs = new AtomicInteger();
+        idempotencyService.execute("key-1", "createTask", request, TaskResponseDto.class, () -> {
+            runs.incrementAndGet();
+            return response;
+        });
+
+        // Assert
+        assertEquals(1, runs.get());
+        verify(idempotencyKeyRepository, times(2)).insertPending(anyString(), anyString(), any());
+    }
+
+    @Test
+    void execute_WhenRequestFails_ShouldReleaseTheKey() {
+        // Arrange
+        when(idempotencyKeyRepository.findById(anyString())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute("key-1", "createTask", request,
+                TaskResponseDto.class, () -> {
+                    throw new IllegalStateException("Database unavailable");
+                }));
+        verify(idempotencyKeyRepository).deletePending(anyString());
+        verify(idempotencyKeyRepository, never()).complete(anyString(), anyString());
+    }
+
+    @Test
+    void execute_WhenKeyIsHeldOnAnotherInstance_ShouldThrowConflictAfterWaiting() {
+        // Arrange
+        when(idempotencyKeyRepository.findById(anyString())).thenReturn(Optional.of(IdempotencyKey.builder()
+                .requestHash("hash")
+                .createDate(LocalDateTime.now())
+                .build()));
+
+        // Act & Assert
+        assertThrows(ConflictException.class, () -> idempotencyService.execute("key-1", "createTask", request,
+                TaskResponseDto.class, () -> fail("Request must not run while the key is held")));
+        verify(idempotencyKeyRepository, never()).insertPending(anyString(), anyString(), any());
+    }
+
+    @Test
+    void execute_WhenKeyIsHeldPastTheLease_ShouldTakeItOver() {
+        // Arrange
+        when(idempotencyKeyRepository.findById(anyString()))
+                .thenReturn(Optional.of(IdempotencyKey.builder()
+                        .requestHash("hash")
+                        .createDate(LocalDateTime.now().minusMinutes(5))
+                        .build()))
+                .thenReturn(Optional.empty());
+        when(idempotencyKeyRepository.complete(anyString(), anyString())).thenReturn(1);
+
+        // Act
+        TaskResponseDto result = idempotencyService.execute("key-1", "createTask", request, TaskResponseDto.class,
+                () -> response);
+
+        // Assert
+        assertSame(response, result);
+        verify(idempotencyKeyRepository).deleteIfCreatedBefore(anyString(), any(LocalDateTime.class));
+        verify(idempotencyKeyRepository).insertPending(anyString(), anyString(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void execute_WhenRetriedConcurrently_ShouldWaitForTheFirstRequest() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        when(idempotencyKeyRepository.findById(anyString())).thenReturn(Optional.empty());
+        when(idempotencyKeyRepository.complete(anyString(), anyString())).thenReturn(1);
+
+        // Act
+        CompletableFuture<TaskResponseDto> first = CompletableFuture.supplyAsync(() -> idempotencyService.execute(
+                "key-1", "createTask", request, TaskResponseDto.class, () -> {
+                    runs.incrementAndGet();
+                    started.countDown();
+                    await(release);
+                    return response;
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<TaskResponseDto> retry = CompletableFuture.supplyAsync(() -> idempotencyService.execute(
+                "key-1", "createTask", request, TaskResponseDto.class, () -> {
+                    runs.incrementAndGet();
+                    return response;
+                }));
+        while (meterRegistry.get("idempotency.requests").tag("result", "joined").counter().count() == 0) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+
+        // Assert
+        assertSame(response, first.get(5, TimeUnit.SECONDS));
+        assertEquals(response, retry.get(5, TimeUnit.SECONDS));
+        assertEquals(1, runs.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
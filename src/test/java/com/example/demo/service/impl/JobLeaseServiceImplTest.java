@@ -0,0 +1,136 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.model.entity.JobLease;
+import com.example.demo.repository.JobLeaseRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JobLeaseServiceImplTest {
+
+    @Mock
+    private JobLeaseRepository jobLeaseRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private JobLeaseServiceImpl jobLeaseService;
+
+    @BeforeEach
+    void setUp() {
+        jobLeaseService = new JobLeaseServiceImpl(jobLeaseRepository, Duration.ofSeconds(30), meterRegistry);
+    }
+
+    @Test
+    void holdLease_WhenJobRunsForTheFirstTime_ShouldCreateTheLeaseAndKeepItWithoutQueryingAgain() {
+        // Arrange
+        when(jobLeaseRepository.take(eq("task-archive"), anyString(), any(), any())).thenReturn(0);
+        when(jobLeaseRepository.existsById("task-archive")).thenReturn(false);
+        when(jobLeaseRepository.insert(eq("task-archive"), anyString(), any())).thenReturn(1);
+
+        // Act
+        boolean first = jobLeaseService.holdLease("task-archive");
+        boolean second = jobLeaseService.holdLease("task-archive");
+
+        // Assert
+        assertTrue(first);
+        assertTrue(second);
+        verify(jobLeaseRepository, times(1)).take(any(), any(), any(), any());
+        assertEquals(1, meterRegistry.get("jobs.leases").gauge().value());
+    }
+
+    @Test
+    void holdLease_WhenAnotherInstanceHoldsTheLease_ShouldReturnFalse() {
+        // Arrange
+        when(jobLeaseRepository.take(eq("task-archive"), anyString(), any(), any())).thenReturn(0);
+        when(jobLeaseRepository.existsById("task-archive")).thenReturn(true);
+
+        // Act
+        boolean held = jobLeaseService.holdLease("task-archive");
+
+        // Assert
+        assertFalse(held);
+        verify(jobLeaseRepository, never()).insert(any(), any(), any());
+    }
+
+    @Test
+    void holdLease_WhenAnotherInstanceCreatesTheLeaseFirst_ShouldReturnFalse() {
+        // Arrange
+        when(jobLeaseRepository.take(eq("task-archive"), anyString(), any(), any())).thenReturn(0);
+        when(jobLeaseRepository.existsById("task-archive")).thenReturn(false);
+        when(jobLeaseRepository.insert(eq("task-archive"), anyString(), any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        // Act & Assert
+        assertFalse(jobLeaseService.holdLease("task-archive"));
+    }
+
+    @Test
+    void holdLease_WhenRenewalFails_ShouldReturnFalse() {
+        // Arrange
+        when(jobLeaseRepository.take(eq("task-archive"), anyString(), any(), any()))
+                .thenThrow(new IllegalStateException("connection refused"));
+
+        // Act & Assert
+        assertFalse(jobLeaseService.holdLease("task-archive"));
+    }
+
+    @Test
+    void saveCheckpoint_WhenLeaseWasLost_ShouldReturnFalseAndTakeTheLeaseAgainBeforeRunning() {
+        // Arrange
+        when(jobLeaseRepository.take(eq("task-archive"), anyString(), any(), any())).thenReturn(1, 0);
+        when(jobLeaseRepository.existsById("task-archive")).thenReturn(true);
+        when(jobLeaseRepository.saveCheckpoint(eq("task-archive"), anyString(), eq("2"), any(), any())).thenReturn(0);
+        jobLeaseService.holdLease("task-archive");
+
+        // Act
+        boolean saved = jobLeaseService.saveCheckpoint("task-archive", "2");
+        boolean held = jobLeaseService.holdLease("task-archive");
+
+        // Assert
+        assertFalse(saved);
+        assertFalse(held);
+        verify(jobLeaseRepository, times(2)).take(any(), any(), any(), any());
+    }
+
+    @Test
+    void getCheckpoint_ShouldReturnTheCheckpointOfTheLastRun() {
+        // Arrange
+        when(jobLeaseRepository.findById("task-archive")).thenReturn(Optional.of(JobLease.builder()
+                .name("task-archive")
+                .owner("other")
+                .leaseUntil(LocalDateTime.now())
+                .checkpoint("1")
+                .build()));
+
+        // Act & Assert
+        assertEquals("1", jobLeaseService.getCheckpoint("task-archive"));
+        assertNull(jobLeaseService.getCheckpoint("idempotency-key-cleanup"));
+    }
+
+    @Test
+    void releaseLeases_ShouldExpireTheLeasesOfThisInstance() {
+        // Arrange
+        when(jobLeaseRepository.take(eq("task-archive"), anyString(), any(), any())).thenReturn(1);
+        jobLeaseService.holdLease("task-archive");
+
+        // Act
+        jobLeaseService.releaseLeases();
+
+        // Assert
+        verify(jobLeaseRepository).releaseAll(anyString(), any());
+        assertEquals(0, meterRegistry.get("jobs.leases").gauge().value());
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.model.entity.OutboxEvent;
+import com.example.demo.model.enums.OutboxEventType;
+import com.example.demo.outbox.OutboxSink;
+import com.example.demo.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayServiceImplTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private OutboxSink firstSink;
+
+    @Mock
+    private OutboxSink secondSink;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private OutboxRelayServiceImpl outboxRelayService;
+
+    @BeforeEach
+    void setUp() {
+        outboxRelayService = new OutboxRelayServiceImpl(outboxEventRepository, List.of(firstSink, secondSink),
+                meterRegistry);
+    }
+
+    @Test
+    void relayEvents_WhenEventsArePending_ShouldDeliverToEverySinkAndDeleteThem() {
+        // Arrange
+        List<OutboxEvent> events = List.of(event(1L), event(2L));
+        when(outboxEventRepository.findForUpdate(Limit.of(100))).thenReturn(events);
+
+        // Act
+        int relayed = outboxRelayService.relayEvents(100);
+
+        // Assert
+        assertEquals(2, relayed);
+        verify(firstSink).deliver(events);
+        verify(secondSink).deliver(events);
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        assertEquals(2, meterRegistry.get("outbox.events.relayed").counter().count());
+        assertEquals(2, meterRegistry.get("outbox.relay.lag").timer().count());
+    }
+
+    @Test
+    void relayEvents_WhenSinkFails_ShouldKeepTheEvents() {
+        // Arrange
+        List<OutboxEvent> events = List.of(event(1L));
+        when(outboxEventRepository.findForUpdate(Limit.of(100))).thenReturn(events);
+        doThrow(new IllegalStateException("Broker unavailable")).when(secondSink).deliver(events);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> outboxRelayService.relayEvents(100));
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(any());
+        assertEquals(0, meterRegistry.get("outbox.events.relayed").counter().count());
+    }
+
+    @Test
+    void relayEvents_WhenOutboxIsEmpty_ShouldNotDeliver() {
+        // Arrange
+        when(outboxEventRepository.findForUpdate(Limit.of(100))).thenReturn(List.of());
+
+        // Act
+        int relayed = outboxRelayService.relayEvents(100);
+
+        // Assert
+        assertEquals(0, relayed);
+        verifyNoInteractions(firstSink, secondSink);
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    private static OutboxEvent event(Long id) {
+        return OutboxEvent.builder()
+                .id(id)
+                .type(OutboxEventType.TASK_UPDATED)
+                .aggregateId(10L)
+                .payload("{}")
+                .createDate(LocalDateTime.now().minusSeconds(1))
+                .build();
+    }
+}
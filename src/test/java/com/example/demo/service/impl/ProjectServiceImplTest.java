@@ -1,29 +1,40 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.cache.ChangeTracker;
+import com.example.demo.cache.SerializedResponseCache;
+import com.example.demo.dto.BatchResponseDto;
+import com.example.demo.dto.FieldSelection;
 import com.example.demo.dto.project.ProjectRequestDto;
 import com.example.demo.dto.project.ProjectResponseDto;
+import com.example.demo.dto.project.ProjectSummaryDto;
 import com.example.demo.dto.user.UserResponseDto;
+import com.example.demo.event.ChangeEvent.ChangeType;
+import com.example.demo.event.ChangeEventBus;
 import com.example.demo.exception.AccessDeniedException;
 import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.mapper.ProjectMapper;
 import com.example.demo.model.entity.Project;
-import com.example.demo.model.entity.Task;
 import com.example.demo.model.entity.User;
+import com.example.demo.model.enums.OutboxEventType;
 import com.example.demo.model.enums.Role;
+import com.example.demo.outbox.OutboxWriter;
+import com.example.demo.repository.ArchivedTaskRepository;
 import com.example.demo.repository.ProjectRepository;
 import com.example.demo.repository.TaskRepository;
+import com.example.demo.repository.projection.ProjectVersion;
 import com.example.demo.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -38,12 +49,30 @@ class ProjectServiceImplTest {
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private ArchivedTaskRepository archivedTaskRepository;
+
     @Mock
     private ProjectMapper projectMapper;
 
     @Mock
     private UserService userService;
 
+    @Mock
+    private ChangeTracker changeTracker;
+
+    @Mock
+    private SerializedResponseCache responseCache;
+
+    @Mock
+    private OutboxWriter outboxWriter;
+
+    @Mock
+    private ChangeEventBus changeEventBus;
+
+    @Spy
+    private BatchLookup batchLookup = new BatchLookup(3);
+
     @InjectMocks
     private ProjectServiceImpl projectService;
 
@@ -111,7 +140,7 @@ class ProjectServiceImplTest {
     void getAllProjects_WhenUserIsAdmin_ShouldReturnAllProjects() {
         // Arrange
         when(userService.getCurrentUser()).thenReturn(adminUser);
-        when(projectRepository.findAll()).thenReturn(List.of(project));
+        when(projectRepository.findSelected(null, FieldSelection.ALL)).thenReturn(List.of(project));
         when(projectMapper.toResponseDto(project)).thenReturn(projectResponseDto);
 
         // Act
@@ -121,14 +150,14 @@ class ProjectServiceImplTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("Test Project", result.get(0).getName());
-        verify(projectRepository).findAll();
+        verify(projectRepository).findSelected(null, FieldSelection.ALL);
     }
 
     @Test
     void getAllProjects_WhenUserIsManager_ShouldReturnOwnedProjects() {
         // Arrange
         when(userService.getCurrentUser()).thenReturn(managerUser);
-        when(projectRepository.findByOwner(managerUser)).thenReturn(List.of(project));
+        when(projectRepository.findSelected(2L, FieldSelection.ALL)).thenReturn(List.of(project));
         when(projectMapper.toResponseDto(project)).thenReturn(projectResponseDto);
 
         // Act
@@ -138,13 +167,46 @@ class ProjectServiceImplTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("Test Project", result.get(0).getName());
-        verify(projectRepository).findByOwner(managerUser);
+        verify(projectRepository).findSelected(2L, FieldSelection.ALL);
+    }
+
+    @Test
+    void getAllProjectsWithSelection_WhenUserIsManager_ShouldLoadOwnedProjects() {
+        // Arrange
+        FieldSelection selection = FieldSelection.of("name", null);
+        when(userService.getCurrentUser()).thenReturn(managerUser);
+        when(projectRepository.findSelected(2L, selection)).thenReturn(List.of(project));
+        when(projectMapper.toResponseDto(project)).thenReturn(projectResponseDto);
+
+        // Act
+        List<ProjectResponseDto> result = projectService.getAllProjects(selection);
+
+        // Assert
+        assertEquals(1, result.size());
+        verify(projectRepository).findSelected(2L, selection);
+    }
+
+    @Test
+    void getAllProjectsWithSelection_WhenUserIsAdmin_ShouldLoadAllProjects() {
+        // Arrange
+        FieldSelection selection = FieldSelection.of(null, "owner");
+        when(userService.getCurrentUser()).thenReturn(adminUser);
+        when(projectRepository.findSelected(null, selection)).thenReturn(List.of(project));
+        when(projectMapper.toResponseDto(project)).thenReturn(projectResponseDto);
+
+        // Act
+        List<ProjectResponseDto> result = projectService.getAllProjects(selection);
+
+        // Assert
+        assertEquals(1, result.size());
+        verify(projectRepository).findSelected(null, selection);
     }
 
     @Test
     void getProjectById_WhenProjectExistsAndUserHasAccess_ShouldReturnProject() {
         // Arrange
         when(userService.getCurrentUser()).thenReturn(managerUser);
+        when(projectRepository.findSelectedByIds(List.of(1L), FieldSelection.ALL)).thenReturn(List.of(project));
         when(projectRepository.findById(1L)).thenReturn(Optional.of(project));
         when(projectMapper.toResponseDto(project)).thenReturn(projectResponseDto);
 
@@ -155,28 +217,62 @@ class ProjectServiceImplTest {
         assertNotNull(result);
         assertEquals(1L, result.getId());
         assertEquals("Test Project", result.getName());
-        verify(projectRepository, times(2)).findById(1L);
+        verify(projectRepository).findSelectedByIds(List.of(1L), FieldSelection.ALL);
+        verify(projectRepository).findById(1L);
     }
 
     @Test
     void getProjectById_WhenProjectDoesNotExist_ShouldThrowResourceNotFoundException() {
         // Arrange
-        when(projectRepository.findById(99L)).thenReturn(Optional.empty());
+        when(projectRepository.findSelectedByIds(List.of(99L), FieldSelection.ALL)).thenReturn(List.of());
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> projectService.getProjectById(99L));
-        verify(projectRepository).findById(99L);
+        verify(projectRepository).findSelectedByIds(List.of(99L), FieldSelection.ALL);
     }
 
     @Test
     void getProjectById_WhenUserDoesNotHaveAccess_ShouldThrowAccessDeniedException() {
         // Arrange
-        when(projectRepository.findById(1L)).thenReturn(Optional.of(project));
+        when(projectRepository.findSelectedByIds(List.of(1L), FieldSelection.ALL)).thenReturn(List.of(project));
         when(userService.getCurrentUser()).thenReturn(regularUser);
 
         // Act & Assert
         assertThrows(AccessDeniedException.class, () -> projectService.getProjectById(1L));
-        verify(projectRepository).findById(1L);
+        verify(projectRepository).findSelectedByIds(List.of(1L), FieldSelection.ALL);
+    }
+
+    @Test
+    void getProjectVersion_WhenUserIsOwner_ShouldReturnVersion() {
+        // Arrange
+        LocalDateTime updateDate = LocalDateTime.of(2024, 1, 1, 12, 0);
+        ProjectVersion version = mock(ProjectVersion.class);
+        when(version.getId()).thenReturn(1L);
+        when(version.getUpdateDate()).thenReturn(updateDate);
+        LocalDateTime ownerUpdateDate = LocalDateTime.of(2024, 1, 2, 12, 0);
+        when(version.getOwnerId()).thenReturn(2L);
+        when(version.getOwnerUpdateDate()).thenReturn(ownerUpdateDate);
+        when(projectRepository.findVersionById(1L)).thenReturn(Optional.of(version));
+        when(userService.getCurrentUser()).thenReturn(managerUser);
+
+        // Act
+        String result = projectService.getProjectVersion(1L);
+
+        // Assert
+        assertEquals("1:" + updateDate + ":" + ownerUpdateDate, result);
+        verify(projectRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void getProjectVersion_WhenUserDoesNotHaveAccess_ShouldThrowAccessDeniedException() {
+        // Arrange
+        ProjectVersion version = mock(ProjectVersion.class);
+        when(projectRepository.findVersionById(1L)).thenReturn(Optional.of(version));
+        when(userService.getCurrentUser()).thenReturn(regularUser);
+        when(taskRepository.existsByAssignedUserAndProjectId(regularUser, 1L)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class, () -> projectService.getProjectVersion(1L));
     }
 
     @Test
@@ -186,6 +282,8 @@ class ProjectServiceImplTest {
         when(projectMapper.toEntity(projectRequestDto, managerUser)).thenReturn(project);
         when(projectRepository.save(project)).thenReturn(project);
         when(projectMapper.toResponseDto(project)).thenReturn(projectResponseDto);
+        ProjectSummaryDto summary = ProjectSummaryDto.builder().id(1L).build();
+        when(projectMapper.toSummaryDto(project)).thenReturn(summary);
 
         // Act
         ProjectResponseDto result = projectService.createProject(projectRequestDto);
@@ -195,15 +293,14 @@ class ProjectServiceImplTest {
         assertEquals(1L, result.getId());
         assertEquals("Test Project", result.getName());
         verify(projectRepository).save(project);
+        verify(outboxWriter).record(OutboxEventType.PROJECT_CREATED, 1L, summary);
     }
 
     @Test
     void updateProject_WhenProjectExistsAndUserIsAdmin_ShouldUpdateProject() {
         // Arrange
-        when(projectRepository.findById(1L)).thenReturn(Optional.of(project));
-        when(userService.isAdmin()).thenReturn(true);
-        when(projectMapper.updateEntity(project, projectRequestDto)).thenReturn(project);
-        when(projectRepository.save(project)).thenReturn(project);
+        when(projectRepository.findWithOwnerById(1L)).thenReturn(Optional.of(project));
+        when(userService.getCurrentUser()).thenReturn(adminUser);
         when(projectMapper.toResponseDto(project)).thenReturn(projectResponseDto);
 
         // Act
@@ -213,17 +310,16 @@ class ProjectServiceImplTest {
         assertNotNull(result);
         assertEquals(1L, result.getId());
         assertEquals("Test Project", result.getName());
-        verify(projectRepository).save(project);
+        verify(projectMapper).updateEntity(projectRequestDto, project);
+        verify(projectRepository, never()).save(any(Project.class));
+        verify(responseCache).evict(ChangeTracker.ResourceType.PROJECT, 1L);
     }
 
     @Test
     void updateProject_WhenProjectExistsAndUserIsOwner_ShouldUpdateProject() {
         // Arrange
-        when(projectRepository.findById(1L)).thenReturn(Optional.of(project));
-        when(userService.isAdmin()).thenReturn(false);
+        when(projectRepository.findWithOwnerById(1L)).thenReturn(Optional.of(project));
         when(userService.getCurrentUser()).thenReturn(managerUser);
-        when(projectMapper.updateEntity(project, projectRequestDto)).thenReturn(project);
-        when(projectRepository.save(project)).thenReturn(project);
         when(projectMapper.toResponseDto(project)).thenReturn(projectResponseDto);
 
         // Act
@@ -233,13 +329,13 @@ class ProjectServiceImplTest {
         assertNotNull(result);
         assertEquals(1L, result.getId());
         assertEquals("Test Project", result.getName());
-        verify(projectRepository).save(project);
+        verify(projectMapper).updateEntity(projectRequestDto, project);
     }
 
     @Test
     void updateProject_WhenProjectDoesNotExist_ShouldThrowResourceNotFoundException() {
         // Arrange
-        when(projectRepository.findById(99L)).thenReturn(Optional.empty());
+        when(projectRepository.findWithOwnerById(99L)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> projectService.updateProject(99L, projectRequestDto));
@@ -249,8 +345,7 @@ class ProjectServiceImplTest {
     @Test
     void updateProject_WhenUserIsNotAuthorized_ShouldThrowAccessDeniedException() {
         // Arrange
-        when(projectRepository.findById(1L)).thenReturn(Optional.of(project));
-        when(userService.isAdmin()).thenReturn(false);
+        when(projectRepository.findWithOwnerById(1L)).thenReturn(Optional.of(project));
         when(userService.getCurrentUser()).thenReturn(regularUser);
 
         // Act & Assert
@@ -268,7 +363,10 @@ class ProjectServiceImplTest {
         projectService.deleteProject(1L);
 
         // Assert
+        verify(archivedTaskRepository).deleteByProjectId(1L);
         verify(projectRepository).delete(project);
+        verify(outboxWriter).record(eq(OutboxEventType.PROJECT_DELETED), eq(1L), any(ProjectSummaryDto.class));
+        verify(changeEventBus).publish(ChangeTracker.ResourceType.PROJECT, ChangeType.DELETED, 1L);
     }
 
     @Test
@@ -362,7 +460,7 @@ class ProjectServiceImplTest {
     void hasProjectAccess_WhenUserIsRegularUserWithAssignedTask_ShouldReturnTrue() {
         // Arrange
         when(userService.getCurrentUser()).thenReturn(regularUser);
-        when(taskRepository.findByAssignedUserAndProjectId(regularUser, 1L)).thenReturn(List.of(mock(Task.class)));
+        when(taskRepository.existsByAssignedUserAndProjectId(regularUser, 1L)).thenReturn(true);
 
         // Act
         boolean result = projectService.hasProjectAccess(1L);
@@ -375,7 +473,7 @@ class ProjectServiceImplTest {
     void hasProjectAccess_WhenUserIsRegularUserWithoutAssignedTask_ShouldReturnFalse() {
         // Arrange
         when(userService.getCurrentUser()).thenReturn(regularUser);
-        when(taskRepository.findByAssignedUserAndProjectId(regularUser, 1L)).thenReturn(Collections.emptyList());
+        when(taskRepository.existsByAssignedUserAndProjectId(regularUser, 1L)).thenReturn(false);
 
         // Act
         boolean result = projectService.hasProjectAccess(1L);
@@ -383,4 +481,59 @@ class ProjectServiceImplTest {
         // Assert
         assertFalse(result);
     }
+
+    @Test
+    void hasProjectAccess_WhenUserIsOnlyAssignedToArchivedTasks_ShouldReturnTrue() {
+        // Arrange
+        when(userService.getCurrentUser()).thenReturn(regularUser);
+        when(taskRepository.existsByAssignedUserAndProjectId(regularUser, 1L)).thenReturn(false);
+        when(archivedTaskRepository.existsByAssignedUserIdAndProjectId(regularUser.getId(), 1L)).thenReturn(true);
+
+        // Act
+        boolean result = projectService.hasProjectAccess(1L);
+
+        // Assert
+        assertTrue(result);
+    }
+
+    @Test
+    void getProjectsByIds_WhenUserIsRegularUser_ShouldAllowProjectsWithAssignedTasks() {
+        // Arrange
+        Project otherProject = Project.builder()
+                .id(2L)
+                .name("Other Project")
+                .owner(adminUser)
+                .build();
+        when(userService.getCurrentUser()).thenReturn(regularUser);
+        when(projectRepository.findSelectedByIds(Set.of(1L, 2L), FieldSelection.ALL)).thenReturn(List.of(project, otherProject));
+        when(taskRepository.findProjectIdsWithTasksAssignedTo(3L, List.of(1L, 2L))).thenReturn(Set.of(1L));
+        when(projectMapper.toResponseDto(project)).thenReturn(projectResponseDto);
+
+        // Act
+        BatchResponseDto<ProjectResponseDto> result = projectService.getProjectsByIds(List.of(1L, 2L));
+
+        // Assert
+        assertEquals(List.of(projectResponseDto), result.getFound());
+        assertEquals(List.of(2L), result.getForbidden());
+        assertTrue(result.getMissing().isEmpty());
+        verify(taskRepository, never()).existsByAssignedUserAndProjectId(any(), anyLong());
+    }
+
+    @Test
+    void getProjectSummaries_WhenUserIsManager_ShouldLoadOwnedProjectsWithOwnerReferences() {
+        // Arrange
+        ProjectSummaryDto summary = ProjectSummaryDto.builder()
+                .id(1L)
+                .ownerId(2L)
+                .build();
+        when(userService.getCurrentUser()).thenReturn(managerUser);
+        when(projectRepository.findSelected(2L, FieldSelection.REFERENCES)).thenReturn(List.of(project));
+        when(projectMapper.toSummaryDto(project)).thenReturn(summary);
+
+        // Act
+        List<ProjectSummaryDto> result = projectService.getProjectSummaries();
+
+        // Assert
+        assertEquals(List.of(summary), result);
+    }
 }
@@ -0,0 +1,88 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.cache.ChangeTracker;
+import com.example.demo.cache.ChangeTracker.ResourceType;
+import com.example.demo.cache.SerializedResponseCache;
+import com.example.demo.model.enums.TaskStatus;
+import com.example.demo.repository.ArchivedTaskRepository;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.repository.projection.TaskReference;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskArchiveServiceImplTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private ArchivedTaskRepository archivedTaskRepository;
+
+    @Mock
+    private ChangeTracker changeTracker;
+
+    @Mock
+    private SerializedResponseCache responseCache;
+
+    @InjectMocks
+    private TaskArchiveServiceImpl taskArchiveService;
+
+    private final LocalDateTime completedBefore = LocalDateTime.now().minusDays(30);
+
+    @Test
+    void archiveCompletedTasks_WhenTasksAreDue_ShouldMoveThemAndInvalidateCaches() {
+        // Arrange
+        TaskReference assigned = reference(1L, 10L, 3L);
+        TaskReference unassigned = reference(2L, 11L, null);
+        when(taskRepository.findForUpdateByStatusAndUpdateDateBefore(TaskStatus.DONE, completedBefore, Limit.of(100)))
+                .thenReturn(List.of(assigned, unassigned));
+
+        // Act
+        int archived = taskArchiveService.archiveCompletedTasks(completedBefore, 100);
+
+        // Assert
+        assertEquals(2, archived);
+        verify(archivedTaskRepository).copyFromTasks(List.of(1L, 2L));
+        verify(taskRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(responseCache).evict(ResourceType.TASK, 1L);
+        verify(responseCache).evict(ResourceType.TASK, 2L);
+        verify(changeTracker).markTaskChanged(10L, 3L);
+        verify(changeTracker).markTaskChanged(11L, (Long) null);
+    }
+
+    @Test
+    void archiveCompletedTasks_WhenNoTasksAreDue_ShouldNotWrite() {
+        // Arrange
+        when(taskRepository.findForUpdateByStatusAndUpdateDateBefore(TaskStatus.DONE, completedBefore, Limit.of(100)))
+                .thenReturn(List.of());
+
+        // Act
+        int archived = taskArchiveService.archiveCompletedTasks(completedBefore, 100);
+
+        // Assert
+        assertEquals(0, archived);
+        verify(archivedTaskRepository, never()).copyFromTasks(any());
+        verify(taskRepository, never()).deleteAllByIdInBatch(any());
+        verifyNoInteractions(changeTracker, responseCache);
+    }
+
+    private static TaskReference reference(Long id, Long projectId, Long assignedUserId) {
+        TaskReference reference = mock(TaskReference.class);
+        when(reference.getId()).thenReturn(id);
+        when(reference.getProjectId()).thenReturn(projectId);
+        when(reference.getAssignedUserId()).thenReturn(assignedUserId);
+        return reference;
+    }
+}
@@ -1,35 +1,70 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.audit.TaskAuditTrail;
+import com.example.demo.audit.TaskSnapshot;
+import com.example.demo.cache.ChangeTracker;
+import com.example.demo.cache.SerializedResponseCache;
+import com.example.demo.cache.SingleFlight;
+import com.example.demo.cache.TaskPageCache;
+import com.example.demo.dto.BatchResponseDto;
+import com.example.demo.dto.FieldSelection;
+import com.example.demo.dto.project.ProjectSummaryDto;
+import com.example.demo.dto.task.TaskAuditDto;
+import com.example.demo.dto.task.TaskListResponseDto;
 import com.example.demo.dto.task.TaskRequestDto;
 import com.example.demo.dto.task.TaskResponseDto;
+import com.example.demo.dto.task.TaskSummaryDto;
+import com.example.demo.event.ChangeEvent.ChangeType;
+import com.example.demo.event.ChangeEventBus;
 import com.example.demo.exception.AccessDeniedException;
+import com.example.demo.exception.ConflictException;
 import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.mapper.ProjectMapper;
 import com.example.demo.mapper.TaskMapper;
+import com.example.demo.mapper.UserMapper;
 import com.example.demo.model.entity.Project;
 import com.example.demo.model.entity.Task;
+import com.example.demo.model.entity.TaskAudit;
 import com.example.demo.model.entity.User;
+import com.example.demo.model.enums.OutboxEventType;
 import com.example.demo.model.enums.Priority;
 import com.example.demo.model.enums.Role;
 import com.example.demo.model.enums.TaskStatus;
+import com.example.demo.outbox.OutboxWriter;
+import com.example.demo.repository.ArchivedTaskRepository;
 import com.example.demo.repository.ProjectRepository;
+import com.example.demo.repository.TaskAuditRepository;
+import com.example.demo.repository.TaskCriteria;
 import com.example.demo.repository.TaskRepository;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.repository.projection.TaskVersion;
 import com.example.demo.service.ProjectService;
 import com.example.demo.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -50,12 +85,48 @@ class TaskServiceImplTest {
     @Mock
     private TaskMapper taskMapper;
 
+    @Mock
+    private ProjectMapper projectMapper;
+
+    @Mock
+    private UserMapper userMapper;
+
     @Mock
     private UserService userService;
 
     @Mock
     private ProjectService projectService;
 
+    @Spy
+    private ChangeTracker changeTracker = new ChangeTracker(Duration.ofMinutes(1));
+
+    @Mock
+    private SerializedResponseCache responseCache;
+
+    @Mock
+    private OutboxWriter outboxWriter;
+
+    @Mock
+    private ChangeEventBus changeEventBus;
+
+    @Mock
+    private TaskAuditRepository taskAuditRepository;
+
+    @Mock
+    private TaskAuditTrail taskAuditTrail;
+
+    @Mock
+    private ArchivedTaskRepository archivedTaskRepository;
+
+    @Spy
+    private BatchLookup batchLookup = new BatchLookup(3);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private TaskPageCache taskPageCache = new TaskPageCache(1_000_000, Duration.ofMinutes(1), changeTracker,
+            new SingleFlight(meterRegistry), mock(PlatformTransactionManager.class), meterRegistry);
+
     @InjectMocks
     private TaskServiceImpl taskService;
 
@@ -134,6 +205,7 @@ class TaskServiceImplTest {
     @Test
     void getTaskById_WhenTaskExists_AndUserIsAdmin_ShouldReturnTask() {
         // Arrange
+        when(taskRepository.findSelected(any(TaskCriteria.class), eq(FieldSelection.ALL), eq(1))).thenReturn(List.of(task));
         when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
         when(userService.getCurrentUser()).thenReturn(adminUser);
         // Admin users always have access to tasks
@@ -152,11 +224,34 @@ class TaskServiceImplTest {
     @Test
     void getTaskById_WhenTaskDoesNotExist_ShouldThrowResourceNotFoundException() {
         // Arrange
-        when(taskRepository.findById(99L)).thenReturn(Optional.empty());
+        when(taskRepository.findSelected(any(TaskCriteria.class), eq(FieldSelection.ALL), eq(1))).thenReturn(List.of());
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> taskService.getTaskById(99L));
-        verify(taskRepository).findById(99L);
+        ArgumentCaptor<TaskCriteria> criteria = ArgumentCaptor.forClass(TaskCriteria.class);
+        verify(taskRepository, times(2)).findSelected(criteria.capture(), eq(FieldSelection.ALL), eq(1));
+        assertEquals(List.of(99L), criteria.getAllValues().get(0).getIds());
+        assertTrue(criteria.getAllValues().get(1).includesArchived());
+    }
+
+    @Test
+    void getTaskById_WhenTaskIsArchived_ShouldReturnItFromTheArchive() {
+        // Arrange
+        task.setStatus(TaskStatus.DONE);
+        TaskVersion archived = mock(TaskVersion.class);
+        when(archived.getAssignedUserId()).thenReturn(3L);
+        when(taskRepository.findSelected(any(TaskCriteria.class), eq(FieldSelection.ALL), eq(1)))
+                .thenAnswer(invocation -> invocation.<TaskCriteria>getArgument(0).includesArchived() ? List.of(task) : List.of());
+        when(taskRepository.findById(1L)).thenReturn(Optional.empty());
+        when(archivedTaskRepository.findVersionById(1L)).thenReturn(Optional.of(archived));
+        when(userService.getCurrentUser()).thenReturn(regularUser);
+        when(taskMapper.toResponseDto(task)).thenReturn(taskResponseDto);
+
+        // Act
+        TaskResponseDto result = taskService.getTaskById(1L);
+
+        // Assert
+        assertEquals(1L, result.getId());
     }
 
     @Test
@@ -183,6 +278,8 @@ class TaskServiceImplTest {
                 .createDate(LocalDateTime.now())
                 .build();
 
+        when(taskRepository.findSelected(any(TaskCriteria.class), eq(FieldSelection.ALL), eq(1)))
+                .thenReturn(List.of(inaccessibleTask));
         when(taskRepository.findById(1L)).thenReturn(Optional.of(inaccessibleTask));
         when(userService.getCurrentUser()).thenReturn(regularUser);
         // Regular users only have access to tasks assigned to them
@@ -191,15 +288,80 @@ class TaskServiceImplTest {
         assertThrows(AccessDeniedException.class, () -> taskService.getTaskById(1L));
     }
 
+    @Test
+    void getTaskVersion_WhenUserIsAssignedToTask_ShouldReturnVersion() {
+        // Arrange
+        LocalDateTime updateDate = LocalDateTime.of(2024, 1, 1, 12, 0);
+        LocalDateTime ownerUpdateDate = LocalDateTime.of(2024, 1, 2, 12, 0);
+        LocalDateTime assigneeUpdateDate = LocalDateTime.of(2024, 1, 3, 12, 0);
+        TaskVersion version = mock(TaskVersion.class);
+        when(version.getId()).thenReturn(1L);
+        when(version.getUpdateDate()).thenReturn(updateDate);
+        when(version.getProjectUpdateDate()).thenReturn(updateDate);
+        when(version.getProjectOwnerUpdateDate()).thenReturn(ownerUpdateDate);
+        when(version.getAssignedUserId()).thenReturn(3L);
+        when(version.getAssignedUserUpdateDate()).thenReturn(assigneeUpdateDate);
+        when(taskRepository.findVersionById(1L)).thenReturn(Optional.of(version));
+        when(userService.getCurrentUser()).thenReturn(regularUser);
+
+        // Act
+        String result = taskService.getTaskVersion(1L);
+
+        // Assert
+        // The embedded owner and assignee are part of the response, so their changes change the version
+        assertEquals("1:" + updateDate + ":" + updateDate + ":" + ownerUpdateDate + ":" + assigneeUpdateDate, result);
+        verify(taskRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void getTaskVersion_WhenManagerDoesNotOwnProject_ShouldThrowAccessDeniedException() {
+        // Arrange
+        TaskVersion version = mock(TaskVersion.class);
+        when(version.getProjectOwnerId()).thenReturn(99L);
+        when(taskRepository.findVersionById(1L)).thenReturn(Optional.of(version));
+        when(userService.getCurrentUser()).thenReturn(managerUser);
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class, () -> taskService.getTaskVersion(1L));
+    }
+
+    @Test
+    void getTaskVersion_WhenTaskIsArchived_ShouldReturnTheVersionOfTheArchivedTask() {
+        // Arrange
+        TaskVersion version = mock(TaskVersion.class);
+        when(version.getId()).thenReturn(1L);
+        when(version.getProjectOwnerId()).thenReturn(2L);
+        when(taskRepository.findVersionById(1L)).thenReturn(Optional.empty());
+        when(archivedTaskRepository.findVersionById(1L)).thenReturn(Optional.of(version));
+        when(userService.getCurrentUser()).thenReturn(managerUser);
+
+        // Act
+        String result = taskService.getTaskVersion(1L);
+
+        // Assert
+        assertTrue(result.startsWith("1:"));
+    }
+
+    @Test
+    void getTaskVersion_WhenTaskDoesNotExist_ShouldThrowResourceNotFoundException() {
+        // Arrange
+        when(taskRepository.findVersionById(99L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> taskService.getTaskVersion(99L));
+    }
+
     @Test
     void createTask_WhenUserIsAdmin_ShouldCreateTask() {
         // Arrange
-        when(projectRepository.findById(1L)).thenReturn(Optional.of(project));
-        when(userService.isAdmin()).thenReturn(true);
+        when(projectRepository.findWithOwnerById(1L)).thenReturn(Optional.of(project));
+        when(userService.getCurrentUser()).thenReturn(adminUser);
         when(userRepository.findById(3L)).thenReturn(Optional.of(regularUser));
         when(taskMapper.toEntity(eq(taskRequestDto), eq(project), eq(regularUser))).thenReturn(task);
         when(taskRepository.save(task)).thenReturn(task);
         when(taskMapper.toResponseDto(task)).thenReturn(taskResponseDto);
+        TaskSummaryDto summary = TaskSummaryDto.builder().id(1L).build();
+        when(taskMapper.toSummaryDto(task)).thenReturn(summary);
 
         // Act
         TaskResponseDto result = taskService.createTask(taskRequestDto);
@@ -209,14 +371,15 @@ class TaskServiceImplTest {
         assertEquals(1L, result.getId());
         assertEquals("Test Task", result.getTitle());
         verify(taskRepository).save(task);
+        verify(outboxWriter).record(OutboxEventType.TASK_CREATED, 1L, summary);
+        verify(changeEventBus).publish(ChangeTracker.ResourceType.TASK, ChangeType.CREATED, 1L);
     }
 
     @Test
     void createTask_WhenUserIsProjectOwner_ShouldCreateTask() {
         // Arrange
-        when(projectRepository.findById(1L)).thenReturn(Optional.of(project));
-        when(userService.isAdmin()).thenReturn(false);
-        when(projectService.isProjectOwner(1L)).thenReturn(true);
+        when(projectRepository.findWithOwnerById(1L)).thenReturn(Optional.of(project));
+        when(userService.getCurrentUser()).thenReturn(managerUser);
         when(userRepository.findById(3L)).thenReturn(Optional.of(regularUser));
         when(taskMapper.toEntity(eq(taskRequestDto), eq(project), eq(regularUser))).thenReturn(task);
         when(taskRepository.save(task)).thenReturn(task);
@@ -235,9 +398,8 @@ class TaskServiceImplTest {
     @Test
     void createTask_WhenUserIsNotAuthorized_ShouldThrowAccessDeniedException() {
         // Arrange
-        when(projectRepository.findById(1L)).thenReturn(Optional.of(project));
-        when(userService.isAdmin()).thenReturn(false);
-        when(projectService.isProjectOwner(1L)).thenReturn(false);
+        when(projectRepository.findWithOwnerById(1L)).thenReturn(Optional.of(project));
+        when(userService.getCurrentUser()).thenReturn(regularUser);
 
         // Act & Assert
         assertThrows(AccessDeniedException.class, () -> taskService.createTask(taskRequestDto));
@@ -247,9 +409,8 @@ class TaskServiceImplTest {
     @Test
     void updateTaskStatus_WhenUserIsAdmin_ShouldUpdateStatus() {
         // Arrange
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.findWithAssociationsById(1L)).thenReturn(Optional.of(task));
         when(userService.getCurrentUser()).thenReturn(adminUser);
-        when(taskRepository.save(task)).thenReturn(task);
         when(taskMapper.toResponseDto(task)).thenReturn(taskResponseDto);
 
         // Act
@@ -258,7 +419,8 @@ class TaskServiceImplTest {
         // Assert
         assertNotNull(result);
         assertEquals(TaskStatus.IN_PROGRESS, task.getStatus());
-        verify(taskRepository).save(task);
+        verify(taskRepository, never()).save(any(Task.class));
+        verify(taskAuditTrail).recordChange(1L, "status", TaskStatus.TODO, TaskStatus.IN_PROGRESS, adminUser.getId());
     }
 
     @Test
@@ -277,9 +439,8 @@ class TaskServiceImplTest {
                 .createDate(LocalDateTime.now())
                 .build();
 
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(assignedTask));
+        when(taskRepository.findWithAssociationsById(1L)).thenReturn(Optional.of(assignedTask));
         when(userService.getCurrentUser()).thenReturn(regularUser);
-        when(taskRepository.save(assignedTask)).thenReturn(assignedTask);
         when(taskMapper.toResponseDto(assignedTask)).thenReturn(taskResponseDto);
 
         // Act
@@ -288,7 +449,7 @@ class TaskServiceImplTest {
         // Assert
         assertNotNull(result);
         assertEquals(TaskStatus.IN_PROGRESS, assignedTask.getStatus());
-        verify(taskRepository).save(assignedTask);
+        verify(taskRepository, never()).save(any(Task.class));
     }
 
     @Test
@@ -314,7 +475,7 @@ class TaskServiceImplTest {
                 .createDate(LocalDateTime.now())
                 .build();
 
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(unassignedTask));
+        when(taskRepository.findWithAssociationsById(1L)).thenReturn(Optional.of(unassignedTask));
         when(userService.getCurrentUser()).thenReturn(regularUser);
 
         // Act & Assert
@@ -322,6 +483,68 @@ class TaskServiceImplTest {
         verify(taskRepository, never()).save(any(Task.class));
     }
 
+    @Test
+    void updateTask_WhenUserIsProjectOwner_ShouldUpdateManagedTaskInPlace() {
+        // Arrange
+        when(taskRepository.findWithAssociationsById(1L)).thenReturn(Optional.of(task));
+        when(userService.getCurrentUser()).thenReturn(managerUser);
+        when(taskMapper.toResponseDto(task)).thenReturn(taskResponseDto);
+        doAnswer(invocation -> {
+            task.setTitle("Renamed Task");
+            return null;
+        }).when(taskMapper).updateEntity(taskRequestDto, regularUser, task);
+
+        // Act
+        TaskResponseDto result = taskService.updateTask(1L, taskRequestDto);
+
+        // Assert
+        assertNotNull(result);
+        verify(taskMapper).updateEntity(taskRequestDto, regularUser, task);
+        verify(userRepository, never()).findById(anyLong());
+        verify(taskRepository, never()).save(any(Task.class));
+        ArgumentCaptor<TaskSnapshot> before = ArgumentCaptor.forClass(TaskSnapshot.class);
+        ArgumentCaptor<TaskSnapshot> after = ArgumentCaptor.forClass(TaskSnapshot.class);
+        verify(taskAuditTrail).recordChanges(before.capture(), after.capture(), eq(managerUser.getId()));
+        assertEquals("Test Task", before.getValue().title());
+        assertEquals("Renamed Task", after.getValue().title());
+        assertEquals(before.getValue().priority(), after.getValue().priority());
+    }
+
+    @Test
+    void getTaskHistory_WhenUserIsAdmin_ShouldReturnChangesWithoutCheckingTheTask() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 20);
+        TaskAudit change = TaskAudit.builder().taskId(1L).field("status").oldValue("TODO").newValue("DONE").build();
+        TaskAuditDto changeDto = TaskAuditDto.builder().field("status").oldValue("TODO").newValue("DONE").build();
+        when(userService.isAdmin()).thenReturn(true);
+        when(taskAuditRepository.findByTaskId(1L, pageable)).thenReturn(new PageImpl<>(List.of(change), pageable, 1));
+        when(taskMapper.toAuditDto(change)).thenReturn(changeDto);
+
+        // Act
+        Page<TaskAuditDto> result = taskService.getTaskHistory(1L, pageable);
+
+        // Assert
+        assertEquals(List.of(changeDto), result.getContent());
+        verify(taskRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void getTaskHistory_WhenUserHasNoAccess_ShouldThrowAccessDeniedException() {
+        // Arrange
+        User otherUser = User.builder()
+                .id(4L)
+                .email("other@example.com")
+                .role(Role.USER)
+                .build();
+        when(userService.isAdmin()).thenReturn(false);
+        when(userService.getCurrentUser()).thenReturn(otherUser);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class, () -> taskService.getTaskHistory(1L, PageRequest.of(0, 20)));
+        verifyNoInteractions(taskAuditRepository);
+    }
+
     @Test
     void deleteTask_WhenUserIsAdmin_ShouldDeleteTask() {
         // Arrange
@@ -333,6 +556,12 @@ class TaskServiceImplTest {
 
         // Assert
         verify(taskRepository).deleteById(1L);
+        verify(responseCache).evict(ChangeTracker.ResourceType.TASK, 1L);
+        ArgumentCaptor<TaskSummaryDto> payload = ArgumentCaptor.forClass(TaskSummaryDto.class);
+        verify(outboxWriter).record(eq(OutboxEventType.TASK_DELETED), eq(1L), payload.capture());
+        assertEquals(project.getId(), payload.getValue().getProjectId());
+        assertNull(payload.getValue().getDescription());
+        verify(taskMapper, never()).toSummaryDto(any());
     }
 
     @Test
@@ -349,6 +578,39 @@ class TaskServiceImplTest {
         verify(taskRepository).deleteById(1L);
     }
 
+    @Test
+    void deleteTask_WhenTaskIsArchived_ShouldDeleteItFromTheArchive() {
+        // Arrange
+        TaskVersion archived = mock(TaskVersion.class);
+        when(archived.getProjectId()).thenReturn(1L);
+        when(archived.getAssignedUserId()).thenReturn(3L);
+        when(taskRepository.findById(1L)).thenReturn(Optional.empty());
+        when(archivedTaskRepository.findVersionById(1L)).thenReturn(Optional.of(archived));
+        when(userService.isAdmin()).thenReturn(false);
+        when(projectService.isProjectOwner(1L)).thenReturn(true);
+
+        // Act
+        taskService.deleteTask(1L);
+
+        // Assert
+        verify(archivedTaskRepository).deleteById(1L);
+        verify(taskRepository, never()).deleteById(anyLong());
+        verify(outboxWriter).record(OutboxEventType.TASK_DELETED, 1L,
+                TaskSummaryDto.builder().id(1L).projectId(1L).assignedUserId(3L).build());
+        verify(changeTracker).markTaskChanged(1L, 3L);
+    }
+
+    @Test
+    void updateTaskStatus_WhenTaskIsArchived_ShouldThrowConflictException() {
+        // Arrange
+        when(taskRepository.findWithAssociationsById(1L)).thenReturn(Optional.empty());
+        when(archivedTaskRepository.existsById(1L)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(ConflictException.class, () -> taskService.updateTaskStatus(1L, TaskStatus.TODO));
+        verifyNoInteractions(outboxWriter);
+    }
+
     @Test
     void deleteTask_WhenUserIsNotAuthorized_ShouldThrowAccessDeniedException() {
         // Arrange
@@ -367,7 +629,7 @@ class TaskServiceImplTest {
         Pageable pageable = Pageable.unpaged();
         Page<Task> taskPage = new PageImpl<>(List.of(task));
         when(userService.getCurrentUser()).thenReturn(adminUser);
-        when(taskRepository.findAll(pageable)).thenReturn(taskPage);
+        when(taskRepository.findSelected(any(TaskCriteria.class), eq(FieldSelection.ALL), eq(pageable))).thenReturn(taskPage);
         when(taskMapper.toResponseDto(task)).thenReturn(taskResponseDto);
 
         // Act
@@ -376,7 +638,10 @@ class TaskServiceImplTest {
         // Assert
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
-        verify(taskRepository).findAll(pageable);
+        ArgumentCaptor<TaskCriteria> criteria = ArgumentCaptor.forClass(TaskCriteria.class);
+        verify(taskRepository).findSelected(criteria.capture(), eq(FieldSelection.ALL), eq(pageable));
+        assertNull(criteria.getValue().getProjectIds());
+        assertNull(criteria.getValue().getAssignedUserId());
     }
 
     @Test
@@ -385,8 +650,8 @@ class TaskServiceImplTest {
         Pageable pageable = Pageable.unpaged();
         Page<Task> taskPage = new PageImpl<>(List.of(task));
         when(userService.getCurrentUser()).thenReturn(managerUser);
-        when(projectRepository.findByOwner(managerUser)).thenReturn(List.of(project));
-        when(taskRepository.findByProjectIdIn(List.of(1L), pageable)).thenReturn(taskPage);
+        when(projectRepository.findSelected(eq(managerUser.getId()), any(FieldSelection.class))).thenReturn(List.of(project));
+        when(taskRepository.findSelected(any(TaskCriteria.class), eq(FieldSelection.ALL), eq(pageable))).thenReturn(taskPage);
         when(taskMapper.toResponseDto(task)).thenReturn(taskResponseDto);
 
         // Act
@@ -395,7 +660,9 @@ class TaskServiceImplTest {
         // Assert
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
-        verify(taskRepository).findByProjectIdIn(List.of(1L), pageable);
+        ArgumentCaptor<TaskCriteria> criteria = ArgumentCaptor.forClass(TaskCriteria.class);
+        verify(taskRepository).findSelected(criteria.capture(), eq(FieldSelection.ALL), eq(pageable));
+        assertEquals(List.of(1L), criteria.getValue().getProjectIds());
     }
 
     @Test
@@ -404,7 +671,7 @@ class TaskServiceImplTest {
         Pageable pageable = Pageable.unpaged();
         Page<Task> taskPage = new PageImpl<>(List.of(task));
         when(userService.getCurrentUser()).thenReturn(regularUser);
-        when(taskRepository.findByAssignedUserId(3L, pageable)).thenReturn(taskPage);
+        when(taskRepository.findSelected(any(TaskCriteria.class), eq(FieldSelection.ALL), eq(pageable))).thenReturn(taskPage);
         when(taskMapper.toResponseDto(task)).thenReturn(taskResponseDto);
 
         // Act
@@ -413,6 +680,296 @@ class TaskServiceImplTest {
         // Assert
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
-        verify(taskRepository).findByAssignedUserId(3L, pageable);
+        ArgumentCaptor<TaskCriteria> criteria = ArgumentCaptor.forClass(TaskCriteria.class);
+        verify(taskRepository).findSelected(criteria.capture(), eq(FieldSelection.ALL), eq(pageable));
+        assertEquals(3L, criteria.getValue().getAssignedUserId());
+    }
+
+    @Test
+    void getTasksByStatus_WhenRequestedTwiceWithoutChanges_ShouldServeCachedPage() {
+        // Arrange
+        Pageable pageable = Pageable.ofSize(10);
+        when(userService.getCurrentUser()).thenReturn(regularUser);
+        when(taskRepository.findSelected(any(TaskCriteria.class), eq(FieldSelection.ALL), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(task)));
+        when(taskMapper.toResponseDto(task)).thenReturn(taskResponseDto);
+
+        // Act
+        Page<TaskResponseDto> first = taskService.getTasksByStatus(TaskStatus.TODO, pageable);
+        Page<TaskResponseDto> second = taskService.getTasksByStatus(TaskStatus.TODO, pageable);
+
+        // Assert
+        assertSame(first, second);
+        verify(taskRepository, times(1)).findSelected(any(TaskCriteria.class), eq(FieldSelection.ALL), eq(pageable));
+    }
+
+    @Test
+    void getTasksByStatus_WhenTaskOfAssigneeChanged_ShouldReloadPage() {
+        // Arrange
+        Pageable pageable = Pageable.ofSize(10);
+        when(userService.getCurrentUser()).thenReturn(regularUser, adminUser, regularUser);
+        when(taskRepository.findSelected(any(TaskCriteria.class), eq(FieldSelection.ALL), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(task)));
+        when(taskMapper.toResponseDto(task)).thenReturn(taskResponseDto);
+        when(taskRepository.findWithAssociationsById(1L)).thenReturn(Optional.of(task));
+
+        // Act
+        taskService.getTasksByStatus(TaskStatus.TODO, pageable);
+        taskService.updateTaskStatus(1L, TaskStatus.DONE);
+        taskService.getTasksByStatus(TaskStatus.TODO, pageable);
+
+        // Assert
+        verify(taskRepository, times(2)).findSelected(any(TaskCriteria.class), eq(FieldSelection.ALL), eq(pageable));
+    }
+
+    @Test
+    void getTasksByProjectId_WhenRequestedConcurrently_ShouldShareOneQuery() throws Exception {
+        // Arrange
+        Pageable pageable = Pageable.ofSize(10);
+        CountDownLatch queryStarted = new CountDownLatch(1);
+        CountDownLatch releaseQuery = new CountDownLatch(1);
+        when(projectRepository.findById(1L)).thenReturn(Optional.of(project));
+        when(projectService.hasProjectAccess(1L)).thenReturn(true);
+        when(taskRepository.findSelected(any(TaskCriteria.class), eq(FieldSelection.ALL), eq(pageable))).thenAnswer(invocation -> {
+            queryStarted.countDown();
+            assertTrue(releaseQuery.await(5, TimeUnit.SECONDS));
+            return new PageImpl<>(List.of(task));
+        });
+        when(taskMapper.toResponseDto(task)).thenReturn(taskResponseDto);
+
+        // Act
+        CompletableFuture<Page<TaskResponseDto>> first =
+                CompletableFuture.supplyAsync(() -> taskService.getTasksByProjectId(1L, pageable));
+        assertTrue(queryStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Page<TaskResponseDto>> second =
+                CompletableFuture.supplyAsync(() -> taskService.getTasksByProjectId(1L, pageable));
+        while (meterRegistry.counter("single.flight.calls", "result", "joined").count() == 0 && !second.isDone()) {
+            Thread.sleep(5);
+        }
+        releaseQuery.countDown();
+
+        // Assert
+        assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        verify(projectService, times(2)).hasProjectAccess(1L);
+        verify(taskRepository, times(1)).findSelected(any(TaskCriteria.class), eq(FieldSelection.ALL), eq(pageable));
+    }
+
+    @Test
+    void getTasksWithSelection_WhenUserIsManager_ShouldRestrictToOwnedProjects() {
+        // Arrange
+        Pageable pageable = Pageable.unpaged();
+        FieldSelection selection = FieldSelection.of("title,status", null);
+        when(userService.getCurrentUser()).thenReturn(managerUser);
+        when(projectRepository.findSelected(eq(managerUser.getId()), any(FieldSelection.class))).thenReturn(List.of(project));
+        when(taskRepository.findSelected(any(TaskCriteria.class), eq(selection), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(task)));
+        when(taskMapper.toResponseDto(task)).thenReturn(taskResponseDto);
+
+        // Act
+        Page<TaskResponseDto> result = taskService.getTasks(TaskStatus.TODO, null, selection, pageable);
+
+        // Assert
+        assertEquals(1, result.getTotalElements());
+        ArgumentCaptor<TaskCriteria> criteria = ArgumentCaptor.forClass(TaskCriteria.class);
+        verify(taskRepository).findSelected(criteria.capture(), eq(selection), eq(pageable));
+        assertEquals(TaskStatus.TODO, criteria.getValue().getStatus());
+        assertEquals(List.of(1L), criteria.getValue().getProjectIds());
+        assertNull(criteria.getValue().getAssignedUserId());
+    }
+
+    @Test
+    void getTasksWithSelection_WhenUserIsRegularUser_ShouldRestrictToAssignedTasks() {
+        // Arrange
+        Pageable pageable = Pageable.unpaged();
+        FieldSelection selection = FieldSelection.of("title", "project");
+        when(userService.getCurrentUser()).thenReturn(regularUser);
+        when(taskRepository.findSelected(any(TaskCriteria.class), eq(selection), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(task)));
+        when(taskMapper.toResponseDto(task)).thenReturn(taskResponseDto);
+
+        // Act
+        taskService.getTasks(null, null, selection, pageable);
+
+        // Assert
+        ArgumentCaptor<TaskCriteria> criteria = ArgumentCaptor.forClass(TaskCriteria.class);
+        verify(taskRepository).findSelected(criteria.capture(), eq(selection), eq(pageable));
+        assertEquals(3L, criteria.getValue().getAssignedUserId());
+        assertNull(criteria.getValue().getProjectIds());
+    }
+
+    @Test
+    void getTasksWithSelection_WhenFieldIsUnknown_ShouldThrowIllegalArgumentException() {
+        // Arrange
+        FieldSelection selection = FieldSelection.of("title,secret", null);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.getTasks(null, null, selection, Pageable.unpaged()));
+        verify(taskRepository, never()).findSelected(any(), any(), any());
+    }
+
+    @Test
+    void getTasksByProjectIdWithSelection_WhenUserDoesNotHaveAccess_ShouldThrowAccessDeniedException() {
+        // Arrange
+        FieldSelection selection = FieldSelection.of("title", null);
+        when(projectRepository.findById(1L)).thenReturn(Optional.of(project));
+        when(projectService.hasProjectAccess(1L)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class,
+                () -> taskService.getTasksByProjectId(1L, selection, Pageable.unpaged()));
+        verify(taskRepository, never()).findSelected(any(), any(), any());
+    }
+
+    @Test
+    void getTasksNormalized_ShouldIncludeEachProjectAndUserOnce() {
+        // Arrange
+        Pageable pageable = Pageable.unpaged();
+        Task otherTask = Task.builder()
+                .id(2L)
+                .title("Other Task")
+                .project(project)
+                .assignedUser(regularUser)
+                .build();
+        when(userService.getCurrentUser()).thenReturn(adminUser);
+        when(taskRepository.findSelected(any(TaskCriteria.class), eq(FieldSelection.REFERENCES), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(task, otherTask)));
+        when(projectRepository.findSelectedByIds(Set.of(1L), FieldSelection.REFERENCES)).thenReturn(List.of(project));
+        when(userRepository.findAllById(Set.of(3L, 2L))).thenReturn(List.of(regularUser, managerUser));
+        when(projectMapper.toSummaryDto(project)).thenReturn(ProjectSummaryDto.builder().id(1L).ownerId(2L).build());
+
+        // Act
+        TaskListResponseDto result = taskService.getTasksNormalized(null, null, pageable);
+
+        // Assert
+        assertEquals(2, result.getContent().size());
+        assertEquals(1, result.getIncluded().getProjects().size());
+        assertEquals(2, result.getIncluded().getUsers().size());
+        verify(projectMapper, times(1)).toSummaryDto(project);
+        verify(userMapper, times(1)).toResponseDto(regularUser);
+        verify(userMapper, times(1)).toResponseDto(managerUser);
+        verify(taskMapper, never()).toResponseDto(any());
+    }
+
+    @Test
+    void getTasksByIds_WhenUserIsManager_ShouldSortIdsIntoFoundForbiddenAndMissing() {
+        // Arrange
+        Project otherProject = Project.builder()
+                .id(2L)
+                .owner(adminUser)
+                .build();
+        Task otherTask = Task.builder()
+                .id(2L)
+                .project(otherProject)
+                .build();
+        when(userService.getCurrentUser()).thenReturn(managerUser);
+        when(taskRepository.findSelected(any(TaskCriteria.class), eq(FieldSelection.ALL), eq(3)))
+                .thenReturn(List.of(otherTask, task));
+        when(taskMapper.toResponseDto(task)).thenReturn(taskResponseDto);
+
+        // Act
+        BatchResponseDto<TaskResponseDto> result = taskService.getTasksByIds(List.of(9L, 1L, 2L, 1L));
+
+        // Assert
+        assertEquals(List.of(taskResponseDto), result.getFound());
+        assertEquals(List.of(2L), result.getForbidden());
+        assertEquals(List.of(9L), result.getMissing());
+        verify(taskRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void getTasksByIds_WhenTooManyIds_ShouldThrowIllegalArgumentException() {
+        // Arrange
+        when(userService.getCurrentUser()).thenReturn(adminUser);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> taskService.getTasksByIds(List.of(1L, 2L, 3L, 4L)));
+        verify(taskRepository, never()).findSelected(any(), any(), anyInt());
+    }
+
+    @Test
+    void getTaskSummaryById_WhenUserIsNotAssigned_ShouldThrowAccessDeniedException() {
+        // Arrange
+        User otherUser = User.builder()
+                .id(4L)
+                .email("other@example.com")
+                .role(Role.USER)
+                .build();
+        when(taskRepository.findSelected(any(TaskCriteria.class), eq(FieldSelection.ALL), eq(1))).thenReturn(List.of(task));
+        when(userService.getCurrentUser()).thenReturn(otherUser);
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class, () -> taskService.getTaskSummaryById(1L));
+        verify(taskMapper, never()).toSummaryDto(any());
+    }
+
+    @Test
+    void getTaskSummariesByProjectIds_WhenUserIsManager_ShouldOnlyLoadOwnedProjects() {
+        // Arrange
+        TaskSummaryDto summary = TaskSummaryDto.builder()
+                .id(1L)
+                .projectId(1L)
+                .build();
+        when(userService.getCurrentUser()).thenReturn(managerUser);
+        when(projectRepository.findSelected(eq(managerUser.getId()), any(FieldSelection.class))).thenReturn(List.of(project));
+        when(taskRepository.findFirstIdsByProjectIdIn(List.of(1L), 5)).thenReturn(List.of(1L));
+        when(taskRepository.findSelected(any(TaskCriteria.class), eq(FieldSelection.REFERENCES), eq(1)))
+                .thenReturn(List.of(task));
+        when(taskMapper.toSummaryDto(task)).thenReturn(summary);
+
+        // Act
+        Map<Long, List<TaskSummaryDto>> result = taskService.getTaskSummariesByProjectIds(Set.of(1L, 2L), 5);
+
+        // Assert
+        assertEquals(Map.of(1L, List.of(summary)), result);
+        verify(taskRepository).findFirstIdsByProjectIdIn(List.of(1L), 5);
+    }
+
+    @Test
+    void getTaskSummariesByProjectIds_WhenUserHasNoAccess_ShouldNotQueryTasks() {
+        // Arrange
+        when(userService.getCurrentUser()).thenReturn(regularUser);
+        when(taskRepository.findProjectIdsWithTasksAssignedTo(3L, Set.of(2L))).thenReturn(Set.of());
+
+        // Act
+        Map<Long, List<TaskSummaryDto>> result = taskService.getTaskSummariesByProjectIds(Set.of(2L), 5);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(taskRepository, never()).findFirstIdsByProjectIdIn(any(), anyLong());
+    }
+
+    @Test
+    void scanTasks_WhenUserIsRegularUser_ShouldContinueAfterIdWithinAssignedTasks() {
+        // Arrange
+        when(userService.getCurrentUser()).thenReturn(regularUser);
+        when(taskRepository.findSelected(any(TaskCriteria.class), eq(FieldSelection.ALL), eq(50)))
+                .thenReturn(List.of(task));
+        when(taskMapper.toResponseDto(task)).thenReturn(taskResponseDto);
+
+        // Act
+        List<TaskResponseDto> result = taskService.scanTasks(TaskStatus.DONE, null, 10L, 50);
+
+        // Assert
+        assertEquals(List.of(taskResponseDto), result);
+        ArgumentCaptor<TaskCriteria> criteria = ArgumentCaptor.forClass(TaskCriteria.class);
+        verify(taskRepository).findSelected(criteria.capture(), eq(FieldSelection.ALL), eq(50));
+        assertEquals(TaskStatus.DONE, criteria.getValue().getStatus());
+        assertEquals(10L, criteria.getValue().getAfterId());
+        assertEquals(3L, criteria.getValue().getAssignedUserId());
+    }
+
+    @Test
+    void scanTasks_WhenManagerOwnsNoProjects_ShouldNotQueryTasks() {
+        // Arrange
+        when(userService.getCurrentUser()).thenReturn(managerUser);
+        when(projectRepository.findSelected(eq(managerUser.getId()), any(FieldSelection.class))).thenReturn(List.of());
+
+        // Act
+        List<TaskResponseDto> result = taskService.scanTasks(null, null, null, 50);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(taskRepository, never()).findSelected(any(), any(), anyInt());
     }
 }
@@ -1,32 +1,48 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.audit.TaskAuditTrail;
+import com.example.demo.cache.ChangeTracker;
+import com.example.demo.cache.SerializedResponseCache;
+import com.example.demo.dto.BatchResponseDto;
+import com.example.demo.dto.project.ProjectSummaryDto;
+import com.example.demo.dto.task.TaskSummaryDto;
 import com.example.demo.dto.user.UserRequestDto;
 import com.example.demo.dto.user.UserResponseDto;
+import com.example.demo.event.ChangeEvent.ChangeType;
+import com.example.demo.event.ChangeEventBus;
 import com.example.demo.exception.AccessDeniedException;
 import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.mapper.UserMapper;
+import com.example.demo.model.entity.Project;
 import com.example.demo.model.entity.Task;
 import com.example.demo.model.entity.User;
+import com.example.demo.model.enums.OutboxEventType;
 import com.example.demo.model.enums.Role;
+import com.example.demo.outbox.OutboxWriter;
+import com.example.demo.repository.ArchivedTaskRepository;
 import com.example.demo.repository.TaskRepository;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.security.CurrentUserScope;
+import com.example.demo.shard.ShardRouter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -42,12 +58,24 @@ class UserServiceImplTest {
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private ArchivedTaskRepository archivedTaskRepository;
+
     @Mock
     private UserMapper userMapper;
 
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private ChangeTracker changeTracker;
+
+    @Mock
+    private SerializedResponseCache responseCache;
+
+    @Spy
+    private BatchLookup batchLookup = new BatchLookup(3);
+
     @Mock
     private Authentication authentication;
 
@@ -57,6 +85,18 @@ class UserServiceImplTest {
     @Mock
     private UserDetails userDetails;
 
+    @Mock
+    private ShardRouter shardRouter;
+
+    @Mock
+    private ChangeEventBus changeEventBus;
+
+    @Mock
+    private TaskAuditTrail taskAuditTrail;
+
+    @Mock
+    private OutboxWriter outboxWriter;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -82,6 +122,7 @@ class UserServiceImplTest {
                 .password("encodedPassword")
                 .role(Role.USER)
                 .createDate(LocalDateTime.now())
+                .ownedProjects(List.of())
                 .build();
 
         userRequestDto = UserRequestDto.builder()
@@ -174,6 +215,10 @@ class UserServiceImplTest {
         when(passwordEncoder.encode("password")).thenReturn("encodedPassword");
         when(userRepository.save(newUser)).thenReturn(savedUser);
         when(userMapper.toResponseDto(savedUser)).thenReturn(savedUserDto);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(shardRouter).inTransactionOnOtherShards(any());
 
         // Act
         UserResponseDto result = userService.createUser(userRequestDto);
@@ -184,6 +229,46 @@ class UserServiceImplTest {
         assertEquals("newuser@example.com", result.getEmail());
         verify(userRepository).save(newUser);
         verify(passwordEncoder).encode("password");
+        verify(userRepository).replicate(savedUser);
+    }
+
+    @Test
+    void createUser_InATransaction_ShouldCopyTheUserToOtherShardsOnlyAfterCommit() {
+        // Arrange
+        User savedUser = User.builder().id(3L).email("newuser@example.com").role(Role.USER).build();
+        when(userRepository.existsByEmail("newuser@example.com")).thenReturn(false);
+        when(userMapper.toEntity(userRequestDto)).thenReturn(savedUser);
+        when(userRepository.save(savedUser)).thenReturn(savedUser);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            userService.createUser(userRequestDto);
+
+            // Assert
+            verify(shardRouter, never()).inTransactionOnOtherShards(any());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(shardRouter).inTransactionOnOtherShards(any());
+    }
+
+    @Test
+    void createUser_WhenCopyingToOtherShardsFails_ShouldStillReturnTheCommittedUser() {
+        // Arrange
+        User savedUser = User.builder().id(3L).email("newuser@example.com").role(Role.USER).build();
+        UserResponseDto savedUserDto = UserResponseDto.builder().id(3L).email("newuser@example.com").build();
+        when(userRepository.existsByEmail("newuser@example.com")).thenReturn(false);
+        when(userMapper.toEntity(userRequestDto)).thenReturn(savedUser);
+        when(userRepository.save(savedUser)).thenReturn(savedUser);
+        when(userMapper.toResponseDto(savedUser)).thenReturn(savedUserDto);
+        doThrow(new IllegalStateException("Shard unavailable")).when(shardRouter).inTransactionOnOtherShards(any());
+
+        // Act
+        UserResponseDto result = userService.createUser(userRequestDto);
+
+        // Assert
+        assertEquals(3L, result.getId());
     }
 
     @Test
@@ -209,17 +294,56 @@ class UserServiceImplTest {
         when(authentication.isAuthenticated()).thenReturn(true);
         when(userDetails.getUsername()).thenReturn("admin@example.com");
         when(userRepository.findByEmail("admin@example.com")).thenReturn(Optional.of(adminUser));
-
-        // Mock taskRepository
-        Page<Task> emptyPage = mock(Page.class);
-        when(emptyPage.isEmpty()).thenReturn(true);
-        when(taskRepository.findByAssignedUserId(eq(2L), any(Pageable.class))).thenReturn(emptyPage);
+        when(taskRepository.findIdsForUpdateByAssignedUserId(2L)).thenReturn(List.of(10L, 11L));
 
         // Act
         userService.deleteUser(2L);
 
         // Assert
+        verify(taskRepository).unassignAllFromUser(2L);
+        verify(taskAuditTrail).recordChange(10L, "assignedUserId", 2L, null, 1L);
+        verify(taskAuditTrail).recordChange(11L, "assignedUserId", 2L, null, 1L);
+        verify(archivedTaskRepository).unassignAllFromUser(2L);
+        verify(archivedTaskRepository).deleteByProjectOwnerId(2L);
         verify(userRepository).delete(regularUser);
+        verify(changeEventBus).publish(ChangeTracker.ResourceType.USER, ChangeType.DELETED, 2L);
+    }
+
+    @Test
+    void deleteUser_WhenUserOwnsProjects_ShouldRecordTheDeletionOfTheProjectsAndTheirTasks() {
+        // Arrange
+        Project project = Project.builder().id(20L).name("Project").build();
+        project.setTasks(List.of(
+                Task.builder().id(30L).title("Assigned").project(project).assignedUser(regularUser).build(),
+                Task.builder().id(31L).title("Open").project(project).build()));
+        User manager = User.builder()
+                .id(3L)
+                .email("manager@example.com")
+                .role(Role.MANAGER)
+                .ownedProjects(List.of(project))
+                .build();
+        when(userRepository.findById(3L)).thenReturn(Optional.of(manager));
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        SecurityContextHolder.setContext(securityContext);
+        when(authentication.getPrincipal()).thenReturn(userDetails);
+        when(authentication.isAuthenticated()).thenReturn(true);
+        when(userDetails.getUsername()).thenReturn("admin@example.com");
+        when(userRepository.findByEmail("admin@example.com")).thenReturn(Optional.of(adminUser));
+
+        // Act
+        userService.deleteUser(3L);
+
+        // Assert
+        verify(outboxWriter).record(OutboxEventType.TASK_DELETED, 30L,
+                TaskSummaryDto.builder().id(30L).projectId(20L).assignedUserId(2L).build());
+        verify(outboxWriter).record(OutboxEventType.TASK_DELETED, 31L,
+                TaskSummaryDto.builder().id(31L).projectId(20L).build());
+        verify(outboxWriter).record(OutboxEventType.PROJECT_DELETED, 20L,
+                ProjectSummaryDto.builder().id(20L).ownerId(3L).build());
+        verify(changeEventBus).publish(ChangeTracker.ResourceType.TASK, ChangeType.DELETED, 30L);
+        verify(changeEventBus).publish(ChangeTracker.ResourceType.TASK, ChangeType.DELETED, 31L);
+        verify(changeEventBus).publish(ChangeTracker.ResourceType.PROJECT, ChangeType.DELETED, 20L);
+        verify(userRepository).delete(manager);
     }
 
     @Test
@@ -277,6 +401,24 @@ class UserServiceImplTest {
         assertEquals("user@example.com", result.getEmail());
     }
 
+    @Test
+    void getCurrentUser_WhenUserIsPinned_ShouldNotQueryRepository() {
+        // Arrange
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        SecurityContextHolder.setContext(securityContext);
+
+        when(authentication.isAuthenticated()).thenReturn(true);
+        when(authentication.getPrincipal()).thenReturn(userDetails);
+        when(userDetails.getUsername()).thenReturn("user@example.com");
+
+        // Act
+        User result = CurrentUserScope.callAs(regularUser, userService::getCurrentUser);
+
+        // Assert
+        assertSame(regularUser, result);
+        verify(userRepository, never()).findByEmail(anyString());
+    }
+
     @Test
     void getCurrentUser_WhenNotAuthenticated_ShouldReturnNull() {
         // Arrange
@@ -327,4 +469,19 @@ class UserServiceImplTest {
         // Assert
         assertFalse(result);
     }
+
+    @Test
+    void getUsersByIds_ShouldReturnFoundUsersAndMissingIds() {
+        // Arrange
+        when(userRepository.findAllById(Set.of(2L, 5L))).thenReturn(List.of(regularUser));
+        when(userMapper.toResponseDto(regularUser)).thenReturn(userResponseDto);
+
+        // Act
+        BatchResponseDto<UserResponseDto> result = userService.getUsersByIds(List.of(2L, 5L));
+
+        // Assert
+        assertEquals(List.of(userResponseDto), result.getFound());
+        assertTrue(result.getForbidden().isEmpty());
+        assertEquals(List.of(5L), result.getMissing());
+    }
 }
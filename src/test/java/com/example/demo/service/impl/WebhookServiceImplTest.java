@@ -0,0 +1,358 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.dto.webhook.WebhookSubscriptionRequestDto;
+import com.example.demo.dto.webhook.WebhookSubscriptionResponseDto;
+import com.example.demo.exception.AccessDeniedException;
+import com.example.demo.mapper.WebhookMapper;
+import com.example.demo.model.entity.OutboxEvent;
+import com.example.demo.model.entity.Project;
+import com.example.demo.model.entity.User;
+import com.example.demo.model.entity.WebhookDeadLetter;
+import com.example.demo.model.entity.WebhookDelivery;
+import com.example.demo.model.entity.WebhookSubscription;
+import com.example.demo.model.enums.OutboxEventType;
+import com.example.demo.model.enums.Role;
+import com.example.demo.repository.ProjectRepository;
+import com.example.demo.repository.WebhookDeadLetterRepository;
+import com.example.demo.repository.WebhookDeliveryRepository;
+import com.example.demo.repository.WebhookSubscriptionRepository;
+import com.example.demo.service.UserService;
+import com.example.demo.shard.ShardRouter;
+import com.example.demo.webhook.WebhookClient;
+import com.example.demo.webhook.WebhookUrlPolicy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Sends deliveries through a real {@link WebhookClient} to a stub receiver on a local port, which the URL policy
+ * allows as {@code app.webhooks.allowed-hosts} would.
+ */
+@ExtendWith(MockitoExtension.class)
+class WebhookServiceImplTest {
+
+    @Mock
+    private WebhookSubscriptionRepository subscriptionRepository;
+
+    @Mock
+    private WebhookDeliveryRepository deliveryRepository;
+
+    @Mock
+    private WebhookDeadLetterRepository deadLetterRepository;
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private WebhookMapper webhookMapper;
+
+    @Mock
+    private ShardRouter shardRouter;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private HttpServer receiver;
+    private final BlockingQueue<ReceivedRequest> received = new LinkedBlockingQueue<>();
+    private final AtomicInteger responseStatus = new AtomicInteger(200);
+
+    private WebhookServiceImpl webhookService;
+    private User managerUser;
+    private Project project;
+    private WebhookSubscription subscription;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        receiver = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        receiver.createContext("/hooks", exchange -> {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            received.add(new ReceivedRequest(exchange.getRequestHeaders().getFirst(WebhookClient.EVENT_HEADER),
+                    exchange.getRequestHeaders().getFirst(WebhookClient.SIGNATURE_HEADER), body));
+            exchange.sendResponseHeaders(responseStatus.get(), -1);
+            exchange.close();
+        });
+        receiver.start();
+
+        WebhookUrlPolicy urlPolicy = new WebhookUrlPolicy(List.of("127.0.0.1"));
+        webhookService = new WebhookServiceImpl(subscriptionRepository, deliveryRepository, deadLetterRepository,
+                projectRepository, userService, webhookMapper, new WebhookClient(urlPolicy, Duration.ofSeconds(5), 2),
+                urlPolicy, objectMapper, shardRouter, transactionManager, Duration.ofSeconds(2), Duration.ofMinutes(5), 3,
+                Duration.ofSeconds(10), Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+        managerUser = User.builder()
+                .id(2L)
+                .email("manager@example.com")
+                .password("password")
+                .role(Role.MANAGER)
+                .build();
+        project = Project.builder()
+                .id(3L)
+                .name("Test Project")
+                .owner(managerUser)
+                .build();
+        subscription = WebhookSubscription.builder()
+                .id(1L)
+                .project(project)
+                .url("http://127.0.0.1:" + receiver.getAddress().getPort() + "/hooks")
+                .secret("secret")
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        receiver.stop(0);
+    }
+
+    @Test
+    void createSubscription_WhenProjectOwner_ShouldReturnGeneratedSecret() {
+        // Arrange
+        when(projectRepository.findWithOwnerById(3L)).thenReturn(Optional.of(project));
+        when(userService.getCurrentUser()).thenReturn(managerUser);
+        when(subscriptionRepository.saveAndFlush(any(WebhookSubscription.class))).thenAnswer(i -> i.getArgument(0));
+        when(webhookMapper.toResponseDto(any(WebhookSubscription.class)))
+                .thenReturn(WebhookSubscriptionResponseDto.builder().projectId(3L).url(subscription.getUrl()).build());
+
+        // Act
+        WebhookSubscriptionResponseDto result = webhookService.createSubscription(3L,
+                WebhookSubscriptionRequestDto.builder().url(subscription.getUrl()).build());
+
+        // Assert
+        assertEquals(64, result.getSecret().length());
+        assertEquals(subscription.getUrl(), result.getUrl());
+    }
+
+    @Test
+    void createSubscription_WhenNotProjectOwner_ShouldThrowAccessDeniedException() {
+        // Arrange
+        User otherManager = User.builder()
+                .id(4L)
+                .email("other@example.com")
+                .password("password")
+                .role(Role.MANAGER)
+                .build();
+        when(projectRepository.findWithOwnerById(3L)).thenReturn(Optional.of(project));
+        when(userService.getCurrentUser()).thenReturn(otherManager);
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class, () -> webhookService.createSubscription(3L,
+                WebhookSubscriptionRequestDto.builder().url(subscription.getUrl()).build()));
+        verify(subscriptionRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void createSubscription_WhenUrlIsInternal_ShouldThrowIllegalArgumentException() {
+        // Arrange
+        when(projectRepository.findWithOwnerById(3L)).thenReturn(Optional.of(project));
+        when(userService.getCurrentUser()).thenReturn(managerUser);
+
+        // Act & Assert
+        for (String url : List.of("http://localhost:8080/hooks", "http://169.254.169.254/latest/meta-data",
+                "http://10.0.0.5/hooks", "http://192.168.1.1/hooks", "http://0.0.0.0/hooks", "http://[::1]/hooks",
+                "http://[fd00::1]/hooks")) {
+            assertThrows(IllegalArgumentException.class, () -> webhookService.createSubscription(3L,
+                    WebhookSubscriptionRequestDto.builder().url(url).build()), url);
+        }
+        verify(subscriptionRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void enqueueDeliveries_ShouldQueueTheLatestChangePerTaskAndReplaceWaitingDeliveries() throws Exception {
+        // Arrange
+        WebhookDelivery waiting = delivery(10L, 5L, 0);
+        when(subscriptionRepository.findByProjectIdIn(Set.of(3L))).thenReturn(List.of(subscription));
+        when(deliveryRepository.findWaiting(List.of(1L), Set.of(5L, 6L))).thenReturn(List.of(waiting));
+        List<OutboxEvent> events = List.of(
+                event(1L, OutboxEventType.TASK_UPDATED, 5L, "{\"id\":5,\"projectId\":3,\"status\":\"IN_PROGRESS\"}"),
+                event(2L, OutboxEventType.PROJECT_UPDATED, 3L, "{\"id\":3,\"ownerId\":2}"),
+                event(3L, OutboxEventType.TASK_CREATED, 6L, "{\"id\":6,\"projectId\":3,\"status\":\"TODO\"}"),
+                event(4L, OutboxEventType.TASK_UPDATED, 5L, "{\"id\":5,\"projectId\":3,\"status\":\"DONE\"}"));
+
+        // Act
+        webhookService.enqueueDeliveries(events);
+
+        // Assert
+        assertEquals("DONE", objectMapper.readTree(waiting.getPayload()).path("task").path("status").asText());
+        ArgumentCaptor<List<WebhookDelivery>> created = ArgumentCaptor.forClass(List.class);
+        verify(deliveryRepository).saveAll(created.capture());
+        assertEquals(1, created.getValue().size());
+        WebhookDelivery delivery = created.getValue().get(0);
+        assertEquals(6L, delivery.getTaskId());
+        assertSame(subscription, delivery.getSubscription());
+        assertEquals(OutboxEventType.TASK_CREATED, delivery.getEventType());
+        assertTrue(delivery.getNextAttemptAt().isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void enqueueDeliveries_ShouldNotCoalesceDueDateEventsWithTaskChanges() throws Exception {
+        // Arrange
+        WebhookDelivery waitingDueSoon = delivery(10L, 5L, 0);
+        waitingDueSoon.setEventType(OutboxEventType.TASK_DUE_SOON);
+        String dueSoonPayload = waitingDueSoon.getPayload();
+        when(subscriptionRepository.findByProjectIdIn(Set.of(3L))).thenReturn(List.of(subscription));
+        when(deliveryRepository.findWaiting(List.of(1L), Set.of(5L, 6L))).thenReturn(List.of(waitingDueSoon));
+        List<OutboxEvent> events = List.of(
+                event(1L, OutboxEventType.TASK_OVERDUE, 6L, "{\"id\":6,\"projectId\":3,\"status\":\"TODO\"}"),
+                event(2L, OutboxEventType.TASK_UPDATED, 6L, "{\"id\":6,\"projectId\":3,\"status\":\"DONE\"}"),
+                event(3L, OutboxEventType.TASK_UPDATED, 5L, "{\"id\":5,\"projectId\":3,\"status\":\"DONE\"}"));
+
+        // Act
+        webhookService.enqueueDeliveries(events);
+
+        // Assert
+        assertEquals(OutboxEventType.TASK_DUE_SOON, waitingDueSoon.getEventType());
+        assertEquals(dueSoonPayload, waitingDueSoon.getPayload());
+        ArgumentCaptor<List<WebhookDelivery>> created = ArgumentCaptor.forClass(List.class);
+        verify(deliveryRepository).saveAll(created.capture());
+        assertEquals(List.of("6:TASK_OVERDUE", "6:TASK_UPDATED", "5:TASK_UPDATED"), created.getValue().stream()
+                .map(delivery -> delivery.getTaskId() + ":" + delivery.getEventType())
+                .toList());
+    }
+
+    @Test
+    void dispatchDueDeliveries_WhenReceiverAccepts_ShouldSendSignedPayloadAndDeleteDelivery() throws Exception {
+        // Arrange
+        WebhookDelivery delivery = delivery(10L, 5L, 0);
+        stubClaim(delivery);
+
+        // Act
+        webhookService.dispatchDueDeliveries(10).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        ReceivedRequest request = received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(request);
+        assertEquals("TASK_UPDATED", request.event());
+        assertEquals(delivery.getPayload(), request.body());
+        assertEquals("sha256=" + WebhookClient.sign("secret", request.body()), request.signature());
+        verify(deliveryRepository).delete(delivery);
+    }
+
+    @Test
+    void dispatchDueDeliveries_WhenReceiverFails_ShouldRetryWithBackoff() throws Exception {
+        // Arrange
+        responseStatus.set(500);
+        WebhookDelivery delivery = delivery(10L, 5L, 1);
+        stubClaim(delivery);
+
+        // Act
+        webhookService.dispatchDueDeliveries(10).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(2, delivery.getAttempts());
+        assertEquals("HTTP 500", delivery.getLastError());
+        assertNull(delivery.getClaimedAt());
+        assertTrue(delivery.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(15)));
+        verify(deliveryRepository, never()).delete(any());
+        verify(deadLetterRepository, never()).save(any());
+    }
+
+    @Test
+    void dispatchDueDeliveries_WhenLastAttemptFails_ShouldMoveDeliveryToDeadLetters() throws Exception {
+        // Arrange
+        responseStatus.set(503);
+        WebhookDelivery delivery = delivery(10L, 5L, 2);
+        stubClaim(delivery);
+
+        // Act
+        webhookService.dispatchDueDeliveries(10).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        ArgumentCaptor<WebhookDeadLetter> deadLetter = ArgumentCaptor.forClass(WebhookDeadLetter.class);
+        verify(deadLetterRepository).save(deadLetter.capture());
+        assertEquals(3, deadLetter.getValue().getAttempts());
+        assertEquals(subscription.getUrl(), deadLetter.getValue().getUrl());
+        assertEquals("HTTP 503", deadLetter.getValue().getLastError());
+        verify(deliveryRepository).delete(delivery);
+    }
+
+    @Test
+    void dispatchDueDeliveries_WhenUrlIsNoLongerAllowed_ShouldRetryWithoutSending() throws Exception {
+        // Arrange
+        subscription = WebhookSubscription.builder()
+                .id(1L)
+                .project(project)
+                .url("http://localhost:" + receiver.getAddress().getPort() + "/hooks")
+                .secret("secret")
+                .build();
+        WebhookDelivery delivery = delivery(10L, 5L, 0);
+        stubClaim(delivery);
+
+        // Act
+        webhookService.dispatchDueDeliveries(10).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertTrue(received.isEmpty());
+        assertEquals(1, delivery.getAttempts());
+        assertTrue(delivery.getLastError().startsWith("IllegalArgumentException"));
+        verify(deliveryRepository, never()).delete(any());
+    }
+
+    @Test
+    void backoff_ShouldDoubleUpToTheMaximum() {
+        assertEquals(Duration.ofSeconds(10), webhookService.backoff(1));
+        assertEquals(Duration.ofSeconds(40), webhookService.backoff(3));
+        assertEquals(Duration.ofMinutes(1), webhookService.backoff(10));
+    }
+
+    private void stubClaim(WebhookDelivery delivery) {
+        when(deliveryRepository.findDueForUpdate(any(LocalDateTime.class), any())).thenReturn(List.of(delivery));
+        when(subscriptionRepository.findAllById(Set.of(1L))).thenReturn(List.of(subscription));
+        when(deliveryRepository.findById(delivery.getId())).thenReturn(Optional.of(delivery));
+    }
+
+    private WebhookDelivery delivery(Long id, Long taskId, int attempts) {
+        return WebhookDelivery.builder()
+                .id(id)
+                .subscription(subscription)
+                .taskId(taskId)
+                .eventType(OutboxEventType.TASK_UPDATED)
+                .payload("{\"event\":\"TASK_UPDATED\",\"task\":{\"id\":" + taskId + "}}")
+                .attempts(attempts)
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static OutboxEvent event(Long id, OutboxEventType type, Long aggregateId, String payload) {
+        return OutboxEvent.builder()
+                .id(id)
+                .type(type)
+                .aggregateId(aggregateId)
+                .payload(payload)
+                .createDate(LocalDateTime.now())
+                .build();
+    }
+
+    private record ReceivedRequest(String event, String signature, String body) {
+    }
+}
@@ -0,0 +1,474 @@
+package com.example.demo.web;
+
+import com.example.demo.dto.batch.BatchOperationDto;
+import com.example.demo.dto.batch.BatchRequestDto;
+import com.example.demo.dto.batch.BatchResultDto;
+import com.example.demo.exception.AccessDeniedException;
+import com.example.demo.model.entity.User;
+import com.example.demo.repository.IdempotencyKeyRepository;
+import com.example.demo.service.IdempotencyService;
+import com.example.demo.service.UserService;
+import com.example.demo.service.impl.IdempotencyServiceImpl;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs batches against a stub dispatcher standing in for the controllers. It creates tasks through the idempotency
+ * service, reads them back by ID and records the method, path, headers and authentication of every sub-request.
+ * The caller is authenticated as the security filter chain would have done for the enclosing request.
+ */
+@ExtendWith(MockitoExtension.class)
+class BatchRequestExecutorTest {
+
+    @Mock
+    private DispatcherServlet dispatcherServlet;
+
+    @Mock
+    private ObjectProvider<DispatcherServlet> dispatcherServletProvider;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final RecordingTransactionManager transactionManager = new RecordingTransactionManager();
+    private final List<String> dispatched = new ArrayList<>();
+    private final List<List<String>> headerNames = new ArrayList<>();
+    private final List<Map<String, String>> seen = new ArrayList<>();
+    private final List<Authentication> authentications = new ArrayList<>();
+    private final AtomicLong nextId = new AtomicLong(100);
+
+    private IdempotencyService idempotencyService;
+    private BatchRequestExecutor batchRequestExecutor;
+    private MockHttpServletRequest request;
+    private Authentication caller;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        idempotencyService = new IdempotencyServiceImpl(idempotencyKeyRepository, objectMapper, Duration.ofHours(24),
+                Duration.ofMinutes(1), Duration.ZERO, 100, new SimpleMeterRegistry());
+        lenient().when(dispatcherServletProvider.getObject()).thenReturn(dispatcherServlet);
+        lenient().when(userService.getCurrentUser()).thenReturn(User.builder().id(1L).email("user@example.com").build());
+        lenient().doAnswer(invocation -> {
+            handle(invocation.getArgument(0), invocation.getArgument(1));
+            return null;
+        }).when(dispatcherServlet).service(any(ServletRequest.class), any(ServletResponse.class));
+        batchRequestExecutor = new BatchRequestExecutor(dispatcherServletProvider, transactionManager, userService,
+                objectMapper, 5);
+        request = new MockHttpServletRequest("POST", "/api/v1/batch");
+        request.addHeader("Authorization", "Bearer token");
+        caller = new UsernamePasswordAuthenticationToken("user@example.com", null,
+                AuthorityUtils.createAuthorityList("ROLE_USER"));
+        SecurityContextHolder.getContext().setAuthentication(caller);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void execute_ShouldRunEveryOperationWithTheCallersAuthentication() {
+        // Arrange
+        BatchRequestDto batch = batch(false,
+                operation("POST", "/api/v1/tasks", "{\"title\":\"First\"}"),
+                operation("GET", "/api/v1/tasks/${0.id}", null));
+
+        // Act
+        execute(batch);
+
+        // Assert
+        assertEquals(List.of(caller, caller), authentications);
+        assertSame(caller, SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void execute_WithoutAuthenticatedCaller_ShouldRejectTheBatch() {
+        // Arrange
+        BatchRequestDto batch = batch(false, operation("GET", "/api/v1/tasks/1", null));
+
+        // Act & Assert
+        SecurityContextHolder.clearContext();
+        assertThrows(AccessDeniedException.class, () -> execute(batch));
+        SecurityContextHolder.getContext().setAuthentication(new AnonymousAuthenticationToken("key", "anonymousUser",
+                AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+        assertThrows(AccessDeniedException.class, () -> execute(batch));
+        assertTrue(dispatched.isEmpty());
+    }
+
+    @Test
+    void subRequest_WithReadListener_ShouldReportTheWholeBodyAsAvailable() throws Exception {
+        // Arrange
+        SubRequest subRequest = new SubRequest(request, "POST", "/api/v1/tasks", "{\"title\":\"First\"}"
+                .getBytes(StandardCharsets.UTF_8));
+        ServletInputStream input = subRequest.getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        List<String> calls = new ArrayList<>();
+
+        // Act
+        input.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                calls.add("onDataAvailable");
+                int b;
+                while (input.isReady() && (b = input.read()) != -1) {
+                    read.write(b);
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                calls.add("onAllDataRead");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                calls.add("onError");
+            }
+        });
+
+        // Assert
+        assertEquals(List.of("onDataAvailable", "onAllDataRead"), calls);
+        assertEquals("{\"title\":\"First\"}", read.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void subResponse_WithWriteListener_ShouldAllowWritingRightAway() throws Exception {
+        // Arrange
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        SubResponse subResponse = new SubResponse(response);
+        ServletOutputStream output = subResponse.getOutputStream();
+        List<String> calls = new ArrayList<>();
+
+        // Act
+        output.setWriteListener(new WriteListener() {
+            @Override
+            public void onWritePossible() throws IOException {
+                calls.add("onWritePossible");
+                output.write("{}".getBytes(StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                calls.add("onError");
+            }
+        });
+
+        // Assert
+        assertEquals(List.of("onWritePossible"), calls);
+        assertEquals("{}", new String(subResponse.getContentAsByteArray(), StandardCharsets.UTF_8));
+        assertEquals(0, response.getContentLength());
+    }
+
+    @Test
+    void execute_WithIdempotencyKeyOnTheBatch_ShouldNotPassItToTheOperations() {
+        // Arrange
+        request.addHeader(IdempotencyService.KEY_HEADER, "batch-key");
+        lenient().when(idempotencyKeyRepository.findById(anyString())).thenReturn(Optional.empty());
+        lenient().when(idempotencyKeyRepository.complete(anyString(), anyString())).thenReturn(1);
+        BatchRequestDto batch = batch(true,
+                operation("POST", "/api/v1/tasks", "{\"title\":\"First\"}"),
+                operation("POST", "/api/v1/tasks", "{\"title\":\"Second\"}"));
+
+        // Act
+        BatchResultDto result = execute(batch);
+
+        // Assert
+        assertTrue(result.isCommitted());
+        assertEquals(List.of(201, 201), statuses(result));
+        assertNotEquals(result.getResults().get(0).getBody().get("id"), result.getResults().get(1).getBody().get("id"));
+        for (List<String> names : headerNames) {
+            assertFalse(names.stream().anyMatch(IdempotencyService.KEY_HEADER::equalsIgnoreCase));
+            assertTrue(names.contains("Authorization"));
+        }
+        verify(idempotencyKeyRepository, never()).insertPending(any(), any(), any());
+    }
+
+    @Test
+    void execute_WithReferenceToAnEarlierResult_ShouldSubstituteItsValue() {
+        // Arrange
+        BatchRequestDto batch = batch(false,
+                operation("POST", "/api/v1/tasks", "{\"title\":\"First\"}"),
+                operation("GET", "/api/v1/tasks/${0.id}", null));
+
+        // Act
+        BatchResultDto result = execute(batch);
+
+        // Assert
+        assertEquals(List.of(201, 200), statuses(result));
+        assertEquals(List.of("POST /api/v1/tasks", "GET /api/v1/tasks/100"), dispatched);
+        assertEquals(100, result.getResults().get(1).getBody().get("id").asLong());
+    }
+
+    @Test
+    void execute_WithUnresolvableReference_ShouldFailThatOperationOnly() {
+        // Arrange
+        BatchRequestDto batch = batch(false,
+                operation("POST", "/api/v1/tasks", "{\"title\":\"First\"}"),
+                operation("GET", "/api/v1/tasks/${0.missing}", null),
+                operation("GET", "/api/v1/tasks/${3.id}", null),
+                operation("GET", "/api/v1/tasks/${0.id}", null));
+
+        // Act
+        BatchResultDto result = execute(batch);
+
+        // Assert
+        assertEquals(List.of(201, 400, 400, 200), statuses(result));
+        assertEquals(List.of("POST /api/v1/tasks", "GET /api/v1/tasks/100"), dispatched);
+        assertTrue(result.isCommitted());
+    }
+
+    @Test
+    void execute_WithReferenceResolvingOutsideTheApi_ShouldRejectTheOperation() {
+        // Arrange
+        BatchRequestDto batch = batch(false,
+                operation("POST", "/api/v1/tasks", "{\"title\":\"..\"}"),
+                operation("GET", "/api/v1/tasks/${0.title}", null));
+
+        // Act
+        BatchResultDto result = execute(batch);
+
+        // Assert
+        assertEquals(List.of(201, 400), statuses(result));
+        assertEquals(1, dispatched.size());
+    }
+
+    @Test
+    void execute_WhenTransactionalOperationFails_ShouldRollBackAndSkipTheRestWith424() {
+        // Arrange
+        BatchRequestDto batch = batch(true,
+                operation("POST", "/api/v1/tasks", "{\"title\":\"First\"}"),
+                operation("POST", "/api/v1/tasks", "{\"title\":\"Invalid\"}"),
+                operation("GET", "/api/v1/tasks/${0.id}", null));
+
+        // Act
+        BatchResultDto result = execute(batch);
+
+        // Assert
+        assertEquals(List.of(201, 400, 424), statuses(result));
+        assertFalse(result.isCommitted());
+        assertEquals(2, dispatched.size());
+        assertEquals(0, transactionManager.commits);
+        assertEquals(1, transactionManager.rollbacks);
+    }
+
+    @Test
+    void execute_WhenOperationFailsWithoutTransaction_ShouldRunTheRest() {
+        // Arrange
+        BatchRequestDto batch = batch(false,
+                operation("POST", "/api/v1/tasks", "{\"title\":\"Invalid\"}"),
+                operation("POST", "/api/v1/tasks", "{\"title\":\"Second\"}"));
+
+        // Act
+        BatchResultDto result = execute(batch);
+
+        // Assert
+        assertEquals(List.of(400, 201), statuses(result));
+        assertTrue(result.isCommitted());
+        assertEquals(0, transactionManager.commits + transactionManager.rollbacks);
+    }
+
+    @Test
+    void execute_WithDisallowedMethodOrPath_ShouldRejectTheWholeBatch() {
+        // Arrange
+        List<BatchOperationDto> rejected = List.of(
+                operation("PATCH", "/api/v1/tasks/1", "{}"),
+                operation("GET", "/api/v1/batch", null),
+                operation("GET", "/actuator/health", null),
+                operation("GET", "/api/v1/tasksx", null),
+                operation("GET", "/api/v1/tasks/../users", null),
+                operation("GET", "/api/v1/tasks//1", null),
+                operation("GET", "/api/v1/tasks/1;jsessionid=x", null));
+
+        // Act & Assert
+        for (BatchOperationDto operation : rejected) {
+            BatchRequestDto batch = batch(false, operation("GET", "/api/v1/tasks/1", null), operation);
+            assertThrows(IllegalArgumentException.class, () -> execute(batch), operation.getPath());
+        }
+        assertTrue(dispatched.isEmpty());
+    }
+
+    @Test
+    void execute_WithMoreThanTheMaximumOperations_ShouldRejectTheBatch() {
+        // Arrange
+        BatchOperationDto get = operation("GET", "/api/v1/tasks/1", null);
+        BatchRequestDto batch = batch(false, get, get, get, get, get, get);
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> execute(batch));
+        assertTrue(exception.getMessage().contains("5"));
+        assertTrue(dispatched.isEmpty());
+    }
+
+    @Test
+    void execute_ShouldIsolateHeadersAttributesAndResponseOfEachOperation() {
+        // Arrange
+        request.addHeader("Accept", "application/xml");
+        request.addHeader("If-None-Match", "\"abc\"");
+        request.setContentType("text/plain");
+        request.setAttribute("outer", "value");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        BatchRequestDto batch = batch(false,
+                operation("GET", "/api/v1/tasks?title=a%20b", null),
+                operation("POST", "/api/v1/tasks", "{\"title\":\"First\"}"));
+
+        // Act
+        BatchResultDto result = batchRequestExecutor.execute(batch, request, response);
+
+        // Assert
+        assertEquals("a b", result.getResults().get(0).getBody().get("title").asText());
+        assertEquals("application/json", seen.get(0).get("Accept"));
+        assertNull(seen.get(0).get("If-None-Match"));
+        assertNull(seen.get(0).get("Content-Type"));
+        assertEquals("Bearer token", seen.get(0).get("Authorization"));
+        assertNull(seen.get(0).get("attribute"));
+        assertEquals("application/json", seen.get(1).get("Content-Type"));
+        assertEquals(200, response.getStatus());
+        assertEquals(0, response.getContentLength());
+        assertFalse(response.isCommitted());
+    }
+
+    private BatchResultDto execute(BatchRequestDto batch) {
+        return batchRequestExecutor.execute(batch, request, new MockHttpServletResponse());
+    }
+
+    /**
+     * Stands in for the controllers: POST /api/v1/tasks creates a task, or fails with 400 for the title "Invalid",
+     * GET /api/v1/tasks echoes the title parameter and GET /api/v1/tasks/{id} returns the task.
+     */
+    private void handle(HttpServletRequest subRequest, HttpServletResponse subResponse) throws Exception {
+        String path = subRequest.getRequestURI();
+        dispatched.add(subRequest.getMethod() + " " + path);
+        headerNames.add(Collections.list(subRequest.getHeaderNames()));
+        Map<String, String> values = new HashMap<>();
+        for (String name : List.of("Accept", "If-None-Match", "Content-Type", "Authorization")) {
+            values.put(name, subRequest.getHeader(name));
+        }
+        values.put("attribute", (String) subRequest.getAttribute("outer"));
+        seen.add(values);
+        authentications.add(SecurityContextHolder.getContext().getAuthentication());
+
+        subResponse.setContentType("application/json");
+        if (subRequest.getMethod().equals("POST") && path.equals("/api/v1/tasks")) {
+            JsonNode body = objectMapper.readTree(subRequest.getInputStream());
+            if (body.path("title").asText().equals("Invalid")) {
+                subResponse.setStatus(400);
+                subResponse.getOutputStream().write("{\"message\":\"Validation failed\"}".getBytes());
+                return;
+            }
+            JsonNode created = idempotencyService.execute(subRequest.getHeader(IdempotencyService.KEY_HEADER),
+                    "createTask", body, JsonNode.class, () -> objectMapper.createObjectNode()
+                            .put("id", nextId.getAndIncrement())
+                            .put("title", body.path("title").asText()));
+            subResponse.setStatus(201);
+            subResponse.getOutputStream().write(objectMapper.writeValueAsBytes(created));
+        } else if (subRequest.getMethod().equals("GET") && path.equals("/api/v1/tasks")) {
+            ObjectNode page = objectMapper.createObjectNode().put("title", subRequest.getParameter("title"));
+            subResponse.setStatus(200);
+            subResponse.getWriter().write(objectMapper.writeValueAsString(page));
+        } else if (subRequest.getMethod().equals("GET") && path.startsWith("/api/v1/tasks/")) {
+            ObjectNode task = objectMapper.createObjectNode().put("id", Long.parseLong(path.substring(14)));
+            subResponse.setStatus(200);
+            subResponse.getOutputStream().write(objectMapper.writeValueAsBytes(task));
+        } else {
+            subResponse.setStatus(404);
+        }
+    }
+
+    private BatchRequestDto batch(boolean transactional, BatchOperationDto... operations) {
+        return BatchRequestDto.builder()
+                .operations(List.of(operations))
+                .transactional(transactional)
+                .build();
+    }
+
+    private BatchOperationDto operation(String method, String path, String body) {
+        try {
+            return BatchOperationDto.builder()
+                    .method(method)
+                    .path(path)
+                    .body(body != null ? objectMapper.readTree(body) : null)
+                    .build();
+        } catch (Exception e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private static List<Integer> statuses(BatchResultDto result) {
+        return result.getResults().stream().map(operation -> operation.getStatus()).toList();
+    }
+
+    /**
+     * Transaction manager without a resource, recording whether transactions commit or roll back.
+     */
+    private static final class RecordingTransactionManager extends AbstractPlatformTransactionManager {
+
+        private int commits;
+        private int rollbacks;
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            commits++;
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            rollbacks++;
+        }
+    }
+}
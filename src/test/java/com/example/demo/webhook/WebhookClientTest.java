@@ -0,0 +1,99 @@
+package com.example.demo.webhook;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Sends callbacks to a stub receiver on a local port, which the mocked URL policy hands out as the checked address
+ * of a host name that does not resolve.
+ */
+class WebhookClientTest {
+
+    private HttpServer receiver;
+    private final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        receiver = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        receiver.createContext("/hooks", exchange -> {
+            received.add(exchange.getRequestHeaders().getFirst("Host") + " " + exchange.getRequestURI());
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        receiver.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        receiver.stop(0);
+    }
+
+    @Test
+    void send_ShouldConnectToTheCheckedAddressAndNameTheHostInTheHostHeader() throws Exception {
+        // Arrange
+        int port = receiver.getAddress().getPort();
+        String url = "http://webhook.invalid:" + port + "/hooks?project=3";
+        WebhookUrlPolicy urlPolicy = mock(WebhookUrlPolicy.class);
+        when(urlPolicy.resolve(url))
+                .thenReturn(new WebhookUrlPolicy.Target(URI.create(url), InetAddress.getByName("127.0.0.1")));
+        WebhookClient webhookClient = new WebhookClient(urlPolicy, Duration.ofSeconds(5), 2);
+
+        // Act
+        int status = webhookClient.send(url, "secret", "TASK_CREATED", 1L, "{}").get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(204, status);
+        assertEquals("webhook.invalid:" + port + " /hooks?project=3", received.poll(5, TimeUnit.SECONDS));
+        verify(urlPolicy).resolve(url);
+    }
+
+    @Test
+    void send_AfterTheRequestsOfAnEndpointComplete_ShouldForgetTheEndpoint() throws Exception {
+        // Arrange
+        WebhookUrlPolicy urlPolicy = new WebhookUrlPolicy(List.of("127.0.0.1"));
+        WebhookClient webhookClient = new WebhookClient(urlPolicy, Duration.ofSeconds(5), 1);
+        String url = "http://127.0.0.1:" + receiver.getAddress().getPort() + "/hooks";
+
+        // Act
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (long deliveryId = 1; deliveryId <= 3; deliveryId++) {
+            results.add(webhookClient.send(url, "secret", "TASK_CREATED", deliveryId, "{}"));
+        }
+        for (CompletableFuture<Integer> result : results) {
+            assertEquals(204, result.get(5, TimeUnit.SECONDS));
+        }
+
+        // Assert
+        assertEquals(0, webhookClient.endpointCount());
+    }
+
+    @Test
+    void pin_ShouldReplaceTheHostWithTheAddressAndKeepTheRest() throws Exception {
+        // Act
+        URI ipv4 = WebhookClient.pin(URI.create("https://webhook.example/hooks/a%20b?x=%2F"),
+                InetAddress.getByName("93.184.216.34"));
+        URI ipv6 = WebhookClient.pin(URI.create("https://webhook.example:8443/hooks"),
+                InetAddress.getByName("2001:db8::1"));
+
+        // Assert
+        assertEquals("https://93.184.216.34/hooks/a%20b?x=%2F", ipv4.toString());
+        assertEquals("https://[2001:db8:0:0:0:0:0:1]:8443/hooks", ipv6.toString());
+    }
+}